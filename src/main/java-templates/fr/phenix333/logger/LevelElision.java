@@ -0,0 +1,25 @@
+package fr.phenix333.logger;
+
+/**
+ * Levels compiled in {@link MyLogger}, generated at build time from the
+ * {@code logger.elide.<level>} properties of the pom:
+ *
+ * <pre>
+ * mvn -Dlogger.elide.debug=true -Dlogger.elide.function=true package
+ * </pre>
+ *
+ * The fields are compile-time constants: the methods of an elided level are
+ * empty and the JIT removes their calls. Their arguments are still evaluated by
+ * the caller, and the backtrace does not see these events.
+ */
+final class LevelElision {
+    static final boolean FATAL = !${logger.elide.fatal};
+    static final boolean ERROR = !${logger.elide.error};
+    static final boolean WARN = !${logger.elide.warn};
+    static final boolean INFO = !${logger.elide.info};
+    static final boolean DEBUG = !${logger.elide.debug};
+    static final boolean FUNCTION = !${logger.elide.function};
+
+    private LevelElision() {
+    }
+}
@@ -0,0 +1,214 @@
+package fr.phenix333.logger;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.message.Message;
+import org.apache.logging.log4j.message.MessageFactory;
+import org.apache.logging.log4j.message.ParameterizedMessageFactory;
+import org.apache.logging.log4j.message.ReusableMessage;
+import org.apache.logging.log4j.message.ReusableMessageFactory;
+import org.apache.logging.log4j.message.TimestampMessage;
+import org.apache.logging.log4j.util.LambdaUtil;
+import org.apache.logging.log4j.util.MessageSupplier;
+import org.apache.logging.log4j.util.PropertiesUtil;
+import org.apache.logging.log4j.util.Supplier;
+
+/**
+ * Per-thread bounded ring of the {@code DEBUG} and {@code FUNCTION} events
+ * suppressed by the level of their logger.
+ * <p>
+ * Events are stored as they were given to {@link MyLogger} (message, parameters,
+ * marker, throwable and timestamp), without any formatting. When the same
+ * thread logs an {@code ERROR} or a {@code FATAL} event, the ring is formatted
+ * and written to the appenders with the original timestamps, just before the
+ * error itself. Their messages are never the reusable messages of the thread,
+ * which the error may be holding.
+ * <p>
+ * Disabled by default, the size of the ring is set with the
+ * {@code fr.phenix333.logger.backtrace.size} property.
+ */
+final class Backtrace {
+    private static final String SIZE_PROPERTY = "fr.phenix333.logger.backtrace.size";
+    private static final int SIZE = PropertiesUtil.getProperties().getIntegerProperty(SIZE_PROPERTY, 0);
+
+    private static final ThreadLocal<Ring> RING = ThreadLocal.withInitial(() -> new Ring(SIZE));
+
+    private Backtrace() {
+    }
+
+    /**
+     * @param level the level of a disabled event.
+     * @return {@code true} if an event suppressed at this level must be kept.
+     */
+    static boolean captures(final Level level) {
+        return SIZE > 0 && level.intLevel() >= Level.DEBUG.intLevel();
+    }
+
+    /**
+     * @param level the level of an enabled event.
+     * @return {@code true} if this event must flush the backtrace first.
+     */
+    static boolean flushes(final Level level) {
+        return SIZE > 0 && level.intLevel() <= Level.ERROR.intLevel();
+    }
+
+    static void record(final MyExtendedLogger logger, final Level level, final Marker marker, final Object message,
+            final Object[] params, final Throwable t) {
+        // a reusable message is overwritten by the next call of the thread
+        RING.get().add(logger, level, marker,
+                message instanceof ReusableMessage ? ((ReusableMessage) message).memento() : message, params, t);
+    }
+
+    static void flush(final String fqcn) {
+        final Ring ring = RING.get();
+        if (ring.count > 0) {
+            ring.flush(fqcn);
+        }
+    }
+
+    /**
+     * @return The factory of the logger, or one which does not reuse its
+     *         messages in place of the reusable one: the replayed messages
+     *         would overwrite the message of the event being logged.
+     */
+    private static MessageFactory replayFactory(final MessageFactory factory) {
+        return factory instanceof ReusableMessageFactory ? ParameterizedMessageFactory.INSTANCE : factory;
+    }
+
+    /**
+     * Builds the message of a captured event, the same way {@code AbstractLogger}
+     * would have if the event had been enabled.
+     */
+    private static Message toMessage(final MessageFactory factory, final Object message, final Object[] params) {
+        if (message instanceof Message) {
+            return (Message) message;
+        }
+        if (message instanceof MessageSupplier) {
+            return LambdaUtil.get((MessageSupplier) message);
+        }
+        if (message instanceof Supplier) {
+            return LambdaUtil.getMessage((Supplier<?>) message, factory);
+        }
+        if (message instanceof String) {
+            if (params instanceof Supplier[]) {
+                return factory.newMessage((String) message, LambdaUtil.getAll((Supplier<?>[]) params));
+            }
+            return params == null ? factory.newMessage((String) message)
+                    : factory.newMessage((String) message, params);
+        }
+        return factory.newMessage(message);
+    }
+
+    private static final class Entry {
+        private MyExtendedLogger logger;
+        private Level level;
+        private Marker marker;
+        private Object message;
+        private Object[] params;
+        private Throwable throwable;
+        private long timeMillis;
+
+        private void clear() {
+            logger = null;
+            marker = null;
+            message = null;
+            params = null;
+            throwable = null;
+        }
+    }
+
+    private static final class Ring {
+        private final Entry[] entries;
+        private int next;
+        private int count;
+        private boolean flushing;
+
+        private Ring(final int size) {
+            entries = new Entry[size];
+            for (int i = 0; i < size; i++) {
+                entries[i] = new Entry();
+            }
+        }
+
+        private void add(final MyExtendedLogger logger, final Level level, final Marker marker, final Object message,
+                final Object[] params, final Throwable t) {
+            if (flushing) {
+                return;
+            }
+            final Entry entry = entries[next];
+            entry.logger = logger;
+            entry.level = level;
+            entry.marker = marker;
+            entry.message = message;
+            entry.params = params;
+            entry.throwable = t;
+            entry.timeMillis = System.currentTimeMillis();
+            next = (next + 1) % entries.length;
+            if (count < entries.length) {
+                count++;
+            }
+        }
+
+        private void flush(final String fqcn) {
+            flushing = true;
+            try {
+                int index = (next - count + entries.length) % entries.length;
+                for (; count > 0; count--) {
+                    final Entry entry = entries[index];
+                    try {
+                        final Message message = toMessage(replayFactory(entry.logger.getMessageFactory()),
+                                entry.message, entry.params);
+                        entry.logger.replay(fqcn, entry.level, entry.marker,
+                                new BacktraceMessage(message, entry.timeMillis), entry.throwable);
+                    } finally {
+                        entry.clear();
+                    }
+                    index = (index + 1) % entries.length;
+                }
+            } finally {
+                count = 0;
+                flushing = false;
+            }
+        }
+    }
+
+    /**
+     * Captured message keeping the time of the original call.
+     */
+    private static final class BacktraceMessage implements Message, TimestampMessage {
+        private static final long serialVersionUID = 31589746201354L;
+
+        private final Message message;
+        private final long timeMillis;
+
+        private BacktraceMessage(final Message message, final long timeMillis) {
+            this.message = message;
+            this.timeMillis = timeMillis;
+        }
+
+        @Override
+        public String getFormattedMessage() {
+            return message.getFormattedMessage();
+        }
+
+        @Override
+        public String getFormat() {
+            return message.getFormat();
+        }
+
+        @Override
+        public Object[] getParameters() {
+            return message.getParameters();
+        }
+
+        @Override
+        public Throwable getThrowable() {
+            return message.getThrowable();
+        }
+
+        @Override
+        public long getTimestamp() {
+            return timeMillis;
+        }
+    }
+}
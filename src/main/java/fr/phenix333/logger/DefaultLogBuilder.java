@@ -0,0 +1,148 @@
+package fr.phenix333.logger;
+
+import java.util.Arrays;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.message.Message;
+import org.apache.logging.log4j.message.ReusableMessage;
+import org.apache.logging.log4j.message.ReusableMessageFactory;
+import org.apache.logging.log4j.util.LambdaUtil;
+import org.apache.logging.log4j.util.Supplier;
+
+/**
+ * Builder returned for an enabled level, one instance per thread is reused.
+ * A builder still in use when the thread asks for one, by an enclosing
+ * statement or by an abandoned one, is replaced.
+ */
+final class DefaultLogBuilder implements MyLogBuilder {
+    private static final String FQCN = DefaultLogBuilder.class.getName();
+    private static final ThreadLocal<DefaultLogBuilder> BUILDERS = ThreadLocal.withInitial(DefaultLogBuilder::new);
+
+    private MyExtendedLogger logger;
+    private Level level;
+    private Marker marker;
+    private Throwable throwable;
+    private String[] keys = new String[4];
+    private Object[] values = new Object[4];
+    private int fields;
+    private boolean inUse;
+
+    private DefaultLogBuilder() {
+    }
+
+    static MyLogBuilder get(final MyExtendedLogger logger, final Level level) {
+        DefaultLogBuilder builder = BUILDERS.get();
+        if (builder.inUse) {
+            // filled by an enclosing statement, or left by a statement which threw or was never logged: the new
+            // builder replaces it, so the thread keeps reusing one builder and the old one is dropped with its fields
+            builder = new DefaultLogBuilder();
+            BUILDERS.set(builder);
+        }
+        builder.inUse = true;
+        builder.logger = logger;
+        builder.level = level;
+        return builder;
+    }
+
+    @Override
+    public MyLogBuilder with(final String key, final Object value) {
+        if (fields == keys.length) {
+            keys = Arrays.copyOf(keys, fields * 2);
+            values = Arrays.copyOf(values, fields * 2);
+        }
+        keys[fields] = key;
+        values[fields] = value;
+        fields++;
+        return this;
+    }
+
+    @Override
+    public MyLogBuilder with(final String key, final Supplier<?> valueSupplier) {
+        return with(key, (Object) valueSupplier);
+    }
+
+    @Override
+    public MyLogBuilder withMarker(final Marker marker) {
+        this.marker = marker;
+        return this;
+    }
+
+    @Override
+    public MyLogBuilder withThrowable(final Throwable t) {
+        this.throwable = t;
+        return this;
+    }
+
+    @Override
+    public void log() {
+        log(logger.getMessageFactory().newMessage(""));
+    }
+
+    @Override
+    public void log(final String message) {
+        log(logger.getMessageFactory().newMessage(message));
+    }
+
+    @Override
+    public void log(final String message, final Object p0) {
+        log(logger.getMessageFactory().newMessage(message, p0));
+    }
+
+    @Override
+    public void log(final String message, final Object p0, final Object p1) {
+        log(logger.getMessageFactory().newMessage(message, p0, p1));
+    }
+
+    @Override
+    public void log(final String message, final Object... params) {
+        log(logger.getMessageFactory().newMessage(message, params));
+    }
+
+    @Override
+    public void log(final Supplier<?> msgSupplier) {
+        log(LambdaUtil.getMessage(msgSupplier, logger.getMessageFactory()));
+    }
+
+    /**
+     * Logs the message, then releases it if it is the reusable message of the
+     * thread, as {@code AbstractLogger} does for its own calls. With fields,
+     * the message is wrapped in a {@link FieldsMessage}, which an async
+     * appender does not copy: the reusable message is replaced by its
+     * immutable copy first.
+     */
+    @Override
+    public void log(final Message msg) {
+        try {
+            final Message message;
+            if (fields == 0) {
+                message = msg;
+            } else {
+                // the arrays are reused, the message may outlive this call in an async appender
+                final Object[] fieldValues = Arrays.copyOf(values, fields);
+                for (int i = 0; i < fieldValues.length; i++) {
+                    if (fieldValues[i] instanceof Supplier) {
+                        fieldValues[i] = LambdaUtil.get((Supplier<?>) fieldValues[i]);
+                    }
+                }
+                message = new FieldsMessage(msg instanceof ReusableMessage ? ((ReusableMessage) msg).memento() : msg,
+                        Arrays.copyOf(keys, fields), fieldValues);
+            }
+            logger.logIfEnabled(FQCN, level, marker, message, throwable != null ? throwable : msg.getThrowable());
+        } finally {
+            ReusableMessageFactory.release(msg);
+            clear();
+        }
+    }
+
+    private void clear() {
+        Arrays.fill(keys, 0, fields, null);
+        Arrays.fill(values, 0, fields, null);
+        fields = 0;
+        logger = null;
+        level = null;
+        marker = null;
+        throwable = null;
+        inUse = false;
+    }
+}
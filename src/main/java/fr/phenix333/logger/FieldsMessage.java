@@ -0,0 +1,74 @@
+package fr.phenix333.logger;
+
+import org.apache.logging.log4j.message.Message;
+import org.apache.logging.log4j.util.StringBuilderFormattable;
+import org.apache.logging.log4j.util.StringBuilders;
+
+/**
+ * Message built by a {@link MyLogBuilder} with fields, rendered as the message
+ * followed by {@code key=value} pairs separated by spaces.
+ */
+final class FieldsMessage implements Message, StringBuilderFormattable {
+    private static final long serialVersionUID = 76423198540126L;
+
+    private final Message message;
+    private final String[] keys;
+    private final Object[] values;
+
+    FieldsMessage(final Message message, final String[] keys, final Object[] values) {
+        this.message = message;
+        this.keys = keys;
+        this.values = values;
+    }
+
+    int size() {
+        return keys.length;
+    }
+
+    String getKey(final int index) {
+        return keys[index];
+    }
+
+    Object getValue(final int index) {
+        return values[index];
+    }
+
+    @Override
+    public void formatTo(final StringBuilder buffer) {
+        final int start = buffer.length();
+        if (message instanceof StringBuilderFormattable) {
+            ((StringBuilderFormattable) message).formatTo(buffer);
+        } else {
+            buffer.append(message.getFormattedMessage());
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (buffer.length() > start) {
+                buffer.append(' ');
+            }
+            buffer.append(keys[i]).append('=');
+            StringBuilders.appendValue(buffer, values[i]);
+        }
+    }
+
+    @Override
+    public String getFormattedMessage() {
+        final StringBuilder buffer = new StringBuilder(64);
+        formatTo(buffer);
+        return buffer.toString();
+    }
+
+    @Override
+    public String getFormat() {
+        return message.getFormat();
+    }
+
+    @Override
+    public Object[] getParameters() {
+        return message.getParameters();
+    }
+
+    @Override
+    public Throwable getThrowable() {
+        return message.getThrowable();
+    }
+}
@@ -0,0 +1,127 @@
+package fr.phenix333.logger;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.message.Message;
+import org.apache.logging.log4j.message.MessageFactory;
+import org.apache.logging.log4j.spi.ExtendedLogger;
+import org.apache.logging.log4j.spi.ExtendedLoggerWrapper;
+import org.apache.logging.log4j.util.MessageSupplier;
+import org.apache.logging.log4j.util.Supplier;
+
+/**
+ * Wrapper used by {@link MyLogger} for every call. It overrides the
+ * {@code logIfEnabled} variants used by {@link MyLogger} so that disabled
+ * events can be captured by the {@link Backtrace} and intercepts the
+ * {@code ERROR} and {@code FATAL} events to flush it. The enabled events are
+ * counted by the {@link Profiler} when it is enabled.
+ */
+final class MyExtendedLogger extends ExtendedLoggerWrapper {
+    private static final long serialVersionUID = 84120365478952L;
+
+    MyExtendedLogger(final ExtendedLogger logger, final String name, final MessageFactory messageFactory) {
+        super(logger, name, messageFactory);
+    }
+
+    @Override
+    public void logIfEnabled(final String fqcn, final Level level, final Marker marker, final Message msg,
+            final Throwable t) {
+        if (isEnabled(level, marker, msg, t)) {
+            logMessage(fqcn, level, marker, msg, t);
+        } else if (Backtrace.captures(level)) {
+            Backtrace.record(this, level, marker, msg, null, t);
+        }
+    }
+
+    @Override
+    public void logIfEnabled(final String fqcn, final Level level, final Marker marker, final Object message,
+            final Throwable t) {
+        if (isEnabled(level, marker, message, t)) {
+            logMessage(fqcn, level, marker, message, t);
+        } else if (Backtrace.captures(level)) {
+            Backtrace.record(this, level, marker, message, null, t);
+        }
+    }
+
+    @Override
+    public void logIfEnabled(final String fqcn, final Level level, final Marker marker, final String message,
+            final Throwable t) {
+        if (isEnabled(level, marker, message, t)) {
+            logMessage(fqcn, level, marker, message, t);
+        } else if (Backtrace.captures(level)) {
+            Backtrace.record(this, level, marker, message, null, t);
+        }
+    }
+
+    @Override
+    public void logIfEnabled(final String fqcn, final Level level, final Marker marker, final String message,
+            final Object... params) {
+        if (isEnabled(level, marker, message, params)) {
+            logMessage(fqcn, level, marker, message, params);
+        } else if (Backtrace.captures(level)) {
+            Backtrace.record(this, level, marker, message, params, null);
+        }
+    }
+
+    @Override
+    public void logIfEnabled(final String fqcn, final Level level, final Marker marker, final Supplier<?> msgSupplier,
+            final Throwable t) {
+        if (isEnabled(level, marker, msgSupplier, t)) {
+            logMessage(fqcn, level, marker, msgSupplier, t);
+        } else if (Backtrace.captures(level)) {
+            Backtrace.record(this, level, marker, msgSupplier, null, t);
+        }
+    }
+
+    @Override
+    public void logIfEnabled(final String fqcn, final Level level, final Marker marker, final String message,
+            final Supplier<?>... paramSuppliers) {
+        if (isEnabled(level, marker, message)) {
+            logMessage(fqcn, level, marker, message, paramSuppliers);
+        } else if (Backtrace.captures(level)) {
+            Backtrace.record(this, level, marker, message, paramSuppliers, null);
+        }
+    }
+
+    @Override
+    public void logIfEnabled(final String fqcn, final Level level, final Marker marker,
+            final MessageSupplier msgSupplier, final Throwable t) {
+        if (isEnabled(level, marker, msgSupplier, t)) {
+            logMessage(fqcn, level, marker, msgSupplier, t);
+        } else if (Backtrace.captures(level)) {
+            Backtrace.record(this, level, marker, msgSupplier, null, t);
+        }
+    }
+
+    @Override
+    public void logMessage(final String fqcn, final Level level, final Marker marker, final Message message,
+            final Throwable t) {
+        if (Profiler.profiles()) {
+            final String template = Profiler.templateOf(message);
+            final int bytes = Profiler.bytesOf(message);
+            // the time of the logging call only, not of the profiler
+            final long start = System.nanoTime();
+            deliver(fqcn, level, marker, message, t);
+            Profiler.record(fqcn, getName(), level, template, bytes, System.nanoTime() - start);
+        } else {
+            deliver(fqcn, level, marker, message, t);
+        }
+    }
+
+    private void deliver(final String fqcn, final Level level, final Marker marker, final Message message,
+            final Throwable t) {
+        if (Backtrace.flushes(level)) {
+            Backtrace.flush(fqcn);
+        }
+        logger.logMessage(fqcn, level, marker, message, t);
+    }
+
+    /**
+     * Writes a previously captured event to the appenders, bypassing the level
+     * check of the logger and the {@code ERROR} interception.
+     */
+    void replay(final String fqcn, final Level level, final Marker marker, final Message message,
+            final Throwable t) {
+        logger.logMessage(fqcn, level, marker, message, t);
+    }
+}
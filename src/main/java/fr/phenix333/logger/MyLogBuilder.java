@@ -0,0 +1,88 @@
+package fr.phenix333.logger;
+
+import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.message.Message;
+import org.apache.logging.log4j.util.Supplier;
+
+/**
+ * Fluent construction of an event, obtained from {@link MyLogger#atFunction()}
+ * and the other {@code at} methods:
+ *
+ * <pre>
+ * L.atFunction().with("orderId", id).withThrowable(e).log("Order {} rejected", reason);
+ * </pre>
+ *
+ * When the level is disabled, the same no-op instance is returned and every
+ * call does nothing. When it is enabled, the builder is reused by the thread
+ * and must not be kept after {@code log}.
+ */
+public interface MyLogBuilder {
+    /**
+     * Adds a field, rendered as {@code key=value} after the message.
+     *
+     * @param key the name of the field.
+     * @param value the value of the field.
+     * @return This builder.
+     */
+    MyLogBuilder with(String key, Object value);
+
+    /**
+     * Adds a field whose value is only computed if the event is logged.
+     *
+     * @param key the name of the field.
+     * @param valueSupplier a function producing the value of the field.
+     * @return This builder.
+     */
+    MyLogBuilder with(String key, Supplier<?> valueSupplier);
+
+    /**
+     * @param marker the marker data specific to this log statement.
+     * @return This builder.
+     */
+    MyLogBuilder withMarker(Marker marker);
+
+    /**
+     * @param t the exception to log, including its stack trace.
+     * @return This builder.
+     */
+    MyLogBuilder withThrowable(Throwable t);
+
+    /**
+     * Logs the fields without message.
+     */
+    void log();
+
+    /**
+     * @param message the message to log.
+     */
+    void log(String message);
+
+    /**
+     * @param message the message to log; the format depends on the message factory.
+     * @param p0 parameter to the message.
+     */
+    void log(String message, Object p0);
+
+    /**
+     * @param message the message to log; the format depends on the message factory.
+     * @param p0 parameter to the message.
+     * @param p1 parameter to the message.
+     */
+    void log(String message, Object p0, Object p1);
+
+    /**
+     * @param message the message to log; the format depends on the message factory.
+     * @param params parameters to the message.
+     */
+    void log(String message, Object... params);
+
+    /**
+     * @param msgSupplier A function, which when called, produces the desired log message.
+     */
+    void log(Supplier<?> msgSupplier);
+
+    /**
+     * @param msg the message to log.
+     */
+    void log(Message msg);
+}
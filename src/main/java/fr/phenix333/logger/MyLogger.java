@@ -8,7 +8,6 @@ import org.apache.logging.log4j.Marker;
 import org.apache.logging.log4j.message.Message;
 import org.apache.logging.log4j.message.MessageFactory;
 import org.apache.logging.log4j.spi.AbstractLogger;
-import org.apache.logging.log4j.spi.ExtendedLoggerWrapper;
 import org.apache.logging.log4j.util.MessageSupplier;
 import org.apache.logging.log4j.util.Supplier;
 
@@ -18,7 +17,7 @@ import org.apache.logging.log4j.util.Supplier;
  */
 public final class MyLogger implements Serializable {
     private static final long serialVersionUID = 59421658641800L;
-    private final ExtendedLoggerWrapper logger;
+    private final MyExtendedLogger logger;
 
     private static final String FQCN = MyLogger.class.getName();
     private static final Level FATAL = Level.forName("FATAL", 100);
@@ -29,7 +28,7 @@ public final class MyLogger implements Serializable {
     private static final Level FUNCTION = Level.forName("FUNCTION", 550);
 
     private MyLogger(final Logger logger) {
-        this.logger = new ExtendedLoggerWrapper((AbstractLogger) logger, logger.getName(), logger.getMessageFactory());
+        this.logger = new MyExtendedLogger((AbstractLogger) logger, logger.getName(), logger.getMessageFactory());
     }
 
     /**
@@ -129,6 +128,72 @@ public final class MyLogger implements Serializable {
         return new MyLogger(wrapped);
     }
 
+    /**
+     * Returns a builder for an event at the {@code FATAL} level, a no-op one if
+     * the level is disabled.
+     * 
+     * @return The builder, to be used and logged by the calling thread.
+     */
+    public MyLogBuilder atFatal() {
+        return LevelElision.FATAL && logger.isEnabled(FATAL) ? DefaultLogBuilder.get(logger, FATAL)
+                : NoOpLogBuilder.INSTANCE;
+    }
+
+    /**
+     * Returns a builder for an event at the {@code ERROR} level, a no-op one if
+     * the level is disabled.
+     * 
+     * @return The builder, to be used and logged by the calling thread.
+     */
+    public MyLogBuilder atError() {
+        return LevelElision.ERROR && logger.isEnabled(ERROR) ? DefaultLogBuilder.get(logger, ERROR)
+                : NoOpLogBuilder.INSTANCE;
+    }
+
+    /**
+     * Returns a builder for an event at the {@code WARN} level, a no-op one if
+     * the level is disabled.
+     * 
+     * @return The builder, to be used and logged by the calling thread.
+     */
+    public MyLogBuilder atWarn() {
+        return LevelElision.WARN && logger.isEnabled(WARN) ? DefaultLogBuilder.get(logger, WARN)
+                : NoOpLogBuilder.INSTANCE;
+    }
+
+    /**
+     * Returns a builder for an event at the {@code INFO} level, a no-op one if
+     * the level is disabled.
+     * 
+     * @return The builder, to be used and logged by the calling thread.
+     */
+    public MyLogBuilder atInfo() {
+        return LevelElision.INFO && logger.isEnabled(INFO) ? DefaultLogBuilder.get(logger, INFO)
+                : NoOpLogBuilder.INSTANCE;
+    }
+
+    /**
+     * Returns a builder for an event at the {@code DEBUG} level, a no-op one if
+     * the level is disabled.
+     * 
+     * @return The builder, to be used and logged by the calling thread.
+     */
+    public MyLogBuilder atDebug() {
+        return LevelElision.DEBUG && logger.isEnabled(DEBUG) ? DefaultLogBuilder.get(logger, DEBUG)
+                : NoOpLogBuilder.INSTANCE;
+    }
+
+    /**
+     * Returns a builder for an event at the {@code FUNCTION} level, a no-op one if
+     * the level is disabled.
+     * 
+     * @return The builder, to be used and logged by the calling thread.
+     */
+    public MyLogBuilder atFunction() {
+        return LevelElision.FUNCTION && logger.isEnabled(FUNCTION) ? DefaultLogBuilder.get(logger, FUNCTION)
+                : NoOpLogBuilder.INSTANCE;
+    }
+
     /**
      * Logs a message with the specific Marker at the {@code FATAL} level.
      * 
@@ -136,7 +201,9 @@ public final class MyLogger implements Serializable {
      * @param msg the message string to be logged
      */
     public void fatal(final Marker marker, final Message msg) {
-        logger.logIfEnabled(FQCN, FATAL, marker, msg, (Throwable) null);
+        if (LevelElision.FATAL) {
+            logger.logIfEnabled(FQCN, FATAL, marker, msg, (Throwable) null);
+        }
     }
 
     /**
@@ -147,7 +214,9 @@ public final class MyLogger implements Serializable {
      * @param t A Throwable or null.
      */
     public void fatal(final Marker marker, final Message msg, final Throwable t) {
-        logger.logIfEnabled(FQCN, FATAL, marker, msg, t);
+        if (LevelElision.FATAL) {
+            logger.logIfEnabled(FQCN, FATAL, marker, msg, t);
+        }
     }
 
     /**
@@ -157,7 +226,9 @@ public final class MyLogger implements Serializable {
      * @param message the message object to log.
      */
     public void fatal(final Marker marker, final Object message) {
-        logger.logIfEnabled(FQCN, FATAL, marker, message, (Throwable) null);
+        if (LevelElision.FATAL) {
+            logger.logIfEnabled(FQCN, FATAL, marker, message, (Throwable) null);
+        }
     }
 
     /**
@@ -169,7 +240,9 @@ public final class MyLogger implements Serializable {
      * @param t the exception to log, including its stack trace.
      */
     public void fatal(final Marker marker, final Object message, final Throwable t) {
-        logger.logIfEnabled(FQCN, FATAL, marker, message, t);
+        if (LevelElision.FATAL) {
+            logger.logIfEnabled(FQCN, FATAL, marker, message, t);
+        }
     }
 
     /**
@@ -179,7 +252,9 @@ public final class MyLogger implements Serializable {
      * @param message the message object to log.
      */
     public void fatal(final Marker marker, final String message) {
-        logger.logIfEnabled(FQCN, FATAL, marker, message, (Throwable) null);
+        if (LevelElision.FATAL) {
+            logger.logIfEnabled(FQCN, FATAL, marker, message, (Throwable) null);
+        }
     }
 
     /**
@@ -191,7 +266,9 @@ public final class MyLogger implements Serializable {
      * @see #getMessageFactory()
      */
     public void fatal(final Marker marker, final String message, final Object... params) {
-        logger.logIfEnabled(FQCN, FATAL, marker, message, params);
+        if (LevelElision.FATAL) {
+            logger.logIfEnabled(FQCN, FATAL, marker, message, params);
+        }
     }
 
     /**
@@ -203,7 +280,9 @@ public final class MyLogger implements Serializable {
      * @param t the exception to log, including its stack trace.
      */
     public void fatal(final Marker marker, final String message, final Throwable t) {
-        logger.logIfEnabled(FQCN, FATAL, marker, message, t);
+        if (LevelElision.FATAL) {
+            logger.logIfEnabled(FQCN, FATAL, marker, message, t);
+        }
     }
 
     /**
@@ -212,7 +291,9 @@ public final class MyLogger implements Serializable {
      * @param msg the message string to be logged
      */
     public void fatal(final Message msg) {
-        logger.logIfEnabled(FQCN, FATAL, null, msg, (Throwable) null);
+        if (LevelElision.FATAL) {
+            logger.logIfEnabled(FQCN, FATAL, null, msg, (Throwable) null);
+        }
     }
 
     /**
@@ -222,7 +303,9 @@ public final class MyLogger implements Serializable {
      * @param t A Throwable or null.
      */
     public void fatal(final Message msg, final Throwable t) {
-        logger.logIfEnabled(FQCN, FATAL, null, msg, t);
+        if (LevelElision.FATAL) {
+            logger.logIfEnabled(FQCN, FATAL, null, msg, t);
+        }
     }
 
     /**
@@ -231,7 +314,9 @@ public final class MyLogger implements Serializable {
      * @param message the message object to log.
      */
     public void fatal(final Object message) {
-        logger.logIfEnabled(FQCN, FATAL, null, message, (Throwable) null);
+        if (LevelElision.FATAL) {
+            logger.logIfEnabled(FQCN, FATAL, null, message, (Throwable) null);
+        }
     }
 
     /**
@@ -242,7 +327,9 @@ public final class MyLogger implements Serializable {
      * @param t the exception to log, including its stack trace.
      */
     public void fatal(final Object message, final Throwable t) {
-        logger.logIfEnabled(FQCN, FATAL, null, message, t);
+        if (LevelElision.FATAL) {
+            logger.logIfEnabled(FQCN, FATAL, null, message, t);
+        }
     }
 
     /**
@@ -251,7 +338,9 @@ public final class MyLogger implements Serializable {
      * @param message the message object to log.
      */
     public void fatal(final String message) {
-        logger.logIfEnabled(FQCN, FATAL, null, message, (Throwable) null);
+        if (LevelElision.FATAL) {
+            logger.logIfEnabled(FQCN, FATAL, null, message, (Throwable) null);
+        }
     }
 
     /**
@@ -262,7 +351,9 @@ public final class MyLogger implements Serializable {
      * @see #getMessageFactory()
      */
     public void fatal(final String message, final Object... params) {
-        logger.logIfEnabled(FQCN, FATAL, null, message, params);
+        if (LevelElision.FATAL) {
+            logger.logIfEnabled(FQCN, FATAL, null, message, params);
+        }
     }
 
     /**
@@ -273,7 +364,9 @@ public final class MyLogger implements Serializable {
      * @param t the exception to log, including its stack trace.
      */
     public void fatal(final String message, final Throwable t) {
-        logger.logIfEnabled(FQCN, FATAL, null, message, t);
+        if (LevelElision.FATAL) {
+            logger.logIfEnabled(FQCN, FATAL, null, message, t);
+        }
     }
 
     /**
@@ -284,7 +377,9 @@ public final class MyLogger implements Serializable {
      * @since 2.4
      */
     public void fatal(final Supplier<?> msgSupplier) {
-        logger.logIfEnabled(FQCN, FATAL, null, msgSupplier, (Throwable) null);
+        if (LevelElision.FATAL) {
+            logger.logIfEnabled(FQCN, FATAL, null, msgSupplier, (Throwable) null);
+        }
     }
 
     /**
@@ -297,7 +392,9 @@ public final class MyLogger implements Serializable {
      * @since 2.4
      */
     public void fatal(final Supplier<?> msgSupplier, final Throwable t) {
-        logger.logIfEnabled(FQCN, FATAL, null, msgSupplier, t);
+        if (LevelElision.FATAL) {
+            logger.logIfEnabled(FQCN, FATAL, null, msgSupplier, t);
+        }
     }
 
     /**
@@ -310,7 +407,9 @@ public final class MyLogger implements Serializable {
      * @since 2.4
      */
     public void fatal(final Marker marker, final Supplier<?> msgSupplier) {
-        logger.logIfEnabled(FQCN, FATAL, marker, msgSupplier, (Throwable) null);
+        if (LevelElision.FATAL) {
+            logger.logIfEnabled(FQCN, FATAL, marker, msgSupplier, (Throwable) null);
+        }
     }
 
     /**
@@ -323,7 +422,9 @@ public final class MyLogger implements Serializable {
      * @since 2.4
      */
     public void fatal(final Marker marker, final String message, final Supplier<?>... paramSuppliers) {
-        logger.logIfEnabled(FQCN, FATAL, marker, message, paramSuppliers);
+        if (LevelElision.FATAL) {
+            logger.logIfEnabled(FQCN, FATAL, marker, message, paramSuppliers);
+        }
     }
 
     /**
@@ -338,7 +439,9 @@ public final class MyLogger implements Serializable {
      * @since 2.4
      */
     public void fatal(final Marker marker, final Supplier<?> msgSupplier, final Throwable t) {
-        logger.logIfEnabled(FQCN, FATAL, marker, msgSupplier, t);
+        if (LevelElision.FATAL) {
+            logger.logIfEnabled(FQCN, FATAL, marker, msgSupplier, t);
+        }
     }
 
     /**
@@ -350,7 +453,9 @@ public final class MyLogger implements Serializable {
      * @since 2.4
      */
     public void fatal(final String message, final Supplier<?>... paramSuppliers) {
-        logger.logIfEnabled(FQCN, FATAL, null, message, paramSuppliers);
+        if (LevelElision.FATAL) {
+            logger.logIfEnabled(FQCN, FATAL, null, message, paramSuppliers);
+        }
     }
 
     /**
@@ -363,7 +468,9 @@ public final class MyLogger implements Serializable {
      * @since 2.4
      */
     public void fatal(final Marker marker, final MessageSupplier msgSupplier) {
-        logger.logIfEnabled(FQCN, FATAL, marker, msgSupplier, (Throwable) null);
+        if (LevelElision.FATAL) {
+            logger.logIfEnabled(FQCN, FATAL, marker, msgSupplier, (Throwable) null);
+        }
     }
 
     /**
@@ -378,7 +485,9 @@ public final class MyLogger implements Serializable {
      * @since 2.4
      */
     public void fatal(final Marker marker, final MessageSupplier msgSupplier, final Throwable t) {
-        logger.logIfEnabled(FQCN, FATAL, marker, msgSupplier, t);
+        if (LevelElision.FATAL) {
+            logger.logIfEnabled(FQCN, FATAL, marker, msgSupplier, t);
+        }
     }
 
     /**
@@ -390,7 +499,9 @@ public final class MyLogger implements Serializable {
      * @since 2.4
      */
     public void fatal(final MessageSupplier msgSupplier) {
-        logger.logIfEnabled(FQCN, FATAL, null, msgSupplier, (Throwable) null);
+        if (LevelElision.FATAL) {
+            logger.logIfEnabled(FQCN, FATAL, null, msgSupplier, (Throwable) null);
+        }
     }
 
     /**
@@ -404,7 +515,9 @@ public final class MyLogger implements Serializable {
      * @since 2.4
      */
     public void fatal(final MessageSupplier msgSupplier, final Throwable t) {
-        logger.logIfEnabled(FQCN, FATAL, null, msgSupplier, t);
+        if (LevelElision.FATAL) {
+            logger.logIfEnabled(FQCN, FATAL, null, msgSupplier, t);
+        }
     }
 
     /**
@@ -414,7 +527,9 @@ public final class MyLogger implements Serializable {
      * @param msg the message string to be logged
      */
     public void error(final Marker marker, final Message msg) {
-        logger.logIfEnabled(FQCN, ERROR, marker, msg, (Throwable) null);
+        if (LevelElision.ERROR) {
+            logger.logIfEnabled(FQCN, ERROR, marker, msg, (Throwable) null);
+        }
     }
 
     /**
@@ -425,7 +540,9 @@ public final class MyLogger implements Serializable {
      * @param t A Throwable or null.
      */
     public void error(final Marker marker, final Message msg, final Throwable t) {
-        logger.logIfEnabled(FQCN, ERROR, marker, msg, t);
+        if (LevelElision.ERROR) {
+            logger.logIfEnabled(FQCN, ERROR, marker, msg, t);
+        }
     }
 
     /**
@@ -435,7 +552,9 @@ public final class MyLogger implements Serializable {
      * @param message the message object to log.
      */
     public void error(final Marker marker, final Object message) {
-        logger.logIfEnabled(FQCN, ERROR, marker, message, (Throwable) null);
+        if (LevelElision.ERROR) {
+            logger.logIfEnabled(FQCN, ERROR, marker, message, (Throwable) null);
+        }
     }
 
     /**
@@ -447,7 +566,9 @@ public final class MyLogger implements Serializable {
      * @param t the exception to log, including its stack trace.
      */
     public void error(final Marker marker, final Object message, final Throwable t) {
-        logger.logIfEnabled(FQCN, ERROR, marker, message, t);
+        if (LevelElision.ERROR) {
+            logger.logIfEnabled(FQCN, ERROR, marker, message, t);
+        }
     }
 
     /**
@@ -457,7 +578,9 @@ public final class MyLogger implements Serializable {
      * @param message the message object to log.
      */
     public void error(final Marker marker, final String message) {
-        logger.logIfEnabled(FQCN, ERROR, marker, message, (Throwable) null);
+        if (LevelElision.ERROR) {
+            logger.logIfEnabled(FQCN, ERROR, marker, message, (Throwable) null);
+        }
     }
 
     /**
@@ -469,7 +592,9 @@ public final class MyLogger implements Serializable {
      * @see #getMessageFactory()
      */
     public void error(final Marker marker, final String message, final Object... params) {
-        logger.logIfEnabled(FQCN, ERROR, marker, message, params);
+        if (LevelElision.ERROR) {
+            logger.logIfEnabled(FQCN, ERROR, marker, message, params);
+        }
     }
 
     /**
@@ -481,7 +606,9 @@ public final class MyLogger implements Serializable {
      * @param t the exception to log, including its stack trace.
      */
     public void error(final Marker marker, final String message, final Throwable t) {
-        logger.logIfEnabled(FQCN, ERROR, marker, message, t);
+        if (LevelElision.ERROR) {
+            logger.logIfEnabled(FQCN, ERROR, marker, message, t);
+        }
     }
 
     /**
@@ -490,7 +617,9 @@ public final class MyLogger implements Serializable {
      * @param msg the message string to be logged
      */
     public void error(final Message msg) {
-        logger.logIfEnabled(FQCN, ERROR, null, msg, (Throwable) null);
+        if (LevelElision.ERROR) {
+            logger.logIfEnabled(FQCN, ERROR, null, msg, (Throwable) null);
+        }
     }
 
     /**
@@ -500,7 +629,9 @@ public final class MyLogger implements Serializable {
      * @param t A Throwable or null.
      */
     public void error(final Message msg, final Throwable t) {
-        logger.logIfEnabled(FQCN, ERROR, null, msg, t);
+        if (LevelElision.ERROR) {
+            logger.logIfEnabled(FQCN, ERROR, null, msg, t);
+        }
     }
 
     /**
@@ -509,7 +640,9 @@ public final class MyLogger implements Serializable {
      * @param message the message object to log.
      */
     public void error(final Object message) {
-        logger.logIfEnabled(FQCN, ERROR, null, message, (Throwable) null);
+        if (LevelElision.ERROR) {
+            logger.logIfEnabled(FQCN, ERROR, null, message, (Throwable) null);
+        }
     }
 
     /**
@@ -520,7 +653,9 @@ public final class MyLogger implements Serializable {
      * @param t the exception to log, including its stack trace.
      */
     public void error(final Object message, final Throwable t) {
-        logger.logIfEnabled(FQCN, ERROR, null, message, t);
+        if (LevelElision.ERROR) {
+            logger.logIfEnabled(FQCN, ERROR, null, message, t);
+        }
     }
 
     /**
@@ -529,7 +664,9 @@ public final class MyLogger implements Serializable {
      * @param message the message object to log.
      */
     public void error(final String message) {
-        logger.logIfEnabled(FQCN, ERROR, null, message, (Throwable) null);
+        if (LevelElision.ERROR) {
+            logger.logIfEnabled(FQCN, ERROR, null, message, (Throwable) null);
+        }
     }
 
     /**
@@ -540,7 +677,9 @@ public final class MyLogger implements Serializable {
      * @see #getMessageFactory()
      */
     public void error(final String message, final Object... params) {
-        logger.logIfEnabled(FQCN, ERROR, null, message, params);
+        if (LevelElision.ERROR) {
+            logger.logIfEnabled(FQCN, ERROR, null, message, params);
+        }
     }
 
     /**
@@ -551,7 +690,9 @@ public final class MyLogger implements Serializable {
      * @param t the exception to log, including its stack trace.
      */
     public void error(final String message, final Throwable t) {
-        logger.logIfEnabled(FQCN, ERROR, null, message, t);
+        if (LevelElision.ERROR) {
+            logger.logIfEnabled(FQCN, ERROR, null, message, t);
+        }
     }
 
     /**
@@ -562,7 +703,9 @@ public final class MyLogger implements Serializable {
      * @since 2.4
      */
     public void error(final Supplier<?> msgSupplier) {
-        logger.logIfEnabled(FQCN, ERROR, null, msgSupplier, (Throwable) null);
+        if (LevelElision.ERROR) {
+            logger.logIfEnabled(FQCN, ERROR, null, msgSupplier, (Throwable) null);
+        }
     }
 
     /**
@@ -575,7 +718,9 @@ public final class MyLogger implements Serializable {
      * @since 2.4
      */
     public void error(final Supplier<?> msgSupplier, final Throwable t) {
-        logger.logIfEnabled(FQCN, ERROR, null, msgSupplier, t);
+        if (LevelElision.ERROR) {
+            logger.logIfEnabled(FQCN, ERROR, null, msgSupplier, t);
+        }
     }
 
     /**
@@ -588,7 +733,9 @@ public final class MyLogger implements Serializable {
      * @since 2.4
      */
     public void error(final Marker marker, final Supplier<?> msgSupplier) {
-        logger.logIfEnabled(FQCN, ERROR, marker, msgSupplier, (Throwable) null);
+        if (LevelElision.ERROR) {
+            logger.logIfEnabled(FQCN, ERROR, marker, msgSupplier, (Throwable) null);
+        }
     }
 
     /**
@@ -601,7 +748,9 @@ public final class MyLogger implements Serializable {
      * @since 2.4
      */
     public void error(final Marker marker, final String message, final Supplier<?>... paramSuppliers) {
-        logger.logIfEnabled(FQCN, ERROR, marker, message, paramSuppliers);
+        if (LevelElision.ERROR) {
+            logger.logIfEnabled(FQCN, ERROR, marker, message, paramSuppliers);
+        }
     }
 
     /**
@@ -616,7 +765,9 @@ public final class MyLogger implements Serializable {
      * @since 2.4
      */
     public void error(final Marker marker, final Supplier<?> msgSupplier, final Throwable t) {
-        logger.logIfEnabled(FQCN, ERROR, marker, msgSupplier, t);
+        if (LevelElision.ERROR) {
+            logger.logIfEnabled(FQCN, ERROR, marker, msgSupplier, t);
+        }
     }
 
     /**
@@ -628,7 +779,9 @@ public final class MyLogger implements Serializable {
      * @since 2.4
      */
     public void error(final String message, final Supplier<?>... paramSuppliers) {
-        logger.logIfEnabled(FQCN, ERROR, null, message, paramSuppliers);
+        if (LevelElision.ERROR) {
+            logger.logIfEnabled(FQCN, ERROR, null, message, paramSuppliers);
+        }
     }
 
     /**
@@ -641,7 +794,9 @@ public final class MyLogger implements Serializable {
      * @since 2.4
      */
     public void error(final Marker marker, final MessageSupplier msgSupplier) {
-        logger.logIfEnabled(FQCN, ERROR, marker, msgSupplier, (Throwable) null);
+        if (LevelElision.ERROR) {
+            logger.logIfEnabled(FQCN, ERROR, marker, msgSupplier, (Throwable) null);
+        }
     }
 
     /**
@@ -656,7 +811,9 @@ public final class MyLogger implements Serializable {
      * @since 2.4
      */
     public void error(final Marker marker, final MessageSupplier msgSupplier, final Throwable t) {
-        logger.logIfEnabled(FQCN, ERROR, marker, msgSupplier, t);
+        if (LevelElision.ERROR) {
+            logger.logIfEnabled(FQCN, ERROR, marker, msgSupplier, t);
+        }
     }
 
     /**
@@ -668,7 +825,9 @@ public final class MyLogger implements Serializable {
      * @since 2.4
      */
     public void error(final MessageSupplier msgSupplier) {
-        logger.logIfEnabled(FQCN, ERROR, null, msgSupplier, (Throwable) null);
+        if (LevelElision.ERROR) {
+            logger.logIfEnabled(FQCN, ERROR, null, msgSupplier, (Throwable) null);
+        }
     }
 
     /**
@@ -682,7 +841,9 @@ public final class MyLogger implements Serializable {
      * @since 2.4
      */
     public void error(final MessageSupplier msgSupplier, final Throwable t) {
-        logger.logIfEnabled(FQCN, ERROR, null, msgSupplier, t);
+        if (LevelElision.ERROR) {
+            logger.logIfEnabled(FQCN, ERROR, null, msgSupplier, t);
+        }
     }
 
     /**
@@ -692,7 +853,9 @@ public final class MyLogger implements Serializable {
      * @param msg the message string to be logged
      */
     public void warn(final Marker marker, final Message msg) {
-        logger.logIfEnabled(FQCN, WARN, marker, msg, (Throwable) null);
+        if (LevelElision.WARN) {
+            logger.logIfEnabled(FQCN, WARN, marker, msg, (Throwable) null);
+        }
     }
 
     /**
@@ -703,7 +866,9 @@ public final class MyLogger implements Serializable {
      * @param t A Throwable or null.
      */
     public void warn(final Marker marker, final Message msg, final Throwable t) {
-        logger.logIfEnabled(FQCN, WARN, marker, msg, t);
+        if (LevelElision.WARN) {
+            logger.logIfEnabled(FQCN, WARN, marker, msg, t);
+        }
     }
 
     /**
@@ -713,7 +878,9 @@ public final class MyLogger implements Serializable {
      * @param message the message object to log.
      */
     public void warn(final Marker marker, final Object message) {
-        logger.logIfEnabled(FQCN, WARN, marker, message, (Throwable) null);
+        if (LevelElision.WARN) {
+            logger.logIfEnabled(FQCN, WARN, marker, message, (Throwable) null);
+        }
     }
 
     /**
@@ -725,7 +892,9 @@ public final class MyLogger implements Serializable {
      * @param t the exception to log, including its stack trace.
      */
     public void warn(final Marker marker, final Object message, final Throwable t) {
-        logger.logIfEnabled(FQCN, WARN, marker, message, t);
+        if (LevelElision.WARN) {
+            logger.logIfEnabled(FQCN, WARN, marker, message, t);
+        }
     }
 
     /**
@@ -735,7 +904,9 @@ public final class MyLogger implements Serializable {
      * @param message the message object to log.
      */
     public void warn(final Marker marker, final String message) {
-        logger.logIfEnabled(FQCN, WARN, marker, message, (Throwable) null);
+        if (LevelElision.WARN) {
+            logger.logIfEnabled(FQCN, WARN, marker, message, (Throwable) null);
+        }
     }
 
     /**
@@ -747,7 +918,9 @@ public final class MyLogger implements Serializable {
      * @see #getMessageFactory()
      */
     public void warn(final Marker marker, final String message, final Object... params) {
-        logger.logIfEnabled(FQCN, WARN, marker, message, params);
+        if (LevelElision.WARN) {
+            logger.logIfEnabled(FQCN, WARN, marker, message, params);
+        }
     }
 
     /**
@@ -759,7 +932,9 @@ public final class MyLogger implements Serializable {
      * @param t the exception to log, including its stack trace.
      */
     public void warn(final Marker marker, final String message, final Throwable t) {
-        logger.logIfEnabled(FQCN, WARN, marker, message, t);
+        if (LevelElision.WARN) {
+            logger.logIfEnabled(FQCN, WARN, marker, message, t);
+        }
     }
 
     /**
@@ -768,7 +943,9 @@ public final class MyLogger implements Serializable {
      * @param msg the message string to be logged
      */
     public void warn(final Message msg) {
-        logger.logIfEnabled(FQCN, WARN, null, msg, (Throwable) null);
+        if (LevelElision.WARN) {
+            logger.logIfEnabled(FQCN, WARN, null, msg, (Throwable) null);
+        }
     }
 
     /**
@@ -778,7 +955,9 @@ public final class MyLogger implements Serializable {
      * @param t A Throwable or null.
      */
     public void warn(final Message msg, final Throwable t) {
-        logger.logIfEnabled(FQCN, WARN, null, msg, t);
+        if (LevelElision.WARN) {
+            logger.logIfEnabled(FQCN, WARN, null, msg, t);
+        }
     }
 
     /**
@@ -787,7 +966,9 @@ public final class MyLogger implements Serializable {
      * @param message the message object to log.
      */
     public void warn(final Object message) {
-        logger.logIfEnabled(FQCN, WARN, null, message, (Throwable) null);
+        if (LevelElision.WARN) {
+            logger.logIfEnabled(FQCN, WARN, null, message, (Throwable) null);
+        }
     }
 
     /**
@@ -798,7 +979,9 @@ public final class MyLogger implements Serializable {
      * @param t the exception to log, including its stack trace.
      */
     public void warn(final Object message, final Throwable t) {
-        logger.logIfEnabled(FQCN, WARN, null, message, t);
+        if (LevelElision.WARN) {
+            logger.logIfEnabled(FQCN, WARN, null, message, t);
+        }
     }
 
     /**
@@ -807,7 +990,9 @@ public final class MyLogger implements Serializable {
      * @param message the message object to log.
      */
     public void warn(final String message) {
-        logger.logIfEnabled(FQCN, WARN, null, message, (Throwable) null);
+        if (LevelElision.WARN) {
+            logger.logIfEnabled(FQCN, WARN, null, message, (Throwable) null);
+        }
     }
 
     /**
@@ -818,7 +1003,9 @@ public final class MyLogger implements Serializable {
      * @see #getMessageFactory()
      */
     public void warn(final String message, final Object... params) {
-        logger.logIfEnabled(FQCN, WARN, null, message, params);
+        if (LevelElision.WARN) {
+            logger.logIfEnabled(FQCN, WARN, null, message, params);
+        }
     }
 
     /**
@@ -829,7 +1016,9 @@ public final class MyLogger implements Serializable {
      * @param t the exception to log, including its stack trace.
      */
     public void warn(final String message, final Throwable t) {
-        logger.logIfEnabled(FQCN, WARN, null, message, t);
+        if (LevelElision.WARN) {
+            logger.logIfEnabled(FQCN, WARN, null, message, t);
+        }
     }
 
     /**
@@ -840,7 +1029,9 @@ public final class MyLogger implements Serializable {
      * @since 2.4
      */
     public void warn(final Supplier<?> msgSupplier) {
-        logger.logIfEnabled(FQCN, WARN, null, msgSupplier, (Throwable) null);
+        if (LevelElision.WARN) {
+            logger.logIfEnabled(FQCN, WARN, null, msgSupplier, (Throwable) null);
+        }
     }
 
     /**
@@ -853,7 +1044,9 @@ public final class MyLogger implements Serializable {
      * @since 2.4
      */
     public void warn(final Supplier<?> msgSupplier, final Throwable t) {
-        logger.logIfEnabled(FQCN, WARN, null, msgSupplier, t);
+        if (LevelElision.WARN) {
+            logger.logIfEnabled(FQCN, WARN, null, msgSupplier, t);
+        }
     }
 
     /**
@@ -866,7 +1059,9 @@ public final class MyLogger implements Serializable {
      * @since 2.4
      */
     public void warn(final Marker marker, final Supplier<?> msgSupplier) {
-        logger.logIfEnabled(FQCN, WARN, marker, msgSupplier, (Throwable) null);
+        if (LevelElision.WARN) {
+            logger.logIfEnabled(FQCN, WARN, marker, msgSupplier, (Throwable) null);
+        }
     }
 
     /**
@@ -879,7 +1074,9 @@ public final class MyLogger implements Serializable {
      * @since 2.4
      */
     public void warn(final Marker marker, final String message, final Supplier<?>... paramSuppliers) {
-        logger.logIfEnabled(FQCN, WARN, marker, message, paramSuppliers);
+        if (LevelElision.WARN) {
+            logger.logIfEnabled(FQCN, WARN, marker, message, paramSuppliers);
+        }
     }
 
     /**
@@ -894,7 +1091,9 @@ public final class MyLogger implements Serializable {
      * @since 2.4
      */
     public void warn(final Marker marker, final Supplier<?> msgSupplier, final Throwable t) {
-        logger.logIfEnabled(FQCN, WARN, marker, msgSupplier, t);
+        if (LevelElision.WARN) {
+            logger.logIfEnabled(FQCN, WARN, marker, msgSupplier, t);
+        }
     }
 
     /**
@@ -906,7 +1105,9 @@ public final class MyLogger implements Serializable {
      * @since 2.4
      */
     public void warn(final String message, final Supplier<?>... paramSuppliers) {
-        logger.logIfEnabled(FQCN, WARN, null, message, paramSuppliers);
+        if (LevelElision.WARN) {
+            logger.logIfEnabled(FQCN, WARN, null, message, paramSuppliers);
+        }
     }
 
     /**
@@ -919,7 +1120,9 @@ public final class MyLogger implements Serializable {
      * @since 2.4
      */
     public void warn(final Marker marker, final MessageSupplier msgSupplier) {
-        logger.logIfEnabled(FQCN, WARN, marker, msgSupplier, (Throwable) null);
+        if (LevelElision.WARN) {
+            logger.logIfEnabled(FQCN, WARN, marker, msgSupplier, (Throwable) null);
+        }
     }
 
     /**
@@ -934,7 +1137,9 @@ public final class MyLogger implements Serializable {
      * @since 2.4
      */
     public void warn(final Marker marker, final MessageSupplier msgSupplier, final Throwable t) {
-        logger.logIfEnabled(FQCN, WARN, marker, msgSupplier, t);
+        if (LevelElision.WARN) {
+            logger.logIfEnabled(FQCN, WARN, marker, msgSupplier, t);
+        }
     }
 
     /**
@@ -946,7 +1151,9 @@ public final class MyLogger implements Serializable {
      * @since 2.4
      */
     public void warn(final MessageSupplier msgSupplier) {
-        logger.logIfEnabled(FQCN, WARN, null, msgSupplier, (Throwable) null);
+        if (LevelElision.WARN) {
+            logger.logIfEnabled(FQCN, WARN, null, msgSupplier, (Throwable) null);
+        }
     }
 
     /**
@@ -960,7 +1167,9 @@ public final class MyLogger implements Serializable {
      * @since 2.4
      */
     public void warn(final MessageSupplier msgSupplier, final Throwable t) {
-        logger.logIfEnabled(FQCN, WARN, null, msgSupplier, t);
+        if (LevelElision.WARN) {
+            logger.logIfEnabled(FQCN, WARN, null, msgSupplier, t);
+        }
     }
 
     /**
@@ -970,7 +1179,9 @@ public final class MyLogger implements Serializable {
      * @param msg the message string to be logged
      */
     public void info(final Marker marker, final Message msg) {
-        logger.logIfEnabled(FQCN, INFO, marker, msg, (Throwable) null);
+        if (LevelElision.INFO) {
+            logger.logIfEnabled(FQCN, INFO, marker, msg, (Throwable) null);
+        }
     }
 
     /**
@@ -981,7 +1192,9 @@ public final class MyLogger implements Serializable {
      * @param t A Throwable or null.
      */
     public void info(final Marker marker, final Message msg, final Throwable t) {
-        logger.logIfEnabled(FQCN, INFO, marker, msg, t);
+        if (LevelElision.INFO) {
+            logger.logIfEnabled(FQCN, INFO, marker, msg, t);
+        }
     }
 
     /**
@@ -991,7 +1204,9 @@ public final class MyLogger implements Serializable {
      * @param message the message object to log.
      */
     public void info(final Marker marker, final Object message) {
-        logger.logIfEnabled(FQCN, INFO, marker, message, (Throwable) null);
+        if (LevelElision.INFO) {
+            logger.logIfEnabled(FQCN, INFO, marker, message, (Throwable) null);
+        }
     }
 
     /**
@@ -1003,7 +1218,9 @@ public final class MyLogger implements Serializable {
      * @param t the exception to log, including its stack trace.
      */
     public void info(final Marker marker, final Object message, final Throwable t) {
-        logger.logIfEnabled(FQCN, INFO, marker, message, t);
+        if (LevelElision.INFO) {
+            logger.logIfEnabled(FQCN, INFO, marker, message, t);
+        }
     }
 
     /**
@@ -1013,7 +1230,9 @@ public final class MyLogger implements Serializable {
      * @param message the message object to log.
      */
     public void info(final Marker marker, final String message) {
-        logger.logIfEnabled(FQCN, INFO, marker, message, (Throwable) null);
+        if (LevelElision.INFO) {
+            logger.logIfEnabled(FQCN, INFO, marker, message, (Throwable) null);
+        }
     }
 
     /**
@@ -1025,7 +1244,9 @@ public final class MyLogger implements Serializable {
      * @see #getMessageFactory()
      */
     public void info(final Marker marker, final String message, final Object... params) {
-        logger.logIfEnabled(FQCN, INFO, marker, message, params);
+        if (LevelElision.INFO) {
+            logger.logIfEnabled(FQCN, INFO, marker, message, params);
+        }
     }
 
     /**
@@ -1037,7 +1258,9 @@ public final class MyLogger implements Serializable {
      * @param t the exception to log, including its stack trace.
      */
     public void info(final Marker marker, final String message, final Throwable t) {
-        logger.logIfEnabled(FQCN, INFO, marker, message, t);
+        if (LevelElision.INFO) {
+            logger.logIfEnabled(FQCN, INFO, marker, message, t);
+        }
     }
 
     /**
@@ -1046,7 +1269,9 @@ public final class MyLogger implements Serializable {
      * @param msg the message string to be logged
      */
     public void info(final Message msg) {
-        logger.logIfEnabled(FQCN, INFO, null, msg, (Throwable) null);
+        if (LevelElision.INFO) {
+            logger.logIfEnabled(FQCN, INFO, null, msg, (Throwable) null);
+        }
     }
 
     /**
@@ -1056,7 +1281,9 @@ public final class MyLogger implements Serializable {
      * @param t A Throwable or null.
      */
     public void info(final Message msg, final Throwable t) {
-        logger.logIfEnabled(FQCN, INFO, null, msg, t);
+        if (LevelElision.INFO) {
+            logger.logIfEnabled(FQCN, INFO, null, msg, t);
+        }
     }
 
     /**
@@ -1065,7 +1292,9 @@ public final class MyLogger implements Serializable {
      * @param message the message object to log.
      */
     public void info(final Object message) {
-        logger.logIfEnabled(FQCN, INFO, null, message, (Throwable) null);
+        if (LevelElision.INFO) {
+            logger.logIfEnabled(FQCN, INFO, null, message, (Throwable) null);
+        }
     }
 
     /**
@@ -1076,7 +1305,9 @@ public final class MyLogger implements Serializable {
      * @param t the exception to log, including its stack trace.
      */
     public void info(final Object message, final Throwable t) {
-        logger.logIfEnabled(FQCN, INFO, null, message, t);
+        if (LevelElision.INFO) {
+            logger.logIfEnabled(FQCN, INFO, null, message, t);
+        }
     }
 
     /**
@@ -1085,7 +1316,9 @@ public final class MyLogger implements Serializable {
      * @param message the message object to log.
      */
     public void info(final String message) {
-        logger.logIfEnabled(FQCN, INFO, null, message, (Throwable) null);
+        if (LevelElision.INFO) {
+            logger.logIfEnabled(FQCN, INFO, null, message, (Throwable) null);
+        }
     }
 
     /**
@@ -1096,7 +1329,9 @@ public final class MyLogger implements Serializable {
      * @see #getMessageFactory()
      */
     public void info(final String message, final Object... params) {
-        logger.logIfEnabled(FQCN, INFO, null, message, params);
+        if (LevelElision.INFO) {
+            logger.logIfEnabled(FQCN, INFO, null, message, params);
+        }
     }
 
     /**
@@ -1107,7 +1342,9 @@ public final class MyLogger implements Serializable {
      * @param t the exception to log, including its stack trace.
      */
     public void info(final String message, final Throwable t) {
-        logger.logIfEnabled(FQCN, INFO, null, message, t);
+        if (LevelElision.INFO) {
+            logger.logIfEnabled(FQCN, INFO, null, message, t);
+        }
     }
 
     /**
@@ -1118,7 +1355,9 @@ public final class MyLogger implements Serializable {
      * @since 2.4
      */
     public void info(final Supplier<?> msgSupplier) {
-        logger.logIfEnabled(FQCN, INFO, null, msgSupplier, (Throwable) null);
+        if (LevelElision.INFO) {
+            logger.logIfEnabled(FQCN, INFO, null, msgSupplier, (Throwable) null);
+        }
     }
 
     /**
@@ -1131,7 +1370,9 @@ public final class MyLogger implements Serializable {
      * @since 2.4
      */
     public void info(final Supplier<?> msgSupplier, final Throwable t) {
-        logger.logIfEnabled(FQCN, INFO, null, msgSupplier, t);
+        if (LevelElision.INFO) {
+            logger.logIfEnabled(FQCN, INFO, null, msgSupplier, t);
+        }
     }
 
     /**
@@ -1144,7 +1385,9 @@ public final class MyLogger implements Serializable {
      * @since 2.4
      */
     public void info(final Marker marker, final Supplier<?> msgSupplier) {
-        logger.logIfEnabled(FQCN, INFO, marker, msgSupplier, (Throwable) null);
+        if (LevelElision.INFO) {
+            logger.logIfEnabled(FQCN, INFO, marker, msgSupplier, (Throwable) null);
+        }
     }
 
     /**
@@ -1157,7 +1400,9 @@ public final class MyLogger implements Serializable {
      * @since 2.4
      */
     public void info(final Marker marker, final String message, final Supplier<?>... paramSuppliers) {
-        logger.logIfEnabled(FQCN, INFO, marker, message, paramSuppliers);
+        if (LevelElision.INFO) {
+            logger.logIfEnabled(FQCN, INFO, marker, message, paramSuppliers);
+        }
     }
 
     /**
@@ -1172,7 +1417,9 @@ public final class MyLogger implements Serializable {
      * @since 2.4
      */
     public void info(final Marker marker, final Supplier<?> msgSupplier, final Throwable t) {
-        logger.logIfEnabled(FQCN, INFO, marker, msgSupplier, t);
+        if (LevelElision.INFO) {
+            logger.logIfEnabled(FQCN, INFO, marker, msgSupplier, t);
+        }
     }
 
     /**
@@ -1184,7 +1431,9 @@ public final class MyLogger implements Serializable {
      * @since 2.4
      */
     public void info(final String message, final Supplier<?>... paramSuppliers) {
-        logger.logIfEnabled(FQCN, INFO, null, message, paramSuppliers);
+        if (LevelElision.INFO) {
+            logger.logIfEnabled(FQCN, INFO, null, message, paramSuppliers);
+        }
     }
 
     /**
@@ -1197,7 +1446,9 @@ public final class MyLogger implements Serializable {
      * @since 2.4
      */
     public void info(final Marker marker, final MessageSupplier msgSupplier) {
-        logger.logIfEnabled(FQCN, INFO, marker, msgSupplier, (Throwable) null);
+        if (LevelElision.INFO) {
+            logger.logIfEnabled(FQCN, INFO, marker, msgSupplier, (Throwable) null);
+        }
     }
 
     /**
@@ -1212,7 +1463,9 @@ public final class MyLogger implements Serializable {
      * @since 2.4
      */
     public void info(final Marker marker, final MessageSupplier msgSupplier, final Throwable t) {
-        logger.logIfEnabled(FQCN, INFO, marker, msgSupplier, t);
+        if (LevelElision.INFO) {
+            logger.logIfEnabled(FQCN, INFO, marker, msgSupplier, t);
+        }
     }
 
     /**
@@ -1224,7 +1477,9 @@ public final class MyLogger implements Serializable {
      * @since 2.4
      */
     public void info(final MessageSupplier msgSupplier) {
-        logger.logIfEnabled(FQCN, INFO, null, msgSupplier, (Throwable) null);
+        if (LevelElision.INFO) {
+            logger.logIfEnabled(FQCN, INFO, null, msgSupplier, (Throwable) null);
+        }
     }
 
     /**
@@ -1238,7 +1493,9 @@ public final class MyLogger implements Serializable {
      * @since 2.4
      */
     public void info(final MessageSupplier msgSupplier, final Throwable t) {
-        logger.logIfEnabled(FQCN, INFO, null, msgSupplier, t);
+        if (LevelElision.INFO) {
+            logger.logIfEnabled(FQCN, INFO, null, msgSupplier, t);
+        }
     }
 
     /**
@@ -1248,7 +1505,9 @@ public final class MyLogger implements Serializable {
      * @param msg the message string to be logged
      */
     public void debug(final Marker marker, final Message msg) {
-        logger.logIfEnabled(FQCN, DEBUG, marker, msg, (Throwable) null);
+        if (LevelElision.DEBUG) {
+            logger.logIfEnabled(FQCN, DEBUG, marker, msg, (Throwable) null);
+        }
     }
 
     /**
@@ -1259,7 +1518,9 @@ public final class MyLogger implements Serializable {
      * @param t A Throwable or null.
      */
     public void debug(final Marker marker, final Message msg, final Throwable t) {
-        logger.logIfEnabled(FQCN, DEBUG, marker, msg, t);
+        if (LevelElision.DEBUG) {
+            logger.logIfEnabled(FQCN, DEBUG, marker, msg, t);
+        }
     }
 
     /**
@@ -1269,7 +1530,9 @@ public final class MyLogger implements Serializable {
      * @param message the message object to log.
      */
     public void debug(final Marker marker, final Object message) {
-        logger.logIfEnabled(FQCN, DEBUG, marker, message, (Throwable) null);
+        if (LevelElision.DEBUG) {
+            logger.logIfEnabled(FQCN, DEBUG, marker, message, (Throwable) null);
+        }
     }
 
     /**
@@ -1281,7 +1544,9 @@ public final class MyLogger implements Serializable {
      * @param t the exception to log, including its stack trace.
      */
     public void debug(final Marker marker, final Object message, final Throwable t) {
-        logger.logIfEnabled(FQCN, DEBUG, marker, message, t);
+        if (LevelElision.DEBUG) {
+            logger.logIfEnabled(FQCN, DEBUG, marker, message, t);
+        }
     }
 
     /**
@@ -1291,7 +1556,9 @@ public final class MyLogger implements Serializable {
      * @param message the message object to log.
      */
     public void debug(final Marker marker, final String message) {
-        logger.logIfEnabled(FQCN, DEBUG, marker, message, (Throwable) null);
+        if (LevelElision.DEBUG) {
+            logger.logIfEnabled(FQCN, DEBUG, marker, message, (Throwable) null);
+        }
     }
 
     /**
@@ -1303,7 +1570,9 @@ public final class MyLogger implements Serializable {
      * @see #getMessageFactory()
      */
     public void debug(final Marker marker, final String message, final Object... params) {
-        logger.logIfEnabled(FQCN, DEBUG, marker, message, params);
+        if (LevelElision.DEBUG) {
+            logger.logIfEnabled(FQCN, DEBUG, marker, message, params);
+        }
     }
 
     /**
@@ -1315,7 +1584,9 @@ public final class MyLogger implements Serializable {
      * @param t the exception to log, including its stack trace.
      */
     public void debug(final Marker marker, final String message, final Throwable t) {
-        logger.logIfEnabled(FQCN, DEBUG, marker, message, t);
+        if (LevelElision.DEBUG) {
+            logger.logIfEnabled(FQCN, DEBUG, marker, message, t);
+        }
     }
 
     /**
@@ -1324,7 +1595,9 @@ public final class MyLogger implements Serializable {
      * @param msg the message string to be logged
      */
     public void debug(final Message msg) {
-        logger.logIfEnabled(FQCN, DEBUG, null, msg, (Throwable) null);
+        if (LevelElision.DEBUG) {
+            logger.logIfEnabled(FQCN, DEBUG, null, msg, (Throwable) null);
+        }
     }
 
     /**
@@ -1334,7 +1607,9 @@ public final class MyLogger implements Serializable {
      * @param t A Throwable or null.
      */
     public void debug(final Message msg, final Throwable t) {
-        logger.logIfEnabled(FQCN, DEBUG, null, msg, t);
+        if (LevelElision.DEBUG) {
+            logger.logIfEnabled(FQCN, DEBUG, null, msg, t);
+        }
     }
 
     /**
@@ -1343,7 +1618,9 @@ public final class MyLogger implements Serializable {
      * @param message the message object to log.
      */
     public void debug(final Object message) {
-        logger.logIfEnabled(FQCN, DEBUG, null, message, (Throwable) null);
+        if (LevelElision.DEBUG) {
+            logger.logIfEnabled(FQCN, DEBUG, null, message, (Throwable) null);
+        }
     }
 
     /**
@@ -1354,7 +1631,9 @@ public final class MyLogger implements Serializable {
      * @param t the exception to log, including its stack trace.
      */
     public void debug(final Object message, final Throwable t) {
-        logger.logIfEnabled(FQCN, DEBUG, null, message, t);
+        if (LevelElision.DEBUG) {
+            logger.logIfEnabled(FQCN, DEBUG, null, message, t);
+        }
     }
 
     /**
@@ -1363,7 +1642,9 @@ public final class MyLogger implements Serializable {
      * @param message the message object to log.
      */
     public void debug(final String message) {
-        logger.logIfEnabled(FQCN, DEBUG, null, message, (Throwable) null);
+        if (LevelElision.DEBUG) {
+            logger.logIfEnabled(FQCN, DEBUG, null, message, (Throwable) null);
+        }
     }
 
     /**
@@ -1374,7 +1655,9 @@ public final class MyLogger implements Serializable {
      * @see #getMessageFactory()
      */
     public void debug(final String message, final Object... params) {
-        logger.logIfEnabled(FQCN, DEBUG, null, message, params);
+        if (LevelElision.DEBUG) {
+            logger.logIfEnabled(FQCN, DEBUG, null, message, params);
+        }
     }
 
     /**
@@ -1385,7 +1668,9 @@ public final class MyLogger implements Serializable {
      * @param t the exception to log, including its stack trace.
      */
     public void debug(final String message, final Throwable t) {
-        logger.logIfEnabled(FQCN, DEBUG, null, message, t);
+        if (LevelElision.DEBUG) {
+            logger.logIfEnabled(FQCN, DEBUG, null, message, t);
+        }
     }
 
     /**
@@ -1396,7 +1681,9 @@ public final class MyLogger implements Serializable {
      * @since 2.4
      */
     public void debug(final Supplier<?> msgSupplier) {
-        logger.logIfEnabled(FQCN, DEBUG, null, msgSupplier, (Throwable) null);
+        if (LevelElision.DEBUG) {
+            logger.logIfEnabled(FQCN, DEBUG, null, msgSupplier, (Throwable) null);
+        }
     }
 
     /**
@@ -1409,7 +1696,9 @@ public final class MyLogger implements Serializable {
      * @since 2.4
      */
     public void debug(final Supplier<?> msgSupplier, final Throwable t) {
-        logger.logIfEnabled(FQCN, DEBUG, null, msgSupplier, t);
+        if (LevelElision.DEBUG) {
+            logger.logIfEnabled(FQCN, DEBUG, null, msgSupplier, t);
+        }
     }
 
     /**
@@ -1422,7 +1711,9 @@ public final class MyLogger implements Serializable {
      * @since 2.4
      */
     public void debug(final Marker marker, final Supplier<?> msgSupplier) {
-        logger.logIfEnabled(FQCN, DEBUG, marker, msgSupplier, (Throwable) null);
+        if (LevelElision.DEBUG) {
+            logger.logIfEnabled(FQCN, DEBUG, marker, msgSupplier, (Throwable) null);
+        }
     }
 
     /**
@@ -1435,7 +1726,9 @@ public final class MyLogger implements Serializable {
      * @since 2.4
      */
     public void debug(final Marker marker, final String message, final Supplier<?>... paramSuppliers) {
-        logger.logIfEnabled(FQCN, DEBUG, marker, message, paramSuppliers);
+        if (LevelElision.DEBUG) {
+            logger.logIfEnabled(FQCN, DEBUG, marker, message, paramSuppliers);
+        }
     }
 
     /**
@@ -1450,7 +1743,9 @@ public final class MyLogger implements Serializable {
      * @since 2.4
      */
     public void debug(final Marker marker, final Supplier<?> msgSupplier, final Throwable t) {
-        logger.logIfEnabled(FQCN, DEBUG, marker, msgSupplier, t);
+        if (LevelElision.DEBUG) {
+            logger.logIfEnabled(FQCN, DEBUG, marker, msgSupplier, t);
+        }
     }
 
     /**
@@ -1462,7 +1757,9 @@ public final class MyLogger implements Serializable {
      * @since 2.4
      */
     public void debug(final String message, final Supplier<?>... paramSuppliers) {
-        logger.logIfEnabled(FQCN, DEBUG, null, message, paramSuppliers);
+        if (LevelElision.DEBUG) {
+            logger.logIfEnabled(FQCN, DEBUG, null, message, paramSuppliers);
+        }
     }
 
     /**
@@ -1475,7 +1772,9 @@ public final class MyLogger implements Serializable {
      * @since 2.4
      */
     public void debug(final Marker marker, final MessageSupplier msgSupplier) {
-        logger.logIfEnabled(FQCN, DEBUG, marker, msgSupplier, (Throwable) null);
+        if (LevelElision.DEBUG) {
+            logger.logIfEnabled(FQCN, DEBUG, marker, msgSupplier, (Throwable) null);
+        }
     }
 
     /**
@@ -1490,7 +1789,9 @@ public final class MyLogger implements Serializable {
      * @since 2.4
      */
     public void debug(final Marker marker, final MessageSupplier msgSupplier, final Throwable t) {
-        logger.logIfEnabled(FQCN, DEBUG, marker, msgSupplier, t);
+        if (LevelElision.DEBUG) {
+            logger.logIfEnabled(FQCN, DEBUG, marker, msgSupplier, t);
+        }
     }
 
     /**
@@ -1502,7 +1803,9 @@ public final class MyLogger implements Serializable {
      * @since 2.4
      */
     public void debug(final MessageSupplier msgSupplier) {
-        logger.logIfEnabled(FQCN, DEBUG, null, msgSupplier, (Throwable) null);
+        if (LevelElision.DEBUG) {
+            logger.logIfEnabled(FQCN, DEBUG, null, msgSupplier, (Throwable) null);
+        }
     }
 
     /**
@@ -1516,7 +1819,9 @@ public final class MyLogger implements Serializable {
      * @since 2.4
      */
     public void debug(final MessageSupplier msgSupplier, final Throwable t) {
-        logger.logIfEnabled(FQCN, DEBUG, null, msgSupplier, t);
+        if (LevelElision.DEBUG) {
+            logger.logIfEnabled(FQCN, DEBUG, null, msgSupplier, t);
+        }
     }
 
     /**
@@ -1526,7 +1831,9 @@ public final class MyLogger implements Serializable {
      * @param msg the message string to be logged
      */
     public void function(final Marker marker, final Message msg) {
-        logger.logIfEnabled(FQCN, FUNCTION, marker, msg, (Throwable) null);
+        if (LevelElision.FUNCTION) {
+            logger.logIfEnabled(FQCN, FUNCTION, marker, msg, (Throwable) null);
+        }
     }
 
     /**
@@ -1537,7 +1844,9 @@ public final class MyLogger implements Serializable {
      * @param t A Throwable or null.
      */
     public void function(final Marker marker, final Message msg, final Throwable t) {
-        logger.logIfEnabled(FQCN, FUNCTION, marker, msg, t);
+        if (LevelElision.FUNCTION) {
+            logger.logIfEnabled(FQCN, FUNCTION, marker, msg, t);
+        }
     }
 
     /**
@@ -1547,7 +1856,9 @@ public final class MyLogger implements Serializable {
      * @param message the message object to log.
      */
     public void function(final Marker marker, final Object message) {
-        logger.logIfEnabled(FQCN, FUNCTION, marker, message, (Throwable) null);
+        if (LevelElision.FUNCTION) {
+            logger.logIfEnabled(FQCN, FUNCTION, marker, message, (Throwable) null);
+        }
     }
 
     /**
@@ -1559,7 +1870,9 @@ public final class MyLogger implements Serializable {
      * @param t the exception to log, including its stack trace.
      */
     public void function(final Marker marker, final Object message, final Throwable t) {
-        logger.logIfEnabled(FQCN, FUNCTION, marker, message, t);
+        if (LevelElision.FUNCTION) {
+            logger.logIfEnabled(FQCN, FUNCTION, marker, message, t);
+        }
     }
 
     /**
@@ -1569,7 +1882,9 @@ public final class MyLogger implements Serializable {
      * @param message the message object to log.
      */
     public void function(final Marker marker, final String message) {
-        logger.logIfEnabled(FQCN, FUNCTION, marker, message, (Throwable) null);
+        if (LevelElision.FUNCTION) {
+            logger.logIfEnabled(FQCN, FUNCTION, marker, message, (Throwable) null);
+        }
     }
 
     /**
@@ -1581,7 +1896,9 @@ public final class MyLogger implements Serializable {
      * @see #getMessageFactory()
      */
     public void function(final Marker marker, final String message, final Object... params) {
-        logger.logIfEnabled(FQCN, FUNCTION, marker, message, params);
+        if (LevelElision.FUNCTION) {
+            logger.logIfEnabled(FQCN, FUNCTION, marker, message, params);
+        }
     }
 
     /**
@@ -1593,7 +1910,9 @@ public final class MyLogger implements Serializable {
      * @param t the exception to log, including its stack trace.
      */
     public void function(final Marker marker, final String message, final Throwable t) {
-        logger.logIfEnabled(FQCN, FUNCTION, marker, message, t);
+        if (LevelElision.FUNCTION) {
+            logger.logIfEnabled(FQCN, FUNCTION, marker, message, t);
+        }
     }
 
     /**
@@ -1602,7 +1921,9 @@ public final class MyLogger implements Serializable {
      * @param msg the message string to be logged
      */
     public void function(final Message msg) {
-        logger.logIfEnabled(FQCN, FUNCTION, null, msg, (Throwable) null);
+        if (LevelElision.FUNCTION) {
+            logger.logIfEnabled(FQCN, FUNCTION, null, msg, (Throwable) null);
+        }
     }
 
     /**
@@ -1612,7 +1933,9 @@ public final class MyLogger implements Serializable {
      * @param t A Throwable or null.
      */
     public void function(final Message msg, final Throwable t) {
-        logger.logIfEnabled(FQCN, FUNCTION, null, msg, t);
+        if (LevelElision.FUNCTION) {
+            logger.logIfEnabled(FQCN, FUNCTION, null, msg, t);
+        }
     }
 
     /**
@@ -1621,7 +1944,9 @@ public final class MyLogger implements Serializable {
      * @param message the message object to log.
      */
     public void function(final Object message) {
-        logger.logIfEnabled(FQCN, FUNCTION, null, message, (Throwable) null);
+        if (LevelElision.FUNCTION) {
+            logger.logIfEnabled(FQCN, FUNCTION, null, message, (Throwable) null);
+        }
     }
 
     /**
@@ -1632,7 +1957,9 @@ public final class MyLogger implements Serializable {
      * @param t the exception to log, including its stack trace.
      */
     public void function(final Object message, final Throwable t) {
-        logger.logIfEnabled(FQCN, FUNCTION, null, message, t);
+        if (LevelElision.FUNCTION) {
+            logger.logIfEnabled(FQCN, FUNCTION, null, message, t);
+        }
     }
 
     /**
@@ -1641,7 +1968,9 @@ public final class MyLogger implements Serializable {
      * @param message the message object to log.
      */
     public void function(final String message) {
-        logger.logIfEnabled(FQCN, FUNCTION, null, message, (Throwable) null);
+        if (LevelElision.FUNCTION) {
+            logger.logIfEnabled(FQCN, FUNCTION, null, message, (Throwable) null);
+        }
     }
 
     /**
@@ -1652,7 +1981,9 @@ public final class MyLogger implements Serializable {
      * @see #getMessageFactory()
      */
     public void function(final String message, final Object... params) {
-        logger.logIfEnabled(FQCN, FUNCTION, null, message, params);
+        if (LevelElision.FUNCTION) {
+            logger.logIfEnabled(FQCN, FUNCTION, null, message, params);
+        }
     }
 
     /**
@@ -1663,7 +1994,9 @@ public final class MyLogger implements Serializable {
      * @param t the exception to log, including its stack trace.
      */
     public void function(final String message, final Throwable t) {
-        logger.logIfEnabled(FQCN, FUNCTION, null, message, t);
+        if (LevelElision.FUNCTION) {
+            logger.logIfEnabled(FQCN, FUNCTION, null, message, t);
+        }
     }
 
     /**
@@ -1674,7 +2007,9 @@ public final class MyLogger implements Serializable {
      * @since 2.4
      */
     public void function(final Supplier<?> msgSupplier) {
-        logger.logIfEnabled(FQCN, FUNCTION, null, msgSupplier, (Throwable) null);
+        if (LevelElision.FUNCTION) {
+            logger.logIfEnabled(FQCN, FUNCTION, null, msgSupplier, (Throwable) null);
+        }
     }
 
     /**
@@ -1687,7 +2022,9 @@ public final class MyLogger implements Serializable {
      * @since 2.4
      */
     public void function(final Supplier<?> msgSupplier, final Throwable t) {
-        logger.logIfEnabled(FQCN, FUNCTION, null, msgSupplier, t);
+        if (LevelElision.FUNCTION) {
+            logger.logIfEnabled(FQCN, FUNCTION, null, msgSupplier, t);
+        }
     }
 
     /**
@@ -1700,7 +2037,9 @@ public final class MyLogger implements Serializable {
      * @since 2.4
      */
     public void function(final Marker marker, final Supplier<?> msgSupplier) {
-        logger.logIfEnabled(FQCN, FUNCTION, marker, msgSupplier, (Throwable) null);
+        if (LevelElision.FUNCTION) {
+            logger.logIfEnabled(FQCN, FUNCTION, marker, msgSupplier, (Throwable) null);
+        }
     }
 
     /**
@@ -1713,7 +2052,9 @@ public final class MyLogger implements Serializable {
      * @since 2.4
      */
     public void function(final Marker marker, final String message, final Supplier<?>... paramSuppliers) {
-        logger.logIfEnabled(FQCN, FUNCTION, marker, message, paramSuppliers);
+        if (LevelElision.FUNCTION) {
+            logger.logIfEnabled(FQCN, FUNCTION, marker, message, paramSuppliers);
+        }
     }
 
     /**
@@ -1728,7 +2069,9 @@ public final class MyLogger implements Serializable {
      * @since 2.4
      */
     public void function(final Marker marker, final Supplier<?> msgSupplier, final Throwable t) {
-        logger.logIfEnabled(FQCN, FUNCTION, marker, msgSupplier, t);
+        if (LevelElision.FUNCTION) {
+            logger.logIfEnabled(FQCN, FUNCTION, marker, msgSupplier, t);
+        }
     }
 
     /**
@@ -1740,7 +2083,9 @@ public final class MyLogger implements Serializable {
      * @since 2.4
      */
     public void function(final String message, final Supplier<?>... paramSuppliers) {
-        logger.logIfEnabled(FQCN, FUNCTION, null, message, paramSuppliers);
+        if (LevelElision.FUNCTION) {
+            logger.logIfEnabled(FQCN, FUNCTION, null, message, paramSuppliers);
+        }
     }
 
     /**
@@ -1753,7 +2098,9 @@ public final class MyLogger implements Serializable {
      * @since 2.4
      */
     public void function(final Marker marker, final MessageSupplier msgSupplier) {
-        logger.logIfEnabled(FQCN, FUNCTION, marker, msgSupplier, (Throwable) null);
+        if (LevelElision.FUNCTION) {
+            logger.logIfEnabled(FQCN, FUNCTION, marker, msgSupplier, (Throwable) null);
+        }
     }
 
     /**
@@ -1768,7 +2115,9 @@ public final class MyLogger implements Serializable {
      * @since 2.4
      */
     public void function(final Marker marker, final MessageSupplier msgSupplier, final Throwable t) {
-        logger.logIfEnabled(FQCN, FUNCTION, marker, msgSupplier, t);
+        if (LevelElision.FUNCTION) {
+            logger.logIfEnabled(FQCN, FUNCTION, marker, msgSupplier, t);
+        }
     }
 
     /**
@@ -1780,7 +2129,9 @@ public final class MyLogger implements Serializable {
      * @since 2.4
      */
     public void function(final MessageSupplier msgSupplier) {
-        logger.logIfEnabled(FQCN, FUNCTION, null, msgSupplier, (Throwable) null);
+        if (LevelElision.FUNCTION) {
+            logger.logIfEnabled(FQCN, FUNCTION, null, msgSupplier, (Throwable) null);
+        }
     }
 
     /**
@@ -1794,7 +2145,9 @@ public final class MyLogger implements Serializable {
      * @since 2.4
      */
     public void function(final MessageSupplier msgSupplier, final Throwable t) {
-        logger.logIfEnabled(FQCN, FUNCTION, null, msgSupplier, t);
+        if (LevelElision.FUNCTION) {
+            logger.logIfEnabled(FQCN, FUNCTION, null, msgSupplier, t);
+        }
     }
 }
 
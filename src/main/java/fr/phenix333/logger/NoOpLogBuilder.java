@@ -0,0 +1,63 @@
+package fr.phenix333.logger;
+
+import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.message.Message;
+import org.apache.logging.log4j.util.Supplier;
+
+/**
+ * Builder returned for a disabled level.
+ */
+final class NoOpLogBuilder implements MyLogBuilder {
+    static final NoOpLogBuilder INSTANCE = new NoOpLogBuilder();
+
+    private NoOpLogBuilder() {
+    }
+
+    @Override
+    public MyLogBuilder with(final String key, final Object value) {
+        return this;
+    }
+
+    @Override
+    public MyLogBuilder with(final String key, final Supplier<?> valueSupplier) {
+        return this;
+    }
+
+    @Override
+    public MyLogBuilder withMarker(final Marker marker) {
+        return this;
+    }
+
+    @Override
+    public MyLogBuilder withThrowable(final Throwable t) {
+        return this;
+    }
+
+    @Override
+    public void log() {
+    }
+
+    @Override
+    public void log(final String message) {
+    }
+
+    @Override
+    public void log(final String message, final Object p0) {
+    }
+
+    @Override
+    public void log(final String message, final Object p0, final Object p1) {
+    }
+
+    @Override
+    public void log(final String message, final Object... params) {
+    }
+
+    @Override
+    public void log(final Supplier<?> msgSupplier) {
+    }
+
+    @Override
+    public void log(final Message msg) {
+    }
+}
@@ -0,0 +1,296 @@
+package fr.phenix333.logger;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToLongFunction;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.message.Message;
+import org.apache.logging.log4j.status.StatusLogger;
+import org.apache.logging.log4j.util.PropertiesUtil;
+
+/**
+ * Per-call-site profiler of the enabled events of {@link MyLogger}: events,
+ * bytes of the formatted message and time spent in the logging call, per
+ * level, logger name and message template.
+ * <p>
+ * Disabled by default, it is enabled with the
+ * {@code fr.phenix333.logger.profile} property or through the
+ * {@link ProfilerMXBean}, which also prints the report. The MXBean is only
+ * registered with the {@code fr.phenix333.logger.profile} property, or with
+ * {@code fr.phenix333.logger.profile.jmx} to enable the profiler later: a JVM
+ * which does not profile does not start the platform MBean server for it. With
+ * a sample rate, one
+ * event in {@code fr.phenix333.logger.profile.sample} has its caller frame
+ * captured, to tell apart the statements sharing a template. The counters are
+ * {@link LongAdder}s in concurrent maps, the calling threads never lock them
+ * once their call site is known. Beyond {@code fr.phenix333.logger.profile.sites}
+ * call sites, the new templates of a logger are counted together.
+ */
+final class Profiler implements ProfilerMXBean {
+    private static final String PROPERTY = "fr.phenix333.logger.profile";
+    private static final String SAMPLE_PROPERTY = "fr.phenix333.logger.profile.sample";
+    private static final String SITES_PROPERTY = "fr.phenix333.logger.profile.sites";
+    private static final String JMX_PROPERTY = "fr.phenix333.logger.profile.jmx";
+    private static final String OTHER = "(other templates)";
+    private static final int TEMPLATE_WIDTH = 100;
+
+    private static final Profiler INSTANCE = new Profiler();
+    private static volatile boolean enabled = PropertiesUtil.getProperties().getBooleanProperty(PROPERTY);
+
+    static {
+        if (enabled || PropertiesUtil.getProperties().getBooleanProperty(JMX_PROPERTY)) {
+            register();
+        }
+    }
+
+    private static void register() {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(INSTANCE,
+                    new ObjectName("fr.phenix333.logger:type=Profiler"));
+        } catch (final JMException e) {
+            StatusLogger.getLogger().warn("Unable to register the profiler: {}", e.toString());
+        }
+    }
+
+    private final int maxSites = PropertiesUtil.getProperties().getIntegerProperty(SITES_PROPERTY, 10_000);
+    private volatile int sampleRate = PropertiesUtil.getProperties().getIntegerProperty(SAMPLE_PROPERTY, 0);
+    private final ConcurrentMap<Level, ConcurrentMap<String, ConcurrentMap<String, Site>>> templates =
+            new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Site> frames = new ConcurrentHashMap<>();
+    private final AtomicInteger sites = new AtomicInteger();
+
+    private Profiler() {
+    }
+
+    /**
+     * @return True if the events must be counted.
+     */
+    static boolean profiles() {
+        return enabled;
+    }
+
+    /**
+     * @param message the message of an enabled event.
+     * @return The template of the message, to be read before it is logged, as
+     *         a reusable message may be reused once logged.
+     */
+    static String templateOf(final Message message) {
+        final String format = message.getFormat();
+        return format != null ? format : message.getClass().getSimpleName();
+    }
+
+    /**
+     * @param message the message of an enabled event.
+     * @return The UTF-8 length of the formatted message, which the message
+     *         keeps for the layout.
+     */
+    static int bytesOf(final Message message) {
+        final String formatted = message.getFormattedMessage();
+        if (formatted == null) {
+            return 0;
+        }
+        int bytes = formatted.length();
+        for (int i = 0; i < formatted.length(); i++) {
+            final char c = formatted.charAt(i);
+            if (c >= 0x800 && !Character.isSurrogate(c)) {
+                bytes += 2;
+            } else if (c >= 0x80) {
+                // a surrogate pair is 4 bytes, 2 chars
+                bytes++;
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Counts an event logged by the calling thread.
+     *
+     * @param fqcn the class the calling frame called.
+     * @param logger the name of the logger.
+     * @param level the level of the event.
+     * @param template the template of its message.
+     * @param bytes the bytes of its formatted message.
+     * @param nanos the time spent logging it.
+     */
+    static void record(final String fqcn, final String logger, final Level level, final String template,
+            final int bytes, final long nanos) {
+        INSTANCE.site(logger, level, template).add(bytes, nanos);
+        final int rate = INSTANCE.sampleRate;
+        if (rate > 0 && ThreadLocalRandom.current().nextInt(rate) == 0) {
+            final String frame = callerOf(fqcn);
+            INSTANCE.frames.computeIfAbsent(frame, k -> new Site(logger, level, frame)).add(bytes, nanos);
+        }
+    }
+
+    private Site site(final String logger, final Level level, final String template) {
+        ConcurrentMap<String, ConcurrentMap<String, Site>> byLogger = templates.get(level);
+        if (byLogger == null) {
+            byLogger = templates.computeIfAbsent(level, k -> new ConcurrentHashMap<>());
+        }
+        ConcurrentMap<String, Site> byTemplate = byLogger.get(logger);
+        if (byTemplate == null) {
+            byTemplate = byLogger.computeIfAbsent(logger, k -> new ConcurrentHashMap<>());
+        }
+        final Site site = byTemplate.get(template);
+        if (site != null) {
+            return site;
+        }
+        if (sites.get() >= maxSites) {
+            return byTemplate.computeIfAbsent(OTHER, k -> new Site(logger, level, OTHER));
+        }
+        final Site created = new Site(logger, level, template);
+        final Site previous = byTemplate.putIfAbsent(template, created);
+        if (previous != null) {
+            return previous;
+        }
+        sites.incrementAndGet();
+        return created;
+    }
+
+    private static String callerOf(final String fqcn) {
+        return StackWalker.getInstance().walk(frames -> frames.dropWhile(f -> !f.getClassName().equals(fqcn))
+                .dropWhile(f -> f.getClassName().equals(fqcn)).findFirst()
+                .map(f -> f.getClassName() + "." + f.getMethodName() + ":" + f.getLineNumber()).orElse("?"));
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void setEnabled(final boolean enabled) {
+        Profiler.enabled = enabled;
+    }
+
+    @Override
+    public int getSampleRate() {
+        return sampleRate;
+    }
+
+    @Override
+    public void setSampleRate(final int sampleRate) {
+        this.sampleRate = Math.max(0, sampleRate);
+    }
+
+    @Override
+    public String getReport() {
+        return report(20, "events");
+    }
+
+    @Override
+    public String report(final int top, final String order) {
+        final ToLongFunction<Counts> key;
+        switch (order == null ? "events" : order.toLowerCase(Locale.ROOT)) {
+        case "bytes":
+            key = counts -> counts.bytes;
+            break;
+        case "time":
+            key = counts -> counts.nanos;
+            break;
+        case "events":
+            key = counts -> counts.events;
+            break;
+        default:
+            throw new IllegalArgumentException("Unknown order " + order + ", events, bytes or time expected");
+        }
+        final List<Counts> all = new ArrayList<>();
+        templates.values().forEach(byLogger -> byLogger.values()
+                .forEach(byTemplate -> byTemplate.values().forEach(site -> all.add(new Counts(site)))));
+        final StringBuilder report = new StringBuilder();
+        append(report, "Call sites by " + order, all, top, key, 1);
+        final int rate = sampleRate;
+        if (!frames.isEmpty() && rate > 0) {
+            final List<Counts> sampled = new ArrayList<>();
+            frames.values().forEach(site -> sampled.add(new Counts(site)));
+            report.append('\n');
+            append(report, "Caller frames by " + order + ", estimated from one event in " + rate, sampled, top, key,
+                    rate);
+        }
+        return report.toString();
+    }
+
+    private static void append(final StringBuilder report, final String title, final List<Counts> sites,
+            final int top, final ToLongFunction<Counts> key, final int scale) {
+        long events = 0;
+        long bytes = 0;
+        long nanos = 0;
+        for (final Counts counts : sites) {
+            events += counts.events;
+            bytes += counts.bytes;
+            nanos += counts.nanos;
+        }
+        final long total = Math.max(1, sites.stream().mapToLong(key).sum());
+        sites.sort(Comparator.comparingLong(key).reversed());
+        report.append(String.format(Locale.ROOT, "%s, %d sites, %d events, %d bytes, %d ms%n", title, sites.size(),
+                events * scale, bytes * scale, nanos * scale / 1_000_000));
+        report.append(String.format(Locale.ROOT, "%6s %12s %14s %10s %8s  %s%n", "share", "events", "bytes", "ms",
+                "level", "logger / template"));
+        for (final Counts counts : sites.subList(0, Math.min(top, sites.size()))) {
+            final Site site = counts.site;
+            final String template = site.template.length() > TEMPLATE_WIDTH
+                    ? site.template.substring(0, TEMPLATE_WIDTH) + "..." : site.template;
+            report.append(String.format(Locale.ROOT, "%5.1f%% %12d %14d %10d %8s  %s / %s%n",
+                    100.0 * key.applyAsLong(counts) / total, counts.events * scale, counts.bytes * scale,
+                    counts.nanos * scale / 1_000_000, site.level, site.logger, template.replace("\n", "\\n")));
+        }
+    }
+
+    @Override
+    public void reset() {
+        templates.clear();
+        frames.clear();
+        sites.set(0);
+    }
+
+    private static final class Site {
+        private final String logger;
+        private final Level level;
+        private final String template;
+        private final LongAdder events = new LongAdder();
+        private final LongAdder bytes = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+
+        private Site(final String logger, final Level level, final String template) {
+            this.logger = logger;
+            this.level = level;
+            this.template = template;
+        }
+
+        private void add(final int bytes, final long nanos) {
+            events.increment();
+            this.bytes.add(bytes);
+            this.nanos.add(nanos);
+        }
+    }
+
+    /**
+     * Counts of a site read once, for a report consistent with itself while
+     * the events are still counted.
+     */
+    private static final class Counts {
+        private final Site site;
+        private final long events;
+        private final long bytes;
+        private final long nanos;
+
+        private Counts(final Site site) {
+            this.site = site;
+            this.events = site.events.sum();
+            this.bytes = site.bytes.sum();
+            this.nanos = site.nanos.sum();
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package fr.phenix333.logger;
+
+/**
+ * Control of the per-call-site profiler of {@link MyLogger}, registered as
+ * {@code fr.phenix333.logger:type=Profiler}.
+ */
+public interface ProfilerMXBean {
+
+    /**
+     * @return True if the enabled events are counted.
+     */
+    boolean isEnabled();
+
+    /**
+     * @param enabled true to count the enabled events.
+     */
+    void setEnabled(boolean enabled);
+
+    /**
+     * @return One in how many events has its caller frame captured, 0 if none.
+     */
+    int getSampleRate();
+
+    /**
+     * @param sampleRate one in how many events has its caller frame captured,
+     *            0 for none.
+     */
+    void setSampleRate(int sampleRate);
+
+    /**
+     * @return The 20 call sites which logged the most events.
+     */
+    String getReport();
+
+    /**
+     * @param top the number of call sites to list.
+     * @param order {@code events}, {@code bytes} or {@code time}.
+     * @return The call sites which logged the most events, bytes or time.
+     */
+    String report(int top, String order);
+
+    /**
+     * Forgets the counts.
+     */
+    void reset();
+}
@@ -0,0 +1,220 @@
+package fr.phenix333.logger.appender;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Gzip stream written as a sequence of members of {@code blockSize}
+ * uncompressed bytes, which is still a regular gzip file for {@code zcat} or
+ * {@code GZIPInputStream}.
+ * <p>
+ * A member is complete on disk as soon as it reaches its size, and
+ * {@link #flush()} writes the part of the current member compressed so far
+ * with a sync flush: the file can be decompressed up to the last flush while
+ * it is being written, only its last member lacking its trailer. After an
+ * unclean exit, that member must be finished before the file is appended to,
+ * see {@link #truncateUnfinishedMember(File)}.
+ */
+final class BlockGzipOutputStream extends OutputStream {
+    private static final byte[] HEADER = { 0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff };
+    private static final int TRAILER_LENGTH = 8;
+
+    private final OutputStream out;
+    private final int blockSize;
+    private final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+    private final CRC32 crc = new CRC32();
+    private final byte[] buffer = new byte[1 << 16];
+    private long length;
+    private int blockLength = -1;
+    private boolean pending;
+    private boolean closed;
+
+    /**
+     * @param out the file.
+     * @param length the current length of the file.
+     * @param blockSize the uncompressed size of the members.
+     */
+    BlockGzipOutputStream(final OutputStream out, final long length, final int blockSize) {
+        this.out = out;
+        this.length = length;
+        this.blockSize = blockSize;
+    }
+
+    /**
+     * Cuts a file left by an unclean exit after its last complete member: a
+     * member without its trailer, followed by the new members of an append,
+     * would make the whole file unreadable. The events of the cut member are
+     * returned to be written again, up to its last complete line, as a member
+     * may also be torn in the middle of a write.
+     *
+     * @param file a file written by this stream.
+     * @return The uncompressed bytes of the cut member, empty if the file
+     *         ends with a complete member.
+     */
+    static byte[] truncateUnfinishedMember(final File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            final long size = channel.size();
+            final Inflater inflater = new Inflater(true);
+            final ByteArrayOutputStream member = new ByteArrayOutputStream();
+            final ByteBuffer input = ByteBuffer.allocate(1 << 16);
+            final byte[] output = new byte[1 << 16];
+            long start = 0;
+            try {
+                while (start < size) {
+                    member.reset();
+                    inflater.reset();
+                    final ByteBuffer header = ByteBuffer.allocate(HEADER.length);
+                    channel.read(header, start);
+                    if (header.position() < HEADER.length || header.get(0) != HEADER[0]
+                            || header.get(1) != HEADER[1] || header.get(3) != 0) {
+                        member.reset();
+                        break;
+                    }
+                    long position = start + HEADER.length;
+                    while (!inflater.finished()) {
+                        if (inflater.needsInput()) {
+                            input.clear();
+                            final int count = channel.read(input, position);
+                            if (count <= 0) {
+                                break;
+                            }
+                            position += count;
+                            inflater.setInput(input.array(), 0, count);
+                        }
+                        final int count = inflater.inflate(output);
+                        member.write(output, 0, count);
+                        if (count == 0 && !inflater.needsInput() && !inflater.finished()) {
+                            throw new DataFormatException("Unexpected end of the deflate stream");
+                        }
+                    }
+                    final long end = position - inflater.getRemaining() + TRAILER_LENGTH;
+                    if (!inflater.finished() || end > size) {
+                        break;
+                    }
+                    start = end;
+                }
+            } catch (final DataFormatException e) {
+                // torn, the bytes inflated so far are kept
+            } finally {
+                inflater.end();
+            }
+            if (start >= size) {
+                return new byte[0];
+            }
+            channel.truncate(start);
+            final byte[] bytes = member.toByteArray();
+            int length = bytes.length;
+            while (length > 0 && bytes[length - 1] != '\n') {
+                length--;
+            }
+            return Arrays.copyOf(bytes, length);
+        }
+    }
+
+    /**
+     * @return The length of the file, compressed data still held by the
+     *         deflater excluded.
+     */
+    long length() {
+        return length;
+    }
+
+    /**
+     * @return Whether bytes were written since the last flush.
+     */
+    boolean isPending() {
+        return pending;
+    }
+
+    @Override
+    public void write(final int b) throws IOException {
+        write(new byte[] { (byte) b }, 0, 1);
+    }
+
+    @Override
+    public void write(final byte[] b, final int off, final int len) throws IOException {
+        int offset = off;
+        int remaining = len;
+        while (remaining > 0) {
+            if (blockLength < 0) {
+                writeOut(HEADER, HEADER.length);
+                blockLength = 0;
+            }
+            final int count = Math.min(remaining, blockSize - blockLength);
+            pending = true;
+            deflater.setInput(b, offset, count);
+            crc.update(b, offset, count);
+            while (!deflater.needsInput()) {
+                writeOut(buffer, deflater.deflate(buffer, 0, buffer.length, Deflater.NO_FLUSH));
+            }
+            blockLength += count;
+            offset += count;
+            remaining -= count;
+            if (blockLength >= blockSize) {
+                finishMember();
+            }
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        if (blockLength > 0) {
+            int count;
+            do {
+                count = deflater.deflate(buffer, 0, buffer.length, Deflater.SYNC_FLUSH);
+                writeOut(buffer, count);
+            } while (count == buffer.length);
+        }
+        out.flush();
+        pending = false;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            if (blockLength >= 0) {
+                finishMember();
+            }
+            out.close();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private void finishMember() throws IOException {
+        deflater.finish();
+        while (!deflater.finished()) {
+            writeOut(buffer, deflater.deflate(buffer, 0, buffer.length));
+        }
+        final int value = (int) crc.getValue();
+        final byte[] trailer = { (byte) value, (byte) (value >> 8), (byte) (value >> 16), (byte) (value >> 24),
+                (byte) blockLength, (byte) (blockLength >> 8), (byte) (blockLength >> 16),
+                (byte) (blockLength >> 24) };
+        writeOut(trailer, trailer.length);
+        deflater.reset();
+        crc.reset();
+        blockLength = -1;
+    }
+
+    private void writeOut(final byte[] bytes, final int count) throws IOException {
+        if (count > 0) {
+            out.write(bytes, 0, count);
+            length += count;
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package fr.phenix333.logger.appender;
+
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.logging.log4j.core.Appender;
+import org.apache.logging.log4j.core.Core;
+import org.apache.logging.log4j.core.Filter;
+import org.apache.logging.log4j.core.Layout;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.appender.AbstractOutputStreamAppender;
+import org.apache.logging.log4j.core.appender.rolling.DefaultRolloverStrategy;
+import org.apache.logging.log4j.core.appender.rolling.RollingFileManager;
+import org.apache.logging.log4j.core.appender.rolling.RolloverStrategy;
+import org.apache.logging.log4j.core.appender.rolling.TriggeringPolicy;
+import org.apache.logging.log4j.core.config.Property;
+import org.apache.logging.log4j.core.config.plugins.Plugin;
+import org.apache.logging.log4j.core.config.plugins.PluginBuilderAttribute;
+import org.apache.logging.log4j.core.config.plugins.PluginBuilderFactory;
+import org.apache.logging.log4j.core.config.plugins.PluginElement;
+import org.apache.logging.log4j.core.config.plugins.validation.constraints.Required;
+
+/**
+ * {@code RollingFile} whose active file is written gzip compressed, as a
+ * sequence of gzip members of {@code blockSize} uncompressed bytes.
+ *
+ * <pre>
+ * &lt;CompressedRollingFile name="debug_log" fileName="Logs/debug.log.gz"
+ *         filePattern="Logs/debug-%d{dd-MM-yyyy}-%i.log.gz"&gt;
+ *     &lt;PatternLayout pattern="..." /&gt;
+ *     &lt;Policies&gt;...&lt;/Policies&gt;
+ *     &lt;DefaultRolloverStrategy max="20" /&gt;
+ * &lt;/CompressedRollingFile&gt;
+ * </pre>
+ *
+ * The file can be read with {@code zcat} while it is written, up to the last
+ * flush: the events are flushed when the buffer of {@code bufferSize} bytes is
+ * full, and at the latest {@code flushIntervalMillis} (1000 by default, 0 to
+ * disable) after they were written. {@code immediateFlush} is false by default
+ * as flushing each event would spoil the compression. The rollover only
+ * renames the file, off the logging threads, and the
+ * {@code SizeBasedTriggeringPolicy} applies to its compressed size.
+ */
+@Plugin(name = "CompressedRollingFile", category = Core.CATEGORY_NAME, elementType = Appender.ELEMENT_TYPE,
+        printObject = true)
+public final class CompressedRollingFileAppender extends AbstractOutputStreamAppender<RollingFileManager> {
+
+    private CompressedRollingFileAppender(final String name, final Layout<? extends Serializable> layout,
+            final Filter filter, final boolean ignoreExceptions, final boolean immediateFlush,
+            final Property[] properties, final RollingFileManager manager) {
+        super(name, layout, filter, ignoreExceptions, immediateFlush, properties, manager);
+    }
+
+    @PluginBuilderFactory
+    public static <B extends Builder<B>> B newBuilder() {
+        return new Builder<B>().asBuilder();
+    }
+
+    @Override
+    public void append(final LogEvent event) {
+        getManager().checkRollover(event);
+        super.append(event);
+    }
+
+    public static class Builder<B extends Builder<B>> extends AbstractOutputStreamAppender.Builder<B>
+            implements org.apache.logging.log4j.core.util.Builder<CompressedRollingFileAppender> {
+
+        @PluginBuilderAttribute
+        @Required(message = "A CompressedRollingFile appender requires a fileName")
+        private String fileName;
+
+        @PluginBuilderAttribute
+        @Required(message = "A CompressedRollingFile appender requires a filePattern")
+        private String filePattern;
+
+        @PluginBuilderAttribute
+        private boolean append = true;
+
+        @PluginBuilderAttribute
+        private int blockSize = 1024 * 1024;
+
+        @PluginBuilderAttribute
+        private long flushIntervalMillis = 1000;
+
+        @PluginElement("Policy")
+        @Required(message = "A CompressedRollingFile appender requires a triggering policy")
+        private TriggeringPolicy policy;
+
+        @PluginElement("Strategy")
+        private RolloverStrategy strategy;
+
+        public Builder() {
+            setImmediateFlush(false);
+        }
+
+        public B setFileName(final String fileName) {
+            this.fileName = fileName;
+            return asBuilder();
+        }
+
+        public B setFilePattern(final String filePattern) {
+            this.filePattern = filePattern;
+            return asBuilder();
+        }
+
+        public B setAppend(final boolean append) {
+            this.append = append;
+            return asBuilder();
+        }
+
+        public B setBlockSize(final int blockSize) {
+            this.blockSize = blockSize;
+            return asBuilder();
+        }
+
+        public B setFlushIntervalMillis(final long flushIntervalMillis) {
+            this.flushIntervalMillis = flushIntervalMillis;
+            return asBuilder();
+        }
+
+        public B setPolicy(final TriggeringPolicy policy) {
+            this.policy = policy;
+            return asBuilder();
+        }
+
+        public B setStrategy(final RolloverStrategy strategy) {
+            this.strategy = strategy;
+            return asBuilder();
+        }
+
+        @Override
+        public CompressedRollingFileAppender build() {
+            final RolloverStrategy rolloverStrategy = strategy != null ? strategy
+                    : DefaultRolloverStrategy.newBuilder().withConfig(getConfiguration()).build();
+            final Layout<? extends Serializable> layout = getOrCreateLayout(StandardCharsets.UTF_8);
+            final RollingFileManager manager = SwappingRollingFileManager.getFileManager(fileName, filePattern,
+                    append, blockSize, flushIntervalMillis, policy, rolloverStrategy, layout, getBufferSize(),
+                    getConfiguration());
+            if (manager == null) {
+                return null;
+            }
+            manager.initialize();
+            return new CompressedRollingFileAppender(getName(), layout, getFilter(), isIgnoreExceptions(),
+                    isImmediateFlush(), getPropertyArray(), manager);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package fr.phenix333.logger.appender;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.apache.logging.log4j.core.Appender;
+import org.apache.logging.log4j.core.Core;
+import org.apache.logging.log4j.core.LifeCycle2;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.appender.AbstractAppender;
+import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.config.Node;
+import org.apache.logging.log4j.core.config.Property;
+import org.apache.logging.log4j.core.config.plugins.Plugin;
+import org.apache.logging.log4j.core.config.plugins.PluginAttribute;
+import org.apache.logging.log4j.core.config.plugins.PluginConfiguration;
+import org.apache.logging.log4j.core.config.plugins.PluginFactory;
+import org.apache.logging.log4j.core.config.plugins.PluginNode;
+import org.apache.logging.log4j.core.filter.Filterable;
+
+/**
+ * Appender creating the appender it wraps on the first event it receives: a
+ * {@code RollingFile} which never gets an event opens no file, allocates no
+ * buffer and initializes no rollover policy.
+ *
+ * <pre>
+ * &lt;Lazy name="fatal_log"&gt;
+ *     &lt;RollingFile name="fatal_log" ...&gt;...&lt;/RollingFile&gt;
+ * &lt;/Lazy&gt;
+ * </pre>
+ *
+ * The wrapped appender is configured from its node when it is created, as the
+ * {@code Routing} appender does. On a reconfiguration, if the appender of the
+ * same name in the running configuration has created its appender, this one
+ * creates its own when it starts: the file manager is then shared by both
+ * instead of being closed and reopened. The filter of the wrapped appender
+ * applies, as when a logger calls it.
+ */
+@Plugin(name = "Lazy", category = Core.CATEGORY_NAME, elementType = Appender.ELEMENT_TYPE, printObject = true,
+        deferChildren = true)
+public final class LazyAppender extends AbstractAppender {
+    private final Configuration config;
+    private final Supplier<Appender> factory;
+    private volatile Appender appender;
+    private boolean failed;
+
+    private LazyAppender(final String name, final Configuration config, final Supplier<Appender> factory) {
+        super(name, null, null, true, Property.EMPTY_ARRAY);
+        this.config = config;
+        this.factory = factory;
+    }
+
+    /**
+     * @param name the name of the appender.
+     * @param config the configuration of the appender.
+     * @param factory the factory of the wrapped appender, called once.
+     * @return The appender.
+     */
+    public static LazyAppender create(final String name, final Configuration config,
+            final Supplier<Appender> factory) {
+        return new LazyAppender(name, config, factory);
+    }
+
+    @PluginFactory
+    public static LazyAppender createAppender(
+            @PluginAttribute("name") final String name,
+            @PluginNode final Node node,
+            @PluginConfiguration final Configuration config) {
+        final List<Node> children = node.getChildren();
+        if (name == null || children.size() != 1
+                || !Appender.ELEMENT_TYPE.equals(children.get(0).getType().getElementName())) {
+            LOGGER.error("Lazy requires a name and a single appender");
+            return null;
+        }
+        final Node appenderNode = children.get(0);
+        return new LazyAppender(name, config, () -> {
+            final Node copy = new Node(appenderNode);
+            config.createConfiguration(copy, null);
+            return copy.getObject(Appender.class);
+        });
+    }
+
+    /**
+     * @return The wrapped appender, or null if it is not created yet.
+     */
+    public Appender getAppender() {
+        return appender;
+    }
+
+    @Override
+    public void start() {
+        final LoggerContext context = config == null ? null : config.getLoggerContext();
+        final Configuration running = context == null ? null : context.getConfiguration();
+        if (running != null && running != config) {
+            final Appender previous = running.getAppender(getName());
+            if (previous instanceof LazyAppender && ((LazyAppender) previous).getAppender() != null) {
+                open();
+            }
+        }
+        super.start();
+    }
+
+    @Override
+    public void append(final LogEvent event) {
+        Appender target = appender;
+        if (target == null) {
+            target = open();
+            if (target == null) {
+                return;
+            }
+        }
+        // the filter of the wrapped appender, as an AppenderControl applies it when a logger calls the appender
+        if (!(target instanceof Filterable) || !((Filterable) target).isFiltered(event)) {
+            target.append(event);
+        }
+    }
+
+    private synchronized Appender open() {
+        if (appender == null && !failed && !isStopping() && !isStopped()) {
+            final Appender created = factory.get();
+            if (created == null) {
+                failed = true;
+                error("Unable to create the appender of " + getName() + ", its events are discarded");
+                return null;
+            }
+            created.start();
+            appender = created;
+        }
+        return appender;
+    }
+
+    @Override
+    public boolean stop(final long timeout, final TimeUnit timeUnit) {
+        setStopping();
+        final Appender target;
+        // an appender being created is started before it is seen here
+        synchronized (this) {
+            target = appender;
+        }
+        boolean stopped = true;
+        if (target instanceof LifeCycle2) {
+            stopped = ((LifeCycle2) target).stop(timeout, timeUnit);
+        } else if (target != null) {
+            target.stop();
+        }
+        setStopped();
+        return stopped;
+    }
+}
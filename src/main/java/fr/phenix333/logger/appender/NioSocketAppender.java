@@ -0,0 +1,412 @@
+package fr.phenix333.logger.appender;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import org.apache.logging.log4j.core.Appender;
+import org.apache.logging.log4j.core.Core;
+import org.apache.logging.log4j.core.Filter;
+import org.apache.logging.log4j.core.Layout;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.appender.AbstractAppender;
+import org.apache.logging.log4j.core.config.Property;
+import org.apache.logging.log4j.core.config.plugins.Plugin;
+import org.apache.logging.log4j.core.config.plugins.PluginBuilderAttribute;
+import org.apache.logging.log4j.core.config.plugins.PluginBuilderFactory;
+import org.apache.logging.log4j.core.config.plugins.validation.constraints.Required;
+
+/**
+ * Appender forwarding the events to a collector over TCP, without ever blocking
+ * the logging threads on the network.
+ * <p>
+ * Events are encoded by the calling thread and queued, a background thread
+ * packs them into a direct buffer and writes each batch with a single
+ * {@link SocketChannel} write. While the collector is unreachable, the queue
+ * holds up to {@code capacity} bytes of events and the thread reconnects, the
+ * delay doubling from {@code reconnectDelayMillis} up to
+ * {@code maxReconnectDelayMillis}. Beyond the capacity, new events are dropped
+ * and counted per level. The events of the last {@code resendBytes} bytes
+ * written are kept and sent again once reconnected: a write succeeds as soon as
+ * the bytes are in the buffers of the system, so the collector may have lost
+ * the last batches, unread, when it stopped. Events are delivered at least
+ * once, provided the collector lost less than {@code resendBytes}.
+ *
+ * <pre>
+ * &lt;NioSocket name="collector" host="logs.example.com" port="5140" capacity="33554432"&gt;
+ *     &lt;PatternLayout pattern="..." /&gt;
+ * &lt;/NioSocket&gt;
+ * </pre>
+ */
+@Plugin(name = "NioSocket", category = Core.CATEGORY_NAME, elementType = Appender.ELEMENT_TYPE, printObject = true)
+public final class NioSocketAppender extends AbstractAppender {
+    private static final long POLL_MILLIS = 100;
+    private static final long STOP_MILLIS = 5000;
+
+    private final String host;
+    private final int port;
+    private final int capacity;
+    private final int bufferSize;
+    private final int resendBytes;
+    private final int connectTimeoutMillis;
+    private final long reconnectDelayMillis;
+    private final long maxReconnectDelayMillis;
+    private final LinkedBlockingQueue<byte[]> queue = new LinkedBlockingQueue<>();
+    private final AtomicLong queuedBytes = new AtomicLong();
+    private final ConcurrentMap<String, LongAdder> dropped = new ConcurrentHashMap<>();
+    private final LongAdder droppedTotal = new LongAdder();
+    /**
+     * The last events written, to be sent again after a disconnection.
+     */
+    private final ArrayDeque<byte[]> sent = new ArrayDeque<>();
+    /**
+     * The events to send again before the queue.
+     */
+    private final ArrayDeque<byte[]> resend = new ArrayDeque<>();
+    private long sentBytes;
+    private long droppedReported;
+    private volatile boolean running;
+    private volatile SocketChannel channel;
+    private Thread writer;
+
+    private NioSocketAppender(final String name, final Filter filter, final Layout<? extends Serializable> layout,
+            final boolean ignoreExceptions, final Property[] properties, final String host, final int port,
+            final int capacity, final int bufferSize, final int resendBytes, final int connectTimeoutMillis,
+            final long reconnectDelayMillis, final long maxReconnectDelayMillis) {
+        super(name, filter, layout, ignoreExceptions, properties);
+        this.host = host;
+        this.port = port;
+        this.capacity = capacity;
+        this.bufferSize = bufferSize;
+        this.resendBytes = resendBytes;
+        this.connectTimeoutMillis = connectTimeoutMillis;
+        this.reconnectDelayMillis = reconnectDelayMillis;
+        this.maxReconnectDelayMillis = maxReconnectDelayMillis;
+    }
+
+    @PluginBuilderFactory
+    public static <B extends Builder<B>> B newBuilder() {
+        return new Builder<B>().asBuilder();
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        writer = new Thread(this::send, "Log4j2-" + getName());
+        writer.setDaemon(true);
+        writer.start();
+        super.start();
+    }
+
+    /**
+     * Gives the writer thread the timeout to send the queued events, then
+     * closes the connection.
+     */
+    @Override
+    public boolean stop(final long timeout, final TimeUnit timeUnit) {
+        setStopping();
+        running = false;
+        if (writer != null) {
+            try {
+                writer.join(timeout > 0 ? timeUnit.toMillis(timeout) : STOP_MILLIS);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            // a collector which stopped reading must not hang the shutdown
+            writer.interrupt();
+            close();
+        }
+        if (!queue.isEmpty()) {
+            LOGGER.warn("{} stopped with {} events not sent to {}:{}", getName(), queue.size(), host, port);
+        }
+        setStopped();
+        return true;
+    }
+
+    @Override
+    public void append(final LogEvent event) {
+        if (!running) {
+            return;
+        }
+        if (queuedBytes.get() >= capacity) {
+            dropped.computeIfAbsent(event.getLevel().name(), k -> new LongAdder()).increment();
+            droppedTotal.increment();
+            return;
+        }
+        final byte[] bytes = getLayout().toByteArray(event);
+        queuedBytes.addAndGet(bytes.length);
+        queue.offer(bytes);
+    }
+
+    /**
+     * @return The number of events dropped since the start, per level name.
+     */
+    public Map<String, Long> getDropped() {
+        final Map<String, Long> counts = new TreeMap<>();
+        dropped.forEach((level, count) -> counts.put(level, count.sum()));
+        return counts;
+    }
+
+    /**
+     * @return True if the appender is connected to the collector.
+     */
+    public boolean isConnected() {
+        return channel != null;
+    }
+
+    /**
+     * Body of the writer thread: connects, then writes the queued events by
+     * batches until stopped and the queue is empty.
+     */
+    private void send() {
+        final ByteBuffer buffer = ByteBuffer.allocateDirect(bufferSize);
+        buffer.flip();
+        byte[] carry = null;
+        long delay = reconnectDelayMillis;
+        while (running || !queue.isEmpty() || !resend.isEmpty() || carry != null || buffer.hasRemaining()) {
+            if (channel == null) {
+                if (!running || !connect()) {
+                    if (!running || Thread.currentThread().isInterrupted()) {
+                        return;
+                    }
+                    LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(delay));
+                    delay = Math.min(delay * 2, maxReconnectDelayMillis);
+                    continue;
+                }
+                delay = reconnectDelayMillis;
+                reportDropped();
+            }
+            try {
+                if (!buffer.hasRemaining()) {
+                    carry = fill(buffer, carry);
+                }
+                if (buffer.hasRemaining()) {
+                    write(buffer);
+                } else if (carry != null) {
+                    // larger than the buffer, sent alone
+                    write(ByteBuffer.wrap(carry));
+                    keep(carry);
+                    carry = null;
+                }
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (final IOException e) {
+                if (!running && Thread.currentThread().isInterrupted()) {
+                    return;
+                }
+                LOGGER.warn("{} lost the connection to {}:{}, reconnecting: {}", getName(), host, port, e.toString());
+                close();
+                resendSent(carry);
+                carry = null;
+                buffer.clear().flip();
+            }
+        }
+        close();
+    }
+
+    /**
+     * Packs the events to send again, then the queued ones, into the buffer,
+     * waiting for the first one.
+     *
+     * @param buffer the empty buffer, left ready to be written.
+     * @param carry an event taken from the queue which did not fit in the
+     *            previous batch, or null.
+     * @return The event which does not fit in this batch, or null.
+     */
+    private byte[] fill(final ByteBuffer buffer, final byte[] carry) throws InterruptedException {
+        buffer.clear();
+        byte[] bytes = carry != null ? carry : next(true);
+        while (bytes != null && bytes.length <= buffer.remaining()) {
+            buffer.put(bytes);
+            keep(bytes);
+            bytes = next(false);
+        }
+        buffer.flip();
+        return bytes;
+    }
+
+    private byte[] next(final boolean wait) throws InterruptedException {
+        final byte[] again = resend.poll();
+        if (again != null) {
+            return again;
+        }
+        final byte[] bytes = wait ? queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS) : queue.poll();
+        if (bytes != null) {
+            queuedBytes.addAndGet(-bytes.length);
+        }
+        return bytes;
+    }
+
+    /**
+     * Keeps an event of the batch being written, dropping the oldest ones
+     * beyond {@code resendBytes}.
+     */
+    private void keep(final byte[] bytes) {
+        sent.addLast(bytes);
+        sentBytes += bytes.length;
+        while (sentBytes > resendBytes) {
+            sentBytes -= sent.removeFirst().length;
+        }
+    }
+
+    /**
+     * Puts the last events written, the batch which failed included, before
+     * the ones still to send again.
+     *
+     * @param carry the event taken after them, or null.
+     */
+    private void resendSent(final byte[] carry) {
+        if (carry != null) {
+            resend.addFirst(carry);
+        }
+        while (!sent.isEmpty()) {
+            resend.addFirst(sent.removeLast());
+        }
+        sentBytes = 0;
+    }
+
+    private void write(final ByteBuffer buffer) throws IOException {
+        final SocketChannel current = channel;
+        if (current == null) {
+            throw new ClosedChannelException();
+        }
+        while (buffer.hasRemaining()) {
+            current.write(buffer);
+        }
+    }
+
+    private boolean connect() {
+        SocketChannel opened = null;
+        try {
+            opened = SocketChannel.open();
+            opened.socket().setKeepAlive(true);
+            // resolved on each attempt, the collector may have moved
+            opened.socket().connect(new InetSocketAddress(host, port), connectTimeoutMillis);
+            channel = opened;
+            return true;
+        } catch (final IOException e) {
+            LOGGER.debug("{} unable to connect to {}:{}: {}", getName(), host, port, e.toString());
+            if (opened != null) {
+                try {
+                    opened.close();
+                } catch (final IOException ignored) {
+                    // already failed
+                }
+            }
+            return false;
+        }
+    }
+
+    private void close() {
+        final SocketChannel current = channel;
+        channel = null;
+        if (current != null) {
+            try {
+                current.close();
+            } catch (final IOException e) {
+                LOGGER.debug("{} unable to close the connection: {}", getName(), e.toString());
+            }
+        }
+    }
+
+    private void reportDropped() {
+        final long total = droppedTotal.sum();
+        if (total != droppedReported) {
+            LOGGER.warn("{} dropped {} events while disconnected from {}:{}, {} since the start", getName(),
+                    total - droppedReported, host, port, getDropped());
+            droppedReported = total;
+        }
+    }
+
+    public static class Builder<B extends Builder<B>> extends AbstractAppender.Builder<B>
+            implements org.apache.logging.log4j.core.util.Builder<NioSocketAppender> {
+
+        @PluginBuilderAttribute
+        @Required(message = "A NioSocket appender requires a host")
+        private String host;
+
+        @PluginBuilderAttribute
+        private int port = 5140;
+
+        @PluginBuilderAttribute
+        private int capacity = 32 * 1024 * 1024;
+
+        @PluginBuilderAttribute
+        private int bufferSize = 64 * 1024;
+
+        @PluginBuilderAttribute
+        private int resendBytes = 1024 * 1024;
+
+        @PluginBuilderAttribute
+        private int connectTimeoutMillis = 5000;
+
+        @PluginBuilderAttribute
+        private long reconnectDelayMillis = 100;
+
+        @PluginBuilderAttribute
+        private long maxReconnectDelayMillis = 30_000;
+
+        public B setHost(final String host) {
+            this.host = host;
+            return asBuilder();
+        }
+
+        public B setPort(final int port) {
+            this.port = port;
+            return asBuilder();
+        }
+
+        public B setCapacity(final int capacity) {
+            this.capacity = capacity;
+            return asBuilder();
+        }
+
+        public B setBufferSize(final int bufferSize) {
+            this.bufferSize = bufferSize;
+            return asBuilder();
+        }
+
+        public B setResendBytes(final int resendBytes) {
+            this.resendBytes = resendBytes;
+            return asBuilder();
+        }
+
+        public B setConnectTimeoutMillis(final int connectTimeoutMillis) {
+            this.connectTimeoutMillis = connectTimeoutMillis;
+            return asBuilder();
+        }
+
+        public B setReconnectDelayMillis(final long reconnectDelayMillis) {
+            this.reconnectDelayMillis = reconnectDelayMillis;
+            return asBuilder();
+        }
+
+        public B setMaxReconnectDelayMillis(final long maxReconnectDelayMillis) {
+            this.maxReconnectDelayMillis = maxReconnectDelayMillis;
+            return asBuilder();
+        }
+
+        @Override
+        public NioSocketAppender build() {
+            return new NioSocketAppender(getName(), getFilter(), getOrCreateLayout(StandardCharsets.UTF_8),
+                    isIgnoreExceptions(), getPropertyArray(), host, port, capacity, bufferSize,
+                    Math.max(resendBytes, bufferSize), connectTimeoutMillis, reconnectDelayMillis,
+                    Math.max(reconnectDelayMillis, maxReconnectDelayMillis));
+        }
+    }
+}
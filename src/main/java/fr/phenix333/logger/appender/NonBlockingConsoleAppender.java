@@ -0,0 +1,418 @@
+package fr.phenix333.logger.appender;
+
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.Appender;
+import org.apache.logging.log4j.core.Core;
+import org.apache.logging.log4j.core.Filter;
+import org.apache.logging.log4j.core.Layout;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.appender.AbstractAppender;
+import org.apache.logging.log4j.core.config.Property;
+import org.apache.logging.log4j.core.config.plugins.Plugin;
+import org.apache.logging.log4j.core.config.plugins.PluginBuilderAttribute;
+import org.apache.logging.log4j.core.config.plugins.PluginBuilderFactory;
+
+/**
+ * Console appender that never blocks the logging threads on a slow stdout.
+ * <p>
+ * Events are encoded by the calling thread and queued, a background thread
+ * writes them to file descriptor 1 through a {@link FileChannel} and a large
+ * direct buffer. When the queue holds more than {@code capacity} bytes, the
+ * {@code WARN} and {@code INFO} events are dropped, and the {@code DEBUG} and
+ * {@code FUNCTION} events are already dropped from half of it. {@code FATAL}
+ * and {@code ERROR} events are queued up to {@code maxBytes}, the hard cap of
+ * the queue: beyond, each of them evicts the oldest queued events of the other
+ * levels, and waits for the writer once only {@code FATAL} and {@code ERROR}
+ * events are left, at most {@code maxWaitMillis}. A stdout stalled longer
+ * drops them too, without waiting again until the writer makes progress.
+ * Dropped and evicted events are counted per level and reported on the
+ * console once it keeps up again.
+ *
+ * <pre>
+ * &lt;NonBlockingConsole name="STDOUT" capacity="8388608" maxBytes="16777216" bufferSize="1048576"
+ *         maxWaitMillis="1000"&gt;
+ *     &lt;PatternLayout pattern="..." /&gt;
+ * &lt;/NonBlockingConsole&gt;
+ * </pre>
+ */
+@Plugin(name = "NonBlockingConsole", category = Core.CATEGORY_NAME, elementType = Appender.ELEMENT_TYPE,
+        printObject = true)
+public final class NonBlockingConsoleAppender extends AbstractAppender {
+    private static final long POLL_MILLIS = 100;
+    private static final long STOP_MILLIS = 1000;
+
+    private final int capacity;
+    private final long maxBytes;
+    private final int bufferSize;
+    private final long maxWaitMillis;
+    private final WritableByteChannel channel;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+    /**
+     * The queued events in order, the evicted ones included until they are
+     * reached, guarded by the lock.
+     */
+    private final ArrayDeque<Entry> queue = new ArrayDeque<>();
+    /**
+     * The queued events below {@code ERROR}, oldest first, guarded by the lock.
+     */
+    private final ArrayDeque<Entry> evictable = new ArrayDeque<>();
+    /**
+     * Written under the lock, read without it to drop the events before they
+     * are encoded.
+     */
+    private final AtomicLong queuedBytes = new AtomicLong();
+    private final ConcurrentMap<String, LongAdder> dropped = new ConcurrentHashMap<>();
+    private final LongAdder droppedTotal = new LongAdder();
+    private long droppedReported;
+    /**
+     * Set when a wait for the writer timed out, until it takes an event,
+     * guarded by the lock.
+     */
+    private boolean stalled;
+    private volatile boolean running;
+    private Thread writer;
+
+    private NonBlockingConsoleAppender(final String name, final Filter filter,
+            final Layout<? extends Serializable> layout, final boolean ignoreExceptions, final Property[] properties,
+            final int capacity, final long maxBytes, final int bufferSize, final long maxWaitMillis,
+            final WritableByteChannel channel) {
+        super(name, filter, layout, ignoreExceptions, properties);
+        this.capacity = capacity;
+        this.maxBytes = Math.max(maxBytes, capacity);
+        this.bufferSize = bufferSize;
+        this.maxWaitMillis = Math.max(0, maxWaitMillis);
+        this.channel = channel;
+    }
+
+    @PluginBuilderFactory
+    public static <B extends Builder<B>> B newBuilder() {
+        return new Builder<B>().asBuilder();
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        writer = new Thread(this::drain, "Log4j2-" + getName());
+        writer.setDaemon(true);
+        writer.start();
+        super.start();
+    }
+
+    @Override
+    public boolean stop(final long timeout, final TimeUnit timeUnit) {
+        setStopping();
+        running = false;
+        signalAll();
+        if (writer != null) {
+            try {
+                // a stalled stdout must not hang the shutdown
+                writer.join(timeout > 0 ? timeUnit.toMillis(timeout) : STOP_MILLIS);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        setStopped();
+        return true;
+    }
+
+    @Override
+    public void append(final LogEvent event) {
+        if (!running) {
+            return;
+        }
+        final Level level = event.getLevel();
+        final boolean severe = level.intLevel() <= Level.ERROR.intLevel();
+        if (!severe && queuedBytes.get() >= (level.intLevel() < Level.DEBUG.intLevel() ? capacity : capacity / 2)) {
+            drop(level.name());
+            return;
+        }
+        final Entry entry = new Entry(level.name(), getLayout().toByteArray(event), severe);
+        lock.lock();
+        try {
+            if (severe) {
+                if (!makeRoom(entry.bytes.length)) {
+                    drop(entry.level);
+                    return;
+                }
+            } else if (queuedBytes.get() + entry.bytes.length > maxBytes) {
+                drop(entry.level);
+                return;
+            }
+            if (!running) {
+                return;
+            }
+            queue.addLast(entry);
+            if (!severe) {
+                evictable.addLast(entry);
+            }
+            queuedBytes.addAndGet(entry.bytes.length);
+            notEmpty.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Evicts the oldest events below {@code ERROR} until {@code length} more
+     * bytes fit under {@code maxBytes}, then waits for the writer if they
+     * still do not, at most {@code maxWaitMillis}. An event larger than
+     * {@code maxBytes} waits for an empty queue. Called with the lock held.
+     *
+     * @return False if the bytes still do not fit.
+     */
+    private boolean makeRoom(final int length) {
+        while (queuedBytes.get() + length > maxBytes && !evictable.isEmpty()) {
+            final Entry evicted = evictable.pollFirst();
+            queuedBytes.addAndGet(-evicted.bytes.length);
+            // left in the queue until the writer reaches it, without its bytes
+            evicted.bytes = null;
+            drop(evicted.level);
+        }
+        final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+        boolean interrupted = false;
+        while (running && queuedBytes.get() > 0 && queuedBytes.get() + length > maxBytes) {
+            final long remaining = deadline - System.nanoTime();
+            if (stalled || remaining <= 0) {
+                stalled = true;
+                break;
+            }
+            try {
+                notFull.await(Math.min(remaining, TimeUnit.MILLISECONDS.toNanos(POLL_MILLIS)), TimeUnit.NANOSECONDS);
+            } catch (final InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        return !stalled;
+    }
+
+    private void drop(final String level) {
+        dropped.computeIfAbsent(level, k -> new LongAdder()).increment();
+        droppedTotal.increment();
+    }
+
+    /**
+     * @return The bytes of the queued events.
+     */
+    long getQueuedBytes() {
+        return queuedBytes.get();
+    }
+
+    /**
+     * @return The number of events dropped since the start, per level name.
+     */
+    public Map<String, Long> getDropped() {
+        final Map<String, Long> counts = new TreeMap<>();
+        dropped.forEach((level, count) -> counts.put(level, count.sum()));
+        return counts;
+    }
+
+    /**
+     * Body of the writer thread: copies the queued events into the direct
+     * buffer and writes it when full or when the queue is empty.
+     */
+    private void drain() {
+        final ByteBuffer buffer = ByteBuffer.allocateDirect(bufferSize);
+        try {
+            while (running || !isEmpty()) {
+                final byte[] bytes = take();
+                if (bytes != null) {
+                    put(channel, buffer, bytes);
+                }
+                if (isEmpty()) {
+                    reportDropped(channel, buffer);
+                    write(channel, buffer);
+                }
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (final IOException e) {
+            running = false;
+            lock.lock();
+            try {
+                queue.clear();
+                evictable.clear();
+                queuedBytes.set(0);
+                notFull.signalAll();
+            } finally {
+                lock.unlock();
+            }
+            error("Unable to write to the console, " + getName() + " is disabled", e);
+        }
+    }
+
+    /**
+     * @return The next event not evicted, null if none was queued within
+     *         {@value #POLL_MILLIS} ms.
+     */
+    private byte[] take() throws InterruptedException {
+        lock.lock();
+        try {
+            if (queue.isEmpty()) {
+                notEmpty.await(POLL_MILLIS, TimeUnit.MILLISECONDS);
+            }
+            Entry entry = queue.pollFirst();
+            while (entry != null && entry.bytes == null) {
+                entry = queue.pollFirst();
+            }
+            if (entry == null) {
+                return null;
+            }
+            if (!entry.severe) {
+                // the oldest of them, the queue is in order
+                evictable.pollFirst();
+            }
+            queuedBytes.addAndGet(-entry.bytes.length);
+            stalled = false;
+            notFull.signalAll();
+            return entry.bytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean isEmpty() {
+        lock.lock();
+        try {
+            return queue.isEmpty();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void signalAll() {
+        lock.lock();
+        try {
+            notEmpty.signalAll();
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static void put(final WritableByteChannel channel, final ByteBuffer buffer, final byte[] bytes)
+            throws IOException {
+        int offset = 0;
+        while (offset < bytes.length) {
+            if (!buffer.hasRemaining()) {
+                write(channel, buffer);
+            }
+            final int length = Math.min(buffer.remaining(), bytes.length - offset);
+            buffer.put(bytes, offset, length);
+            offset += length;
+        }
+    }
+
+    private static void write(final WritableByteChannel channel, final ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private void reportDropped(final WritableByteChannel channel, final ByteBuffer buffer) throws IOException {
+        final long total = droppedTotal.sum();
+        if (total != droppedReported) {
+            final String report = getName() + " dropped " + (total - droppedReported) + " events, "
+                    + getDropped() + " since the start" + System.lineSeparator();
+            droppedReported = total;
+            put(channel, buffer, report.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * A queued event.
+     */
+    private static final class Entry {
+        private final String level;
+        /**
+         * Null once evicted.
+         */
+        private byte[] bytes;
+        private final boolean severe;
+
+        private Entry(final String level, final byte[] bytes, final boolean severe) {
+            this.level = level;
+            this.bytes = bytes;
+            this.severe = severe;
+        }
+    }
+
+    public static class Builder<B extends Builder<B>> extends AbstractAppender.Builder<B>
+            implements org.apache.logging.log4j.core.util.Builder<NonBlockingConsoleAppender> {
+
+        @PluginBuilderAttribute
+        private int capacity = 8 * 1024 * 1024;
+
+        @PluginBuilderAttribute
+        private long maxBytes = 16 * 1024 * 1024;
+
+        @PluginBuilderAttribute
+        private int bufferSize = 1024 * 1024;
+
+        @PluginBuilderAttribute
+        private long maxWaitMillis = 1000;
+
+        private WritableByteChannel channel;
+
+        public B setCapacity(final int capacity) {
+            this.capacity = capacity;
+            return asBuilder();
+        }
+
+        public B setMaxBytes(final long maxBytes) {
+            this.maxBytes = maxBytes;
+            return asBuilder();
+        }
+
+        public B setBufferSize(final int bufferSize) {
+            this.bufferSize = bufferSize;
+            return asBuilder();
+        }
+
+        public B setMaxWaitMillis(final long maxWaitMillis) {
+            this.maxWaitMillis = maxWaitMillis;
+            return asBuilder();
+        }
+
+        /**
+         * @param channel the channel written in place of stdout, for the tests.
+         */
+        B setChannel(final WritableByteChannel channel) {
+            this.channel = channel;
+            return asBuilder();
+        }
+
+        @Override
+        @SuppressWarnings("resource") // closing it would close stdout
+        public NonBlockingConsoleAppender build() {
+            return new NonBlockingConsoleAppender(getName(), getFilter(), getOrCreateLayout(StandardCharsets.UTF_8),
+                    isIgnoreExceptions(), getPropertyArray(), capacity, maxBytes, bufferSize,
+                    maxWaitMillis, channel != null ? channel : new FileOutputStream(FileDescriptor.out).getChannel());
+        }
+    }
+}
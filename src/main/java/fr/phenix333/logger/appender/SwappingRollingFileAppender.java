@@ -0,0 +1,123 @@
+package fr.phenix333.logger.appender;
+
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.logging.log4j.core.Appender;
+import org.apache.logging.log4j.core.Core;
+import org.apache.logging.log4j.core.Filter;
+import org.apache.logging.log4j.core.Layout;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.appender.AbstractOutputStreamAppender;
+import org.apache.logging.log4j.core.appender.rolling.DefaultRolloverStrategy;
+import org.apache.logging.log4j.core.appender.rolling.RollingFileManager;
+import org.apache.logging.log4j.core.appender.rolling.RolloverStrategy;
+import org.apache.logging.log4j.core.appender.rolling.TriggeringPolicy;
+import org.apache.logging.log4j.core.config.Property;
+import org.apache.logging.log4j.core.config.plugins.Plugin;
+import org.apache.logging.log4j.core.config.plugins.PluginBuilderAttribute;
+import org.apache.logging.log4j.core.config.plugins.PluginBuilderFactory;
+import org.apache.logging.log4j.core.config.plugins.PluginElement;
+import org.apache.logging.log4j.core.config.plugins.validation.constraints.Required;
+
+/**
+ * {@code RollingFile} whose rollover runs on a background thread: the event
+ * which triggers it never waits for the rename, the opening of the new file
+ * nor the purge of the archives, see {@link SwappingRollingFileManager}.
+ *
+ * <pre>
+ * &lt;SwappingRollingFile name="info_log" fileName="Logs/info.log"
+ *         filePattern="Logs/info-%d{dd-MM-yyyy}-%i.log.gz"&gt;
+ *     &lt;PatternLayout pattern="..." /&gt;
+ *     &lt;Policies&gt;...&lt;/Policies&gt;
+ *     &lt;DefaultRolloverStrategy fileIndex="nomax" /&gt;
+ * &lt;/SwappingRollingFile&gt;
+ * </pre>
+ *
+ * The events written while the rollover is in progress go to the previous
+ * file, so it may exceed the size of the {@code SizeBasedTriggeringPolicy} by
+ * a few events.
+ */
+@Plugin(name = "SwappingRollingFile", category = Core.CATEGORY_NAME, elementType = Appender.ELEMENT_TYPE,
+        printObject = true)
+public final class SwappingRollingFileAppender extends AbstractOutputStreamAppender<RollingFileManager> {
+
+    private SwappingRollingFileAppender(final String name, final Layout<? extends Serializable> layout,
+            final Filter filter, final boolean ignoreExceptions, final boolean immediateFlush,
+            final Property[] properties, final RollingFileManager manager) {
+        super(name, layout, filter, ignoreExceptions, immediateFlush, properties, manager);
+    }
+
+    @PluginBuilderFactory
+    public static <B extends Builder<B>> B newBuilder() {
+        return new Builder<B>().asBuilder();
+    }
+
+    @Override
+    public void append(final LogEvent event) {
+        getManager().checkRollover(event);
+        super.append(event);
+    }
+
+    public static class Builder<B extends Builder<B>> extends AbstractOutputStreamAppender.Builder<B>
+            implements org.apache.logging.log4j.core.util.Builder<SwappingRollingFileAppender> {
+
+        @PluginBuilderAttribute
+        @Required(message = "A SwappingRollingFile appender requires a fileName")
+        private String fileName;
+
+        @PluginBuilderAttribute
+        @Required(message = "A SwappingRollingFile appender requires a filePattern")
+        private String filePattern;
+
+        @PluginBuilderAttribute
+        private boolean append = true;
+
+        @PluginElement("Policy")
+        @Required(message = "A SwappingRollingFile appender requires a triggering policy")
+        private TriggeringPolicy policy;
+
+        @PluginElement("Strategy")
+        private RolloverStrategy strategy;
+
+        public B setFileName(final String fileName) {
+            this.fileName = fileName;
+            return asBuilder();
+        }
+
+        public B setFilePattern(final String filePattern) {
+            this.filePattern = filePattern;
+            return asBuilder();
+        }
+
+        public B setAppend(final boolean append) {
+            this.append = append;
+            return asBuilder();
+        }
+
+        public B setPolicy(final TriggeringPolicy policy) {
+            this.policy = policy;
+            return asBuilder();
+        }
+
+        public B setStrategy(final RolloverStrategy strategy) {
+            this.strategy = strategy;
+            return asBuilder();
+        }
+
+        @Override
+        public SwappingRollingFileAppender build() {
+            final RolloverStrategy rolloverStrategy = strategy != null ? strategy
+                    : DefaultRolloverStrategy.newBuilder().withConfig(getConfiguration()).build();
+            final Layout<? extends Serializable> layout = getOrCreateLayout(StandardCharsets.UTF_8);
+            final RollingFileManager manager = SwappingRollingFileManager.getFileManager(fileName, filePattern,
+                    append, 0, 0, policy, rolloverStrategy, layout, getBufferSize(), getConfiguration());
+            if (manager == null) {
+                return null;
+            }
+            manager.initialize();
+            return new SwappingRollingFileAppender(getName(), layout, getFilter(), isIgnoreExceptions(),
+                    isImmediateFlush(), getPropertyArray(), manager);
+        }
+    }
+}
@@ -0,0 +1,444 @@
+package fr.phenix333.logger.appender;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Deflater;
+
+import org.apache.logging.log4j.core.Layout;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.appender.ManagerFactory;
+import org.apache.logging.log4j.core.appender.rolling.DefaultRolloverStrategy;
+import org.apache.logging.log4j.core.appender.rolling.FileExtension;
+import org.apache.logging.log4j.core.appender.rolling.PatternProcessor;
+import org.apache.logging.log4j.core.appender.rolling.RollingFileManager;
+import org.apache.logging.log4j.core.appender.rolling.RolloverDescription;
+import org.apache.logging.log4j.core.appender.rolling.RolloverStrategy;
+import org.apache.logging.log4j.core.appender.rolling.TriggeringPolicy;
+import org.apache.logging.log4j.core.appender.rolling.action.Action;
+import org.apache.logging.log4j.core.appender.rolling.action.CompositeAction;
+import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.util.FileUtils;
+import org.apache.logging.log4j.core.util.Log4jThreadFactory;
+
+/**
+ * Rolling file manager whose rollover never runs on a logging thread.
+ * <p>
+ * The event which triggers the rollover only hands it to the thread of the
+ * manager, and the events keep going to the current file meanwhile. That
+ * thread renames the file to its archive name, which the open handle follows,
+ * opens the new file, then swaps the handles under the lock of the manager,
+ * the only step the logging threads may wait for. The previous file is then
+ * closed and the asynchronous actions of the strategy, compression, index and
+ * retention, run in order on a second thread, so that a slow compression never
+ * holds the next rollover back.
+ * <p>
+ * Renaming a file which is still open and written is only safe on a POSIX
+ * file system. On any other, as on Windows where the rename fails or falls
+ * back to a copy and a truncation losing the events written meanwhile, the
+ * manager rolls as the {@code RollingFile} of Log4j does: it closes the file,
+ * renames it and opens the new one under its lock, on the logging thread.
+ * <p>
+ * With a {@code blockSize}, the files are written through a
+ * {@link BlockGzipOutputStream}: they are already compressed when they roll,
+ * the rollover only renames them, and their size, for the
+ * {@code SizeBasedTriggeringPolicy}, is the compressed size. As flushing each
+ * event would spoil the compression, the events still buffered or held by the
+ * compressor are flushed every {@code flushIntervalMillis}, so that a quiet
+ * file does not hold them back.
+ */
+final class SwappingRollingFileManager extends RollingFileManager {
+    private static final Factory FACTORY = new Factory();
+    private static final long STOP_MILLIS = 30_000;
+    private static final long MIN_WAIT_MILLIS = 100;
+    private static final int MAX_TRIES = 3;
+
+    private final int blockSize;
+    private final boolean renameOpenFile;
+    private final ExecutorService rolloverExecutor;
+    private final ExecutorService actionExecutor;
+    private final ScheduledExecutorService flushExecutor;
+    private BlockGzipOutputStream stream;
+    private boolean rolling;
+
+    private SwappingRollingFileManager(final LoggerContext loggerContext, final String fileName,
+            final String pattern, final OutputStream os, final boolean append, final long size, final long time,
+            final TriggeringPolicy policy, final RolloverStrategy strategy, final Layout<? extends Serializable> layout,
+            final boolean writeHeader, final ByteBuffer buffer, final int blockSize, final long flushIntervalMillis,
+            final boolean renameOpenFile) {
+        super(loggerContext, fileName, pattern, os, append, false, size, time, policy, strategy, null, layout, null,
+                null, null, writeHeader, buffer);
+        this.blockSize = blockSize;
+        this.renameOpenFile = renameOpenFile;
+        this.stream = os instanceof BlockGzipOutputStream ? (BlockGzipOutputStream) os : null;
+        this.rolloverExecutor = new ThreadPoolExecutor(0, 1, 1, TimeUnit.MINUTES, new LinkedBlockingQueue<>(),
+                Log4jThreadFactory.createDaemonThreadFactory("Rollover"));
+        this.actionExecutor = new ThreadPoolExecutor(0, 1, 1, TimeUnit.MINUTES, new LinkedBlockingQueue<>(),
+                Log4jThreadFactory.createDaemonThreadFactory("RolloverAction"));
+        if (blockSize > 0 && flushIntervalMillis > 0) {
+            this.flushExecutor = new ScheduledThreadPoolExecutor(1,
+                    Log4jThreadFactory.createDaemonThreadFactory("Flush"));
+            flushExecutor.scheduleWithFixedDelay(this::flushPending, flushIntervalMillis, flushIntervalMillis,
+                    TimeUnit.MILLISECONDS);
+        } else {
+            this.flushExecutor = null;
+        }
+    }
+
+    /**
+     * @param fileName the name of the active file.
+     * @param pattern the pattern of the archives.
+     * @param append false to truncate the active file.
+     * @param blockSize the uncompressed size of the gzip members, 0 to write
+     *            the file uncompressed.
+     * @param flushIntervalMillis the period of the flush of a compressed
+     *            file, 0 to flush only when the buffer is full.
+     * @param policy the triggering policy.
+     * @param strategy the rollover strategy.
+     * @param layout the layout.
+     * @param bufferSize the size of the buffer of encoded events.
+     * @param configuration the configuration.
+     * @return The manager of the file, shared with the configuration it
+     *         replaces, or null if the file can not be opened.
+     */
+    static SwappingRollingFileManager getFileManager(final String fileName, final String pattern,
+            final boolean append, final int blockSize, final long flushIntervalMillis, final TriggeringPolicy policy,
+            final RolloverStrategy strategy, final Layout<? extends Serializable> layout, final int bufferSize,
+            final Configuration configuration) {
+        return narrow(SwappingRollingFileManager.class, getManager(fileName, FACTORY, new FactoryData(pattern, append,
+                blockSize, flushIntervalMillis, policy, strategy, layout, bufferSize, configuration)));
+    }
+
+    /**
+     * A compressed file is compressed as it is written, no compression at
+     * rollover.
+     */
+    @Override
+    public FileExtension getFileExtension() {
+        return blockSize > 0 ? null : super.getFileExtension();
+    }
+
+    /**
+     * The policy is not checked while a rollover is in progress.
+     */
+    @Override
+    public synchronized void checkRollover(final LogEvent event) {
+        if (!rolling && getTriggeringPolicy().isTriggeringEvent(event)) {
+            rollover();
+        }
+    }
+
+    @Override
+    public synchronized void rollover() {
+        if (!renameOpenFile) {
+            super.rollover();
+            return;
+        }
+        if (rolling) {
+            return;
+        }
+        rolling = true;
+        try {
+            rolloverExecutor.execute(this::roll);
+        } catch (final RejectedExecutionException e) {
+            // released
+            rolling = false;
+        }
+    }
+
+    /**
+     * Body of the rollover thread.
+     */
+    private void roll() {
+        final RolloverDescription description;
+        try {
+            description = getRolloverStrategy().rollover(this);
+            if (description == null) {
+                cancel();
+                return;
+            }
+            if (description.getSynchronous() != null && !description.getSynchronous().execute()) {
+                LOGGER.error("Unable to roll {}, still writing to it", getFileName());
+                cancel();
+                return;
+            }
+            final OutputStream next = open();
+            writeHeader(next);
+            final OutputStream previous = swap(next);
+            previous.close();
+        } catch (final Exception e) {
+            LOGGER.error("Unable to roll {}", getFileName(), e);
+            cancel();
+            return;
+        }
+        // a rollover waiting for the compression of the previous archive would let the file grow meanwhile
+        if (description.getAsynchronous() != null) {
+            actionExecutor.execute(() -> {
+                try {
+                    description.getAsynchronous().execute();
+                } catch (final Exception e) {
+                    LOGGER.error("Unable to complete the rollover of {}", getFileName(), e);
+                }
+            });
+        }
+    }
+
+    /**
+     * Body of the flush thread: flushes the events written since the last
+     * flush, if any.
+     */
+    private synchronized void flushPending() {
+        if (byteBuffer.position() > 0 || stream != null && stream.isPending()) {
+            flush();
+        }
+    }
+
+    private synchronized void cancel() {
+        rolling = false;
+    }
+
+    /**
+     * Writes the buffered events of the previous file and makes the logging
+     * threads write to the next one.
+     *
+     * @return The previous output stream.
+     */
+    private synchronized OutputStream swap(final OutputStream next) throws IOException {
+        writeFooter();
+        flushBuffer(byteBuffer);
+        final OutputStream previous = getOutputStream();
+        setOutputStream(next);
+        stream = next instanceof BlockGzipOutputStream ? (BlockGzipOutputStream) next : null;
+        size = 0;
+        rolling = false;
+        return previous;
+    }
+
+    private OutputStream open() throws IOException {
+        final OutputStream out = super.createOutputStream();
+        return blockSize > 0 ? new BlockGzipOutputStream(out, new File(getFileName()).length(), blockSize) : out;
+    }
+
+    @Override
+    protected synchronized OutputStream createOutputStream() throws IOException {
+        final OutputStream out = open();
+        stream = out instanceof BlockGzipOutputStream ? (BlockGzipOutputStream) out : null;
+        return out;
+    }
+
+    @Override
+    protected synchronized void writeToDestination(final byte[] bytes, final int offset, final int length) {
+        super.writeToDestination(bytes, offset, length);
+        if (stream != null) {
+            size = stream.length();
+        }
+    }
+
+    /**
+     * Lets the rollover in progress and the actions queued behind it complete
+     * before closing the file, waiting for each executor as the
+     * {@code RollingFileManager} of Log4j waits for its actions: up to three
+     * times, for a longer interval each time. The archives still raw when the
+     * wait gives up are compressed at the next start.
+     */
+    @Override
+    public boolean releaseSub(final long timeout, final TimeUnit timeUnit) {
+        final long millis = timeout > 0 ? timeUnit.toMillis(timeout) : STOP_MILLIS;
+        final long waitInterval = Math.max(MIN_WAIT_MILLIS, millis);
+        if (flushExecutor != null) {
+            flushExecutor.shutdown();
+        }
+        rolloverExecutor.shutdown();
+        try {
+            if (!await(rolloverExecutor, waitInterval)) {
+                LOGGER.warn("The rollover of {} did not complete in time", getFileName());
+            }
+            actionExecutor.shutdown();
+            if (!await(actionExecutor, waitInterval)) {
+                LOGGER.warn("The compression of the archives of {} did not complete in time, it completes at the"
+                        + " next start", getFileName());
+            }
+        } catch (final InterruptedException e) {
+            actionExecutor.shutdown();
+            Thread.currentThread().interrupt();
+        }
+        return super.releaseSub(timeout, timeUnit);
+    }
+
+    private static boolean await(final ExecutorService executor, final long waitInterval)
+            throws InterruptedException {
+        boolean terminated = executor.isTerminated();
+        for (int count = 1; count <= MAX_TRIES && !terminated; count++) {
+            terminated = executor.awaitTermination(waitInterval * count, TimeUnit.MILLISECONDS);
+        }
+        return terminated;
+    }
+
+    /**
+     * Compresses the archives left raw by a previous run, stopped before their
+     * compression completed, then runs the custom actions of the strategy, so
+     * that they are indexed and retained as any other archive.
+     */
+    private void recoverArchives() {
+        final FileExtension extension = getFileExtension();
+        if (extension == null) {
+            return;
+        }
+        final String pattern = getPatternProcessor().getPattern();
+        final File raw = new File(pattern.substring(0, pattern.length() - extension.getExtension().length()));
+        final File parent = raw.getAbsoluteFile().getParentFile();
+        if (parent.getPath().indexOf('%') >= 0) {
+            // the pattern names the directory of the archives, not only their files
+            return;
+        }
+        final Path directory = parent.toPath();
+        final String glob = raw.getName().replaceAll("%[a-zA-Z]+(\\{[^}]*\\})?", "*");
+        final Path active = Paths.get(getFileName()).toAbsolutePath();
+        final List<Path> pending = new ArrayList<>();
+        try (DirectoryStream<Path> archives = Files.newDirectoryStream(directory, glob)) {
+            for (final Path archive : archives) {
+                if (!archive.toAbsolutePath().equals(active) && Files.isRegularFile(archive)) {
+                    pending.add(archive);
+                }
+            }
+        } catch (final IOException e) {
+            LOGGER.error("Unable to list the archives of {} in {}", getFileName(), directory, e);
+            return;
+        }
+        if (pending.isEmpty()) {
+            return;
+        }
+        LOGGER.warn("{} archives of {} were left uncompressed by the previous run, they are compressed now",
+                pending.size(), getFileName());
+        final RolloverStrategy strategy = getRolloverStrategy();
+        final int level = strategy instanceof DefaultRolloverStrategy
+                ? ((DefaultRolloverStrategy) strategy).getCompressionLevel() : Deflater.DEFAULT_COMPRESSION;
+        final List<Action> actions = new ArrayList<>();
+        for (final Path archive : pending) {
+            actions.add(extension.createCompressAction(archive.toString(), archive + extension.getExtension(), true,
+                    level));
+        }
+        if (strategy instanceof DefaultRolloverStrategy) {
+            actions.add(new CompositeAction(((DefaultRolloverStrategy) strategy).getCustomActions(),
+                    ((DefaultRolloverStrategy) strategy).isStopCustomActionsOnError()));
+        }
+        actionExecutor.execute(() -> {
+            for (final Action action : actions) {
+                try {
+                    action.execute();
+                } catch (final Exception e) {
+                    LOGGER.error("Unable to recover the archives of {}", getFileName(), e);
+                }
+            }
+        });
+    }
+
+    @Override
+    public void updateData(final Object data) {
+        final FactoryData factoryData = (FactoryData) data;
+        setRolloverStrategy(factoryData.strategy);
+        setPatternProcessor(new PatternProcessor(factoryData.pattern, getPatternProcessor()));
+        setTriggeringPolicy(factoryData.policy);
+    }
+
+    private static final class FactoryData {
+        private final String pattern;
+        private final boolean append;
+        private final int blockSize;
+        private final long flushIntervalMillis;
+        private final TriggeringPolicy policy;
+        private final RolloverStrategy strategy;
+        private final Layout<? extends Serializable> layout;
+        private final int bufferSize;
+        private final Configuration configuration;
+
+        private FactoryData(final String pattern, final boolean append, final int blockSize,
+                final long flushIntervalMillis, final TriggeringPolicy policy, final RolloverStrategy strategy,
+                final Layout<? extends Serializable> layout, final int bufferSize, final Configuration configuration) {
+            this.pattern = pattern;
+            this.append = append;
+            this.blockSize = blockSize;
+            this.flushIntervalMillis = flushIntervalMillis;
+            this.policy = policy;
+            this.strategy = strategy;
+            this.layout = layout;
+            this.bufferSize = bufferSize;
+            this.configuration = configuration;
+        }
+    }
+
+    private static final class Factory implements ManagerFactory<SwappingRollingFileManager, FactoryData> {
+        @Override
+        public SwappingRollingFileManager createManager(final String name, final FactoryData data) {
+            final File file = new File(name);
+            try {
+                FileUtils.makeParentDirs(file);
+                final boolean writeHeader = !data.append || !file.exists() || file.length() == 0;
+                final long time = file.exists() ? creationTime(file) : System.currentTimeMillis();
+                final long previousLength = file.length();
+                // a compressed file left by an unclean exit ends with a member which can not be appended to
+                final byte[] recovered = data.append && data.blockSize > 0 && previousLength > 0
+                        ? BlockGzipOutputStream.truncateUnfinishedMember(file) : new byte[0];
+                final long length = data.append ? file.length() : 0;
+                OutputStream out = new FileOutputStream(file, data.append);
+                if (data.blockSize > 0) {
+                    out = new BlockGzipOutputStream(out, length, data.blockSize);
+                    if (data.append && length < previousLength) {
+                        LOGGER.warn("{} ended with an unfinished member, cut from {} to {} bytes, {} bytes of events"
+                                + " written again", name, previousLength, length, recovered.length);
+                        out.write(recovered);
+                        out.flush();
+                    }
+                }
+                final boolean posix = isPosix(file);
+                if (!posix) {
+                    LOGGER.debug("{} is not on a POSIX file system, it is rolled on the logging thread", name);
+                }
+                final SwappingRollingFileManager manager = new SwappingRollingFileManager(
+                        data.configuration == null ? null : data.configuration.getLoggerContext(), name, data.pattern,
+                        out, data.append, file.length(), time, data.policy, data.strategy, data.layout, writeHeader,
+                        ByteBuffer.wrap(new byte[data.bufferSize]), data.blockSize, data.flushIntervalMillis, posix);
+                manager.recoverArchives();
+                return manager;
+            } catch (final IOException e) {
+                LOGGER.error("Unable to create the file {}", name, e);
+                return null;
+            }
+        }
+
+        private static boolean isPosix(final File file) {
+            try {
+                return Files.getFileStore(file.toPath()).supportsFileAttributeView(PosixFileAttributeView.class);
+            } catch (final IOException e) {
+                return false;
+            }
+        }
+
+        private static long creationTime(final File file) {
+            try {
+                return Files.readAttributes(file.toPath(), BasicFileAttributes.class).creationTime().toMillis();
+            } catch (final IOException e) {
+                return file.lastModified();
+            }
+        }
+    }
+}
@@ -0,0 +1,447 @@
+package fr.phenix333.logger.appender;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.apache.logging.log4j.core.Appender;
+import org.apache.logging.log4j.core.Core;
+import org.apache.logging.log4j.core.LifeCycle2;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.appender.AbstractAppender;
+import org.apache.logging.log4j.core.config.Property;
+import org.apache.logging.log4j.core.config.plugins.Plugin;
+import org.apache.logging.log4j.core.config.plugins.PluginAttribute;
+import org.apache.logging.log4j.core.config.plugins.PluginElement;
+import org.apache.logging.log4j.core.config.plugins.PluginFactory;
+import org.apache.logging.log4j.core.filter.Filterable;
+
+/**
+ * Appender guarding the appender it wraps against a slow disk: while a write
+ * to it is stalled, the events are spilled to memory instead of blocking the
+ * logging threads behind it.
+ *
+ * <pre>
+ * &lt;Lazy name="info_log"&gt;
+ *     &lt;Watchdog name="info_log" thresholdMillis="100" maxEvents="100000"&gt;
+ *         &lt;SwappingRollingFile name="info_log" ...&gt;...&lt;/SwappingRollingFile&gt;
+ *     &lt;/Watchdog&gt;
+ * &lt;/Lazy&gt;
+ * </pre>
+ *
+ * The writes to the wrapped appender are serialized, as its file manager does
+ * anyway: when a thread waits for {@code thresholdMillis} for the write in
+ * progress, or a write takes longer, an episode starts. The thread stuck in the
+ * write stays stuck, the others spill their event and return. The
+ * spill holds up to {@code maxEvents} events, then an event evicts the oldest
+ * one of the least severe level below its own, or is dropped. A background
+ * thread writes the spilled events back in order and the episode ends once the
+ * spill is empty and the last write was under the threshold. The episodes are
+ * reported through the status logger and the {@link WatchdogMXBean}.
+ */
+@Plugin(name = "Watchdog", category = Core.CATEGORY_NAME, elementType = Appender.ELEMENT_TYPE, printObject = true)
+public final class WatchdogAppender extends AbstractAppender implements WatchdogMXBean {
+    private static final long STOP_MILLIS = 5000;
+    private static final ConcurrentMap<String, WatchdogAppender> REGISTERED = new ConcurrentHashMap<>();
+
+    private final Appender appender;
+    private final long thresholdNanos;
+    private final int maxEvents;
+
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final LongAccumulator maxWriteNanos = new LongAccumulator(Math::max, 0);
+
+    private final Object lock = new Object();
+    private final TreeMap<Integer, ArrayDeque<Spilled>> spill = new TreeMap<>();
+    private volatile boolean spilling;
+    private volatile int spillSize;
+    private volatile int maxSpillSize;
+    private long sequence;
+    private volatile long episodes;
+    private volatile long spilled;
+    private long episodeStart;
+    private long episodeSpilled;
+    private long spillingNanos;
+    private final ConcurrentMap<String, LongAdder> dropped = new ConcurrentHashMap<>();
+    private final LongAdder droppedTotal = new LongAdder();
+    private long droppedReported;
+
+    private volatile boolean running;
+    private Thread drainer;
+
+    private WatchdogAppender(final String name, final Appender appender, final long thresholdMillis,
+            final int maxEvents) {
+        super(name, null, null, true, Property.EMPTY_ARRAY);
+        this.appender = appender;
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+        this.maxEvents = maxEvents;
+    }
+
+    /**
+     * @param name the name of the appender.
+     * @param appender the appender to guard.
+     * @param thresholdMillis the duration of a write which starts an episode.
+     * @param maxEvents the number of events the spill holds.
+     * @return The appender.
+     */
+    public static WatchdogAppender create(final String name, final Appender appender, final long thresholdMillis,
+            final int maxEvents) {
+        return new WatchdogAppender(name, appender, thresholdMillis, maxEvents);
+    }
+
+    @PluginFactory
+    public static WatchdogAppender createAppender(
+            @PluginAttribute("name") final String name,
+            @PluginAttribute(value = "thresholdMillis", defaultLong = 100) final long thresholdMillis,
+            @PluginAttribute(value = "maxEvents", defaultInt = 100_000) final int maxEvents,
+            @PluginElement("Appender") final Appender appender) {
+        if (name == null || appender == null) {
+            LOGGER.error("Watchdog requires a name and an appender");
+            return null;
+        }
+        return new WatchdogAppender(name, appender, thresholdMillis, maxEvents);
+    }
+
+    /**
+     * @return The wrapped appender.
+     */
+    public Appender getAppender() {
+        return appender;
+    }
+
+    @Override
+    public void start() {
+        if (!appender.isStarted()) {
+            appender.start();
+        }
+        running = true;
+        drainer = new Thread(this::drain, "Log4j2-Watchdog-" + getName());
+        drainer.setDaemon(true);
+        drainer.start();
+        register();
+        super.start();
+    }
+
+    @Override
+    public void append(final LogEvent event) {
+        // the filter of the wrapped appender applies before the spill, as when a logger calls it
+        if (appender instanceof Filterable && ((Filterable) appender).isFiltered(event)) {
+            return;
+        }
+        LogEvent copy = null;
+        while (true) {
+            if (!spilling) {
+                if (tryWrite(event)) {
+                    return;
+                }
+                startEpisode("a write has been in progress for over " + TimeUnit.NANOSECONDS.toMillis(thresholdNanos)
+                        + " ms");
+            }
+            if (copy == null) {
+                copy = event.toImmutable();
+            }
+            synchronized (lock) {
+                if (spilling) {
+                    add(copy);
+                    return;
+                }
+            }
+            // the episode ended meanwhile
+        }
+    }
+
+    /**
+     * Writes to the wrapped appender, unless the write in progress does not
+     * complete within the threshold.
+     *
+     * @return False if the write in progress did not complete in time.
+     */
+    private boolean tryWrite(final LogEvent event) {
+        try {
+            if (!writeLock.tryLock(thresholdNanos, TimeUnit.NANOSECONDS)) {
+                return false;
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        try {
+            write(event);
+        } finally {
+            writeLock.unlock();
+        }
+        return true;
+    }
+
+    /**
+     * Writes to the wrapped appender, under the write lock, timing the write.
+     *
+     * @return The duration of the write, in nanoseconds.
+     */
+    private long write(final LogEvent event) {
+        final long start = System.nanoTime();
+        appender.append(event);
+        final long duration = System.nanoTime() - start;
+        maxWriteNanos.accumulate(duration);
+        if (duration > thresholdNanos && !spilling) {
+            startEpisode("a write took " + TimeUnit.NANOSECONDS.toMillis(duration) + " ms");
+        }
+        return duration;
+    }
+
+    private void startEpisode(final String cause) {
+        synchronized (lock) {
+            if (spilling || !running) {
+                return;
+            }
+            spilling = true;
+            episodes++;
+            episodeStart = System.nanoTime();
+            episodeSpilled = 0;
+            lock.notifyAll();
+        }
+        LOGGER.warn("{} spills its events to memory, {}", getName(), cause);
+    }
+
+    private void endEpisode() {
+        final long duration = System.nanoTime() - episodeStart;
+        spilling = false;
+        spillingNanos += duration;
+        final long total = droppedTotal.sum();
+        LOGGER.warn("{} wrote back {} events spilled during {} ms, {} dropped, {} since the start", getName(),
+                episodeSpilled, TimeUnit.NANOSECONDS.toMillis(duration), total - droppedReported, getDropped());
+        droppedReported = total;
+    }
+
+    /**
+     * Adds an event to the spill, under the lock.
+     */
+    private void add(final LogEvent event) {
+        final int level = event.getLevel().intLevel();
+        if (spillSize >= maxEvents) {
+            final Map.Entry<Integer, ArrayDeque<Spilled>> lowest = spill.lastEntry();
+            if (lowest == null || lowest.getKey() <= level) {
+                drop(event);
+                return;
+            }
+            final Spilled evicted = lowest.getValue().pollFirst();
+            if (lowest.getValue().isEmpty()) {
+                spill.remove(lowest.getKey());
+            }
+            spillSize--;
+            drop(evicted.event);
+        }
+        spill.computeIfAbsent(level, k -> new ArrayDeque<>()).addLast(new Spilled(sequence++, event));
+        spillSize++;
+        maxSpillSize = Math.max(maxSpillSize, spillSize);
+        spilled++;
+        episodeSpilled++;
+    }
+
+    private void drop(final LogEvent event) {
+        dropped.computeIfAbsent(event.getLevel().name(), k -> new LongAdder()).increment();
+        droppedTotal.increment();
+    }
+
+    /**
+     * Removes the oldest spilled event, under the lock.
+     *
+     * @return The event, or null if the spill is empty.
+     */
+    private LogEvent poll() {
+        ArrayDeque<Spilled> oldest = null;
+        for (final ArrayDeque<Spilled> events : spill.values()) {
+            if (oldest == null || events.peekFirst().sequence < oldest.peekFirst().sequence) {
+                oldest = events;
+            }
+        }
+        if (oldest == null) {
+            return null;
+        }
+        final Spilled next = oldest.pollFirst();
+        if (oldest.isEmpty()) {
+            spill.remove(next.event.getLevel().intLevel());
+        }
+        spillSize--;
+        return next.event;
+    }
+
+    /**
+     * Body of the drainer thread.
+     */
+    private void drain() {
+        boolean recovered = false;
+        while (true) {
+            final LogEvent next;
+            synchronized (lock) {
+                while (!spilling && running) {
+                    recovered = false;
+                    try {
+                        lock.wait();
+                    } catch (final InterruptedException e) {
+                        return;
+                    }
+                }
+                if (!spilling) {
+                    return;
+                }
+                next = poll();
+                if (next == null) {
+                    if (recovered || !running) {
+                        endEpisode();
+                        continue;
+                    }
+                    // no event to tell whether the disk recovered, wait for the next one
+                    try {
+                        lock.wait(TimeUnit.NANOSECONDS.toMillis(thresholdNanos) + 1);
+                    } catch (final InterruptedException e) {
+                        return;
+                    }
+                    continue;
+                }
+            }
+            writeLock.lock();
+            try {
+                recovered = write(next) <= thresholdNanos;
+            } catch (final RuntimeException e) {
+                LOGGER.error("{} unable to write back a spilled event", getName(), e);
+            } finally {
+                writeLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Gives the drainer thread the timeout to write the spilled events back,
+     * then stops the wrapped appender.
+     */
+    @Override
+    public boolean stop(final long timeout, final TimeUnit timeUnit) {
+        setStopping();
+        synchronized (lock) {
+            running = false;
+            lock.notifyAll();
+        }
+        if (drainer != null) {
+            try {
+                drainer.join(timeout > 0 ? timeUnit.toMillis(timeout) : STOP_MILLIS);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            drainer.interrupt();
+        }
+        if (spillSize > 0) {
+            LOGGER.warn("{} stopped with {} spilled events not written", getName(), spillSize);
+        }
+        unregister();
+        boolean stopped = true;
+        if (appender instanceof LifeCycle2) {
+            stopped = ((LifeCycle2) appender).stop(timeout, timeUnit);
+        } else {
+            appender.stop();
+        }
+        setStopped();
+        return stopped;
+    }
+
+    private ObjectName objectName() throws JMException {
+        return new ObjectName("fr.phenix333.logger:type=Watchdog,name=" + getName());
+    }
+
+    /**
+     * Registers the metrics, replacing the ones of the appender of the same name
+     * in the configuration being replaced.
+     */
+    private void register() {
+        synchronized (REGISTERED) {
+            try {
+                final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+                final ObjectName name = objectName();
+                if (server.isRegistered(name)) {
+                    server.unregisterMBean(name);
+                }
+                server.registerMBean(this, name);
+                REGISTERED.put(getName(), this);
+            } catch (final JMException e) {
+                LOGGER.warn("{} unable to register its metrics: {}", getName(), e.toString());
+            }
+        }
+    }
+
+    private void unregister() {
+        synchronized (REGISTERED) {
+            if (REGISTERED.remove(getName(), this)) {
+                try {
+                    ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName());
+                } catch (final JMException e) {
+                    LOGGER.debug("{} unable to unregister its metrics: {}", getName(), e.toString());
+                }
+            }
+        }
+    }
+
+    @Override
+    public boolean isSpilling() {
+        return spilling;
+    }
+
+    @Override
+    public long getEpisodes() {
+        return episodes;
+    }
+
+    @Override
+    public long getSpillingMillis() {
+        synchronized (lock) {
+            return TimeUnit.NANOSECONDS.toMillis(spillingNanos + (spilling ? System.nanoTime() - episodeStart : 0));
+        }
+    }
+
+    @Override
+    public long getSpilled() {
+        return spilled;
+    }
+
+    @Override
+    public int getSpillSize() {
+        return spillSize;
+    }
+
+    @Override
+    public int getMaxSpillSize() {
+        return maxSpillSize;
+    }
+
+    @Override
+    public Map<String, Long> getDropped() {
+        final Map<String, Long> counts = new TreeMap<>();
+        dropped.forEach((level, count) -> counts.put(level, count.sum()));
+        return counts;
+    }
+
+    @Override
+    public long getMaxWriteMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(maxWriteNanos.get());
+    }
+
+    private static final class Spilled {
+        private final long sequence;
+        private final LogEvent event;
+
+        private Spilled(final long sequence, final LogEvent event) {
+            this.sequence = sequence;
+            this.event = event;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package fr.phenix333.logger.appender;
+
+import java.util.Map;
+
+/**
+ * Metrics of a {@link WatchdogAppender}, registered as
+ * {@code fr.phenix333.logger:type=Watchdog,name=<appender>}.
+ */
+public interface WatchdogMXBean {
+
+    /**
+     * @return True while the events are spilled to memory.
+     */
+    boolean isSpilling();
+
+    /**
+     * @return The number of spill episodes since the start.
+     */
+    long getEpisodes();
+
+    /**
+     * @return The total time spent spilling, in milliseconds.
+     */
+    long getSpillingMillis();
+
+    /**
+     * @return The number of events spilled since the start.
+     */
+    long getSpilled();
+
+    /**
+     * @return The number of events currently held in memory.
+     */
+    int getSpillSize();
+
+    /**
+     * @return The largest number of events held in memory at once.
+     */
+    int getMaxSpillSize();
+
+    /**
+     * @return The number of events dropped since the start, per level name.
+     */
+    Map<String, Long> getDropped();
+
+    /**
+     * @return The longest write to the wrapped appender, in milliseconds.
+     */
+    long getMaxWriteMillis();
+}
@@ -0,0 +1,75 @@
+package fr.phenix333.logger.async;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.Core;
+import org.apache.logging.log4j.core.config.plugins.Plugin;
+import org.apache.logging.log4j.core.config.plugins.PluginAttribute;
+import org.apache.logging.log4j.core.config.plugins.PluginFactory;
+import org.apache.logging.log4j.status.StatusLogger;
+
+/**
+ * Configuration of a lane of the {@link LevelLanesQueueFactory}: the events
+ * down to {@code level}, and not taken by a more severe lane, share its
+ * capacity and policy.
+ */
+@Plugin(name = "Lane", category = Core.CATEGORY_NAME, printObject = true)
+public final class Lane {
+    private final Level level;
+    private final int capacity;
+    private final LanePolicy policy;
+
+    Lane(final Level level, final int capacity, final LanePolicy policy) {
+        this.level = level;
+        this.capacity = capacity;
+        this.policy = policy;
+    }
+
+    /**
+     * @return The least severe level of the lane.
+     */
+    public Level getLevel() {
+        return level;
+    }
+
+    /**
+     * @return The number of events the lane holds, 0 to use the buffer size of
+     *         the {@code Async} appender.
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * @return The policy applied when the lane is full.
+     */
+    public LanePolicy getPolicy() {
+        return policy;
+    }
+
+    @Override
+    public String toString() {
+        return "Lane[level=" + level + ", capacity=" + capacity + ", policy=" + policy + "]";
+    }
+
+    /**
+     * Creates a lane.
+     *
+     * @param level the least severe level of the lane.
+     * @param capacity the number of events the lane holds, 0 to use the buffer
+     *            size of the {@code Async} appender.
+     * @param policy the policy applied when the lane is full, {@code BLOCK} by
+     *            default.
+     * @return The lane.
+     */
+    @PluginFactory
+    public static Lane createLane(@PluginAttribute("level") final String level,
+            @PluginAttribute(value = "capacity", defaultInt = 0) final int capacity,
+            @PluginAttribute("policy") final LanePolicy policy) {
+        final Level laneLevel = level == null ? null : Level.getLevel(level.toUpperCase());
+        if (laneLevel == null) {
+            StatusLogger.getLogger().error("Lane requires an existing level, got {}", level);
+            return null;
+        }
+        return new Lane(laneLevel, capacity, policy == null ? LanePolicy.BLOCK : policy);
+    }
+}
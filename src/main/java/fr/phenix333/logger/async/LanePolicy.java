@@ -0,0 +1,21 @@
+package fr.phenix333.logger.async;
+
+/**
+ * What a {@link Lane} does with a new event when it is full.
+ */
+public enum LanePolicy {
+    /**
+     * The producer waits for the consumer, the event is never discarded.
+     */
+    BLOCK,
+
+    /**
+     * The oldest event of the lane is discarded to make room.
+     */
+    DROP_OLDEST,
+
+    /**
+     * The new event is discarded.
+     */
+    DROP_NEWEST
+}
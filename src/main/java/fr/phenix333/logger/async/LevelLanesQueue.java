@@ -0,0 +1,346 @@
+package fr.phenix333.logger.async;
+
+import java.util.AbstractQueue;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.LogEvent;
+
+/**
+ * Blocking queue of events split in lanes by level, each with its own capacity
+ * and {@link LanePolicy}.
+ * <p>
+ * The consumer always serves the most severe non-empty lane first, but never
+ * reorders the events of a thread: before the head of that lane, the older
+ * events of the same thread, in less severe lanes, are returned. Every event
+ * is linked to the previous queued event of its thread for that purpose.
+ * <p>
+ * So the events of other threads never delay an {@code ERROR}, but an
+ * {@code ERROR} waits for the older queued events of its own thread: up to the
+ * capacity of a {@code DROP_OLDEST} lane of {@code FUNCTION} events if the
+ * thread has just logged that many.
+ */
+public final class LevelLanesQueue extends AbstractQueue<LogEvent> implements BlockingQueue<LogEvent> {
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final LaneState[] lanes;
+    private final Map<Long, Node> lastOfThread = new HashMap<>();
+    private int count;
+
+    LevelLanesQueue(final Lane[] lanes) {
+        this.lanes = new LaneState[lanes.length];
+        for (int i = 0; i < lanes.length; i++) {
+            this.lanes[i] = new LaneState(lanes[i], lock.newCondition());
+        }
+    }
+
+    /**
+     * @return The number of events discarded by each lane, by least severe level
+     *         of the lane.
+     */
+    public Map<String, Long> getDropped() {
+        lock.lock();
+        try {
+            final Map<String, Long> dropped = new LinkedHashMap<>();
+            for (final LaneState lane : lanes) {
+                dropped.put(lane.lane.getLevel().name(), lane.dropped);
+            }
+            return dropped;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private LaneState laneOf(final LogEvent event) {
+        final Level level = event.getLevel();
+        if (level != null) {
+            for (final LaneState lane : lanes) {
+                if (level.intLevel() <= lane.lane.getLevel().intLevel()) {
+                    return lane;
+                }
+            }
+            return lanes[lanes.length - 1];
+        }
+        return lanes[0];
+    }
+
+    @Override
+    public boolean offer(final LogEvent event) {
+        final LaneState lane = laneOf(event);
+        lock.lock();
+        try {
+            return insert(lane, event);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void put(final LogEvent event) throws InterruptedException {
+        final LaneState lane = laneOf(event);
+        lock.lockInterruptibly();
+        try {
+            while (lane.isFull() && lane.lane.getPolicy() == LanePolicy.BLOCK) {
+                lane.notFull.await();
+            }
+            insert(lane, event);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean offer(final LogEvent event, final long timeout, final TimeUnit unit) throws InterruptedException {
+        final LaneState lane = laneOf(event);
+        long nanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (lane.isFull() && lane.lane.getPolicy() == LanePolicy.BLOCK) {
+                if (nanos <= 0) {
+                    return false;
+                }
+                nanos = lane.notFull.awaitNanos(nanos);
+            }
+            return insert(lane, event);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public LogEvent take() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (count == 0) {
+                notEmpty.await();
+            }
+            return remove(next());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public LogEvent poll(final long timeout, final TimeUnit unit) throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (count == 0) {
+                if (nanos <= 0) {
+                    return null;
+                }
+                nanos = notEmpty.awaitNanos(nanos);
+            }
+            return remove(next());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public LogEvent poll() {
+        lock.lock();
+        try {
+            return count == 0 ? null : remove(next());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public LogEvent peek() {
+        lock.lock();
+        try {
+            return count == 0 ? null : next().event;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        lock.lock();
+        try {
+            return count;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int remainingCapacity() {
+        lock.lock();
+        try {
+            int remaining = 0;
+            for (final LaneState lane : lanes) {
+                remaining += lane.lane.getCapacity() - lane.size;
+            }
+            return remaining;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int drainTo(final Collection<? super LogEvent> c) {
+        return drainTo(c, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public int drainTo(final Collection<? super LogEvent> c, final int maxElements) {
+        lock.lock();
+        try {
+            int drained = 0;
+            while (count > 0 && drained < maxElements) {
+                c.add(remove(next()));
+                drained++;
+            }
+            return drained;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the events in the order they would be consumed, as a snapshot.
+     */
+    @Override
+    public Iterator<LogEvent> iterator() {
+        lock.lock();
+        try {
+            final List<LogEvent> events = new ArrayList<>(count);
+            for (final LaneState lane : lanes) {
+                for (Node node = lane.head; node != null; node = node.next) {
+                    events.add(node.event);
+                }
+            }
+            return events.iterator();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean insert(final LaneState lane, final LogEvent event) {
+        if (lane.isFull()) {
+            switch (lane.lane.getPolicy()) {
+            case DROP_OLDEST:
+                remove(lane.head);
+                lane.dropped++;
+                break;
+            case DROP_NEWEST:
+                lane.dropped++;
+                return true;
+            default:
+                return false;
+            }
+        }
+        final Node node = new Node(event, lane);
+        if (lane.tail == null) {
+            lane.head = node;
+        } else {
+            lane.tail.next = node;
+            node.prev = lane.tail;
+        }
+        lane.tail = node;
+        lane.size++;
+
+        final Node previous = lastOfThread.put(node.threadId, node);
+        if (previous != null) {
+            previous.threadNext = node;
+            node.threadPrevious = previous;
+        }
+        count++;
+        notEmpty.signal();
+        return true;
+    }
+
+    /**
+     * @return The oldest event of the thread of the head of the most severe
+     *         non-empty lane.
+     */
+    private Node next() {
+        for (final LaneState lane : lanes) {
+            if (lane.head != null) {
+                Node node = lane.head;
+                while (node.threadPrevious != null) {
+                    node = node.threadPrevious;
+                }
+                return node;
+            }
+        }
+        throw new IllegalStateException("Empty queue with a count of " + count);
+    }
+
+    private LogEvent remove(final Node node) {
+        final LaneState lane = node.lane;
+        if (node.prev == null) {
+            lane.head = node.next;
+        } else {
+            node.prev.next = node.next;
+        }
+        if (node.next == null) {
+            lane.tail = node.prev;
+        } else {
+            node.next.prev = node.prev;
+        }
+        lane.size--;
+
+        if (node.threadPrevious != null) {
+            node.threadPrevious.threadNext = node.threadNext;
+        }
+        if (node.threadNext != null) {
+            node.threadNext.threadPrevious = node.threadPrevious;
+        } else if (node.threadPrevious != null) {
+            lastOfThread.put(node.threadId, node.threadPrevious);
+        } else {
+            lastOfThread.remove(node.threadId);
+        }
+        count--;
+        lane.notFull.signal();
+        return node.event;
+    }
+
+    private static final class LaneState {
+        private final Lane lane;
+        private final Condition notFull;
+        private Node head;
+        private Node tail;
+        private int size;
+        private long dropped;
+
+        private LaneState(final Lane lane, final Condition notFull) {
+            this.lane = lane;
+            this.notFull = notFull;
+        }
+
+        private boolean isFull() {
+            return size >= lane.getCapacity();
+        }
+    }
+
+    private static final class Node {
+        private final LogEvent event;
+        private final LaneState lane;
+        private final long threadId;
+        private Node prev;
+        private Node next;
+        private Node threadPrevious;
+        private Node threadNext;
+
+        private Node(final LogEvent event, final LaneState lane) {
+            this.event = event;
+            this.lane = lane;
+            this.threadId = event.getThreadId();
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package fr.phenix333.logger.async;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.BlockingQueue;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.Core;
+import org.apache.logging.log4j.core.async.BlockingQueueFactory;
+import org.apache.logging.log4j.core.config.plugins.Plugin;
+import org.apache.logging.log4j.core.config.plugins.PluginElement;
+import org.apache.logging.log4j.core.config.plugins.PluginFactory;
+
+/**
+ * Queue of an {@code Async} appender with one lane per band of levels, so a
+ * flood of {@code FUNCTION} events can not block or discard the {@code FATAL}
+ * and {@code ERROR} ones.
+ *
+ * <pre>
+ * &lt;Async name="ASYNC" bufferSize="4096"&gt;
+ *     &lt;LevelLanesQueue&gt;
+ *         &lt;Lane level="ERROR" policy="BLOCK" /&gt;
+ *         &lt;Lane level="INFO" policy="BLOCK" /&gt;
+ *         &lt;Lane level="FUNCTION" capacity="16384" policy="DROP_OLDEST" /&gt;
+ *     &lt;/LevelLanesQueue&gt;
+ *     &lt;AppenderRef ref="..." /&gt;
+ * &lt;/Async&gt;
+ * </pre>
+ *
+ * Without lanes, these three lanes are used. The events less severe than the
+ * last lane go to it. See {@link LevelLanesQueue} for the order in which the
+ * events are consumed.
+ */
+@Plugin(name = "LevelLanesQueue", category = Core.CATEGORY_NAME, elementType = BlockingQueueFactory.ELEMENT_TYPE)
+public final class LevelLanesQueueFactory<E> implements BlockingQueueFactory<E> {
+    private static final Level FUNCTION = Level.forName("FUNCTION", 550);
+
+    private final Lane[] lanes;
+
+    private LevelLanesQueueFactory(final Lane[] lanes) {
+        this.lanes = lanes;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public BlockingQueue<E> create(final int capacity) {
+        final Lane[] sized = new Lane[lanes.length];
+        for (int i = 0; i < lanes.length; i++) {
+            final Lane lane = lanes[i];
+            sized[i] = new Lane(lane.getLevel(), lane.getCapacity() > 0 ? lane.getCapacity() : capacity,
+                    lane.getPolicy());
+        }
+        return (BlockingQueue<E>) new LevelLanesQueue(sized);
+    }
+
+    /**
+     * Creates the factory.
+     *
+     * @param lanes the lanes, in any order.
+     * @return The factory.
+     */
+    @PluginFactory
+    public static <E> LevelLanesQueueFactory<E> createFactory(@PluginElement("Lanes") final Lane[] lanes) {
+        Lane[] sorted = lanes;
+        if (sorted == null || sorted.length == 0) {
+            sorted = new Lane[] { new Lane(Level.ERROR, 0, LanePolicy.BLOCK), new Lane(Level.INFO, 0, LanePolicy.BLOCK),
+                    new Lane(FUNCTION, 0, LanePolicy.DROP_OLDEST) };
+        }
+        sorted = Arrays.stream(sorted).sorted(Comparator.comparingInt(l -> l.getLevel().intLevel()))
+                .toArray(Lane[]::new);
+        return new LevelLanesQueueFactory<>(sorted);
+    }
+}
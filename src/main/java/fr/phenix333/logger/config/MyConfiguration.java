@@ -0,0 +1,118 @@
+package fr.phenix333.logger.config;
+
+import java.util.Locale;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.Appender;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.appender.rolling.CompositeTriggeringPolicy;
+import org.apache.logging.log4j.core.appender.rolling.DefaultRolloverStrategy;
+import org.apache.logging.log4j.core.appender.rolling.RolloverStrategy;
+import org.apache.logging.log4j.core.appender.rolling.SizeBasedTriggeringPolicy;
+import org.apache.logging.log4j.core.appender.rolling.TimeBasedTriggeringPolicy;
+import org.apache.logging.log4j.core.appender.rolling.TriggeringPolicy;
+import org.apache.logging.log4j.core.appender.rolling.action.Action;
+import org.apache.logging.log4j.core.config.AbstractConfiguration;
+import org.apache.logging.log4j.core.config.ConfigurationSource;
+import org.apache.logging.log4j.core.config.LoggerConfig;
+import org.apache.logging.log4j.core.layout.PatternLayout;
+
+import fr.phenix333.logger.appender.CompressedRollingFileAppender;
+import fr.phenix333.logger.appender.LazyAppender;
+import fr.phenix333.logger.appender.NonBlockingConsoleAppender;
+import fr.phenix333.logger.appender.SwappingRollingFileAppender;
+import fr.phenix333.logger.appender.WatchdogAppender;
+import fr.phenix333.logger.index.IndexArchivesAction;
+import fr.phenix333.logger.index.RetentionAction;
+
+/**
+ * The topology of {@code log4j2.xml}, built in code: the appenders and loggers
+ * are created by their builders, without parsing a file nor resolving plugin
+ * nodes. Any change of {@code log4j2.xml} must be reported here:
+ * {@code MyConfigurationTest} fails when both do not build the same appenders
+ * or do not write the same files.
+ */
+final class MyConfiguration extends AbstractConfiguration {
+    static final String NAME = "MyConfiguration";
+
+    private static final String PATTERN = "%fd{dd-MM-yyyy HH:mm:ss,SSS} %t %p %c{1} %M -> %m%ctx%n"
+            + "%dex{depth=128}{collapse=org.springframework.,jdk.internal.reflect.,java.lang.reflect.}";
+    /**
+     * The system property of the directory of the files, as {@code logDir} in
+     * {@code log4j2.xml}.
+     */
+    static final String DIR_PROPERTY = "fr.phenix333.logger.dir";
+    private static final String LOGGER_NAME = "fr.phenix333";
+    private static final Level FUNCTION = Level.forName("FUNCTION", 550);
+    private static final Level[] FILE_LEVELS = { Level.FATAL, Level.ERROR, Level.WARN, Level.INFO, Level.DEBUG,
+            FUNCTION };
+
+    private final String basePath = System.getProperty(DIR_PROPERTY, "Logs");
+
+    MyConfiguration(final LoggerContext loggerContext) {
+        super(loggerContext, ConfigurationSource.NULL_SOURCE);
+        setName(NAME);
+    }
+
+    @Override
+    protected void doConfigure() {
+        final LoggerConfig root = getRootLogger();
+        root.setLevel(Level.WARN);
+        for (final Level level : FILE_LEVELS) {
+            final String name = level.name().toLowerCase(Locale.ROOT);
+            // the most verbose files are written compressed
+            final boolean compressed = level.intLevel() >= Level.DEBUG.intLevel();
+            final Appender appender = LazyAppender.create(name + "_log", this, () -> createWatchdog(name,
+                    compressed ? createCompressedRollingFile(name) : createRollingFile(name)));
+            addAppender(appender);
+            root.addAppender(appender, level, null);
+        }
+        final Appender console = NonBlockingConsoleAppender.newBuilder().setName("STDOUT")
+                .setLayout(createLayout()).setConfiguration(this).build();
+        addAppender(console);
+        root.addAppender(console, FUNCTION, null);
+
+        final LoggerConfig logger = LoggerConfig.newBuilder().withLoggerName(LOGGER_NAME).withLevel(FUNCTION)
+                .withConfig(this).build();
+        logger.setParent(root);
+        addLogger(LOGGER_NAME, logger);
+    }
+
+    private static Appender createWatchdog(final String name, final Appender appender) {
+        return appender == null ? null : WatchdogAppender.create(name + "_log", appender, 100, 100_000);
+    }
+
+    private Appender createRollingFile(final String name) {
+        return SwappingRollingFileAppender.newBuilder().setName(name + "_log")
+                .setFileName(basePath + "/" + name + ".log")
+                .setFilePattern(basePath + "/" + name + "-%d{dd-MM-yyyy}-%i.log.gz")
+                .setPolicy(createPolicy()).setStrategy(createStrategy(name))
+                .setLayout(createLayout()).setConfiguration(this).build();
+    }
+
+    private Appender createCompressedRollingFile(final String name) {
+        return CompressedRollingFileAppender.newBuilder().setName(name + "_log")
+                .setFileName(basePath + "/" + name + ".log.gz")
+                .setFilePattern(basePath + "/" + name + "-%d{dd-MM-yyyy}-%i.log.gz")
+                .setPolicy(createPolicy()).setStrategy(createStrategy(name))
+                .setLayout(createLayout()).setConfiguration(this).build();
+    }
+
+    private static TriggeringPolicy createPolicy() {
+        return CompositeTriggeringPolicy.createPolicy(TimeBasedTriggeringPolicy.newBuilder().withInterval(1).build(),
+                SizeBasedTriggeringPolicy.createPolicy("20MB"));
+    }
+
+    private RolloverStrategy createStrategy(final String name) {
+        final Action indexArchives = IndexArchivesAction.createIndexArchivesAction(basePath,
+                name + "-*.log.gz", IndexArchivesAction.DEFAULT_CHUNK_SIZE, this);
+        final Action retention = RetentionAction.createRetentionAction(basePath, "2GB", "30d",
+                RetentionAction.DEFAULT_GLOBS, this);
+        return DefaultRolloverStrategy.newBuilder().withFileIndex("nomax")
+                .withCustomActions(new Action[] { indexArchives, retention }).withConfig(this).build();
+    }
+
+    private PatternLayout createLayout() {
+        return PatternLayout.newBuilder().withPattern(PATTERN).withConfiguration(this).build();
+    }
+}
@@ -0,0 +1,112 @@
+package fr.phenix333.logger.config;
+
+import java.net.URI;
+import java.net.URL;
+
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.config.ConfigurationFactory;
+import org.apache.logging.log4j.core.config.ConfigurationSource;
+import org.apache.logging.log4j.core.config.Order;
+import org.apache.logging.log4j.core.config.json.JsonConfigurationFactory;
+import org.apache.logging.log4j.core.config.plugins.Plugin;
+import org.apache.logging.log4j.core.config.properties.PropertiesConfigurationFactory;
+import org.apache.logging.log4j.core.config.xml.XmlConfigurationFactory;
+import org.apache.logging.log4j.core.config.yaml.YamlConfigurationFactory;
+import org.apache.logging.log4j.util.PropertiesUtil;
+
+/**
+ * Configuration factory returning the {@link MyConfiguration} built in code in
+ * place of the {@code log4j2.xml} of this library. Selected with
+ * {@code -Dlog4j2.configurationFactory=fr.phenix333.logger.config.MyConfigurationFactory},
+ * and by default in a GraalVM native image, where it avoids the XML parser and
+ * the reflective creation of the appenders.
+ * <p>
+ * Any other file, as the one of {@code logging.config} or the file
+ * configuration of {@code logging.file.*} in Spring Boot, is read by the stock
+ * factory of its type: matching every type, this factory is the first asked.
+ * Spring Boot drives the context as with the XML file: it reconfigures it when
+ * it starts, then applies {@code logging.level.*}.
+ */
+@Plugin(name = "MyConfigurationFactory", category = ConfigurationFactory.CATEGORY)
+@Order(50)
+public final class MyConfigurationFactory extends ConfigurationFactory {
+    private static final String[] SUPPORTED_TYPES = { "*" };
+    private static final String IMAGE_CODE_PROPERTY = "org.graalvm.nativeimage.imagecode";
+    private static final String CONFIG_FILE = "log4j2.xml";
+
+    /**
+     * The location of the {@code log4j2.xml} of this library: the root of the
+     * jar or of the directory holding its classes, whatever the other
+     * {@code log4j2.xml} of the classpath.
+     */
+    private static final String PACKAGED_LOCATION = packagedLocation();
+
+    @Override
+    protected String[] getSupportedTypes() {
+        return SUPPORTED_TYPES;
+    }
+
+    /**
+     * Also found as a plugin, the factory is only used when it is selected by
+     * the property or in a native image.
+     */
+    @Override
+    protected boolean isActive() {
+        return "runtime".equals(System.getProperty(IMAGE_CODE_PROPERTY)) || getClass().getName()
+                .equals(PropertiesUtil.getProperties().getStringProperty(CONFIGURATION_FACTORY_PROPERTY));
+    }
+
+    @Override
+    public Configuration getConfiguration(final LoggerContext loggerContext, final ConfigurationSource source) {
+        if (isActive() && isPackaged(source == null ? null : source.getURI())) {
+            return new MyConfiguration(loggerContext);
+        }
+        return source == null ? null : stockFactory(source.getLocation()).getConfiguration(loggerContext, source);
+    }
+
+    @Override
+    public Configuration getConfiguration(final LoggerContext loggerContext, final String name,
+            final URI configLocation) {
+        return isActive() && isPackaged(configLocation) ? new MyConfiguration(loggerContext) : null;
+    }
+
+    /**
+     * @param location the location of a configuration, null if none is given.
+     * @return Whether the location is the {@code log4j2.xml} of this library,
+     *         or none.
+     */
+    static boolean isPackaged(final URI location) {
+        return location == null || location.toString().equals(PACKAGED_LOCATION);
+    }
+
+    /**
+     * @param location the location of a configuration file.
+     * @return The stock factory of the type of the file, the XML one for an
+     *         unknown type, as the {@code *} type of log4j.
+     */
+    private static ConfigurationFactory stockFactory(final String location) {
+        if (location != null) {
+            if (location.endsWith(".json") || location.endsWith(".jsn")) {
+                return new JsonConfigurationFactory();
+            }
+            if (location.endsWith(".yaml") || location.endsWith(".yml")) {
+                return new YamlConfigurationFactory();
+            }
+            if (location.endsWith(".properties")) {
+                return new PropertiesConfigurationFactory();
+            }
+        }
+        return new XmlConfigurationFactory();
+    }
+
+    private static String packagedLocation() {
+        final String resource = MyConfiguration.class.getName().replace('.', '/') + ".class";
+        final URL url = MyConfiguration.class.getClassLoader().getResource(resource);
+        if (url == null) {
+            return null;
+        }
+        final String location = url.toString();
+        return location.substring(0, location.length() - resource.length()) + CONFIG_FILE;
+    }
+}
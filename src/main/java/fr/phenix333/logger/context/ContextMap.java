@@ -0,0 +1,152 @@
+package fr.phenix333.logger.context;
+
+import java.util.Arrays;
+
+import org.apache.logging.log4j.util.StringMap;
+
+/**
+ * Open addressing map of the context fields of a thread, with linear probing
+ * in two parallel arrays.
+ * <p>
+ * It is only read and written by its thread, except through {@link #copy()}.
+ */
+final class ContextMap {
+    private static final int MIN_CAPACITY = 8;
+
+    private String[] keys;
+    private Object[] values;
+    private int size;
+
+    ContextMap() {
+        this(MIN_CAPACITY);
+    }
+
+    private ContextMap(final int capacity) {
+        keys = new String[capacity];
+        values = new Object[capacity];
+    }
+
+    int size() {
+        return size;
+    }
+
+    Object get(final String key) {
+        final int mask = keys.length - 1;
+        for (int i = slot(key, mask);; i = (i + 1) & mask) {
+            final String k = keys[i];
+            if (k == null) {
+                return null;
+            }
+            if (k.equals(key)) {
+                return values[i];
+            }
+        }
+    }
+
+    /**
+     * @return The previous value, or null.
+     */
+    Object put(final String key, final Object value) {
+        if (value == null) {
+            return remove(key);
+        }
+        final int mask = keys.length - 1;
+        int i = slot(key, mask);
+        for (;; i = (i + 1) & mask) {
+            final String k = keys[i];
+            if (k == null) {
+                break;
+            }
+            if (k.equals(key)) {
+                final Object previous = values[i];
+                values[i] = value;
+                return previous;
+            }
+        }
+        keys[i] = key;
+        values[i] = value;
+        // load factor of 1/2 keeps the probe sequences short
+        if (++size * 2 > keys.length) {
+            resize(keys.length * 2);
+        }
+        return null;
+    }
+
+    /**
+     * Removes a key, shifting back the following entries of its probe sequence
+     * so no tombstone is needed.
+     *
+     * @return The previous value, or null.
+     */
+    Object remove(final String key) {
+        final int mask = keys.length - 1;
+        int i = slot(key, mask);
+        for (;; i = (i + 1) & mask) {
+            final String k = keys[i];
+            if (k == null) {
+                return null;
+            }
+            if (k.equals(key)) {
+                break;
+            }
+        }
+        final Object previous = values[i];
+        int hole = i;
+        for (int j = (hole + 1) & mask; keys[j] != null; j = (j + 1) & mask) {
+            final int home = slot(keys[j], mask);
+            // move the entry at j into the hole unless its home lies cyclically in (hole, j]
+            if (hole <= j ? (home <= hole || home > j) : (home <= hole && home > j)) {
+                keys[hole] = keys[j];
+                values[hole] = values[j];
+                hole = j;
+            }
+        }
+        keys[hole] = null;
+        values[hole] = null;
+        size--;
+        return previous;
+    }
+
+    void clear() {
+        Arrays.fill(keys, null);
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    /**
+     * Writes every field into the context data of an event.
+     */
+    void copyTo(final StringMap contextData) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != null) {
+                contextData.putValue(keys[i], values[i]);
+            }
+        }
+    }
+
+    ContextMap copy() {
+        final ContextMap copy = new ContextMap(keys.length);
+        System.arraycopy(keys, 0, copy.keys, 0, keys.length);
+        System.arraycopy(values, 0, copy.values, 0, values.length);
+        copy.size = size;
+        return copy;
+    }
+
+    private static int slot(final String key, final int mask) {
+        final int h = key.hashCode();
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    private void resize(final int capacity) {
+        final String[] oldKeys = keys;
+        final Object[] oldValues = values;
+        keys = new String[capacity];
+        values = new Object[capacity];
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != null) {
+                put(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+}
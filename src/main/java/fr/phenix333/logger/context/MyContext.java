@@ -0,0 +1,252 @@
+package fr.phenix333.logger.context;
+
+import java.util.Arrays;
+import java.util.concurrent.Callable;
+
+/**
+ * Request-scoped fields added to the events logged by the current thread,
+ * rendered by {@code %ctx} or {@code %X} in the layout.
+ *
+ * <pre>
+ * MyContext.where("requestId", id).where("user", user).run(() -&gt; service.handle(request));
+ * </pre>
+ *
+ * Fields are kept in a small open addressing map per thread, updated in place.
+ * They are copied into an event only when it is enabled, by the
+ * {@link MyContextDataInjector}. Unlike {@code ThreadContext} they are not
+ * inherited: {@link #wrap(Runnable)} hands them to a task run by another thread,
+ * such as a virtual thread.
+ */
+public final class MyContext {
+    private static final ThreadLocal<ContextMap> MAPS = new ThreadLocal<>();
+    /**
+     * Fields bound by {@link MyReactorContext} around a logging callback only,
+     * never updated in place.
+     */
+    private static final ThreadLocal<ContextMap> SCOPED = new ThreadLocal<>();
+
+    private MyContext() {
+    }
+
+    /**
+     * @return The map of the current thread, or null if it has no field.
+     */
+    static ContextMap current() {
+        return MAPS.get();
+    }
+
+    /**
+     * @return The fields bound around the current logging callback, or null.
+     */
+    static ContextMap scoped() {
+        return SCOPED.get();
+    }
+
+    /**
+     * @param map the fields to bind around a logging callback.
+     * @return The fields bound before, to restore afterwards.
+     */
+    static ContextMap bindScoped(final ContextMap map) {
+        final ContextMap previous = SCOPED.get();
+        SCOPED.set(map);
+        return previous;
+    }
+
+    /**
+     * @param previous the fields returned by {@link #bindScoped(ContextMap)}.
+     */
+    static void restoreScoped(final ContextMap previous) {
+        if (previous == null) {
+            SCOPED.remove();
+        } else {
+            SCOPED.set(previous);
+        }
+    }
+
+    /**
+     * @param key the name of the field.
+     * @return The value of the field for the current thread, or null.
+     */
+    public static Object get(final String key) {
+        final ContextMap map = MAPS.get();
+        return map == null ? null : map.get(key);
+    }
+
+    /**
+     * Sets a field until it is removed, prefer {@link #where(String, Object)}.
+     *
+     * @param key the name of the field.
+     * @param value the value, null removes the field.
+     */
+    public static void put(final String key, final Object value) {
+        ContextMap map = MAPS.get();
+        if (map == null) {
+            if (value == null) {
+                return;
+            }
+            map = new ContextMap();
+            MAPS.set(map);
+        }
+        map.put(key, value);
+    }
+
+    /**
+     * @param key the name of the field to remove.
+     */
+    public static void remove(final String key) {
+        final ContextMap map = MAPS.get();
+        if (map != null) {
+            map.remove(key);
+        }
+    }
+
+    /**
+     * Removes all the fields of the current thread.
+     */
+    public static void clear() {
+        MAPS.remove();
+    }
+
+    /**
+     * Binds a field for the duration of {@link Carrier#run(Runnable)} or
+     * {@link Carrier#call(Callable)}, restoring the previous value afterwards.
+     *
+     * @param key the name of the field.
+     * @param value the value of the field.
+     * @return The carrier of the binding.
+     */
+    public static Carrier where(final String key, final Object value) {
+        return new Carrier(new String[] { key }, new Object[] { value });
+    }
+
+    /**
+     * @param task a task to run by another thread.
+     * @return A task running {@code task} with the fields of the current thread,
+     *         as they are now.
+     */
+    public static Runnable wrap(final Runnable task) {
+        final ContextMap snapshot = snapshot();
+        return () -> {
+            final ContextMap previous = install(snapshot);
+            try {
+                task.run();
+            } finally {
+                restore(previous);
+            }
+        };
+    }
+
+    /**
+     * @param task a task to run by another thread.
+     * @return A task running {@code task} with the fields of the current thread,
+     *         as they are now.
+     */
+    public static <T> Callable<T> wrap(final Callable<T> task) {
+        final ContextMap snapshot = snapshot();
+        return () -> {
+            final ContextMap previous = install(snapshot);
+            try {
+                return task.call();
+            } finally {
+                restore(previous);
+            }
+        };
+    }
+
+    private static ContextMap snapshot() {
+        final ContextMap map = MAPS.get();
+        return map == null || map.size() == 0 ? null : map.copy();
+    }
+
+    private static ContextMap install(final ContextMap snapshot) {
+        final ContextMap previous = MAPS.get();
+        // each run gets its own copy, the task may update it
+        restore(snapshot == null ? null : snapshot.copy());
+        return previous;
+    }
+
+    private static void restore(final ContextMap map) {
+        if (map == null) {
+            MAPS.remove();
+        } else {
+            MAPS.set(map);
+        }
+    }
+
+    /**
+     * Bindings of fields, applied for the duration of a task by the current
+     * thread.
+     */
+    public static final class Carrier {
+        private final String[] keys;
+        private final Object[] values;
+
+        private Carrier(final String[] keys, final Object[] values) {
+            this.keys = keys;
+            this.values = values;
+        }
+
+        /**
+         * @param key the name of the field.
+         * @param value the value of the field.
+         * @return A carrier with this binding added.
+         */
+        public Carrier where(final String key, final Object value) {
+            final String[] newKeys = Arrays.copyOf(keys, keys.length + 1);
+            final Object[] newValues = Arrays.copyOf(values, values.length + 1);
+            newKeys[keys.length] = key;
+            newValues[values.length] = value;
+            return new Carrier(newKeys, newValues);
+        }
+
+        /**
+         * @param task the task to run with the bindings.
+         */
+        public void run(final Runnable task) {
+            final Object[] previous = bind();
+            try {
+                task.run();
+            } finally {
+                unbind(previous);
+            }
+        }
+
+        /**
+         * @param task the task to run with the bindings.
+         * @return The result of the task.
+         * @throws Exception the exception thrown by the task.
+         */
+        public <T> T call(final Callable<T> task) throws Exception {
+            final Object[] previous = bind();
+            try {
+                return task.call();
+            } finally {
+                unbind(previous);
+            }
+        }
+
+        private Object[] bind() {
+            ContextMap map = MAPS.get();
+            if (map == null) {
+                map = new ContextMap();
+                MAPS.set(map);
+            }
+            final Object[] previous = new Object[keys.length];
+            for (int i = 0; i < keys.length; i++) {
+                previous[i] = map.put(keys[i], values[i]);
+            }
+            return previous;
+        }
+
+        private void unbind(final Object[] previous) {
+            final ContextMap map = MAPS.get();
+            if (map == null) {
+                return;
+            }
+            // in reverse order, a key bound twice gets its first previous value back
+            for (int i = keys.length - 1; i >= 0; i--) {
+                map.put(keys[i], previous[i]);
+            }
+        }
+    }
+}
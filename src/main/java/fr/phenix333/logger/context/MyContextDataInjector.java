@@ -0,0 +1,84 @@
+package fr.phenix333.logger.context;
+
+import java.util.List;
+
+import org.apache.logging.log4j.ThreadContext;
+import org.apache.logging.log4j.core.ContextDataInjector;
+import org.apache.logging.log4j.core.config.Property;
+import org.apache.logging.log4j.core.impl.ThreadContextDataInjector;
+import org.apache.logging.log4j.spi.CopyOnWrite;
+import org.apache.logging.log4j.spi.DefaultThreadContextMap;
+import org.apache.logging.log4j.spi.ReadOnlyThreadContextMap;
+import org.apache.logging.log4j.util.ReadOnlyStringMap;
+import org.apache.logging.log4j.util.SortedArrayStringMap;
+import org.apache.logging.log4j.util.StringMap;
+
+/**
+ * Injects the fields of {@link MyContext}, then those bound by
+ * {@link MyReactorContext}, into the context data of the events, after the
+ * {@code ThreadContext} ones. Log4j only calls it for enabled events.
+ * <p>
+ * Set with the {@code log4j2.ContextDataInjector} property, see
+ * {@code log4j2.component.properties}.
+ */
+public final class MyContextDataInjector implements ContextDataInjector {
+    private final ContextDataInjector threadContextInjector = createThreadContextInjector();
+
+    /**
+     * Same choice as {@code ContextDataInjectorFactory} for the default injector.
+     */
+    private static ContextDataInjector createThreadContextInjector() {
+        final ReadOnlyThreadContextMap threadContextMap = ThreadContext.getThreadContextMap();
+        if (threadContextMap == null || threadContextMap instanceof DefaultThreadContextMap) {
+            return new ThreadContextDataInjector.ForDefaultThreadContextMap();
+        }
+        if (threadContextMap instanceof CopyOnWrite) {
+            return new ThreadContextDataInjector.ForCopyOnWriteThreadContextMap();
+        }
+        return new ThreadContextDataInjector.ForGarbageFreeThreadContextMap();
+    }
+
+    @Override
+    public StringMap injectContextData(final List<Property> properties, final StringMap reusable) {
+        final StringMap contextData = threadContextInjector.injectContextData(properties, reusable);
+        final ContextMap map = MyContext.current();
+        final ContextMap scoped = MyContext.scoped();
+        if (isEmpty(map) && isEmpty(scoped)) {
+            return contextData;
+        }
+        // the copy-on-write injector may return the frozen map of the ThreadContext
+        final StringMap result = contextData.isFrozen() ? new SortedArrayStringMap(contextData) : contextData;
+        copyTo(map, scoped, result);
+        return result;
+    }
+
+    @Override
+    public ReadOnlyStringMap rawContextData() {
+        final ReadOnlyStringMap threadContextData = threadContextInjector.rawContextData();
+        final ContextMap map = MyContext.current();
+        final ContextMap scoped = MyContext.scoped();
+        if (isEmpty(map) && isEmpty(scoped)) {
+            return threadContextData;
+        }
+        final StringMap result = new SortedArrayStringMap(threadContextData);
+        copyTo(map, scoped, result);
+        return result;
+    }
+
+    private static boolean isEmpty(final ContextMap map) {
+        return map == null || map.size() == 0;
+    }
+
+    /**
+     * The fields of the Reactor context are the most specific, they are copied
+     * last.
+     */
+    private static void copyTo(final ContextMap map, final ContextMap scoped, final StringMap result) {
+        if (!isEmpty(map)) {
+            map.copyTo(result);
+        }
+        if (!isEmpty(scoped)) {
+            scoped.copyTo(result);
+        }
+    }
+}
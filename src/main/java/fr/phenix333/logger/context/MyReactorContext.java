@@ -0,0 +1,157 @@
+package fr.phenix333.logger.context;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import reactor.core.publisher.Signal;
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+/**
+ * Request-scoped fields of a Reactor pipeline, kept in its {@link Context} and
+ * added to the events logged by its logging callbacks.
+ *
+ * <pre>
+ * return service.handle(request)
+ *         .doOnEach(MyReactorContext.onNext(response -&gt; LOGGER.info("Handled {}", response)))
+ *         .contextWrite(MyReactorContext.where("requestId", id).where("user", user));
+ * </pre>
+ *
+ * The fields travel with the subscription, nothing is copied to a
+ * {@code ThreadLocal} when a signal crosses an operator or a thread. They are
+ * bound to the current thread around the logging callbacks only, by reference,
+ * and copied into an event only when it is enabled, by the
+ * {@link MyContextDataInjector}. Needs {@code reactor-core}, an optional
+ * dependency.
+ */
+public final class MyReactorContext {
+    /**
+     * Key of the fields in the Reactor context, a private object no other
+     * library can overwrite.
+     */
+    private static final Object KEY = new Object();
+
+    private MyReactorContext() {
+    }
+
+    /**
+     * @param key the name of the field.
+     * @param value the value, null removes the field.
+     * @return The fields to write into the context with
+     *         {@code contextWrite(...)}.
+     */
+    public static Fields where(final String key, final Object value) {
+        return new Fields(new String[] { key }, new Object[] { value });
+    }
+
+    /**
+     * @param context the context of a subscription.
+     * @param key the name of the field.
+     * @return The value of the field in the context, or null.
+     */
+    public static Object get(final ContextView context, final String key) {
+        final ContextMap map = context.getOrDefault(KEY, null);
+        return map == null ? null : map.get(key);
+    }
+
+    /**
+     * @param log the logging callback of the elements.
+     * @return A consumer for {@code doOnEach(...)}, calling {@code log} for
+     *         each element with the fields of the context bound.
+     */
+    public static <T> Consumer<Signal<T>> onNext(final Consumer<? super T> log) {
+        return signal -> {
+            if (signal.isOnNext()) {
+                final ContextMap previous = bind(signal.getContextView());
+                try {
+                    log.accept(signal.get());
+                } finally {
+                    MyContext.restoreScoped(previous);
+                }
+            }
+        };
+    }
+
+    /**
+     * @param log the logging callback of the error.
+     * @return A consumer for {@code doOnEach(...)}, calling {@code log} for the
+     *         error with the fields of the context bound.
+     */
+    public static <T> Consumer<Signal<T>> onError(final Consumer<? super Throwable> log) {
+        return signal -> {
+            if (signal.isOnError()) {
+                final ContextMap previous = bind(signal.getContextView());
+                try {
+                    log.accept(signal.getThrowable());
+                } finally {
+                    MyContext.restoreScoped(previous);
+                }
+            }
+        };
+    }
+
+    /**
+     * Runs a logging callback with the fields of the context bound, for
+     * {@code handle(...)} or {@code deferContextual(...)}.
+     *
+     * @param context the context of a subscription.
+     * @param log the logging callback.
+     */
+    public static void run(final ContextView context, final Runnable log) {
+        final ContextMap previous = bind(context);
+        try {
+            log.run();
+        } finally {
+            MyContext.restoreScoped(previous);
+        }
+    }
+
+    private static ContextMap bind(final ContextView context) {
+        final ContextMap map = context.getOrDefault(KEY, null);
+        // keeps the fields bound by an enclosing callback if the context has none
+        return map == null ? MyContext.scoped() : MyContext.bindScoped(map);
+    }
+
+    /**
+     * Fields written into a Reactor context, on top of the fields already
+     * written downstream.
+     */
+    public static final class Fields implements Function<Context, Context> {
+        private final String[] keys;
+        private final Object[] values;
+
+        private Fields(final String[] keys, final Object[] values) {
+            this.keys = keys;
+            this.values = values;
+        }
+
+        /**
+         * @param key the name of the field.
+         * @param value the value, null removes the field.
+         * @return Fields with this one added.
+         */
+        public Fields where(final String key, final Object value) {
+            final String[] newKeys = Arrays.copyOf(keys, keys.length + 1);
+            final Object[] newValues = Arrays.copyOf(values, values.length + 1);
+            newKeys[keys.length] = key;
+            newValues[values.length] = value;
+            return new Fields(newKeys, newValues);
+        }
+
+        @Override
+        public Context apply(final Context context) {
+            final ContextMap downstream = context.getOrDefault(KEY, null);
+            // the map is shared by every callback of the subscription, it is never updated once written
+            final ContextMap map = downstream == null ? new ContextMap() : downstream.copy();
+            for (int i = 0; i < keys.length; i++) {
+                if (values[i] == null) {
+                    map.remove(keys[i]);
+                } else {
+                    map.put(keys[i], values[i]);
+                }
+            }
+            return context.put(KEY, map);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package fr.phenix333.logger.filter;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.logging.log4j.Marker;
+
+/**
+ * Assigns a bit to each marker name and caches, per marker, the bits of the
+ * marker and of all its ancestors, so that testing a marker against a set of
+ * names is a single AND instead of a walk of the parents.
+ * <p>
+ * 63 names get their own bit, the next ones share {@link #OVERFLOW}, which
+ * makes the {@link MarkerSetFilter} fall back to {@link Marker#isInstanceOf}.
+ * The ancestors are read when a marker is first seen: after changing the
+ * parents of a marker already used, call {@link #refresh()}.
+ */
+public final class MarkerRegistry {
+    /**
+     * Bit of the names beyond the 63 first ones.
+     */
+    static final long OVERFLOW = 1L << 63;
+
+    private static final int MAX_DEPTH = 32;
+    private static final ConcurrentMap<String, Long> BITS = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<String, Long> ANCESTORS = new ConcurrentHashMap<>();
+    private static int next;
+
+    private MarkerRegistry() {
+    }
+
+    /**
+     * @param name the name of a marker.
+     * @return The bit of the name, assigned on the first call.
+     */
+    static long bitOf(final String name) {
+        final Long bit = BITS.get(name);
+        return bit != null ? bit : assign(name);
+    }
+
+    private static synchronized long assign(final String name) {
+        return BITS.computeIfAbsent(name, n -> next < 63 ? 1L << next++ : OVERFLOW);
+    }
+
+    /**
+     * @param marker a marker, not null.
+     * @return The bits of the marker and of its ancestors.
+     */
+    static long ancestorsOf(final Marker marker) {
+        final Long bits = ANCESTORS.get(marker.getName());
+        return bits != null ? bits : ANCESTORS.computeIfAbsent(marker.getName(), n -> collect(marker, 0L, 0));
+    }
+
+    private static long collect(final Marker marker, final long bits, final int depth) {
+        final long bit = bitOf(marker.getName());
+        if (bit != OVERFLOW && (bits & bit) != 0) {
+            // already seen through another parent
+            return bits;
+        }
+        long result = bits | bit;
+        if (depth < MAX_DEPTH && marker.hasParents()) {
+            for (final Marker parent : marker.getParents()) {
+                result = collect(parent, result, depth + 1);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Forgets the ancestors of the markers, to be called after changing their
+     * parents. The bits of the names are kept.
+     */
+    public static void refresh() {
+        ANCESTORS.clear();
+    }
+}
@@ -0,0 +1,169 @@
+package fr.phenix333.logger.filter;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.core.Filter;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.Logger;
+import org.apache.logging.log4j.core.config.Node;
+import org.apache.logging.log4j.core.config.plugins.Plugin;
+import org.apache.logging.log4j.core.config.plugins.PluginAttribute;
+import org.apache.logging.log4j.core.config.plugins.PluginFactory;
+import org.apache.logging.log4j.core.filter.AbstractFilter;
+import org.apache.logging.log4j.message.Message;
+
+/**
+ * Filter matching the events whose marker is, or descends from, one of a set
+ * of markers, with a single AND of the bits of the {@link MarkerRegistry}.
+ * Declared at the top of the configuration, it can enable the {@code FUNCTION}
+ * events of some markers whatever the level of their logger:
+ *
+ * <pre>
+ * &lt;MarkerSet markers="SQL,HTTP" onMatch="ACCEPT" onMismatch="NEUTRAL" /&gt;
+ * </pre>
+ */
+@Plugin(name = "MarkerSet", category = Node.CATEGORY, elementType = Filter.ELEMENT_TYPE, printObject = true)
+public final class MarkerSetFilter extends AbstractFilter {
+    private final String[] names;
+    private final long mask;
+
+    private MarkerSetFilter(final String[] names, final Result onMatch, final Result onMismatch) {
+        super(onMatch, onMismatch);
+        this.names = names;
+        long bits = 0;
+        for (final String name : names) {
+            bits |= MarkerRegistry.bitOf(name);
+        }
+        this.mask = bits;
+    }
+
+    private Result filter(final Marker marker) {
+        if (marker == null) {
+            return onMismatch;
+        }
+        final long ancestors = MarkerRegistry.ancestorsOf(marker);
+        if ((ancestors & mask & ~MarkerRegistry.OVERFLOW) != 0) {
+            return onMatch;
+        }
+        if (((ancestors | mask) & MarkerRegistry.OVERFLOW) != 0) {
+            // a name without its own bit, the hierarchy is walked
+            for (final String name : names) {
+                if (marker.isInstanceOf(name)) {
+                    return onMatch;
+                }
+            }
+        }
+        return onMismatch;
+    }
+
+    @Override
+    public Result filter(final LogEvent event) {
+        return filter(event.getMarker());
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final Message msg,
+            final Throwable t) {
+        return filter(marker);
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final Object msg,
+            final Throwable t) {
+        return filter(marker);
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+            final Object... params) {
+        return filter(marker);
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+            final Object p0) {
+        return filter(marker);
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final String msg, final Object p0,
+            final Object p1) {
+        return filter(marker);
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final String msg, final Object p0,
+            final Object p1, final Object p2) {
+        return filter(marker);
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final String msg, final Object p0,
+            final Object p1, final Object p2, final Object p3) {
+        return filter(marker);
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final String msg, final Object p0,
+            final Object p1, final Object p2, final Object p3, final Object p4) {
+        return filter(marker);
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final String msg, final Object p0,
+            final Object p1, final Object p2, final Object p3, final Object p4, final Object p5) {
+        return filter(marker);
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final String msg, final Object p0,
+            final Object p1, final Object p2, final Object p3, final Object p4, final Object p5, final Object p6) {
+        return filter(marker);
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final String msg, final Object p0,
+            final Object p1, final Object p2, final Object p3, final Object p4, final Object p5, final Object p6,
+            final Object p7) {
+        return filter(marker);
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final String msg, final Object p0,
+            final Object p1, final Object p2, final Object p3, final Object p4, final Object p5, final Object p6,
+            final Object p7, final Object p8) {
+        return filter(marker);
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final String msg, final Object p0,
+            final Object p1, final Object p2, final Object p3, final Object p4, final Object p5, final Object p6,
+            final Object p7, final Object p8, final Object p9) {
+        return filter(marker);
+    }
+
+    @Override
+    public String toString() {
+        return "markers=" + String.join(",", names);
+    }
+
+    /**
+     * Creates the filter.
+     *
+     * @param markers the names of the markers, separated by commas.
+     * @param match the result when the marker matches, NEUTRAL by default.
+     * @param mismatch the result otherwise, or without marker, DENY by default.
+     * @return The filter.
+     */
+    @PluginFactory
+    public static MarkerSetFilter createFilter(
+            @PluginAttribute("markers") final String markers,
+            @PluginAttribute("onMatch") final Result match,
+            @PluginAttribute("onMismatch") final Result mismatch) {
+        if (markers == null || markers.isBlank()) {
+            LOGGER.error("MarkerSet requires markers");
+            return null;
+        }
+        return new MarkerSetFilter(markers.trim().split("\\s*,\\s*"), match, mismatch);
+    }
+}
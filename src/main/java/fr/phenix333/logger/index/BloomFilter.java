@@ -0,0 +1,62 @@
+package fr.phenix333.logger.index;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Fixed size bloom filter of the logger names written in a log file.
+ */
+final class BloomFilter {
+    static final int DEFAULT_BYTES = 256;
+    private static final int HASHES = 3;
+
+    private final byte[] bits;
+
+    BloomFilter(final int bytes) {
+        this(new byte[bytes]);
+    }
+
+    BloomFilter(final byte[] bits) {
+        this.bits = bits;
+    }
+
+    void add(final String value) {
+        final long hash = hash(value);
+        for (int i = 0; i < HASHES; i++) {
+            final int bit = bit(hash, i);
+            bits[bit >>> 3] |= 1 << (bit & 7);
+        }
+    }
+
+    boolean mightContain(final String value) {
+        final long hash = hash(value);
+        for (int i = 0; i < HASHES; i++) {
+            final int bit = bit(hash, i);
+            if ((bits[bit >>> 3] & (1 << (bit & 7))) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    byte[] toByteArray() {
+        return bits;
+    }
+
+    private int bit(final long hash, final int i) {
+        final int combined = (int) hash + i * (int) (hash >>> 32);
+        return (combined & Integer.MAX_VALUE) % (bits.length * 8);
+    }
+
+    /**
+     * 64-bit FNV-1a hash, the bits are stored in the sidecar so the hash must
+     * only depend on the value.
+     */
+    private static long hash(final String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (final byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+}
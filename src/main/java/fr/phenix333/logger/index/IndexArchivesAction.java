@@ -0,0 +1,151 @@
+package fr.phenix333.logger.index;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.logging.log4j.core.Core;
+import org.apache.logging.log4j.core.appender.rolling.action.AbstractAction;
+import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.config.plugins.Plugin;
+import org.apache.logging.log4j.core.config.plugins.PluginAttribute;
+import org.apache.logging.log4j.core.config.plugins.PluginConfiguration;
+import org.apache.logging.log4j.core.config.plugins.PluginFactory;
+
+/**
+ * Rollover action writing the sidecar {@link LogIndex} of the archives of a
+ * {@code RollingFile}, to be declared in its {@code DefaultRolloverStrategy}:
+ *
+ * <pre>
+ * &lt;DefaultRolloverStrategy max="20"&gt;
+ *     &lt;IndexArchives basePath="Logs" glob="fatal-*.log.gz" /&gt;
+ * &lt;/DefaultRolloverStrategy&gt;
+ * </pre>
+ *
+ * It runs after the compression, off the logging thread. As the rollover
+ * renames the archives when {@code max} is reached, the existing sidecars are
+ * matched back to their archive by length and modification time, and only the
+ * new archives are indexed.
+ */
+@Plugin(name = "IndexArchives", category = Core.CATEGORY_NAME, printObject = true)
+public final class IndexArchivesAction extends AbstractAction {
+    /**
+     * Uncompressed size of the gzip members, 1MB.
+     */
+    public static final int DEFAULT_CHUNK_SIZE = LogIndexer.DEFAULT_CHUNK_SIZE;
+
+    private final Path basePath;
+    private final String glob;
+    private final PathMatcher matcher;
+    private final int chunkSize;
+
+    private IndexArchivesAction(final Path basePath, final String glob, final int chunkSize) {
+        this.basePath = basePath;
+        this.glob = glob;
+        this.matcher = FileSystems.getDefault().getPathMatcher("glob:" + glob);
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public boolean execute() throws IOException {
+        // two rollovers of the same appender may overlap
+        synchronized (IndexArchivesAction.class) {
+            final List<Path> archives = new ArrayList<>();
+            final List<Path> sidecars = new ArrayList<>();
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(basePath)) {
+                for (final Path file : files) {
+                    final String name = file.getFileName().toString();
+                    if (name.endsWith(LogIndex.SUFFIX)) {
+                        final String archive = name.substring(0, name.length() - LogIndex.SUFFIX.length());
+                        if (matcher.matches(Paths.get(archive))) {
+                            sidecars.add(file);
+                        }
+                    } else if (matcher.matches(file.getFileName())) {
+                        archives.add(file);
+                    }
+                }
+            }
+
+            final Map<String, LogIndex> indexes = new HashMap<>();
+            for (final Path sidecar : sidecars) {
+                try {
+                    final LogIndex index = LogIndex.read(sidecar);
+                    if (index != null) {
+                        indexes.put(sidecar.getFileName().toString(), index);
+                    }
+                } catch (final IOException e) {
+                    LOGGER.warn("Unable to read the log index {}", sidecar, e);
+                }
+            }
+
+            for (final Path archive : archives) {
+                final Path sidecar = LogIndex.sidecarOf(archive);
+                final LogIndex current = indexes.get(sidecar.getFileName().toString());
+                if (current != null && current.describes(archive)) {
+                    continue;
+                }
+                final LogIndex moved = find(indexes, archive);
+                if (moved != null) {
+                    moved.write(sidecar);
+                } else {
+                    LOGGER.debug("Indexing {}", archive);
+                    LogIndexer.index(archive, chunkSize);
+                }
+            }
+
+            for (final Path sidecar : sidecars) {
+                final String name = sidecar.getFileName().toString();
+                if (!Files.exists(sidecar.resolveSibling(name.substring(0, name.length() - LogIndex.SUFFIX.length())))) {
+                    Files.deleteIfExists(sidecar);
+                }
+            }
+            return true;
+        }
+    }
+
+    private static LogIndex find(final Map<String, LogIndex> indexes, final Path archive) throws IOException {
+        for (final LogIndex index : indexes.values()) {
+            if (index.describes(archive)) {
+                return index;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public String toString() {
+        return IndexArchivesAction.class.getSimpleName() + "[basePath=" + basePath + ", glob=" + glob
+                + ", chunkSize=" + chunkSize + "]";
+    }
+
+    /**
+     * Creates the action.
+     *
+     * @param basePath the directory of the archives.
+     * @param glob the glob matching the archive names, e.g. {@code fatal-*.log.gz}.
+     * @param chunkSize the uncompressed size between two checkpoints.
+     * @param config the configuration.
+     * @return The action.
+     */
+    @PluginFactory
+    public static IndexArchivesAction createIndexArchivesAction(
+            @PluginAttribute("basePath") final String basePath,
+            @PluginAttribute("glob") final String glob,
+            @PluginAttribute(value = "chunkSize", defaultInt = DEFAULT_CHUNK_SIZE) final int chunkSize,
+            @PluginConfiguration final Configuration config) {
+        if (basePath == null || glob == null) {
+            LOGGER.error("IndexArchives requires a basePath and a glob");
+            return null;
+        }
+        return new IndexArchivesAction(Paths.get(config.getStrSubstitutor().replace(basePath)),
+                config.getStrSubstitutor().replace(glob), chunkSize);
+    }
+}
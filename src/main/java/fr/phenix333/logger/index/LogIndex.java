@@ -0,0 +1,233 @@
+package fr.phenix333.logger.index;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Sidecar index of a rolled log file, written next to it with the
+ * {@value #SUFFIX} suffix.
+ * <p>
+ * It holds the time range of the file, the number of events per level, a bloom
+ * filter of the logger names and checkpoints mapping a timestamp to a position
+ * in the file. For a gzip file, each checkpoint is the start of a gzip member,
+ * so decompression can restart there.
+ */
+public final class LogIndex {
+    /**
+     * Suffix appended to the name of a log file to get its sidecar.
+     */
+    public static final String SUFFIX = ".idx";
+
+    private static final int MAGIC = 0x4c4f4749;
+    private static final int VERSION = 1;
+
+    private final long fileLength;
+    private final long fileLastModified;
+    private final boolean compressed;
+    private final long firstTimestamp;
+    private final long lastTimestamp;
+    private final Map<String, Long> levelCounts;
+    private final BloomFilter loggers;
+    private final long[] checkpointTimestamps;
+    private final long[] checkpointOffsets;
+    private final long[] checkpointPositions;
+
+    LogIndex(final long fileLength, final long fileLastModified, final boolean compressed,
+            final long firstTimestamp, final long lastTimestamp, final Map<String, Long> levelCounts,
+            final BloomFilter loggers, final long[] checkpointTimestamps, final long[] checkpointOffsets,
+            final long[] checkpointPositions) {
+        this.fileLength = fileLength;
+        this.fileLastModified = fileLastModified;
+        this.compressed = compressed;
+        this.firstTimestamp = firstTimestamp;
+        this.lastTimestamp = lastTimestamp;
+        this.levelCounts = Collections.unmodifiableMap(levelCounts);
+        this.loggers = loggers;
+        this.checkpointTimestamps = checkpointTimestamps;
+        this.checkpointOffsets = checkpointOffsets;
+        this.checkpointPositions = checkpointPositions;
+    }
+
+    /**
+     * @param file a log file.
+     * @return The path of its sidecar index.
+     */
+    public static Path sidecarOf(final Path file) {
+        return file.resolveSibling(file.getFileName() + SUFFIX);
+    }
+
+    /**
+     * Reads the sidecar index of a log file.
+     *
+     * @param file a log file.
+     * @return Its index, or null if there is none or if it does not describe the
+     *         current content of the file.
+     * @throws IOException if the sidecar can not be read.
+     */
+    public static LogIndex forFile(final Path file) throws IOException {
+        final Path sidecar = sidecarOf(file);
+        if (!Files.isRegularFile(sidecar)) {
+            return null;
+        }
+        final LogIndex index = read(sidecar);
+        return index != null && index.describes(file) ? index : null;
+    }
+
+    /**
+     * Reads a sidecar index.
+     *
+     * @param sidecar the sidecar file.
+     * @return The index, or null if the file is not a sidecar of a known version.
+     * @throws IOException if the sidecar can not be read.
+     */
+    public static LogIndex read(final Path sidecar) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(sidecar)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                return null;
+            }
+            final long fileLength = in.readLong();
+            final long fileLastModified = in.readLong();
+            final boolean compressed = in.readBoolean();
+            final long firstTimestamp = in.readLong();
+            final long lastTimestamp = in.readLong();
+            final int levels = in.readInt();
+            final Map<String, Long> levelCounts = new LinkedHashMap<>();
+            for (int i = 0; i < levels; i++) {
+                levelCounts.put(in.readUTF(), in.readLong());
+            }
+            final byte[] bloom = new byte[in.readInt()];
+            in.readFully(bloom);
+            final int checkpoints = in.readInt();
+            final long[] timestamps = new long[checkpoints];
+            final long[] offsets = new long[checkpoints];
+            final long[] positions = new long[checkpoints];
+            for (int i = 0; i < checkpoints; i++) {
+                timestamps[i] = in.readLong();
+                offsets[i] = in.readLong();
+                positions[i] = in.readLong();
+            }
+            return new LogIndex(fileLength, fileLastModified, compressed, firstTimestamp, lastTimestamp, levelCounts,
+                    new BloomFilter(bloom), timestamps, offsets, positions);
+        }
+    }
+
+    /**
+     * Writes this index, through a temporary file so readers never see a
+     * partial sidecar.
+     *
+     * @param sidecar the sidecar file.
+     * @throws IOException if the sidecar can not be written.
+     */
+    public void write(final Path sidecar) throws IOException {
+        final Path tmp = sidecar.resolveSibling(sidecar.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(fileLength);
+            out.writeLong(fileLastModified);
+            out.writeBoolean(compressed);
+            out.writeLong(firstTimestamp);
+            out.writeLong(lastTimestamp);
+            out.writeInt(levelCounts.size());
+            for (final Map.Entry<String, Long> entry : levelCounts.entrySet()) {
+                out.writeUTF(entry.getKey());
+                out.writeLong(entry.getValue());
+            }
+            final byte[] bloom = loggers.toByteArray();
+            out.writeInt(bloom.length);
+            out.write(bloom);
+            out.writeInt(checkpointTimestamps.length);
+            for (int i = 0; i < checkpointTimestamps.length; i++) {
+                out.writeLong(checkpointTimestamps[i]);
+                out.writeLong(checkpointOffsets[i]);
+                out.writeLong(checkpointPositions[i]);
+            }
+        }
+        Files.move(tmp, sidecar, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * @param file a log file.
+     * @return {@code true} if this index was built from the current content of
+     *         the file, based on its length and last modification time.
+     * @throws IOException if the attributes of the file can not be read.
+     */
+    public boolean describes(final Path file) throws IOException {
+        return Files.size(file) == fileLength && Files.getLastModifiedTime(file).toMillis() == fileLastModified;
+    }
+
+    /**
+     * @param from the start of a time range, inclusive.
+     * @param to the end of a time range, inclusive.
+     * @return {@code true} if the file may contain events in this range.
+     */
+    public boolean overlaps(final long from, final long to) {
+        return firstTimestamp <= to && lastTimestamp >= from;
+    }
+
+    /**
+     * @param logger a simple logger name, as written by {@code %c{1}}.
+     * @return {@code false} if the file contains no event of this logger.
+     */
+    public boolean mightContainLogger(final String logger) {
+        return loggers.mightContain(logger);
+    }
+
+    /**
+     * @param timestamp a timestamp in milliseconds since the epoch.
+     * @return The position in the file of the last checkpoint strictly before
+     *         the timestamp, from which the file can be read (decompressed if
+     *         needed) to find the events at this time.
+     */
+    public long positionBefore(final long timestamp) {
+        long position = 0;
+        for (int i = 0; i < checkpointTimestamps.length && checkpointTimestamps[i] < timestamp; i++) {
+            position = checkpointPositions[i];
+        }
+        return position;
+    }
+
+    /**
+     * @return {@code true} if the file is gzip compressed.
+     */
+    public boolean isCompressed() {
+        return compressed;
+    }
+
+    /**
+     * @return The timestamp of the first event of the file.
+     */
+    public long getFirstTimestamp() {
+        return firstTimestamp;
+    }
+
+    /**
+     * @return The timestamp of the last event of the file.
+     */
+    public long getLastTimestamp() {
+        return lastTimestamp;
+    }
+
+    /**
+     * @return The number of events per level name.
+     */
+    public Map<String, Long> getLevelCounts() {
+        return levelCounts;
+    }
+
+    /**
+     * @return The number of checkpoints.
+     */
+    public int getCheckpointCount() {
+        return checkpointTimestamps.length;
+    }
+}
@@ -0,0 +1,227 @@
+package fr.phenix333.logger.index;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Builds the {@link LogIndex} of a rolled log file.
+ * <p>
+ * A gzip file is rewritten as a sequence of gzip members of about
+ * {@code chunkSize} uncompressed bytes, each starting with an event. The result
+ * is still a regular gzip file for {@code zcat} or {@link GZIPInputStream}, but
+ * decompression can start at any member.
+ */
+final class LogIndexer {
+    static final int DEFAULT_CHUNK_SIZE = 1 << 20;
+
+    private static final int HEADER_LENGTH = 512;
+
+    private LogIndexer() {
+    }
+
+    static boolean isCompressed(final Path file) {
+        return file.getFileName().toString().endsWith(".gz");
+    }
+
+    /**
+     * Indexes a file, rewriting it first if it is compressed, and writes its
+     * sidecar.
+     *
+     * @param file the rolled log file.
+     * @param chunkSize the uncompressed size between two checkpoints.
+     * @return The index.
+     * @throws IOException if the file can not be read or rewritten.
+     */
+    static LogIndex index(final Path file, final int chunkSize) throws IOException {
+        final boolean compressed = isCompressed(file);
+        final Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        final Builder builder = new Builder();
+        try (InputStream in = compressed ? new GZIPInputStream(Files.newInputStream(file), 1 << 16)
+                : new BufferedInputStream(Files.newInputStream(file), 1 << 16);
+                CountingOutputStream out = compressed
+                        ? new CountingOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp), 1 << 16))
+                        : null) {
+            final LineReader reader = new LineReader(in);
+            GZIPOutputStream member = null;
+            long memberLength = 0;
+            long offset = 0;
+            int length;
+            while ((length = reader.next()) >= 0) {
+                final byte[] line = reader.buffer();
+                final long timestamp = LogLine.parseTimestamp(line, 0, length);
+                if (timestamp >= 0) {
+                    if (compressed) {
+                        if (member == null || memberLength >= chunkSize) {
+                            if (member != null) {
+                                member.close();
+                            }
+                            builder.checkpoint(timestamp, offset, out.count);
+                            member = newMember(out);
+                            memberLength = 0;
+                        }
+                    } else if (builder.checkpoints == 0 || memberLength >= chunkSize) {
+                        builder.checkpoint(timestamp, offset, offset);
+                        memberLength = 0;
+                    }
+                    final LogLine header = LogLine
+                            .parse(new String(line, 0, Math.min(length, HEADER_LENGTH), StandardCharsets.UTF_8));
+                    builder.event(timestamp, header);
+                }
+                if (compressed) {
+                    if (member == null) {
+                        member = newMember(out);
+                    }
+                    member.write(line, 0, length);
+                }
+                memberLength += length;
+                offset += length;
+            }
+            if (member != null) {
+                member.close();
+            }
+        } catch (final IOException e) {
+            Files.deleteIfExists(tmp);
+            throw e;
+        }
+        if (compressed) {
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        final LogIndex index = builder.build(Files.size(file), Files.getLastModifiedTime(file).toMillis(),
+                compressed);
+        index.write(LogIndex.sidecarOf(file));
+        return index;
+    }
+
+    /**
+     * Starts a gzip member, closing it finishes the member and releases its
+     * deflater without closing {@code out}.
+     */
+    private static GZIPOutputStream newMember(final CountingOutputStream out) throws IOException {
+        return new GZIPOutputStream(new OutputStream() {
+            @Override
+            public void write(final int b) throws IOException {
+                out.write(b);
+            }
+
+            @Override
+            public void write(final byte[] b, final int off, final int len) throws IOException {
+                out.write(b, off, len);
+            }
+        }, 1 << 16);
+    }
+
+    private static final class Builder {
+        private final Map<String, Long> levelCounts = new LinkedHashMap<>();
+        private final BloomFilter loggers = new BloomFilter(BloomFilter.DEFAULT_BYTES);
+        private long firstTimestamp = Long.MAX_VALUE;
+        private long lastTimestamp = Long.MIN_VALUE;
+        private long[] timestamps = new long[32];
+        private long[] offsets = new long[32];
+        private long[] positions = new long[32];
+        private int checkpoints;
+
+        private void checkpoint(final long timestamp, final long offset, final long position) {
+            if (checkpoints == timestamps.length) {
+                timestamps = Arrays.copyOf(timestamps, checkpoints * 2);
+                offsets = Arrays.copyOf(offsets, checkpoints * 2);
+                positions = Arrays.copyOf(positions, checkpoints * 2);
+            }
+            timestamps[checkpoints] = timestamp;
+            offsets[checkpoints] = offset;
+            positions[checkpoints] = position;
+            checkpoints++;
+        }
+
+        private void event(final long timestamp, final LogLine header) {
+            firstTimestamp = Math.min(firstTimestamp, timestamp);
+            lastTimestamp = Math.max(lastTimestamp, timestamp);
+            if (header != null) {
+                levelCounts.merge(header.getLevel(), 1L, Long::sum);
+                loggers.add(header.getLogger());
+            }
+        }
+
+        private LogIndex build(final long fileLength, final long fileLastModified, final boolean compressed) {
+            return new LogIndex(fileLength, fileLastModified, compressed, firstTimestamp, lastTimestamp, levelCounts,
+                    loggers, Arrays.copyOf(timestamps, checkpoints), Arrays.copyOf(offsets, checkpoints),
+                    Arrays.copyOf(positions, checkpoints));
+        }
+    }
+
+    /**
+     * Reads lines as bytes, line separator included.
+     */
+    private static final class LineReader {
+        private final InputStream in;
+        private final byte[] chunk = new byte[1 << 16];
+        private int chunkPosition;
+        private int chunkLimit;
+        private byte[] line = new byte[1024];
+
+        private LineReader(final InputStream in) {
+            this.in = in;
+        }
+
+        /**
+         * @return The length of the next line, or -1 at the end of the stream.
+         */
+        private int next() throws IOException {
+            int length = 0;
+            while (true) {
+                if (chunkPosition == chunkLimit) {
+                    chunkLimit = in.read(chunk);
+                    chunkPosition = 0;
+                    if (chunkLimit <= 0) {
+                        chunkLimit = 0;
+                        return length == 0 ? -1 : length;
+                    }
+                }
+                final byte b = chunk[chunkPosition++];
+                if (length == line.length) {
+                    line = Arrays.copyOf(line, length * 2);
+                }
+                line[length++] = b;
+                if (b == '\n') {
+                    return length;
+                }
+            }
+        }
+
+        private byte[] buffer() {
+            return line;
+        }
+    }
+
+    private static final class CountingOutputStream extends FilterOutputStream {
+        private long count;
+
+        private CountingOutputStream(final OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(final int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package fr.phenix333.logger.index;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Parser for the lines written with the
+ * {@code %d{dd-MM-yyyy HH:mm:ss,SSS} %t %p %c{1} %M -> %m%n} pattern.
+ * <p>
+ * A line starting with a timestamp starts an event, any other line (stack
+ * trace, multi-line message) belongs to the previous event.
+ */
+public final class LogLine {
+    /**
+     * Pattern of the timestamp starting each event.
+     */
+    public static final String TIMESTAMP_PATTERN = "dd-MM-yyyy HH:mm:ss,SSS";
+
+    /**
+     * Length of the timestamp starting each event.
+     */
+    public static final int TIMESTAMP_LENGTH = TIMESTAMP_PATTERN.length();
+
+    private static final String SEPARATOR = " -> ";
+
+    private final long timestamp;
+    private final String thread;
+    private final String level;
+    private final String logger;
+    private final String method;
+    private final String message;
+
+    private LogLine(final long timestamp, final String thread, final String level, final String logger,
+            final String method, final String message) {
+        this.timestamp = timestamp;
+        this.thread = thread;
+        this.level = level;
+        this.logger = logger;
+        this.method = method;
+        this.message = message;
+    }
+
+    /**
+     * Parses the header of a line.
+     *
+     * @param line the line, without its line separator.
+     * @return The parsed line, or null if the line does not start an event.
+     */
+    public static LogLine parse(final String line) {
+        final long timestamp = parseTimestamp(line);
+        if (timestamp < 0) {
+            return null;
+        }
+        final int separator = line.indexOf(SEPARATOR, TIMESTAMP_LENGTH);
+        if (separator < 0) {
+            return null;
+        }
+        final int methodStart = line.lastIndexOf(' ', separator - 1);
+        final int loggerStart = methodStart <= TIMESTAMP_LENGTH ? -1 : line.lastIndexOf(' ', methodStart - 1);
+        final int levelStart = loggerStart <= TIMESTAMP_LENGTH ? -1 : line.lastIndexOf(' ', loggerStart - 1);
+        if (levelStart <= TIMESTAMP_LENGTH) {
+            return null;
+        }
+        return new LogLine(timestamp, line.substring(TIMESTAMP_LENGTH + 1, levelStart),
+                line.substring(levelStart + 1, loggerStart), line.substring(loggerStart + 1, methodStart),
+                line.substring(methodStart + 1, separator), line.substring(separator + SEPARATOR.length()));
+    }
+
+    /**
+     * Parses the timestamp starting a line.
+     *
+     * @param line the line.
+     * @return The timestamp in milliseconds since the epoch, in the default time
+     *         zone, or -1 if the line does not start with a timestamp.
+     */
+    public static long parseTimestamp(final CharSequence line) {
+        if (line.length() < TIMESTAMP_LENGTH) {
+            return -1;
+        }
+        final int[] digits = new int[TIMESTAMP_LENGTH];
+        for (int i = 0; i < TIMESTAMP_LENGTH; i++) {
+            digits[i] = line.charAt(i);
+        }
+        return parseTimestamp(digits);
+    }
+
+    /**
+     * Parses the timestamp starting a line.
+     *
+     * @param line the bytes of the line.
+     * @param offset the offset of the line in {@code line}.
+     * @param length the length of the line.
+     * @return The timestamp in milliseconds since the epoch, in the default time
+     *         zone, or -1 if the line does not start with a timestamp.
+     */
+    public static long parseTimestamp(final byte[] line, final int offset, final int length) {
+        if (length < TIMESTAMP_LENGTH) {
+            return -1;
+        }
+        final int[] digits = new int[TIMESTAMP_LENGTH];
+        for (int i = 0; i < TIMESTAMP_LENGTH; i++) {
+            digits[i] = line[offset + i];
+        }
+        return parseTimestamp(digits);
+    }
+
+    private static long parseTimestamp(final int[] c) {
+        if (c[2] != '-' || c[5] != '-' || c[10] != ' ' || c[13] != ':' || c[16] != ':' || c[19] != ',') {
+            return -1;
+        }
+        final int day = number(c, 0, 2);
+        final int month = number(c, 3, 2);
+        final int year = number(c, 6, 4);
+        final int hour = number(c, 11, 2);
+        final int minute = number(c, 14, 2);
+        final int second = number(c, 17, 2);
+        final int millis = number(c, 20, 3);
+        if (day < 1 || day > 31 || month < 1 || month > 12 || year < 0 || hour < 0 || hour > 23 || minute < 0
+                || minute > 59 || second < 0 || second > 59 || millis < 0) {
+            return -1;
+        }
+        try {
+            return LocalDateTime.of(year, month, day, hour, minute, second).atZone(ZoneId.systemDefault())
+                    .toInstant().toEpochMilli() + millis;
+        } catch (final RuntimeException e) {
+            return -1;
+        }
+    }
+
+    private static int number(final int[] c, final int from, final int length) {
+        int value = 0;
+        for (int i = from; i < from + length; i++) {
+            final int digit = c[i] - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    /**
+     * @return The timestamp in milliseconds since the epoch.
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * @return The thread name ({@code %t}).
+     */
+    public String getThread() {
+        return thread;
+    }
+
+    /**
+     * @return The level name ({@code %p}).
+     */
+    public String getLevel() {
+        return level;
+    }
+
+    /**
+     * @return The simple logger name ({@code %c{1}}).
+     */
+    public String getLogger() {
+        return logger;
+    }
+
+    /**
+     * @return The method name ({@code %M}).
+     */
+    public String getMethod() {
+        return method;
+    }
+
+    /**
+     * @return The first line of the message ({@code %m}).
+     */
+    public String getMessage() {
+        return message;
+    }
+}
@@ -0,0 +1,219 @@
+package fr.phenix333.logger.index;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.logging.log4j.core.Core;
+import org.apache.logging.log4j.core.appender.rolling.FileSize;
+import org.apache.logging.log4j.core.appender.rolling.action.AbstractAction;
+import org.apache.logging.log4j.core.appender.rolling.action.Duration;
+import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.config.plugins.Plugin;
+import org.apache.logging.log4j.core.config.plugins.PluginAttribute;
+import org.apache.logging.log4j.core.config.plugins.PluginConfiguration;
+import org.apache.logging.log4j.core.config.plugins.PluginFactory;
+import org.apache.logging.log4j.core.util.Log4jThreadFactory;
+
+/**
+ * Rollover action enforcing a retention common to all the level files of a
+ * directory, to be declared in the {@code DefaultRolloverStrategy} of each of
+ * them, with {@code fileIndex="nomax"} so the rollover itself deletes nothing:
+ *
+ * <pre>
+ * &lt;DefaultRolloverStrategy fileIndex="nomax"&gt;
+ *     &lt;IndexArchives basePath="Logs" glob="fatal-*.log.gz" /&gt;
+ *     &lt;Retention basePath="Logs" maxSize="2GB" maxAge="30d" /&gt;
+ * &lt;/DefaultRolloverStrategy&gt;
+ * </pre>
+ *
+ * The archives older than {@code maxAge} are deleted, then, while the
+ * directory holds more than {@code maxSize} bytes, the oldest archive of the
+ * first glob of {@code globs} which still has one: the {@code FUNCTION} and
+ * {@code DEBUG} archives go first. The sidecar of an archive is deleted with
+ * it. The action only schedules a sweep of the directory on a background
+ * thread, the rollovers of all the files sharing it.
+ */
+@Plugin(name = "Retention", category = Core.CATEGORY_NAME, printObject = true)
+public final class RetentionAction extends AbstractAction {
+    /**
+     * The archives of the level files, in deletion order.
+     */
+    public static final String DEFAULT_GLOBS = "function-*.log.gz,debug-*.log.gz,info-*.log.gz,warn-*.log.gz,"
+            + "error-*.log.gz,fatal-*.log.gz";
+
+    private static final ExecutorService EXECUTOR = Executors
+            .newSingleThreadExecutor(Log4jThreadFactory.createDaemonThreadFactory("Retention"));
+    private static final ConcurrentMap<Path, AtomicBoolean> SCHEDULED = new ConcurrentHashMap<>();
+
+    private final Path basePath;
+    private final long maxSize;
+    private final long maxAgeMillis;
+    private final String globs;
+    private final List<PathMatcher> matchers = new ArrayList<>();
+
+    private RetentionAction(final Path basePath, final long maxSize, final long maxAgeMillis, final String globs) {
+        this.basePath = basePath;
+        this.maxSize = maxSize;
+        this.maxAgeMillis = maxAgeMillis;
+        this.globs = globs;
+        for (final String glob : globs.split(",")) {
+            matchers.add(FileSystems.getDefault().getPathMatcher("glob:" + glob.trim()));
+        }
+    }
+
+    /**
+     * Schedules a sweep, unless one is already pending for the directory.
+     */
+    @Override
+    public boolean execute() {
+        final AtomicBoolean scheduled = SCHEDULED.computeIfAbsent(basePath, k -> new AtomicBoolean());
+        if (scheduled.compareAndSet(false, true)) {
+            EXECUTOR.execute(() -> {
+                scheduled.set(false);
+                try {
+                    sweep();
+                } catch (final IOException | RuntimeException e) {
+                    LOGGER.warn("Unable to apply the retention of {}", basePath, e);
+                }
+            });
+        }
+        return true;
+    }
+
+    /**
+     * Deletes the archives out of the retention.
+     *
+     * @return The number of bytes deleted.
+     * @throws IOException if the directory can not be listed.
+     */
+    long sweep() throws IOException {
+        // the index action rewrites the archives in place, never delete one under it
+        synchronized (IndexArchivesAction.class) {
+            final List<List<Archive>> archives = new ArrayList<>(matchers.size());
+            for (int i = 0; i < matchers.size(); i++) {
+                archives.add(new ArrayList<>());
+            }
+            long total = 0;
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(basePath)) {
+                for (final Path file : files) {
+                    final BasicFileAttributes attributes;
+                    try {
+                        attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                    } catch (final NoSuchFileException e) {
+                        continue;
+                    }
+                    if (!attributes.isRegularFile()) {
+                        continue;
+                    }
+                    total += attributes.size();
+                    for (int i = 0; i < matchers.size(); i++) {
+                        if (matchers.get(i).matches(file.getFileName())) {
+                            archives.get(i).add(new Archive(file, attributes.lastModifiedTime().toMillis()));
+                            break;
+                        }
+                    }
+                }
+            }
+
+            final long now = System.currentTimeMillis();
+            long deleted = 0;
+            for (final List<Archive> list : archives) {
+                list.sort(Comparator.comparingLong(archive -> archive.modified));
+                for (final Archive archive : list) {
+                    if (now - archive.modified > maxAgeMillis) {
+                        deleted += delete(archive);
+                    }
+                }
+            }
+            for (final List<Archive> list : archives) {
+                for (final Archive archive : list) {
+                    if (total - deleted <= maxSize) {
+                        return deleted;
+                    }
+                    if (!archive.deleted) {
+                        deleted += delete(archive);
+                    }
+                }
+            }
+            if (total - deleted > maxSize) {
+                LOGGER.warn("{} holds {} bytes without any archive left to delete, over the {} of the retention",
+                        basePath, total - deleted, maxSize);
+            }
+            return deleted;
+        }
+    }
+
+    private static long delete(final Archive archive) throws IOException {
+        archive.deleted = true;
+        long length = 0;
+        for (final Path file : new Path[] { archive.path, LogIndex.sidecarOf(archive.path) }) {
+            try {
+                final long size = Files.size(file);
+                Files.delete(file);
+                length += size;
+                LOGGER.debug("Retention deleted {}", file);
+            } catch (final NoSuchFileException e) {
+                // no sidecar, or already deleted
+            }
+        }
+        return length;
+    }
+
+    @Override
+    public String toString() {
+        return RetentionAction.class.getSimpleName() + "[basePath=" + basePath + ", maxSize=" + maxSize
+                + ", maxAgeMillis=" + maxAgeMillis + ", globs=" + globs + "]";
+    }
+
+    /**
+     * Creates the action.
+     *
+     * @param basePath the directory of the archives.
+     * @param maxSize the number of bytes the directory may hold, e.g. {@code 2GB}.
+     * @param maxAge the age after which an archive is deleted, e.g. {@code 30d}.
+     * @param globs the globs matching the archive names, in deletion order.
+     * @param config the configuration.
+     * @return The action.
+     */
+    @PluginFactory
+    public static RetentionAction createRetentionAction(
+            @PluginAttribute("basePath") final String basePath,
+            @PluginAttribute(value = "maxSize", defaultString = "2GB") final String maxSize,
+            @PluginAttribute(value = "maxAge", defaultString = "30d") final String maxAge,
+            @PluginAttribute(value = "globs", defaultString = DEFAULT_GLOBS) final String globs,
+            @PluginConfiguration final Configuration config) {
+        if (basePath == null) {
+            LOGGER.error("Retention requires a basePath");
+            return null;
+        }
+        return new RetentionAction(Paths.get(config.getStrSubstitutor().replace(basePath)),
+                FileSize.parse(maxSize, Long.MAX_VALUE), Duration.parse(maxAge).toMillis(),
+                config.getStrSubstitutor().replace(globs));
+    }
+
+    private static final class Archive {
+        private final Path path;
+        private final long modified;
+        private boolean deleted;
+
+        private Archive(final Path path, final long modified) {
+            this.path = path;
+            this.modified = modified;
+        }
+    }
+}
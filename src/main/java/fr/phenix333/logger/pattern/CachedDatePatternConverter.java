@@ -0,0 +1,102 @@
+package fr.phenix333.logger.pattern;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.config.plugins.Plugin;
+import org.apache.logging.log4j.core.pattern.ConverterKeys;
+import org.apache.logging.log4j.core.pattern.LogEventPatternConverter;
+import org.apache.logging.log4j.core.pattern.PatternConverter;
+
+/**
+ * Date converter for patterns ending with the milliseconds, such as
+ * {@code %fd{dd-MM-yyyy HH:mm:ss,SSS}}, the default.
+ * <p>
+ * The part of the timestamp before the milliseconds is formatted once per
+ * second and cached, each event only appends its three digits of milliseconds.
+ * The cache is shared by all the converters using the same pattern, so an event
+ * written by the seven appenders has its timestamp formatted once.
+ */
+@Plugin(name = "CachedDatePatternConverter", category = PatternConverter.CATEGORY)
+@ConverterKeys({ "fd", "fastDate" })
+public final class CachedDatePatternConverter extends LogEventPatternConverter {
+    private static final String DEFAULT_PATTERN = "dd-MM-yyyy HH:mm:ss,SSS";
+    private static final String MILLIS = "SSS";
+
+    private static final ConcurrentMap<String, SecondCache> CACHES = new ConcurrentHashMap<>();
+
+    private final SecondCache cache;
+
+    private CachedDatePatternConverter(final SecondCache cache) {
+        super("CachedDate", "date");
+        this.cache = cache;
+    }
+
+    /**
+     * Obtains an instance of the converter.
+     *
+     * @param options the pattern, which must end with {@code SSS} and contain no
+     *            other fraction of second.
+     * @return The converter.
+     */
+    public static CachedDatePatternConverter newInstance(final String[] options) {
+        final String pattern = options != null && options.length > 0 && options[0] != null ? options[0]
+                : DEFAULT_PATTERN;
+        if (!pattern.endsWith(MILLIS) || pattern.indexOf('S') < pattern.length() - MILLIS.length()) {
+            throw new IllegalArgumentException("The %fd pattern must end with " + MILLIS + ": " + pattern);
+        }
+        return new CachedDatePatternConverter(CACHES.computeIfAbsent(pattern,
+                p -> new SecondCache(DateTimeFormatter.ofPattern(p.substring(0, p.length() - MILLIS.length())))));
+    }
+
+    @Override
+    public void format(final LogEvent event, final StringBuilder toAppendTo) {
+        final long timeMillis = event.getTimeMillis();
+        toAppendTo.append(cache.prefix(Math.floorDiv(timeMillis, 1000L)));
+        final int millis = (int) Math.floorMod(timeMillis, 1000L);
+        toAppendTo.append((char) ('0' + millis / 100)).append((char) ('0' + millis / 10 % 10))
+                .append((char) ('0' + millis % 10));
+    }
+
+    /**
+     * Formatted part of the last second seen, published as an immutable
+     * snapshot so readers never lock.
+     */
+    private static final class SecondCache {
+        private final DateTimeFormatter formatter;
+        private volatile Prefix last = new Prefix(Long.MIN_VALUE, null);
+
+        private SecondCache(final DateTimeFormatter formatter) {
+            this.formatter = formatter;
+        }
+
+        private char[] prefix(final long epochSecond) {
+            Prefix prefix = last;
+            if (prefix.epochSecond != epochSecond) {
+                // the zone is read for each second to follow a change of the default time zone
+                prefix = new Prefix(epochSecond,
+                        formatter.format(Instant.ofEpochSecond(epochSecond).atZone(ZoneId.systemDefault()))
+                                .toCharArray());
+                // an event of the previous second must not replace a newer one
+                if (epochSecond > last.epochSecond) {
+                    last = prefix;
+                }
+            }
+            return prefix.chars;
+        }
+    }
+
+    private static final class Prefix {
+        private final long epochSecond;
+        private final char[] chars;
+
+        private Prefix(final long epochSecond, final char[] chars) {
+            this.epochSecond = epochSecond;
+            this.chars = chars;
+        }
+    }
+}
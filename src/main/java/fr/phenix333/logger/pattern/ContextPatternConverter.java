@@ -0,0 +1,60 @@
+package fr.phenix333.logger.pattern;
+
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.config.plugins.Plugin;
+import org.apache.logging.log4j.core.pattern.ConverterKeys;
+import org.apache.logging.log4j.core.pattern.LogEventPatternConverter;
+import org.apache.logging.log4j.core.pattern.PatternConverter;
+import org.apache.logging.log4j.util.ReadOnlyStringMap;
+import org.apache.logging.log4j.util.StringBuilders;
+import org.apache.logging.log4j.util.TriConsumer;
+
+/**
+ * Renders the context data of an event, {@code ThreadContext} and
+ * {@code MyContext} fields, straight from the event into the output.
+ * <p>
+ * {@code %ctx} appends a space then {@code key=value} for each field, and
+ * nothing when there is none, so it can follow {@code %m}. {@code %ctx{key}}
+ * appends the value of a single field.
+ */
+@Plugin(name = "ContextPatternConverter", category = PatternConverter.CATEGORY)
+@ConverterKeys({ "ctx" })
+public final class ContextPatternConverter extends LogEventPatternConverter {
+    private static final TriConsumer<String, Object, StringBuilder> WRITER = (key, value, buffer) -> {
+        buffer.append(' ').append(key).append('=');
+        StringBuilders.appendValue(buffer, value);
+    };
+
+    private final String key;
+
+    private ContextPatternConverter(final String key) {
+        super("Context", "context");
+        this.key = key;
+    }
+
+    /**
+     * Obtains an instance of the converter.
+     *
+     * @param options the name of the field to render, all of them if absent.
+     * @return The converter.
+     */
+    public static ContextPatternConverter newInstance(final String[] options) {
+        return new ContextPatternConverter(options != null && options.length > 0 ? options[0] : null);
+    }
+
+    @Override
+    public void format(final LogEvent event, final StringBuilder toAppendTo) {
+        final ReadOnlyStringMap contextData = event.getContextData();
+        if (contextData == null || contextData.isEmpty()) {
+            return;
+        }
+        if (key == null) {
+            contextData.forEach(WRITER, toAppendTo);
+        } else {
+            final Object value = contextData.getValue(key);
+            if (value != null) {
+                StringBuilders.appendValue(toAppendTo, value);
+            }
+        }
+    }
+}
@@ -0,0 +1,283 @@
+package fr.phenix333.logger.pattern;
+
+import java.lang.ref.WeakReference;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.config.plugins.Plugin;
+import org.apache.logging.log4j.core.pattern.ConverterKeys;
+import org.apache.logging.log4j.core.pattern.LogEventPatternConverter;
+import org.apache.logging.log4j.core.pattern.PatternConverter;
+
+/**
+ * Renders the throwable of an event, writing its stack trace once per window:
+ * the trace is identified by a fingerprint of the classes and frames of the
+ * throwable and its causes, not their messages. Each rendering starts with
+ * {@code [trace id]}; while the trace was written less than the window ago,
+ * only the id and {@code toString()} of the throwable are written.
+ * <p>
+ * {@code %dex{window=600}{size=1024}}: the window in seconds, 0 writes every
+ * trace, and the number of fingerprints remembered, the least recently seen
+ * are forgotten first. Each layout remembers its own traces, so every file
+ * has the full trace of its ids.
+ * <p>
+ * {@code {depth=128}} writes at most 128 frames per throwable, and
+ * {@code {collapse=org.springframework.,jdk.internal.reflect.}} replaces each
+ * run of frames of these class name prefixes, but the first frame of a
+ * throwable, by {@code ... N frames omitted}. The frames are written straight
+ * into the output, as {@code printStackTrace} would.
+ */
+@Plugin(name = "DedupThrowablePatternConverter", category = PatternConverter.CATEGORY)
+@ConverterKeys({ "dex", "dedupThrowable" })
+public final class DedupThrowablePatternConverter extends LogEventPatternConverter {
+    private static final long DEFAULT_WINDOW_SECONDS = 600;
+    private static final int DEFAULT_SIZE = 1024;
+    private static final int MAX_CAUSES = 16;
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+    private static final String NEW_LINE = System.lineSeparator();
+
+    /**
+     * Fingerprint of the last throwable rendered by the thread, the same event
+     * is rendered by every appender in turn.
+     */
+    private static final ThreadLocal<Fingerprint> LAST = ThreadLocal.withInitial(Fingerprint::new);
+
+    private final long windowMillis;
+    private final Map<Long, Long> lastWritten;
+    private final int depth;
+    private final String[] collapse;
+
+    private DedupThrowablePatternConverter(final long windowMillis, final int size, final int depth,
+            final String[] collapse) {
+        super("DedupThrowable", "throwable");
+        this.windowMillis = windowMillis;
+        this.depth = depth;
+        this.collapse = collapse;
+        this.lastWritten = new LinkedHashMap<>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<Long, Long> eldest) {
+                return size() > size;
+            }
+        };
+    }
+
+    /**
+     * Obtains an instance of the converter.
+     *
+     * @param options {@code window=seconds}, {@code size=fingerprints},
+     *            {@code depth=frames} and {@code collapse=prefix,prefix}.
+     * @return The converter.
+     */
+    public static DedupThrowablePatternConverter newInstance(final String[] options) {
+        long windowSeconds = DEFAULT_WINDOW_SECONDS;
+        int size = DEFAULT_SIZE;
+        int depth = Integer.MAX_VALUE;
+        String[] collapse = new String[0];
+        if (options != null) {
+            for (final String option : options) {
+                final int equals = option.indexOf('=');
+                final String name = equals < 0 ? option : option.substring(0, equals).trim();
+                final String value = equals < 0 ? "" : option.substring(equals + 1).trim();
+                switch (name) {
+                case "window":
+                    windowSeconds = Long.parseLong(value);
+                    break;
+                case "size":
+                    size = Integer.parseInt(value);
+                    break;
+                case "depth":
+                    depth = Integer.parseInt(value);
+                    break;
+                case "collapse":
+                    collapse = value.isEmpty() ? new String[0] : value.split("\\s*,\\s*");
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown %dex option " + option);
+                }
+            }
+        }
+        return new DedupThrowablePatternConverter(TimeUnit.SECONDS.toMillis(windowSeconds), size, depth, collapse);
+    }
+
+    @Override
+    public boolean handlesThrowable() {
+        return true;
+    }
+
+    @Override
+    public void format(final LogEvent event, final StringBuilder toAppendTo) {
+        final Throwable throwable = event.getThrown();
+        if (throwable == null) {
+            return;
+        }
+        final long fingerprint = fingerprintOf(throwable);
+        final int length = toAppendTo.length();
+        if (length > 0 && !Character.isWhitespace(toAppendTo.charAt(length - 1))) {
+            toAppendTo.append(' ');
+        }
+        toAppendTo.append("[trace ");
+        for (int shift = 60; shift >= 0; shift -= 4) {
+            toAppendTo.append(HEX[(int) (fingerprint >>> shift) & 0xf]);
+        }
+        toAppendTo.append("] ");
+        if (isDue(fingerprint, event.getTimeMillis())) {
+            final Set<Throwable> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+            seen.add(throwable);
+            toAppendTo.append(throwable).append(NEW_LINE);
+            writeTrace(throwable, new StackTraceElement[0], "", seen, toAppendTo);
+        } else {
+            toAppendTo.append(throwable).append(" (stack trace written earlier)").append(NEW_LINE);
+        }
+    }
+
+    /**
+     * Writes the frames, the suppressed throwables and the cause of a
+     * throwable, the frames in common with the enclosing trace are counted
+     * like {@code printStackTrace} does.
+     */
+    private void writeTrace(final Throwable throwable, final StackTraceElement[] enclosingTrace,
+            final String prefix, final Set<Throwable> seen, final StringBuilder buffer) {
+        final StackTraceElement[] trace = throwable.getStackTrace();
+        int last = trace.length - 1;
+        for (int e = enclosingTrace.length - 1; last >= 0 && e >= 0 && trace[last].equals(enclosingTrace[e]); e--) {
+            last--;
+        }
+        int written = 0;
+        int omitted = 0;
+        for (int i = 0; i <= last; i++) {
+            if (written >= depth) {
+                writeOmitted(prefix, omitted, buffer);
+                buffer.append(prefix).append("\t... ").append(last + 1 - i).append(" frames truncated")
+                        .append(NEW_LINE);
+                omitted = 0;
+                break;
+            }
+            if (i > 0 && isCollapsed(trace[i].getClassName())) {
+                omitted++;
+                continue;
+            }
+            writeOmitted(prefix, omitted, buffer);
+            omitted = 0;
+            writeFrame(prefix, trace[i], buffer);
+            written++;
+        }
+        writeOmitted(prefix, omitted, buffer);
+        if (last < trace.length - 1) {
+            buffer.append(prefix).append("\t... ").append(trace.length - 1 - last).append(" more").append(NEW_LINE);
+        }
+        for (final Throwable suppressed : throwable.getSuppressed()) {
+            writeEnclosed(suppressed, trace, "Suppressed: ", prefix + "\t", seen, buffer);
+        }
+        final Throwable cause = throwable.getCause();
+        if (cause != null) {
+            writeEnclosed(cause, trace, "Caused by: ", prefix, seen, buffer);
+        }
+    }
+
+    private void writeEnclosed(final Throwable throwable, final StackTraceElement[] enclosingTrace,
+            final String caption, final String prefix, final Set<Throwable> seen, final StringBuilder buffer) {
+        buffer.append(prefix).append(caption);
+        if (!seen.add(throwable)) {
+            buffer.append("[CIRCULAR REFERENCE: ").append(throwable).append(']').append(NEW_LINE);
+            return;
+        }
+        buffer.append(throwable).append(NEW_LINE);
+        writeTrace(throwable, enclosingTrace, prefix, seen, buffer);
+    }
+
+    private boolean isCollapsed(final String className) {
+        for (final String packagePrefix : collapse) {
+            if (className.startsWith(packagePrefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void writeOmitted(final String prefix, final int omitted, final StringBuilder buffer) {
+        if (omitted > 0) {
+            buffer.append(prefix).append("\t... ").append(omitted).append(omitted == 1 ? " frame" : " frames")
+                    .append(" omitted").append(NEW_LINE);
+        }
+    }
+
+    /**
+     * Same text as {@link StackTraceElement#toString()}, without the class
+     * loader and module names.
+     */
+    private static void writeFrame(final String prefix, final StackTraceElement frame, final StringBuilder buffer) {
+        buffer.append(prefix).append("\tat ").append(frame.getClassName()).append('.').append(frame.getMethodName())
+                .append('(');
+        if (frame.isNativeMethod()) {
+            buffer.append("Native Method");
+        } else if (frame.getFileName() == null) {
+            buffer.append("Unknown Source");
+        } else {
+            buffer.append(frame.getFileName());
+            if (frame.getLineNumber() >= 0) {
+                buffer.append(':').append(frame.getLineNumber());
+            }
+        }
+        buffer.append(')').append(NEW_LINE);
+    }
+
+    /**
+     * @return true if the trace must be written in full, which is then
+     *         remembered.
+     */
+    private boolean isDue(final long fingerprint, final long timeMillis) {
+        if (windowMillis <= 0) {
+            return true;
+        }
+        synchronized (lastWritten) {
+            final Long last = lastWritten.get(fingerprint);
+            if (last != null && timeMillis >= last && timeMillis - last < windowMillis) {
+                return false;
+            }
+            lastWritten.put(fingerprint, timeMillis);
+            return true;
+        }
+    }
+
+    private static long fingerprintOf(final Throwable throwable) {
+        final Fingerprint last = LAST.get();
+        if (last.throwable == null || last.throwable.get() != throwable) {
+            last.throwable = new WeakReference<>(throwable);
+            last.value = compute(throwable);
+        }
+        return last.value;
+    }
+
+    private static long compute(final Throwable throwable) {
+        long hash = FNV_OFFSET;
+        Throwable current = throwable;
+        for (int i = 0; current != null && i < MAX_CAUSES; i++) {
+            hash = mix(hash, current.getClass().getName().hashCode());
+            for (final StackTraceElement frame : current.getStackTrace()) {
+                hash = mix(hash, frame.getClassName().hashCode());
+                hash = mix(hash, frame.getMethodName().hashCode());
+                hash = mix(hash, frame.getLineNumber());
+            }
+            current = current.getCause() == current ? null : current.getCause();
+        }
+        return hash;
+    }
+
+    private static long mix(final long hash, final int value) {
+        return (hash ^ value) * FNV_PRIME;
+    }
+
+    private static final class Fingerprint {
+        private WeakReference<Throwable> throwable;
+        private long value;
+    }
+}
@@ -0,0 +1,85 @@
+package fr.phenix333.logger.tools;
+
+import java.io.PrintStream;
+import java.util.Locale;
+
+import org.apache.logging.log4j.LogManager;
+
+import fr.phenix333.logger.MyLogger;
+
+/**
+ * Compares a loop without logging call to the same loop calling disabled
+ * {@code DEBUG} and {@code FUNCTION} methods, built normally (the level is
+ * checked) or with the levels elided:
+ *
+ * <pre>
+ * mvn package &amp;&amp; java -cp ... fr.phenix333.logger.tools.ElisionBenchmark
+ * mvn -Pelide package &amp;&amp; java -cp ... fr.phenix333.logger.tools.ElisionBenchmark
+ * </pre>
+ *
+ * Each loop is run several times after a warm-up and the fastest round is
+ * reported, in nanoseconds per iteration.
+ */
+public final class ElisionBenchmark {
+    private static final int ITERATIONS = 100_000_000;
+    private static final int ROUNDS = 5;
+    private static final String MESSAGE = "Elision benchmark";
+
+    /**
+     * Written by the loops, so the JIT cannot remove them.
+     */
+    private static long sink;
+
+    private ElisionBenchmark() {
+    }
+
+    public static void main(final String[] args) {
+        // the root logger is at WARN, DEBUG and FUNCTION are disabled
+        final MyLogger logger = MyLogger.create("elision.benchmark");
+        final PrintStream out = System.out;
+        out.printf(Locale.ROOT, "no call    %6.2f ns%n", best(() -> noCall()));
+        out.printf(Locale.ROOT, "debug      %6.2f ns%n", best(() -> debug(logger)));
+        out.printf(Locale.ROOT, "function   %6.2f ns%n", best(() -> function(logger)));
+        LogManager.shutdown();
+    }
+
+    private static double best(final Runnable loop) {
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < ROUNDS + 1; i++) {
+            final long start = System.nanoTime();
+            loop.run();
+            final long elapsed = System.nanoTime() - start;
+            // the first round is the warm-up
+            if (i > 0) {
+                best = Math.min(best, elapsed);
+            }
+        }
+        return best / (double) ITERATIONS;
+    }
+
+    private static void noCall() {
+        long sum = 0;
+        for (int i = 0; i < ITERATIONS; i++) {
+            sum += i;
+        }
+        sink += sum;
+    }
+
+    private static void debug(final MyLogger logger) {
+        long sum = 0;
+        for (int i = 0; i < ITERATIONS; i++) {
+            logger.debug(MESSAGE);
+            sum += i;
+        }
+        sink += sum;
+    }
+
+    private static void function(final MyLogger logger) {
+        long sum = 0;
+        for (int i = 0; i < ITERATIONS; i++) {
+            logger.function(MESSAGE);
+            sum += i;
+        }
+        sink += sum;
+    }
+}
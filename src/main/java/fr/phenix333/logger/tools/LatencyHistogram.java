@@ -0,0 +1,74 @@
+package fr.phenix333.logger.tools;
+
+/**
+ * Histogram of latencies in nanoseconds, with a relative error under 1%: the
+ * values are counted in 64 sub-buckets per power of two, above 128 where they
+ * are exact. Not thread safe, each producer records in its own histogram.
+ */
+final class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 7;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int HALF = SUB_BUCKETS / 2;
+
+    private final long[] counts = new long[(64 - SUB_BUCKET_BITS + 2) * HALF];
+    private long count;
+    private long max;
+
+    void record(final long value) {
+        final long v = Math.max(0, value);
+        counts[indexOf(v)]++;
+        count++;
+        if (v > max) {
+            max = v;
+        }
+    }
+
+    void add(final LatencyHistogram other) {
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] += other.counts[i];
+        }
+        count += other.count;
+        max = Math.max(max, other.max);
+    }
+
+    long getCount() {
+        return count;
+    }
+
+    long getMax() {
+        return max;
+    }
+
+    /**
+     * @param percentile the percentile, from 0 to 100.
+     * @return The highest value equivalent to the value at this percentile.
+     */
+    long getValueAtPercentile(final double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        final long target = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= target) {
+                return Math.min(highestEquivalent(i), max);
+            }
+        }
+        return max;
+    }
+
+    private static int indexOf(final long value) {
+        final int shift = Math.max(0, 64 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS);
+        return shift * HALF + (int) (value >>> shift);
+    }
+
+    private static long highestEquivalent(final int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        final int shift = (index - SUB_BUCKETS) / HALF + 1;
+        final long subBucket = index - shift * HALF;
+        return ((subBucket + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,144 @@
+package fr.phenix333.logger.tools;
+
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Locale;
+import java.util.function.Consumer;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.appender.AbstractAppender;
+import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.config.LoggerConfig;
+import org.apache.logging.log4j.core.config.Property;
+
+import fr.phenix333.logger.MyLogger;
+
+/**
+ * Compares the fluent builder of {@link MyLogger} to the overloads, at an
+ * enabled ({@code WARN}) and a disabled ({@code DEBUG}) level:
+ *
+ * <pre>
+ * mvn -Pbuilder compile exec:exec -Dbuilder.args="--enabled 2000000 --disabled 100000000"
+ * java -cp ... fr.phenix333.logger.tools.LogBuilderBenchmark [--enabled N] [--disabled N]
+ * </pre>
+ *
+ * The enabled events are formatted by an appender which keeps nothing, in
+ * place of the configured ones. Each loop is run several times after a
+ * warm-up and the fastest round is reported, in nanoseconds per call, with
+ * the bytes allocated per call by the calling thread.
+ */
+public final class LogBuilderBenchmark {
+    private static final int ROUNDS = 5;
+    private static final String MESSAGE = "Order {} placed";
+    private static final String KEY = "orderId";
+    private static final Object VALUE = "42";
+    private static final Object REF = "A-17";
+
+    private static final com.sun.management.ThreadMXBean THREADS = (com.sun.management.ThreadMXBean) ManagementFactory
+            .getThreadMXBean();
+
+    /**
+     * Written by the appender, so the formatting cannot be removed.
+     */
+    private static long sink;
+
+    private LogBuilderBenchmark() {
+    }
+
+    public static void main(final String[] args) {
+        int enabledCalls = 2_000_000;
+        int disabledCalls = 100_000_000;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                if (i + 1 >= args.length) {
+                    throw new IllegalArgumentException("Missing value of " + args[i]);
+                }
+                switch (args[i]) {
+                case "--enabled":
+                    enabledCalls = Integer.parseInt(args[++i]);
+                    break;
+                case "--disabled":
+                    disabledCalls = Integer.parseInt(args[++i]);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option " + args[i]);
+                }
+            }
+        } catch (final IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Usage: LogBuilderBenchmark [--enabled N] [--disabled N]");
+            System.exit(2);
+        }
+        discardRoot();
+        final PrintStream out = System.out;
+        out.printf(Locale.ROOT, "%-34s %10s %10s %10s %10s%n", "per call", "enabled ns", "bytes", "disabled ns",
+                "bytes");
+        row(out, "warn(message, ref)", enabledCalls, disabledCalls, l -> l.warn(MESSAGE, REF),
+                l -> l.debug(MESSAGE, REF));
+        row(out, "atWarn().log(message, ref)", enabledCalls, disabledCalls, l -> l.atWarn().log(MESSAGE, REF),
+                l -> l.atDebug().log(MESSAGE, REF));
+        row(out, "atWarn().with(key, value).log(...)", enabledCalls, disabledCalls,
+                l -> l.atWarn().with(KEY, VALUE).log(MESSAGE, REF),
+                l -> l.atDebug().with(KEY, VALUE).log(MESSAGE, REF));
+        LogManager.shutdown();
+    }
+
+    private static void row(final PrintStream out, final String label, final int enabledCalls,
+            final int disabledCalls, final Consumer<MyLogger> enabled, final Consumer<MyLogger> disabled) {
+        // the root logger is at WARN, DEBUG is disabled
+        final MyLogger logger = MyLogger.create("builder.benchmark");
+        final double[] enabledResult = best(logger, enabled, enabledCalls);
+        final double[] disabledResult = best(logger, disabled, disabledCalls);
+        out.printf(Locale.ROOT, "%-34s %10.2f %10.0f %10.2f %10.0f%n", label, enabledResult[0], enabledResult[1],
+                disabledResult[0], disabledResult[1]);
+    }
+
+    /**
+     * @return The nanoseconds and the bytes per call of the fastest round.
+     */
+    private static double[] best(final MyLogger logger, final Consumer<MyLogger> call, final int calls) {
+        long best = Long.MAX_VALUE;
+        long bytes = 0;
+        for (int i = 0; i < ROUNDS + 1; i++) {
+            final long allocated = THREADS.getCurrentThreadAllocatedBytes();
+            final long start = System.nanoTime();
+            for (int j = 0; j < calls; j++) {
+                call.accept(logger);
+            }
+            final long elapsed = System.nanoTime() - start;
+            // the first round is the warm-up
+            if (i > 0 && elapsed < best) {
+                best = elapsed;
+                bytes = THREADS.getCurrentThreadAllocatedBytes() - allocated;
+            }
+        }
+        return new double[] { best / (double) calls, bytes / (double) calls };
+    }
+
+    /**
+     * Replaces the appenders of the root logger by one which formats the
+     * messages and keeps nothing.
+     */
+    private static void discardRoot() {
+        final LoggerContext context = (LoggerContext) LogManager.getContext(false);
+        final Configuration config = context.getConfiguration();
+        final LoggerConfig root = config.getRootLogger();
+        final AbstractAppender appender = new AbstractAppender("builder_benchmark", null, null, true,
+                Property.EMPTY_ARRAY) {
+            @Override
+            public void append(final LogEvent event) {
+                sink += event.getMessage().getFormattedMessage().length();
+            }
+        };
+        appender.start();
+        config.addAppender(appender);
+        for (final String name : new ArrayList<>(root.getAppenders().keySet())) {
+            root.removeAppender(name);
+        }
+        root.addAppender(appender, null, null);
+        context.updateLoggers();
+    }
+}
@@ -0,0 +1,202 @@
+package fr.phenix333.logger.tools;
+
+import java.io.BufferedReader;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipException;
+
+import fr.phenix333.logger.index.LogIndex;
+import fr.phenix333.logger.index.LogLine;
+
+/**
+ * Command line tool reading a time window from the log files, using their
+ * sidecar {@link LogIndex} to skip the files out of the window and to start
+ * reading, or decompressing, at the nearest checkpoint.
+ *
+ * <pre>
+ * java -cp ... fr.phenix333.logger.tools.LogQuery [--from "dd-MM-yyyy HH:mm:ss,SSS"]
+ *     [--to "dd-MM-yyyy HH:mm:ss,SSS"] [--level LEVEL] [--logger SimpleName] [--stats] [file|directory]...
+ * </pre>
+ *
+ * Without file, the {@code Logs} directory is read. Files without a valid
+ * sidecar are read from the start.
+ */
+public final class LogQuery {
+    /**
+     * Events of different threads may be written slightly out of order, the
+     * window is widened by this margin to find where to start and stop reading.
+     */
+    private static final long SLACK_MILLIS = 1000;
+
+    private long from = Long.MIN_VALUE;
+    private long to = Long.MAX_VALUE;
+    private String level;
+    private String logger;
+    private boolean stats;
+    private final List<Path> files = new ArrayList<>();
+
+    private LogQuery() {
+    }
+
+    public static void main(final String[] args) throws IOException {
+        final LogQuery query = new LogQuery();
+        try {
+            query.parse(args);
+        } catch (final IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Usage: LogQuery [--from \"" + LogLine.TIMESTAMP_PATTERN + "\"] [--to \""
+                    + LogLine.TIMESTAMP_PATTERN + "\"] [--level LEVEL] [--logger SimpleName] [--stats]"
+                    + " [file|directory]...");
+            System.exit(2);
+        }
+        query.run(System.out);
+    }
+
+    private void parse(final String[] args) throws IOException {
+        final List<Path> paths = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+            case "--from":
+                from = timestamp(value(args, ++i));
+                break;
+            case "--to":
+                to = timestamp(value(args, ++i));
+                break;
+            case "--level":
+                level = value(args, ++i);
+                break;
+            case "--logger":
+                logger = value(args, ++i);
+                break;
+            case "--stats":
+                stats = true;
+                break;
+            default:
+                if (args[i].startsWith("--")) {
+                    throw new IllegalArgumentException("Unknown option " + args[i]);
+                }
+                paths.add(Paths.get(args[i]));
+            }
+        }
+        if (paths.isEmpty()) {
+            paths.add(Paths.get("Logs"));
+        }
+        for (final Path path : paths) {
+            if (Files.isDirectory(path)) {
+                final List<Path> children = new ArrayList<>();
+                try (DirectoryStream<Path> stream = Files.newDirectoryStream(path, "*.{log,log.gz}")) {
+                    stream.forEach(children::add);
+                }
+                Collections.sort(children);
+                files.addAll(children);
+            } else {
+                files.add(path);
+            }
+        }
+    }
+
+    private static String value(final String[] args, final int i) {
+        if (i >= args.length) {
+            throw new IllegalArgumentException("Missing value for " + args[i - 1]);
+        }
+        return args[i];
+    }
+
+    private static long timestamp(final String value) {
+        final long timestamp = LogLine.parseTimestamp(value);
+        if (timestamp < 0 || value.length() != LogLine.TIMESTAMP_LENGTH) {
+            throw new IllegalArgumentException("Invalid timestamp " + value + ", expected "
+                    + LogLine.TIMESTAMP_PATTERN);
+        }
+        return timestamp;
+    }
+
+    private void run(final PrintStream out) throws IOException {
+        for (final Path file : files) {
+            final LogIndex index = LogIndex.forFile(file);
+            if (stats) {
+                printStats(out, file, index);
+                continue;
+            }
+            if (index != null && (!index.overlaps(from, to) || (logger != null && !index.mightContainLogger(logger)))) {
+                continue;
+            }
+            final long position = index == null ? 0 : index.positionBefore(widen(from, -SLACK_MILLIS));
+            final boolean compressed = file.getFileName().toString().endsWith(".gz");
+            read(out, file, position, compressed);
+        }
+        out.flush();
+    }
+
+    private void read(final PrintStream out, final Path file, final long position, final boolean compressed)
+            throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            channel.position(position);
+            final InputStream in = Channels.newInputStream(channel);
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                    compressed ? new GZIPInputStream(in, 1 << 16) : in, StandardCharsets.UTF_8), 1 << 16)) {
+                boolean matching = false;
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    final long timestamp = LogLine.parseTimestamp(line);
+                    if (timestamp >= 0) {
+                        if (timestamp > widen(to, SLACK_MILLIS)) {
+                            return;
+                        }
+                        matching = matches(timestamp, line);
+                    }
+                    if (matching) {
+                        out.println(line);
+                    }
+                }
+            } catch (final EOFException e) {
+                // the active file of a CompressedRollingFile, read up to its last flush
+            } catch (final ZipException e) {
+                // a damaged file must not stop the query of the others
+                System.err.println(file + ": " + e.getMessage() + ", the rest of the file is skipped");
+            }
+        }
+    }
+
+    /**
+     * @return The bound moved by the margin, an open bound staying open.
+     */
+    private static long widen(final long bound, final long margin) {
+        return bound == Long.MIN_VALUE || bound == Long.MAX_VALUE ? bound : bound + margin;
+    }
+
+    private boolean matches(final long timestamp, final String line) {
+        if (timestamp < from || timestamp > to) {
+            return false;
+        }
+        if (level == null && logger == null) {
+            return true;
+        }
+        final LogLine header = LogLine.parse(line);
+        return header != null && (level == null || level.equalsIgnoreCase(header.getLevel()))
+                && (logger == null || logger.equals(header.getLogger()));
+    }
+
+    private static void printStats(final PrintStream out, final Path file, final LogIndex index) {
+        if (index == null) {
+            out.println(file + ": no index");
+            return;
+        }
+        out.println(file + ": " + index.getLevelCounts() + ", " + index.getCheckpointCount() + " checkpoints");
+    }
+}
@@ -0,0 +1,754 @@
+package fr.phenix333.logger.tools;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.regex.Pattern;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+import fr.phenix333.logger.index.LogIndex;
+import fr.phenix333.logger.index.LogLine;
+
+/**
+ * Command line tool searching the level files and their archives in parallel
+ * and printing the matching events merged in timestamp order.
+ *
+ * <pre>
+ * java -cp ... fr.phenix333.logger.tools.LogSearch [--regex] [--ignore-case] [--level LEVEL]
+ *     [--from "dd-MM-yyyy HH:mm:ss,SSS"] [--to "dd-MM-yyyy HH:mm:ss,SSS"] [--threads N] [--all] [--follow]
+ *     pattern [file|directory]...
+ * </pre>
+ *
+ * Without file, the {@code Logs} directory is searched. An event is its header
+ * line and the following lines (stack trace), the pattern is searched in all of
+ * them. As an event is written to its level file and to every less severe one,
+ * the same event read from several files is printed once, unless {@code --all}
+ * is given. The files are read in parallel, a chunk of events at a time, as
+ * the merge consumes them. With {@code --follow}, the plain files and the
+ * compressed files still written are then polled for new events, across
+ * rollovers.
+ */
+public final class LogSearch {
+    private static final long FOLLOW_INTERVAL_MILLIS = 500;
+    private static final long MAP_WINDOW = 1 << 28;
+    private static final int CHUNK_EVENTS = 1024;
+    private static final int READ_SIZE = 1 << 16;
+
+    private Pattern pattern;
+    private boolean regex;
+    private boolean ignoreCase;
+    private String level;
+    private long from = Long.MIN_VALUE;
+    private long to = Long.MAX_VALUE;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private boolean all;
+    private boolean follow;
+    private final List<Path> files = new ArrayList<>();
+
+    private LogSearch() {
+    }
+
+    public static void main(final String[] args) throws IOException, InterruptedException {
+        final LogSearch search = new LogSearch();
+        try {
+            search.parse(args);
+        } catch (final IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Usage: LogSearch [--regex] [--ignore-case] [--level LEVEL] [--from \""
+                    + LogLine.TIMESTAMP_PATTERN + "\"] [--to \"" + LogLine.TIMESTAMP_PATTERN
+                    + "\"] [--threads N] [--all] [--follow] pattern [file|directory]...");
+            System.exit(2);
+        }
+        search.run(System.out);
+    }
+
+    private void parse(final String[] args) throws IOException {
+        String text = null;
+        final List<Path> paths = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+            case "--regex":
+                regex = true;
+                break;
+            case "--ignore-case":
+                ignoreCase = true;
+                break;
+            case "--level":
+                level = value(args, ++i);
+                break;
+            case "--from":
+                from = timestamp(value(args, ++i));
+                break;
+            case "--to":
+                to = timestamp(value(args, ++i));
+                break;
+            case "--threads":
+                threads = Integer.parseInt(value(args, ++i));
+                break;
+            case "--all":
+                all = true;
+                break;
+            case "--follow":
+                follow = true;
+                break;
+            default:
+                if (args[i].startsWith("--")) {
+                    throw new IllegalArgumentException("Unknown option " + args[i]);
+                }
+                if (text == null) {
+                    text = args[i];
+                } else {
+                    paths.add(Paths.get(args[i]));
+                }
+            }
+        }
+        if (text == null) {
+            throw new IllegalArgumentException("Missing pattern");
+        }
+        pattern = Pattern.compile(text, (regex ? 0 : Pattern.LITERAL) | (ignoreCase ? Pattern.CASE_INSENSITIVE : 0));
+        if (paths.isEmpty()) {
+            paths.add(Paths.get("Logs"));
+        }
+        for (final Path path : paths) {
+            if (Files.isDirectory(path)) {
+                final List<Path> children = new ArrayList<>();
+                try (DirectoryStream<Path> stream = Files.newDirectoryStream(path, "*.{log,log.gz}")) {
+                    stream.forEach(children::add);
+                }
+                Collections.sort(children);
+                files.addAll(children);
+            } else {
+                files.add(path);
+            }
+        }
+    }
+
+    private static String value(final String[] args, final int i) {
+        if (i >= args.length) {
+            throw new IllegalArgumentException("Missing value for " + args[i - 1]);
+        }
+        return args[i];
+    }
+
+    private static long timestamp(final String value) {
+        final long timestamp = LogLine.parseTimestamp(value);
+        if (timestamp < 0 || value.length() != LogLine.TIMESTAMP_LENGTH) {
+            throw new IllegalArgumentException("Invalid timestamp " + value + ", expected "
+                    + LogLine.TIMESTAMP_PATTERN);
+        }
+        return timestamp;
+    }
+
+    private void run(final PrintStream out) throws InterruptedException {
+        // the sizes are taken first so follow mode starts exactly where the search stopped
+        final List<FileCursor> cursors = new ArrayList<>(files.size());
+        for (int i = 0; i < files.size(); i++) {
+            cursors.add(new FileCursor(i, files.get(i)));
+        }
+
+        final ForkJoinPool pool = new ForkJoinPool(Math.max(1, threads));
+        final Printer printer = new Printer(out);
+        try {
+            final List<Source> sources = new ArrayList<>(cursors.size());
+            for (final FileCursor cursor : cursors) {
+                sources.add(new Source(cursor, pool));
+            }
+            merge(sources, printer);
+        } finally {
+            pool.shutdown();
+        }
+        out.flush();
+
+        if (follow) {
+            follow(cursors, printer);
+        }
+    }
+
+    /**
+     * Prints the events of every file in timestamp order, keeping the order of
+     * the events of a same file.
+     */
+    private static void merge(final List<Source> sources, final Printer printer) {
+        final PriorityQueue<Source> queue = new PriorityQueue<>(
+                Comparator.comparingLong((final Source s) -> s.current().timestamp).thenComparingInt(s -> s.file));
+        for (final Source source : sources) {
+            if (source.advance()) {
+                queue.add(source);
+            }
+        }
+        while (!queue.isEmpty()) {
+            final Source source = queue.poll();
+            printer.print(source.file, source.current());
+            if (source.advance()) {
+                queue.add(source);
+            }
+        }
+    }
+
+    private void follow(final List<FileCursor> cursors, final Printer printer) throws InterruptedException {
+        final List<FileCursor> followed = new ArrayList<>();
+        for (final FileCursor cursor : cursors) {
+            if (cursor.isFollowed()) {
+                followed.add(cursor);
+            }
+        }
+        while (true) {
+            final List<Source> sources = new ArrayList<>(followed.size());
+            for (final FileCursor cursor : followed) {
+                sources.add(new Source(cursor.file, cursor.poll()));
+            }
+            merge(sources, printer);
+            printer.out.flush();
+            Thread.sleep(FOLLOW_INTERVAL_MILLIS);
+        }
+    }
+
+    private static boolean isCompressed(final Path file) {
+        return file.getFileName().toString().endsWith(".gz");
+    }
+
+    private boolean matches(final long timestamp, final String header, final CharSequence text) {
+        if (timestamp < from || timestamp > to) {
+            return false;
+        }
+        if (level != null) {
+            final LogLine line = LogLine.parse(header);
+            if (line == null || !level.equalsIgnoreCase(line.getLevel())) {
+                return false;
+            }
+        }
+        return pattern.matcher(text).find();
+    }
+
+    /**
+     * Reads the matching events of a file, by chunks of
+     * {@link #CHUNK_EVENTS} events during the search, then the events appended
+     * since the last poll in follow mode. The plain files are read through
+     * memory-mapped windows, the compressed ones member by member.
+     * <p>
+     * In follow mode, the channel stays open: when a rollover renames the file,
+     * it still reads the renamed file, whose last events are read before the
+     * new file is opened.
+     */
+    private final class FileCursor {
+        private final int file;
+        private final Path path;
+        private final Collector collector = new Collector();
+        private final LineSplitter splitter = new LineSplitter(collector);
+        private final GzipMembers members;
+        private FileChannel channel;
+        private ByteBuffer buffer;
+        private Object fileKey;
+        private long position;
+        private long limit;
+        private boolean ended;
+        private boolean broken;
+
+        private FileCursor(final int file, final Path path) {
+            this.file = file;
+            this.path = path;
+            this.members = isCompressed(path) ? new GzipMembers() : null;
+            try {
+                final BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+                fileKey = attributes.fileKey();
+                limit = attributes.size();
+            } catch (final IOException e) {
+                System.err.println("Unable to search " + path + ": " + e);
+                broken = true;
+                ended = true;
+            }
+        }
+
+        /**
+         * @return True if the file is polled in follow mode: a plain file, or
+         *         a compressed file ending with an unfinished member, as the
+         *         active file of a {@code CompressedRollingFile}.
+         */
+        private boolean isFollowed() {
+            return !broken && channel != null && (members == null || members.isUnfinished() || limit == 0);
+        }
+
+        /**
+         * @return The next chunk of events of the search, empty at the end.
+         */
+        private List<Event> read() {
+            try {
+                if (channel == null) {
+                    if (members != null) {
+                        final LogIndex index = LogIndex.forFile(path);
+                        if (index != null && !index.overlaps(from, to)) {
+                            ended = true;
+                            return collector.take();
+                        }
+                    }
+                    channel = FileChannel.open(path, StandardOpenOption.READ);
+                }
+                readUpTo(limit, CHUNK_EVENTS);
+                if (position >= limit) {
+                    if (!follow && members != null && members.isUnfinished()) {
+                        throw new EOFException("Unexpected end of the last gzip member");
+                    }
+                    end();
+                }
+            } catch (final IOException e) {
+                // a truncated or corrupt file (EOFException, ZipException) keeps the events read before
+                System.err.println("Unable to search " + path + " past byte " + position + ": " + e);
+                broken = true;
+                end();
+            }
+            return collector.take();
+        }
+
+        private void end() {
+            if (!follow || !isFollowed()) {
+                splitter.finish();
+                close();
+            }
+            collector.finish();
+            ended = true;
+        }
+
+        /**
+         * @return The events appended since the last poll, those of the file
+         *         renamed by a rollover first.
+         */
+        private List<Event> poll() {
+            BasicFileAttributes attributes;
+            try {
+                attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            } catch (final IOException e) {
+                // between the rename and the creation of the new file
+                attributes = null;
+            }
+            try {
+                if (channel.size() < position) {
+                    // truncated in place
+                    restart();
+                }
+                readUpTo(channel.size(), Integer.MAX_VALUE);
+                if (attributes != null && !Objects.equals(fileKey, attributes.fileKey())) {
+                    // the renamed file is read to its end, now the new one
+                    splitter.finish();
+                    collector.finish();
+                    channel.close();
+                    channel = FileChannel.open(path, StandardOpenOption.READ);
+                    fileKey = attributes.fileKey();
+                    restart();
+                    readUpTo(channel.size(), Integer.MAX_VALUE);
+                }
+            } catch (final IOException e) {
+                System.err.println("Unable to follow " + path + " past byte " + position + ": " + e);
+                splitter.reset();
+                restartOnNextFile();
+            }
+            collector.finish();
+            return collector.take();
+        }
+
+        private void restart() {
+            position = 0;
+            splitter.reset();
+            if (members != null) {
+                members.reset();
+            }
+        }
+
+        /**
+         * Skips the rest of a corrupt file, until the next rollover.
+         */
+        private void restartOnNextFile() {
+            try {
+                position = channel.size();
+            } catch (final IOException e) {
+                position = Long.MAX_VALUE;
+            }
+            if (members != null) {
+                members.reset();
+                members.skip();
+            }
+        }
+
+        /**
+         * Reads up to the end position or until the given number of events
+         * has matched.
+         */
+        private void readUpTo(final long end, final int maxEvents) throws IOException {
+            while (position < end && collector.events.size() < maxEvents) {
+                if (members == null) {
+                    final MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, position,
+                            Math.min(MAP_WINDOW, end - position));
+                    splitter.split(mapped, maxEvents);
+                    position += mapped.position();
+                } else {
+                    if (buffer == null) {
+                        buffer = ByteBuffer.allocate(READ_SIZE);
+                    }
+                    buffer.clear().limit((int) Math.min(READ_SIZE, end - position));
+                    final int count = channel.read(buffer, position);
+                    if (count <= 0) {
+                        return;
+                    }
+                    position += count;
+                    members.inflate(buffer.array(), count, splitter);
+                }
+            }
+        }
+
+        private void close() {
+            buffer = null;
+            if (members != null) {
+                members.end();
+            }
+            if (channel != null) {
+                try {
+                    channel.close();
+                } catch (final IOException e) {
+                    // read only
+                }
+            }
+        }
+    }
+
+    /**
+     * Inflates the members of a gzip file as its bytes are read: the last
+     * member, unfinished while the file is written, is read up to its last
+     * flush and continued by the next read.
+     */
+    private static final class GzipMembers {
+        private static final int HEADER_LENGTH = 10;
+        private static final int TRAILER_LENGTH = 8;
+        private static final int FLAGS = 3;
+        private static final int FHCRC = 2;
+        private static final int FEXTRA = 4;
+        private static final int FNAME = 8;
+        private static final int FCOMMENT = 16;
+        private static final int RESERVED = 0xe0;
+
+        private final Inflater inflater = new Inflater(true);
+        private final byte[] output = new byte[READ_SIZE];
+        private int header;
+        // the optional header fields not read yet
+        private int flags;
+        private int extraLength;
+        private int extraBytes;
+        // the bytes of the header or trailer left to ignore
+        private int ignored;
+        private int trailer;
+        private boolean skipped;
+
+        /**
+         * @throws ZipException if the bytes are not a gzip member.
+         */
+        private void inflate(final byte[] bytes, final int length, final LineSplitter splitter)
+                throws ZipException {
+            int offset = 0;
+            while (offset < length && !skipped) {
+                if (trailer > 0) {
+                    final int count = Math.min(trailer, length - offset);
+                    trailer -= count;
+                    offset += count;
+                } else if (header < HEADER_LENGTH) {
+                    final int b = bytes[offset++] & 0xff;
+                    if (header == 0 && b != 0x1f || header == 1 && b != 0x8b
+                            || header == 2 && b != Deflater.DEFLATED || header == FLAGS && (b & RESERVED) != 0) {
+                        throw new ZipException("Not in GZIP format");
+                    }
+                    if (header == FLAGS) {
+                        flags = b;
+                    }
+                    header++;
+                } else if (ignored > 0) {
+                    final int count = Math.min(ignored, length - offset);
+                    ignored -= count;
+                    offset += count;
+                } else if ((flags & FEXTRA) != 0) {
+                    extraLength |= (bytes[offset++] & 0xff) << 8 * extraBytes++;
+                    if (extraBytes == 2) {
+                        ignored = extraLength;
+                        flags &= ~FEXTRA;
+                    }
+                } else if ((flags & FNAME) != 0) {
+                    if (bytes[offset++] == 0) {
+                        flags &= ~FNAME;
+                    }
+                } else if ((flags & FCOMMENT) != 0) {
+                    if (bytes[offset++] == 0) {
+                        flags &= ~FCOMMENT;
+                    }
+                } else if ((flags & FHCRC) != 0) {
+                    ignored = 2;
+                    flags &= ~FHCRC;
+                } else {
+                    inflater.setInput(bytes, offset, length - offset);
+                    offset = inflate(length, splitter);
+                }
+            }
+        }
+
+        /**
+         * @return The offset of the first byte not consumed by the member.
+         */
+        private int inflate(final int length, final LineSplitter splitter) throws ZipException {
+            try {
+                while (true) {
+                    final int count = inflater.inflate(output);
+                    if (count > 0) {
+                        splitter.split(ByteBuffer.wrap(output, 0, count), Integer.MAX_VALUE);
+                    }
+                    if (inflater.finished()) {
+                        final int offset = length - inflater.getRemaining();
+                        inflater.reset();
+                        restartHeader();
+                        trailer = TRAILER_LENGTH;
+                        return offset;
+                    }
+                    if (inflater.needsInput()) {
+                        return length;
+                    }
+                    if (count == 0) {
+                        throw new ZipException("Invalid deflate stream");
+                    }
+                }
+            } catch (final DataFormatException e) {
+                throw new ZipException(e.getMessage());
+            }
+        }
+
+        /**
+         * @return True if the bytes read so far end inside a member.
+         */
+        private boolean isUnfinished() {
+            return header > 0 || trailer > 0;
+        }
+
+        private void reset() {
+            inflater.reset();
+            restartHeader();
+            trailer = 0;
+            skipped = false;
+        }
+
+        private void restartHeader() {
+            header = 0;
+            flags = 0;
+            extraLength = 0;
+            extraBytes = 0;
+            ignored = 0;
+        }
+
+        /**
+         * Ignores the bytes until the next reset.
+         */
+        private void skip() {
+            skipped = true;
+        }
+
+        private void end() {
+            inflater.end();
+        }
+    }
+
+    /**
+     * Groups lines into events and keeps the matching ones.
+     */
+    private final class Collector {
+        private List<Event> events = new ArrayList<>();
+        private final StringBuilder text = new StringBuilder();
+        private String header;
+        private long timestamp = -1;
+
+        private void accept(final String line) {
+            final long lineTimestamp = LogLine.parseTimestamp(line);
+            if (lineTimestamp >= 0) {
+                finish();
+                timestamp = lineTimestamp;
+                header = line;
+                text.append(line);
+            } else if (timestamp >= 0) {
+                // lines before the first event belong to an event of the previous file
+                text.append('\n').append(line);
+            }
+        }
+
+        private void finish() {
+            if (timestamp >= 0 && matches(timestamp, header, text)) {
+                events.add(new Event(timestamp, text.toString()));
+            }
+            text.setLength(0);
+            header = null;
+            timestamp = -1;
+        }
+
+        /**
+         * @return The events matched since the previous call.
+         */
+        private List<Event> take() {
+            final List<Event> taken = events;
+            events = new ArrayList<>();
+            return taken;
+        }
+    }
+
+    /**
+     * Splits bytes into UTF-8 lines, a line may span several buffers.
+     */
+    private static final class LineSplitter {
+        private final Collector collector;
+        private byte[] line = new byte[1024];
+        private int length;
+
+        private LineSplitter(final Collector collector) {
+            this.collector = collector;
+        }
+
+        /**
+         * Splits the buffer, stopping after a line once the given number of
+         * events has matched.
+         */
+        private void split(final ByteBuffer buffer, final int maxEvents) {
+            while (buffer.hasRemaining()) {
+                final byte b = buffer.get();
+                if (b == '\n') {
+                    emit();
+                    if (collector.events.size() >= maxEvents) {
+                        return;
+                    }
+                } else {
+                    if (length == line.length) {
+                        line = Arrays.copyOf(line, length * 2);
+                    }
+                    line[length++] = b;
+                }
+            }
+        }
+
+        private void emit() {
+            final int end = length > 0 && line[length - 1] == '\r' ? length - 1 : length;
+            collector.accept(new String(line, 0, end, StandardCharsets.UTF_8));
+            length = 0;
+        }
+
+        private void finish() {
+            if (length > 0) {
+                emit();
+            }
+        }
+
+        private void reset() {
+            length = 0;
+        }
+    }
+
+    private static final class Event {
+        private final long timestamp;
+        private final String text;
+
+        private Event(final long timestamp, final String text) {
+            this.timestamp = timestamp;
+            this.text = text;
+        }
+    }
+
+    /**
+     * Events of a file in the merge: the chunk being merged, while the pool
+     * reads the next one.
+     */
+    private static final class Source {
+        private final int file;
+        private final FileCursor cursor;
+        private final ForkJoinPool pool;
+        private ForkJoinTask<List<Event>> next;
+        private List<Event> chunk;
+        private int index = -1;
+
+        private Source(final FileCursor cursor, final ForkJoinPool pool) {
+            this.file = cursor.file;
+            this.cursor = cursor;
+            this.pool = pool;
+            this.chunk = Collections.emptyList();
+            this.next = cursor.ended ? null : pool.submit(cursor::read);
+        }
+
+        private Source(final int file, final List<Event> events) {
+            this.file = file;
+            this.cursor = null;
+            this.pool = null;
+            this.chunk = events;
+        }
+
+        private Event current() {
+            return chunk.get(index);
+        }
+
+        private boolean advance() {
+            if (++index < chunk.size()) {
+                return true;
+            }
+            while (next != null) {
+                chunk = next.join();
+                index = 0;
+                next = cursor.ended ? null : pool.submit(cursor::read);
+                if (!chunk.isEmpty()) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Prints the events, skipping the copies of an event already printed from
+     * another level file.
+     */
+    private final class Printer {
+        private final PrintStream out;
+        private final Map<String, int[]> printed = new HashMap<>();
+        private long timestamp = Long.MIN_VALUE;
+
+        private Printer(final PrintStream out) {
+            this.out = out;
+        }
+
+        private void print(final int file, final Event event) {
+            if (!all) {
+                if (event.timestamp != timestamp) {
+                    printed.clear();
+                    timestamp = event.timestamp;
+                }
+                // the same text may legitimately be logged twice in the same millisecond
+                final int[] counts = printed.computeIfAbsent(event.text, k -> new int[files.size()]);
+                final int count = ++counts[file];
+                for (int i = 0; i < counts.length; i++) {
+                    if (i != file && counts[i] >= count) {
+                        return;
+                    }
+                }
+            }
+            out.println(event.text);
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package fr.phenix333.logger.tools;
+
+import java.io.IOException;
+
+import javax.management.JMException;
+import javax.management.JMX;
+import javax.management.MBeanServerConnection;
+import javax.management.ObjectName;
+import javax.management.remote.JMXConnector;
+import javax.management.remote.JMXConnectorFactory;
+import javax.management.remote.JMXServiceURL;
+
+import com.sun.tools.attach.AttachNotSupportedException;
+import com.sun.tools.attach.VirtualMachine;
+
+import fr.phenix333.logger.ProfilerMXBean;
+
+/**
+ * Prints the report of the per-call-site profiler of a running JVM, through
+ * its local JMX agent.
+ *
+ * <pre>
+ * mvn -Pprofiler compile exec:exec -Dprofiler.args="12345 --top 20 --by bytes"
+ * java -cp ... fr.phenix333.logger.tools.ProfilerReport PID [--top N] [--by events|bytes|time]
+ *     [--enable] [--disable] [--sample N] [--reset]
+ * </pre>
+ *
+ * {@code --enable}, {@code --disable} and {@code --sample} change the
+ * profiler before the report is printed, {@code --reset} forgets the counts
+ * after. The profiler is registered once the JVM has logged an event with
+ * {@code MyLogger}, if it was started with {@code -Dfr.phenix333.logger.profile=true}
+ * or, to enable it from here, {@code -Dfr.phenix333.logger.profile.jmx=true}.
+ */
+public final class ProfilerReport {
+    private static final String PROFILE_PROPERTY = "fr.phenix333.logger.profile";
+    private static final String JMX_PROPERTY = "fr.phenix333.logger.profile.jmx";
+
+    private ProfilerReport() {
+    }
+
+    public static void main(final String[] args) throws IOException, JMException {
+        String pid = null;
+        int top = 20;
+        String order = "events";
+        Boolean enable = null;
+        Integer sample = null;
+        boolean reset = false;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                case "--top":
+                    top = Integer.parseInt(value(args, ++i));
+                    break;
+                case "--by":
+                    order = value(args, ++i);
+                    break;
+                case "--enable":
+                    enable = true;
+                    break;
+                case "--disable":
+                    enable = false;
+                    break;
+                case "--sample":
+                    sample = Integer.parseInt(value(args, ++i));
+                    break;
+                case "--reset":
+                    reset = true;
+                    break;
+                default:
+                    if (args[i].startsWith("--") || pid != null) {
+                        throw new IllegalArgumentException("Unknown option " + args[i]);
+                    }
+                    pid = args[i];
+                }
+            }
+            if (pid == null) {
+                throw new IllegalArgumentException("Missing PID");
+            }
+        } catch (final IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Usage: ProfilerReport PID [--top N] [--by events|bytes|time] [--enable] [--disable]"
+                    + " [--sample N] [--reset]");
+            System.exit(2);
+        }
+
+        final String address;
+        try {
+            final VirtualMachine vm = VirtualMachine.attach(pid);
+            try {
+                address = vm.startLocalManagementAgent();
+            } finally {
+                vm.detach();
+            }
+        } catch (final AttachNotSupportedException e) {
+            System.err.println("Unable to attach to " + pid + ": " + e.getMessage());
+            System.exit(1);
+            return;
+        }
+        try (JMXConnector connector = JMXConnectorFactory.connect(new JMXServiceURL(address))) {
+            final MBeanServerConnection server = connector.getMBeanServerConnection();
+            final ObjectName name = new ObjectName("fr.phenix333.logger:type=Profiler");
+            if (!server.isRegistered(name)) {
+                System.err.println(pid + " has no profiler: it was started without -D" + PROFILE_PROPERTY
+                        + "=true nor -D" + JMX_PROPERTY + "=true, or has not logged with MyLogger yet");
+                System.exit(1);
+            }
+            final ProfilerMXBean profiler = JMX.newMXBeanProxy(server, name, ProfilerMXBean.class);
+            if (enable != null) {
+                profiler.setEnabled(enable);
+            }
+            if (sample != null) {
+                profiler.setSampleRate(sample);
+            }
+            System.out.print(profiler.report(top, order));
+            if (!profiler.isEnabled()) {
+                System.out.println("The profiler is disabled, --enable to count the events");
+            }
+            if (reset) {
+                profiler.reset();
+            }
+        }
+    }
+
+    private static String value(final String[] args, final int i) {
+        if (i >= args.length) {
+            throw new IllegalArgumentException("Missing value of " + args[i - 1]);
+        }
+        return args[i];
+    }
+}
@@ -0,0 +1,252 @@
+package fr.phenix333.logger.tools;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Locale;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.ThreadContext;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.appender.AbstractAppender;
+import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.config.LoggerConfig;
+import org.apache.logging.log4j.core.config.Property;
+import org.reactivestreams.Subscription;
+
+import fr.phenix333.logger.MyLogger;
+import fr.phenix333.logger.context.MyReactorContext;
+import reactor.core.CoreSubscriber;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Hooks;
+import reactor.core.publisher.Operators;
+import reactor.util.context.Context;
+
+/**
+ * Compares two ways of adding the fields of a Reactor pipeline to its events:
+ * copying them from the Reactor context to the {@code ThreadContext} at each
+ * operator, with a {@code Hooks.onEachOperator} hook, or binding them around
+ * the logging callback only, with {@link MyReactorContext}.
+ *
+ * <pre>
+ * mvn -Preactor compile exec:exec -Dreactor.args="--elements 1000000 --hops 8"
+ * java -cp ... fr.phenix333.logger.tools.ReactorContextBenchmark [--elements N] [--hops N]
+ * </pre>
+ *
+ * The pipeline maps the elements {@code --hops} times, then logs each of them,
+ * at {@code WARN} (enabled) or {@code DEBUG} (disabled), into an appender
+ * which only checks the fields of the events. Each pipeline is run several
+ * times after a warm-up and the fastest round is reported, in nanoseconds per
+ * element. It exits with 1 if an enabled event misses a field.
+ */
+public final class ReactorContextBenchmark {
+    private static final int ROUNDS = 5;
+    private static final String HOOK = "reactor.benchmark";
+    private static final String REQUEST_ID = "requestId";
+    private static final String USER = "user";
+
+    /**
+     * Written by the pipelines, so the JIT cannot remove them.
+     */
+    private static long sink;
+
+    private ReactorContextBenchmark() {
+    }
+
+    public static void main(final String[] args) {
+        int elements = 1_000_000;
+        int hops = 8;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                if (i + 1 >= args.length) {
+                    throw new IllegalArgumentException("Missing value of " + args[i]);
+                }
+                switch (args[i]) {
+                case "--elements":
+                    elements = Integer.parseInt(args[++i]);
+                    break;
+                case "--hops":
+                    hops = Integer.parseInt(args[++i]);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option " + args[i]);
+                }
+            }
+        } catch (final IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Usage: ReactorContextBenchmark [--elements N] [--hops N]");
+            System.exit(2);
+        }
+        // the root logger is at WARN, DEBUG is disabled
+        final MyLogger logger = MyLogger.create("reactor.benchmark");
+        final CheckingAppender appender = captureRoot();
+        final PrintStream out = System.out;
+        out.printf(Locale.ROOT, "%d elements, %d hops%n", elements, hops);
+        out.printf(Locale.ROOT, "%-18s %12s %12s%n", "ns per element", "enabled", "disabled");
+
+        final int n = elements;
+        final int h = hops;
+        final Consumer<Integer> warn = v -> logger.warn("Element {}", v);
+        final Consumer<Integer> debug = v -> logger.debug("Element {}", v);
+
+        final Function<Consumer<Integer>, Runnable> none = log -> () -> run(pipeline(n, h).doOnNext(log));
+        row(out, "no field", n, none, warn, debug, appender, false);
+
+        final Function<Consumer<Integer>, Runnable> threadContext = log -> () -> {
+            Hooks.onEachOperator(HOOK, Operators.lift((scannable, subscriber) -> new CopyingSubscriber<>(subscriber)));
+            try {
+                run(pipeline(n, h).doOnNext(log).contextWrite(Context.of(REQUEST_ID, "42", USER, "benchmark")));
+            } finally {
+                Hooks.resetOnEachOperator(HOOK);
+                ThreadContext.clearMap();
+            }
+        };
+        row(out, "ThreadContext", n, threadContext, warn, debug, appender, true);
+
+        final Function<Consumer<Integer>, Runnable> reactor = log -> () -> run(
+                pipeline(n, h).doOnEach(MyReactorContext.onNext(log))
+                        .contextWrite(MyReactorContext.where(REQUEST_ID, "42").where(USER, "benchmark")));
+        row(out, "MyReactorContext", n, reactor, warn, debug, appender, true);
+
+        out.printf(Locale.ROOT, "events %d, %d without the fields%n", appender.events, appender.missing);
+        LogManager.shutdown();
+        if (appender.missing > 0) {
+            out.println("FAILED");
+            System.exit(1);
+        }
+    }
+
+    private static Flux<Integer> pipeline(final int elements, final int hops) {
+        Flux<Integer> flux = Flux.range(0, elements);
+        for (int i = 0; i < hops; i++) {
+            flux = flux.map(v -> v + 1);
+        }
+        return flux;
+    }
+
+    private static void run(final Flux<Integer> flux) {
+        sink += flux.reduce(0L, (sum, v) -> sum + v).block();
+    }
+
+    private static void row(final PrintStream out, final String label, final int elements,
+            final Function<Consumer<Integer>, Runnable> pipeline, final Consumer<Integer> enabled,
+            final Consumer<Integer> disabled, final CheckingAppender appender, final boolean fields) {
+        appender.expectFields = fields;
+        final double enabledNanos = best(pipeline.apply(enabled), elements);
+        appender.expectFields = false;
+        final double disabledNanos = best(pipeline.apply(disabled), elements);
+        out.printf(Locale.ROOT, "%-18s %12.2f %12.2f%n", label, enabledNanos, disabledNanos);
+    }
+
+    private static double best(final Runnable pipeline, final int elements) {
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < ROUNDS + 1; i++) {
+            final long start = System.nanoTime();
+            pipeline.run();
+            final long elapsed = System.nanoTime() - start;
+            // the first round is the warm-up
+            if (i > 0) {
+                best = Math.min(best, elapsed);
+            }
+        }
+        return best / (double) elements;
+    }
+
+    /**
+     * Replaces the appenders of the root logger by a {@link CheckingAppender}.
+     */
+    private static CheckingAppender captureRoot() {
+        final LoggerContext context = (LoggerContext) LogManager.getContext(false);
+        final Configuration config = context.getConfiguration();
+        final LoggerConfig root = config.getRootLogger();
+        final CheckingAppender appender = new CheckingAppender();
+        appender.start();
+        config.addAppender(appender);
+        for (final String name : new ArrayList<>(root.getAppenders().keySet())) {
+            root.removeAppender(name);
+        }
+        root.addAppender(appender, null, null);
+        context.updateLoggers();
+        return appender;
+    }
+
+    /**
+     * Counts the events and those missing the fields of the pipeline.
+     */
+    private static final class CheckingAppender extends AbstractAppender {
+        private volatile boolean expectFields;
+        private long events;
+        private long missing;
+
+        private CheckingAppender() {
+            super("reactor_benchmark", null, null, true, Property.EMPTY_ARRAY);
+        }
+
+        @Override
+        public void append(final LogEvent event) {
+            events++;
+            if (expectFields && (!"42".equals(event.getContextData().getValue(REQUEST_ID))
+                    || !"benchmark".equals(event.getContextData().getValue(USER)))) {
+                missing++;
+            }
+        }
+    }
+
+    /**
+     * The usual way to see the fields of the Reactor context in the
+     * {@code ThreadContext}: each operator copies them before passing a signal
+     * on.
+     */
+    private static final class CopyingSubscriber<T> implements CoreSubscriber<T> {
+        private final CoreSubscriber<? super T> actual;
+
+        private CopyingSubscriber(final CoreSubscriber<? super T> actual) {
+            this.actual = actual;
+        }
+
+        @Override
+        public Context currentContext() {
+            return actual.currentContext();
+        }
+
+        @Override
+        public void onSubscribe(final Subscription subscription) {
+            actual.onSubscribe(subscription);
+        }
+
+        @Override
+        public void onNext(final T value) {
+            copy();
+            actual.onNext(value);
+        }
+
+        @Override
+        public void onError(final Throwable error) {
+            copy();
+            actual.onError(error);
+        }
+
+        @Override
+        public void onComplete() {
+            copy();
+            actual.onComplete();
+        }
+
+        private void copy() {
+            final Context context = actual.currentContext();
+            copy(context, REQUEST_ID);
+            copy(context, USER);
+        }
+
+        private static void copy(final Context context, final String key) {
+            final String value = context.getOrDefault(key, null);
+            if (value == null) {
+                ThreadContext.remove(key);
+            } else {
+                ThreadContext.put(key, value);
+            }
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package fr.phenix333.logger.tools;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Locale;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.appender.AbstractOutputStreamAppender;
+import org.apache.logging.log4j.core.appender.RollingFileAppender;
+import org.apache.logging.log4j.core.appender.rolling.DefaultRolloverStrategy;
+import org.apache.logging.log4j.core.appender.rolling.FileSize;
+import org.apache.logging.log4j.core.appender.rolling.RollingFileManager;
+import org.apache.logging.log4j.core.appender.rolling.SizeBasedTriggeringPolicy;
+import org.apache.logging.log4j.core.config.DefaultConfiguration;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.core.layout.PatternLayout;
+import org.apache.logging.log4j.message.SimpleMessage;
+
+import fr.phenix333.logger.appender.CompressedRollingFileAppender;
+import fr.phenix333.logger.appender.SwappingRollingFileAppender;
+
+/**
+ * Latency of the appends around the rollovers, with the {@code RollingFile}
+ * of Log4j, the {@code SwappingRollingFile} and the
+ * {@code CompressedRollingFile}.
+ *
+ * <pre>
+ * mvn -Prollover compile exec:exec -Drollover.args="--events 500000 --size 1MB"
+ * java -cp ... fr.phenix333.logger.tools.RolloverLatency [--events N] [--warmup N] [--size SIZE]
+ *         [--message BYTES] [--max-millis N]
+ * </pre>
+ *
+ * Each appender rolls every {@code --size} in a temporary directory, the
+ * first {@code --warmup} events are not recorded. The appends within
+ * {@value #WINDOW} events of a rollover, before and after the size of the file
+ * drops, are also recorded apart. It exits with 1 if the slowest of those
+ * appends exceeds {@code --max-millis} with the {@code SwappingRollingFile} or
+ * the {@code CompressedRollingFile}; the {@code RollingFile} is the baseline.
+ */
+public final class RolloverLatency {
+    private static final int WINDOW = 64;
+    private static final double[] PERCENTILES = { 50, 99, 99.9 };
+
+    private RolloverLatency() {
+    }
+
+    public static void main(final String[] args) throws IOException {
+        int events = 500_000;
+        int warmup = 50_000;
+        String size = "1MB";
+        int message = 200;
+        double maxMillis = 25;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                if (i + 1 >= args.length) {
+                    throw new IllegalArgumentException("Missing value of " + args[i]);
+                }
+                switch (args[i]) {
+                case "--events":
+                    events = Integer.parseInt(args[++i]);
+                    break;
+                case "--warmup":
+                    warmup = Integer.parseInt(args[++i]);
+                    break;
+                case "--size":
+                    size = args[++i];
+                    break;
+                case "--message":
+                    message = Integer.parseInt(args[++i]);
+                    break;
+                case "--max-millis":
+                    maxMillis = Double.parseDouble(args[++i]);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option " + args[i]);
+                }
+            }
+        } catch (final IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Usage: RolloverLatency [--events N] [--warmup N] [--size SIZE] [--message BYTES]"
+                    + " [--max-millis N]");
+            System.exit(2);
+        }
+        final PrintStream out = System.out;
+        out.printf(Locale.ROOT, "%d events of %d bytes, rollover every %s%n", events, message, size);
+        out.printf(Locale.ROOT, "%-22s %9s %8s %8s %8s %9s %10s %10s%n", "us", "rollovers", "p50", "p99", "p99.9",
+                "max", "near p99", "near max");
+        boolean failed = false;
+        for (final String appender : new String[] { "RollingFile", "SwappingRollingFile", "CompressedRollingFile" }) {
+            final double nearMax = run(appender, warmup, events, size, message, out);
+            if (!"RollingFile".equals(appender) && nearMax > maxMillis * 1e3) {
+                out.printf(Locale.ROOT, "%s: an append near a rollover took %.1f ms, over %.1f ms%n", appender,
+                        nearMax / 1e3, maxMillis);
+                failed = true;
+            }
+        }
+        if (failed) {
+            out.println("FAILED");
+            System.exit(1);
+        }
+    }
+
+    /**
+     * @return The longest append near a rollover, in microseconds.
+     */
+    private static double run(final String type, final int warmup, final int events, final String size,
+            final int message, final PrintStream out) throws IOException {
+        // the size of a compressed file counts its buffered events uncompressed, it drops when they are written
+        final long drop = FileSize.parse(size, 0) / 2;
+        final Path directory = Files.createTempDirectory("rollover");
+        try {
+            final AbstractOutputStreamAppender<RollingFileManager> appender = create(type, directory, size);
+            appender.start();
+            // random words, for the compressed file to roll as often as an actual one
+            final Random random = new Random(42);
+            final char[] words = new char[1 << 16];
+            for (int i = 0; i < words.length; i++) {
+                words[i] = random.nextInt(6) == 0 ? ' ' : (char) ('a' + random.nextInt(26));
+            }
+            final String text = new String(words);
+
+            final LatencyHistogram all = new LatencyHistogram();
+            final LatencyHistogram near = new LatencyHistogram();
+            final long[] recent = new long[WINDOW];
+            int after = 0;
+            int rollovers = 0;
+            long previousSize = 0;
+            for (int i = -warmup; i < events; i++) {
+                final int offset = random.nextInt(words.length - message);
+                final LogEvent event = Log4jLogEvent.newBuilder().setLoggerName("rollover").setLevel(Level.INFO)
+                        .setMessage(new SimpleMessage(text.substring(offset, offset + message))).build();
+                final long start = System.nanoTime();
+                appender.append(event);
+                final long latency = System.nanoTime() - start;
+                final long currentSize = appender.getManager().getFileSize();
+                final boolean rolled = currentSize < previousSize - drop;
+                previousSize = currentSize;
+                if (i < 0) {
+                    continue;
+                }
+                all.record(latency);
+                recent[i % WINDOW] = latency;
+                if (after > 0) {
+                    near.record(latency);
+                    after--;
+                }
+                if (rolled) {
+                    rollovers++;
+                    // the appends before the drop, the one which triggered the rollover among them
+                    for (int j = Math.max(0, i - WINDOW + 1); j <= i; j++) {
+                        near.record(recent[j % WINDOW]);
+                    }
+                    after = WINDOW;
+                }
+            }
+            appender.stop();
+            out.printf(Locale.ROOT, "%-22s %9d %8.1f %8.1f %8.1f %9.1f %10.1f %10.1f%n", type, rollovers,
+                    all.getValueAtPercentile(PERCENTILES[0]) / 1e3, all.getValueAtPercentile(PERCENTILES[1]) / 1e3,
+                    all.getValueAtPercentile(PERCENTILES[2]) / 1e3, all.getMax() / 1e3,
+                    near.getValueAtPercentile(PERCENTILES[1]) / 1e3, near.getMax() / 1e3);
+            return near.getMax() / 1e3;
+        } finally {
+            try (Stream<Path> files = Files.walk(directory)) {
+                files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static AbstractOutputStreamAppender<RollingFileManager> create(final String type, final Path directory,
+            final String size) {
+        final DefaultConfiguration config = new DefaultConfiguration();
+        final PatternLayout layout = PatternLayout.newBuilder().withPattern("%d %p %c %m%n").withConfiguration(config)
+                .build();
+        final String base = directory.resolve(type).toString();
+        final DefaultRolloverStrategy strategy = DefaultRolloverStrategy.newBuilder().withFileIndex("nomax")
+                .withConfig(config).build();
+        final SizeBasedTriggeringPolicy policy = SizeBasedTriggeringPolicy.createPolicy(size);
+        switch (type) {
+        case "SwappingRollingFile":
+            return SwappingRollingFileAppender.newBuilder().setName(type).setFileName(base + ".log")
+                    .setFilePattern(base + "-%i.log.gz").setPolicy(policy).setStrategy(strategy).setLayout(layout)
+                    .setConfiguration(config).build();
+        case "CompressedRollingFile":
+            return CompressedRollingFileAppender.newBuilder().setName(type).setFileName(base + ".log.gz")
+                    .setFilePattern(base + "-%i.log.gz").setPolicy(policy).setStrategy(strategy).setLayout(layout)
+                    .setConfiguration(config).build();
+        default:
+            return (AbstractOutputStreamAppender<RollingFileManager>) (AbstractOutputStreamAppender<?>)
+                    RollingFileAppender.newBuilder().setName(type).withFileName(base + ".log")
+                            .withFilePattern(base + "-%i.log.gz").withPolicy(policy).withStrategy(strategy)
+                            .setLayout(layout).setConfiguration(config).build();
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package fr.phenix333.logger.tools;
+
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.Appender;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.appender.AbstractAppender;
+import org.apache.logging.log4j.core.config.Property;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.message.SimpleMessage;
+
+import fr.phenix333.logger.appender.WatchdogAppender;
+
+/**
+ * Check of the {@link WatchdogAppender} against a disk which stalls.
+ *
+ * <pre>
+ * mvn -Pwatchdog compile exec:exec -Dwatchdog.args="--stall 2000 --max-events 20000"
+ * java -cp ... fr.phenix333.logger.tools.SlowDiskCheck [--threads N] [--rate EVENTS_PER_S] [--duration MILLIS]
+ *     [--stall MILLIS] [--threshold MILLIS] [--max-events N]
+ * </pre>
+ *
+ * {@code --threads} threads log numbered {@code INFO}, {@code WARN} and
+ * {@code ERROR} events at {@code --rate} events per second each, into an
+ * appender whose writes all wait while the disk stalls, for {@code --stall}
+ * milliseconds in the middle of the run. The run is done with the appender
+ * alone, then behind a watchdog. It prints the response time of the calls,
+ * from their scheduled start, the share of the calls later than the threshold
+ * of the watchdog, the episodes and the events dropped, and exits with 1 if,
+ * behind the watchdog, an event was lost without being counted as dropped or
+ * the events of a thread were written out of order.
+ */
+public final class SlowDiskCheck {
+    private static final Level[] LEVELS = { Level.INFO, Level.INFO, Level.INFO, Level.INFO, Level.INFO, Level.INFO,
+            Level.INFO, Level.WARN, Level.WARN, Level.ERROR };
+
+    private SlowDiskCheck() {
+    }
+
+    public static void main(final String[] args) throws InterruptedException {
+        int threads = 16;
+        int rate = 5000;
+        long duration = 6000;
+        long stall = 2000;
+        long threshold = 100;
+        int maxEvents = 100_000;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                if (i + 1 >= args.length) {
+                    throw new IllegalArgumentException("Missing value of " + args[i]);
+                }
+                switch (args[i]) {
+                case "--threads":
+                    threads = Integer.parseInt(args[++i]);
+                    break;
+                case "--rate":
+                    rate = Integer.parseInt(args[++i]);
+                    break;
+                case "--duration":
+                    duration = Long.parseLong(args[++i]);
+                    break;
+                case "--stall":
+                    stall = Long.parseLong(args[++i]);
+                    break;
+                case "--threshold":
+                    threshold = Long.parseLong(args[++i]);
+                    break;
+                case "--max-events":
+                    maxEvents = Integer.parseInt(args[++i]);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option " + args[i]);
+                }
+            }
+        } catch (final IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Usage: SlowDiskCheck [--threads N] [--rate EVENTS_PER_S] [--duration MILLIS]"
+                    + " [--stall MILLIS] [--threshold MILLIS] [--max-events N]");
+            System.exit(2);
+        }
+        final PrintStream out = System.out;
+        out.printf(Locale.ROOT, "%d threads at %d events/s for %d ms, disk stalled for %d ms%n", threads, rate,
+                duration, stall);
+        out.printf(Locale.ROOT, "%-12s %10s %10s %10s %10s %10s%n", "response ms", "p50", "p99", "p99.9", "max",
+                "late");
+
+        final StallingAppender direct = new StallingAppender(threads, stall);
+        run("direct", direct, direct, threads, rate, duration, threshold, out);
+
+        final StallingAppender disk = new StallingAppender(threads, stall);
+        final WatchdogAppender watchdog = WatchdogAppender.create("watchdog", disk, threshold, maxEvents);
+        final long[] logged = run("watchdog", watchdog, disk, threads, rate, duration, threshold, out);
+
+        final Map<String, Long> dropped = watchdog.getDropped();
+        final long droppedTotal = dropped.values().stream().mapToLong(Long::longValue).sum();
+        out.printf(Locale.ROOT, "episodes %d, %d ms spilling, %d events spilled, %d at most, dropped %s%n",
+                watchdog.getEpisodes(), watchdog.getSpillingMillis(), watchdog.getSpilled(),
+                watchdog.getMaxSpillSize(), dropped);
+        final long expected = Arrays.stream(logged).sum();
+        out.printf(Locale.ROOT, "logged %d, written %d, dropped %d, %d out of order%n", expected, disk.written,
+                droppedTotal, disk.outOfOrder);
+        if (disk.written + droppedTotal != expected || disk.outOfOrder > 0) {
+            out.println("FAILED");
+            System.exit(1);
+        }
+    }
+
+    /**
+     * @return The number of events logged per thread.
+     */
+    private static long[] run(final String label, final Appender appender, final StallingAppender disk,
+            final int threads, final int rate, final long duration, final long threshold, final PrintStream out)
+            throws InterruptedException {
+        appender.start();
+        final LatencyHistogram[] histograms = new LatencyHistogram[threads];
+        final long[] logged = new long[threads];
+        final long[] lates = new long[threads];
+        final long thresholdNanos = TimeUnit.MILLISECONDS.toNanos(threshold);
+        final Thread[] producers = new Thread[threads];
+        final long start = System.nanoTime();
+        final long end = start + TimeUnit.MILLISECONDS.toNanos(duration);
+        disk.stallAt(start + TimeUnit.MILLISECONDS.toNanos(duration) / 3);
+        final long period = TimeUnit.SECONDS.toNanos(1) / rate;
+        for (int t = 0; t < threads; t++) {
+            final int thread = t;
+            histograms[t] = new LatencyHistogram();
+            producers[t] = new Thread(() -> {
+                long due = start;
+                long sequence = 0;
+                final ThreadLocalRandom random = ThreadLocalRandom.current();
+                while (due < end) {
+                    final long now = System.nanoTime();
+                    if (now < due) {
+                        LockSupport.parkNanos(due - now);
+                        continue;
+                    }
+                    final LogEvent event = Log4jLogEvent.newBuilder().setLoggerName("disk")
+                            .setLevel(LEVELS[random.nextInt(LEVELS.length)])
+                            .setMessage(new SimpleMessage(thread + " " + sequence++)).build();
+                    appender.append(event);
+                    // from the scheduled start, the events a stalled thread could not log count as late
+                    final long response = System.nanoTime() - due;
+                    histograms[thread].record(response);
+                    if (response > thresholdNanos) {
+                        lates[thread]++;
+                    }
+                    due += period;
+                }
+                logged[thread] = sequence;
+            }, "SlowDisk-" + t);
+            producers[t].start();
+        }
+        final LatencyHistogram all = new LatencyHistogram();
+        long late = 0;
+        for (int t = 0; t < threads; t++) {
+            producers[t].join();
+            all.add(histograms[t]);
+            late += lates[t];
+        }
+        appender.stop();
+        out.printf(Locale.ROOT, "%-12s %10.2f %10.2f %10.2f %10.2f %9.2f%%%n", label,
+                all.getValueAtPercentile(50) / 1e6, all.getValueAtPercentile(99) / 1e6,
+                all.getValueAtPercentile(99.9) / 1e6, all.getMax() / 1e6, 100.0 * late / all.getCount());
+        return logged;
+    }
+
+    /**
+     * Appender standing for a file on a disk which stalls once: the writes
+     * wait, one at a time, until the stall is over. It counts the events and
+     * checks the order of the events of each thread.
+     */
+    private static final class StallingAppender extends AbstractAppender {
+        private final long[] last;
+        private final long stallNanos;
+        private volatile long stallStart = Long.MAX_VALUE;
+        private long written;
+        private long outOfOrder;
+
+        private StallingAppender(final int threads, final long stallMillis) {
+            super("disk", null, null, true, Property.EMPTY_ARRAY);
+            this.last = new long[threads];
+            Arrays.fill(last, -1);
+            this.stallNanos = TimeUnit.MILLISECONDS.toNanos(stallMillis);
+        }
+
+        private void stallAt(final long nanos) {
+            stallStart = nanos;
+        }
+
+        @Override
+        public synchronized void append(final LogEvent event) {
+            long now = System.nanoTime();
+            while (now >= stallStart && now < stallStart + stallNanos) {
+                LockSupport.parkNanos(stallStart + stallNanos - now);
+                now = System.nanoTime();
+            }
+            final String[] fields = event.getMessage().getFormattedMessage().split(" ");
+            final int thread = Integer.parseInt(fields[0]);
+            final long sequence = Long.parseLong(fields[1]);
+            if (sequence <= last[thread]) {
+                outOfOrder++;
+            }
+            last[thread] = sequence;
+            written++;
+        }
+    }
+}
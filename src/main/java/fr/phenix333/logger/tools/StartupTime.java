@@ -0,0 +1,53 @@
+package fr.phenix333.logger.tools;
+
+import java.lang.management.ManagementFactory;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.config.DefaultConfiguration;
+
+import fr.phenix333.logger.MyLogger;
+
+/**
+ * Measures the time to the first event written, to compare the configurations:
+ *
+ * <pre>
+ * java -cp ... fr.phenix333.logger.tools.StartupTime
+ * java -Dlog4j2.configurationFactory=fr.phenix333.logger.config.MyConfigurationFactory -cp ... fr.phenix333.logger.tools.StartupTime
+ * </pre>
+ *
+ * Run it several times in new JVMs, the first run also loads the classes from
+ * a cold disk cache. {@code mvn -Pnative package} builds it as a native image
+ * and runs it after the JVM. It exits with 1 if no configuration was found or,
+ * in a native image, if it is not the programmatic one.
+ */
+public final class StartupTime {
+    private static final String IMAGE_CODE_PROPERTY = "org.graalvm.nativeimage.imagecode";
+    private static final String NATIVE_CONFIGURATION = "MyConfiguration";
+
+    private StartupTime() {
+    }
+
+    public static void main(final String[] args) {
+        final long start = System.nanoTime();
+        final MyLogger logger = MyLogger.create(StartupTime.class);
+        logger.info("First event");
+        final long firstLogNanos = System.nanoTime() - start;
+        // read after the first event, loading the management classes is not measured
+        final long uptimeMillis = ManagementFactory.getRuntimeMXBean().getUptime();
+
+        final LoggerContext context = (LoggerContext) LogManager.getContext(false);
+        final Configuration config = context.getConfiguration();
+        final boolean nativeImage = System.getProperty(IMAGE_CODE_PROPERTY) != null;
+        System.out.println((nativeImage ? "Native image" : "JVM") + ", configuration: " + config.getName());
+        System.out.println("Main to first event: " + firstLogNanos / 1_000_000 + " ms");
+        System.out.println("JVM start to first event: <= " + uptimeMillis + " ms");
+        LogManager.shutdown();
+        if (config instanceof DefaultConfiguration
+                || nativeImage && !NATIVE_CONFIGURATION.equals(config.getClass().getSimpleName())) {
+            System.out.println("FAILED: unexpected configuration " + config.getClass().getName());
+            System.exit(1);
+        }
+    }
+}
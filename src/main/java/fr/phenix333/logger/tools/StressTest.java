@@ -0,0 +1,468 @@
+package fr.phenix333.logger.tools;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.locks.LockSupport;
+import java.util.zip.GZIPInputStream;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.core.Appender;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.appender.AsyncAppender;
+import org.apache.logging.log4j.core.config.AppenderRef;
+import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.config.LoggerConfig;
+
+import fr.phenix333.logger.MyLogger;
+import fr.phenix333.logger.async.LevelLanesQueueFactory;
+
+/**
+ * Load test of {@link MyLogger}: producer threads log at a mix of levels into
+ * the configured appenders, and the latency of each call is recorded.
+ *
+ * <pre>
+ * mvn -Pstress compile exec:exec -Dstress.args="--threads 64 --mode async"
+ * java -cp ... fr.phenix333.logger.tools.StressTest [--threads N] [--duration SECONDS] [--warmup SECONDS]
+ *     [--rate EVENTS_PER_SECOND_PER_THREAD] [--size BYTES] [--mix error=1,warn=4,...] [--mode sync|async]
+ *     [--reload MILLIS]
+ * </pre>
+ *
+ * The {@code sync} mode uses the configuration as is, {@code async} moves the
+ * appenders of the root logger behind an {@code Async} appender using the
+ * {@code LevelLanesQueue}. The service time is the duration of the call. With
+ * a {@code --rate}, each producer has a schedule and the response time is
+ * measured from the scheduled start of the call, so a stall also counts for the
+ * calls it delayed (coordinated omission); without it, the response time is the
+ * service time. {@code --reload} reconfigures the logger context
+ * periodically, as {@code monitorInterval} does, then checks the level files:
+ * each must hold exactly the events logged at its level and above, it exits
+ * with 1 on a lost or duplicated event.
+ */
+public final class StressTest {
+    private static final long SPIN_NANOS = 100_000;
+    private static final double[] PERCENTILES = { 50, 99, 99.9 };
+    private static final Level FUNCTION = Level.forName("FUNCTION", 550);
+    private static final Level[] LEVELS = { Level.FATAL, Level.ERROR, Level.WARN, Level.INFO, Level.DEBUG,
+            FUNCTION };
+    /**
+     * The system property of the directory of the files, as {@code logDir} in
+     * {@code log4j2.xml}.
+     */
+    private static final String DIR_PROPERTY = "fr.phenix333.logger.dir";
+    private static final String LOGGER = StressTest.class.getSimpleName();
+
+    private int threads = 64;
+    private int durationSeconds = 30;
+    private int warmupSeconds = 5;
+    private long rate;
+    private int size = 100;
+    private String mix = "error=1,warn=4,info=20,debug=25,function=50";
+    private String mode = "sync";
+    private long reloadMillis;
+    private int[] weights = new int[LEVELS.length];
+
+    public static void main(final String[] args) throws InterruptedException, IOException {
+        final StressTest test = new StressTest();
+        try {
+            test.parse(args);
+        } catch (final IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Usage: StressTest [--threads N] [--duration SECONDS] [--warmup SECONDS]"
+                    + " [--rate EVENTS_PER_SECOND_PER_THREAD] [--size BYTES] [--mix error=1,warn=4,...]"
+                    + " [--mode sync|async] [--reload MILLIS]");
+            System.exit(2);
+        }
+        if (!test.run(System.out)) {
+            System.exit(1);
+        }
+    }
+
+    private void parse(final String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+            case "--threads":
+                threads = Integer.parseInt(value(args, ++i));
+                break;
+            case "--duration":
+                durationSeconds = Integer.parseInt(value(args, ++i));
+                break;
+            case "--warmup":
+                warmupSeconds = Integer.parseInt(value(args, ++i));
+                break;
+            case "--rate":
+                rate = Long.parseLong(value(args, ++i));
+                break;
+            case "--size":
+                size = Integer.parseInt(value(args, ++i));
+                break;
+            case "--mix":
+                mix = value(args, ++i);
+                break;
+            case "--mode":
+                mode = value(args, ++i);
+                break;
+            case "--reload":
+                reloadMillis = Long.parseLong(value(args, ++i));
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+        if (!"sync".equals(mode) && !"async".equals(mode)) {
+            throw new IllegalArgumentException("Unknown mode " + mode);
+        }
+        if (reloadMillis > 0 && "async".equals(mode)) {
+            throw new IllegalArgumentException("A reload would replace the async appender of the async mode");
+        }
+        weights = parseMix(mix);
+    }
+
+    private static String value(final String[] args, final int i) {
+        if (i >= args.length) {
+            throw new IllegalArgumentException("Missing value of " + args[i - 1]);
+        }
+        return args[i];
+    }
+
+    private static int[] parseMix(final String mix) {
+        final int[] weights = new int[LEVELS.length];
+        int total = 0;
+        for (final String part : mix.split(",")) {
+            final int equals = part.indexOf('=');
+            if (equals < 0) {
+                throw new IllegalArgumentException("Invalid mix " + mix);
+            }
+            final Level level = Level.getLevel(part.substring(0, equals).trim().toUpperCase(Locale.ROOT));
+            int index = -1;
+            for (int i = 0; i < LEVELS.length; i++) {
+                if (LEVELS[i] == level) {
+                    index = i;
+                }
+            }
+            if (index < 0) {
+                throw new IllegalArgumentException("Unknown level in the mix " + part);
+            }
+            weights[index] = Integer.parseInt(part.substring(equals + 1).trim());
+            total += weights[index];
+        }
+        if (total <= 0) {
+            throw new IllegalArgumentException("Empty mix " + mix);
+        }
+        return weights;
+    }
+
+    /**
+     * @return False if the check of the files after the reloads failed.
+     */
+    private boolean run(final PrintStream out) throws InterruptedException, IOException {
+        final MyLogger logger = MyLogger.create(StressTest.class);
+        final Path dir = Paths.get(System.getProperty(DIR_PROPERTY, "Logs"));
+        final long[][] before = reloadMillis > 0 ? countLines(dir) : null;
+        if ("async".equals(mode)) {
+            moveBehindAsync();
+        }
+        final String message = "x".repeat(Math.max(0, size - 3)) + " {}";
+
+        final List<Producer> producers = new ArrayList<>();
+        final CountDownLatch ready = new CountDownLatch(threads);
+        final CountDownLatch go = new CountDownLatch(1);
+        final List<Thread> producerThreads = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            final Producer producer = new Producer(logger, message, i);
+            producers.add(producer);
+            final Thread thread = new Thread(() -> {
+                ready.countDown();
+                try {
+                    go.await();
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                producer.run();
+            }, "producer-" + i);
+            producerThreads.add(thread);
+            thread.start();
+        }
+        ready.await();
+        final long start = System.nanoTime();
+        final long measureStart = start + warmupSeconds * 1_000_000_000L;
+        final long end = measureStart + durationSeconds * 1_000_000_000L;
+        for (final Producer producer : producers) {
+            producer.start = start;
+            producer.measureStart = measureStart;
+            producer.end = end;
+        }
+        go.countDown();
+        final Reloader reloader = new Reloader(end);
+        if (reloadMillis > 0) {
+            reloader.start();
+        }
+        for (final Thread thread : producerThreads) {
+            thread.join();
+        }
+        reloader.join();
+        // the events still queued by the async mode are written before the report
+        LogManager.shutdown();
+
+        final LatencyHistogram service = new LatencyHistogram();
+        final LatencyHistogram response = new LatencyHistogram();
+        final long[] levelCounts = new long[LEVELS.length];
+        for (final Producer producer : producers) {
+            service.add(producer.service);
+            response.add(producer.response);
+            for (int i = 0; i < LEVELS.length; i++) {
+                levelCounts[i] += producer.levelCounts[i];
+            }
+        }
+        out.printf(Locale.ROOT, "mode %s, %d threads, mix %s, %d bytes, rate %s%n", mode, threads, mix, size,
+                rate > 0 ? rate + "/s per thread" : "unbounded");
+        out.printf(Locale.ROOT, "%d calls in %d s, %.0f calls/s%n", service.getCount(), durationSeconds,
+                service.getCount() / (double) durationSeconds);
+        final StringBuilder logged = new StringBuilder("logged, warm-up included:");
+        for (int i = 0; i < LEVELS.length; i++) {
+            logged.append(' ').append(LEVELS[i].name()).append('=').append(levelCounts[i]);
+        }
+        out.println(logged);
+        if (reloadMillis > 0) {
+            out.printf(Locale.ROOT, "%d reloads%n", reloader.reloads);
+        }
+        out.printf(Locale.ROOT, "%-8s %14s %14s%n", "us", "service", "response");
+        for (final double percentile : PERCENTILES) {
+            out.printf(Locale.ROOT, "%-8s %14.1f %14.1f%n", "p" + format(percentile),
+                    service.getValueAtPercentile(percentile) / 1000.0,
+                    response.getValueAtPercentile(percentile) / 1000.0);
+        }
+        out.printf(Locale.ROOT, "%-8s %14.1f %14.1f%n", "max", service.getMax() / 1000.0, response.getMax() / 1000.0);
+        return before == null || check(out, levelCounts, before, countLines(dir));
+    }
+
+    /**
+     * Compares the lines written to each level file during the run to the
+     * events logged at its level and above.
+     *
+     * @return False if an event is missing or written twice.
+     */
+    private static boolean check(final PrintStream out, final long[] levelCounts, final long[][] before,
+            final long[][] after) {
+        boolean ok = true;
+        for (int file = 0; file < LEVELS.length; file++) {
+            final StringBuilder line = new StringBuilder(String.format(Locale.ROOT, "%-9s",
+                    LEVELS[file].name().toLowerCase(Locale.ROOT) + ":"));
+            for (int level = 0; level <= file; level++) {
+                final long written = after[file][level] - before[file][level];
+                line.append(' ').append(LEVELS[level].name()).append('=').append(written);
+                if (written != levelCounts[level]) {
+                    line.append(written < levelCounts[level] ? " (lost " : " (duplicated ")
+                            .append(Math.abs(written - levelCounts[level])).append(')');
+                    ok = false;
+                }
+            }
+            out.println(line);
+        }
+        out.println(ok ? "no event lost or duplicated" : "FAILED");
+        return ok;
+    }
+
+    /**
+     * Counts the lines of this test in the level files and their archives.
+     *
+     * @return The number of lines per level, per level file.
+     */
+    private static long[][] countLines(final Path dir) throws IOException {
+        final long[][] counts = new long[LEVELS.length][LEVELS.length];
+        if (!Files.isDirectory(dir)) {
+            return counts;
+        }
+        for (int file = 0; file < LEVELS.length; file++) {
+            final String name = LEVELS[file].name().toLowerCase(Locale.ROOT);
+            try (DirectoryStream<Path> paths = Files.newDirectoryStream(dir, name + "{.log,.log.gz,-*.log.gz}")) {
+                for (final Path path : paths) {
+                    countLines(path, counts[file]);
+                }
+            }
+        }
+        return counts;
+    }
+
+    private static void countLines(final Path path, final long[] counts) throws IOException {
+        try (InputStream file = Files.newInputStream(path);
+                BufferedReader reader = new BufferedReader(new InputStreamReader(
+                        path.toString().endsWith(".gz") ? new GZIPInputStream(file) : file,
+                        StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                // date time thread level logger method -> message
+                final String[] fields = line.split(" ", 6);
+                if (fields.length < 6 || !LOGGER.equals(fields[4])) {
+                    continue;
+                }
+                for (int level = 0; level < LEVELS.length; level++) {
+                    if (LEVELS[level].name().equals(fields[3])) {
+                        counts[level]++;
+                    }
+                }
+            }
+        }
+    }
+
+    private static String format(final double percentile) {
+        return percentile == Math.rint(percentile) ? Long.toString((long) percentile) : Double.toString(percentile);
+    }
+
+    /**
+     * Replaces the appenders of the root logger by an {@code Async} appender
+     * calling them with the same levels.
+     */
+    private static void moveBehindAsync() {
+        final LoggerContext context = (LoggerContext) LogManager.getContext(false);
+        final Configuration config = context.getConfiguration();
+        final LoggerConfig root = config.getRootLogger();
+        final List<AppenderRef> refs = root.getAppenderRefs();
+        if (refs.isEmpty()) {
+            throw new IllegalStateException("The async mode needs the appender refs of log4j2.xml");
+        }
+        // the setters return the raw builder: the generic one is called on a typed reference
+        final AsyncAppender.Builder<?> builder = AsyncAppender.newBuilder();
+        builder.setBlockingQueueFactory(LevelLanesQueueFactory.createFactory(null));
+        final Appender async = builder.setName("stress_async").setAppenderRefs(refs.toArray(new AppenderRef[0]))
+                .setConfiguration(config).build();
+        async.start();
+        config.addAppender(async);
+        for (final String name : new ArrayList<>(root.getAppenders().keySet())) {
+            root.removeAppender(name);
+        }
+        root.addAppender(async, null, null);
+        context.updateLoggers();
+    }
+
+    /**
+     * Reconfigures the logger context every {@code --reload} milliseconds while
+     * the producers log: the next configuration is built on this thread, the
+     * events in flight complete on the previous one before it stops.
+     */
+    private final class Reloader extends Thread {
+        private final long end;
+        private int reloads;
+
+        private Reloader(final long end) {
+            super("stress-reload");
+            this.end = end;
+        }
+
+        @Override
+        public void run() {
+            final LoggerContext context = (LoggerContext) LogManager.getContext(false);
+            while (System.nanoTime() + reloadMillis * 1_000_000 < end) {
+                LockSupport.parkNanos(reloadMillis * 1_000_000);
+                context.reconfigure();
+                reloads++;
+            }
+        }
+    }
+
+    private final class Producer implements Runnable {
+        private final MyLogger logger;
+        private final String message;
+        private final SplittableRandom random;
+        private final int totalWeight;
+        private final LatencyHistogram service = new LatencyHistogram();
+        private final LatencyHistogram response = new LatencyHistogram();
+        private final long[] levelCounts = new long[LEVELS.length];
+        private long start;
+        private long measureStart;
+        private long end;
+
+        private Producer(final MyLogger logger, final String message, final int seed) {
+            this.logger = logger;
+            this.message = message;
+            this.random = new SplittableRandom(seed);
+            int total = 0;
+            for (final int weight : weights) {
+                total += weight;
+            }
+            this.totalWeight = total;
+        }
+
+        @Override
+        public void run() {
+            final long interval = rate > 0 ? 1_000_000_000L / rate : 0;
+            long scheduled = start;
+            long sequence = 0;
+            while (true) {
+                long now = System.nanoTime();
+                if (interval > 0) {
+                    while (now < scheduled) {
+                        // parking overshoots by tens of microseconds, the end of the wait spins
+                        if (scheduled - now > SPIN_NANOS) {
+                            LockSupport.parkNanos(scheduled - now - SPIN_NANOS);
+                        } else {
+                            Thread.onSpinWait();
+                        }
+                        now = System.nanoTime();
+                    }
+                } else {
+                    scheduled = now;
+                }
+                if (now >= end) {
+                    return;
+                }
+                final int level = nextLevel();
+                log(level, sequence++);
+                levelCounts[level]++;
+                final long after = System.nanoTime();
+                if (now >= measureStart) {
+                    service.record(after - now);
+                    response.record(after - scheduled);
+                }
+                scheduled += interval;
+            }
+        }
+
+        private int nextLevel() {
+            int pick = random.nextInt(totalWeight);
+            for (int i = 0; i < weights.length; i++) {
+                pick -= weights[i];
+                if (pick < 0) {
+                    return i;
+                }
+            }
+            return weights.length - 1;
+        }
+
+        private void log(final int level, final long sequence) {
+            switch (level) {
+            case 0:
+                logger.fatal(message, sequence);
+                break;
+            case 1:
+                logger.error(message, sequence);
+                break;
+            case 2:
+                logger.warn(message, sequence);
+                break;
+            case 3:
+                logger.info(message, sequence);
+                break;
+            case 4:
+                logger.debug(message, sequence);
+                break;
+            default:
+                logger.function(message, sequence);
+            }
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package fr.phenix333.logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.appender.AbstractAppender;
+import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.config.LoggerConfig;
+import org.apache.logging.log4j.core.config.Property;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Run by the {@code backtrace} execution of Surefire, with
+ * {@code fr.phenix333.logger.backtrace.size} set.
+ */
+class BacktraceTest {
+    private static final String NAME = "backtrace.test";
+    private static final List<String> EVENTS = new ArrayList<>();
+
+    private static AbstractAppender appender;
+    private static MyLogger logger;
+
+    @BeforeAll
+    static void capture() {
+        final LoggerContext context = (LoggerContext) LogManager.getContext(false);
+        final Configuration config = context.getConfiguration();
+        appender = new AbstractAppender("backtrace", null, null, true, Property.EMPTY_ARRAY) {
+            @Override
+            public void append(final LogEvent event) {
+                EVENTS.add(event.getLevel() + " " + event.getMessage().getFormattedMessage());
+            }
+        };
+        appender.start();
+        config.addAppender(appender);
+        final LoggerConfig.Builder<?> builder = LoggerConfig.newBuilder();
+        final LoggerConfig loggerConfig = builder.withLoggerName(NAME).withLevel(Level.WARN).withAdditivity(false)
+                .withConfig(config).build();
+        loggerConfig.addAppender(appender, null, null);
+        config.addLogger(NAME, loggerConfig);
+        context.updateLoggers();
+        logger = MyLogger.create(NAME);
+    }
+
+    @AfterAll
+    static void release() {
+        final LoggerContext context = (LoggerContext) LogManager.getContext(false);
+        context.getConfiguration().removeLogger(NAME);
+        context.updateLoggers();
+        appender.stop();
+    }
+
+    @BeforeEach
+    void clear() {
+        EVENTS.clear();
+    }
+
+    @Test
+    void errorKeepsItsTextAfterTheFlush() {
+        logger.debug("rdebug");
+        logger.function("rfunction {}", 1);
+        logger.error("the real error");
+        assertEquals(List.of("DEBUG rdebug", "FUNCTION rfunction 1", "ERROR the real error"), EVENTS);
+    }
+
+    @Test
+    void builderAndParameterizedErrorsKeepTheirTextAfterTheFlush() {
+        logger.debug("rdebug {}", "p");
+        logger.error("the real error {}", 42);
+        logger.debug(() -> "rsupplier");
+        logger.atFatal().with("key", "value").log("the real fatal {}", 43);
+        logger.debug("rdebug");
+        logger.atError().log("the builder error");
+        assertEquals(List.of("DEBUG rdebug p", "ERROR the real error 42", "DEBUG rsupplier",
+                "FATAL the real fatal 43 key=value", "DEBUG rdebug", "ERROR the builder error"), EVENTS);
+    }
+}
@@ -0,0 +1,80 @@
+package fr.phenix333.logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.core.Appender;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.appender.AbstractAppender;
+import org.apache.logging.log4j.core.appender.AsyncAppender;
+import org.apache.logging.log4j.core.config.AppenderRef;
+import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.config.LoggerConfig;
+import org.apache.logging.log4j.core.config.Property;
+import org.junit.jupiter.api.Test;
+
+import fr.phenix333.logger.async.LevelLanesQueueFactory;
+
+class DefaultLogBuilderTest {
+    private static final String NAME = "builder.async";
+    private static final int EVENTS = 20_000;
+
+    /**
+     * The events are formatted by the thread of the {@code Async} appender,
+     * after the logging thread has reused its messages for the next calls.
+     */
+    @Test
+    void asyncAppenderFormatsTheMessagesOfTheBuilder() {
+        final ConcurrentLinkedQueue<String> formatted = new ConcurrentLinkedQueue<>();
+        final LoggerContext context = (LoggerContext) LogManager.getContext(false);
+        final Configuration config = context.getConfiguration();
+        final Appender capture = new AbstractAppender("builder_capture", null, null, true, Property.EMPTY_ARRAY) {
+            @Override
+            public void append(final LogEvent event) {
+                formatted.add(event.getMessage().getFormattedMessage());
+            }
+        };
+        capture.start();
+        config.addAppender(capture);
+        final AsyncAppender.Builder<?> asyncBuilder = AsyncAppender.newBuilder();
+        asyncBuilder.setBlockingQueueFactory(LevelLanesQueueFactory.createFactory(null));
+        final AsyncAppender async = asyncBuilder.setName("builder_async").setBufferSize(EVENTS * 2)
+                .setAppenderRefs(new AppenderRef[] { AppenderRef.createAppenderRef("builder_capture", null, null) })
+                .setConfiguration(config).build();
+        async.start();
+        config.addAppender(async);
+        final LoggerConfig.Builder<?> loggerBuilder = LoggerConfig.newBuilder();
+        final LoggerConfig loggerConfig = loggerBuilder.withLoggerName(NAME).withLevel(Level.ALL)
+                .withAdditivity(false).withConfig(config).build();
+        loggerConfig.addAppender(async, null, null);
+        config.addLogger(NAME, loggerConfig);
+        context.updateLoggers();
+        try {
+            final MyLogger logger = MyLogger.create(NAME);
+            final List<String> expected = new ArrayList<>();
+            for (int i = 0; i < EVENTS / 4; i++) {
+                logger.atWarn().with("i", i).log("string " + i);
+                logger.atWarn().with("i", i).log("parameterized {}", i);
+                logger.atWarn().log("plain {}", i);
+                logger.atWarn().log("plain string " + i);
+                expected.add("string " + i + " i=" + i);
+                expected.add("parameterized " + i + " i=" + i);
+                expected.add("plain " + i);
+                expected.add("plain string " + i);
+            }
+            async.stop();
+            assertEquals(expected, new ArrayList<>(formatted));
+        } finally {
+            config.removeLogger(NAME);
+            context.updateLoggers();
+            async.stop();
+            capture.stop();
+        }
+    }
+}
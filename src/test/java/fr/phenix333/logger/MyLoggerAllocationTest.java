@@ -0,0 +1,267 @@
+package fr.phenix333.logger;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.MarkerManager;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.config.Configurator;
+import org.apache.logging.log4j.core.config.LoggerConfig;
+import org.apache.logging.log4j.message.Message;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.apache.logging.log4j.util.MessageSupplier;
+import org.apache.logging.log4j.util.Supplier;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+/**
+ * Allocation budgets of the {@link MyLogger} overload families: each method of
+ * each level is called on a logger where it is disabled and on one where it is
+ * enabled, and the bytes allocated per call by the calling thread are compared
+ * to the budget of its family.
+ * <p>
+ * The enabled calls are written by the file appenders of {@code log4j2.xml},
+ * into the directory set by the build, their budget includes the location
+ * computed for {@code %M}. The console is left out, its output would flood
+ * the build.
+ */
+class MyLoggerAllocationTest {
+    private static final int WARMUP_CALLS = 2_000;
+    private static final int CALLS = 1_000;
+    private static final int DISABLED_WARMUP_CALLS = 50_000;
+    private static final int DISABLED_CALLS = 20_000;
+
+    private static final String MESSAGE = "Allocation check";
+    private static final String PARAMETERIZED = "Allocation check {} {}";
+    private static final String P0 = "p0";
+    private static final String P1 = "p1";
+    private static final Throwable THROWABLE = new IllegalStateException("Allocation check");
+    private static final Message SIMPLE_MESSAGE = new SimpleMessage(MESSAGE);
+    private static final Marker MARKER = MarkerManager.getMarker("ALLOCATION");
+    private static final Supplier<String> SUPPLIER = () -> MESSAGE;
+    private static final MessageSupplier MESSAGE_SUPPLIER = () -> SIMPLE_MESSAGE;
+    private static final String SILENT = "allocation.silent";
+    private static final String[] LEVELS = { "fatal", "error", "warn", "info", "debug", "function" };
+
+    private static final com.sun.management.ThreadMXBean THREADS = (com.sun.management.ThreadMXBean) ManagementFactory
+            .getThreadMXBean();
+
+    private static MyLogger disabled;
+    private static MyLogger enabled;
+
+    @BeforeAll
+    static void warmUp() {
+        final LoggerContext context = (LoggerContext) LogManager.getContext(false);
+        context.getConfiguration().getRootLogger().removeAppender("STDOUT");
+        context.updateLoggers();
+        Configurator.setLevel("allocation.disabled", Level.OFF);
+        disabled = MyLogger.create("allocation.disabled");
+        // under fr.phenix333, every level is enabled
+        enabled = MyLogger.create(MyLoggerAllocationTest.class);
+        // the first rounds let the JIT compile the logging paths
+        for (final Family family : families()) {
+            measure(disabled, family, DISABLED_WARMUP_CALLS);
+            measure(enabled, family, WARMUP_CALLS);
+        }
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("families")
+    void disabledCallStaysInBudget(final Family family) {
+        final long bytes = measure(disabled, family, DISABLED_CALLS);
+        assertTrue(bytes <= family.disabledBudget,
+                family + " disabled allocates " + bytes + " bytes per call, budget " + family.disabledBudget);
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("families")
+    void enabledCallStaysInBudget(final Family family) {
+        final long bytes = measure(enabled, family, CALLS);
+        assertTrue(bytes <= family.enabledBudget,
+                family + " enabled allocates " + bytes + " bytes per call, budget " + family.enabledBudget);
+    }
+
+    /**
+     * The builder hands the reusable message of the thread back once logged:
+     * a logger without appender, where the overload only allocates its
+     * varargs, does not allocate more with the builder.
+     */
+    @Test
+    void builderReleasesTheReusableMessage() {
+        final LoggerContext context = (LoggerContext) LogManager.getContext(false);
+        final Configuration config = context.getConfiguration();
+        final LoggerConfig.Builder<?> builder = LoggerConfig.newBuilder();
+        config.addLogger(SILENT, builder.withLoggerName(SILENT).withLevel(Level.ALL).withAdditivity(false)
+                .withConfig(config).build());
+        context.updateLoggers();
+        final MyLogger silent = MyLogger.create(SILENT);
+        final Family overload = new Family("warn(String, Object, Object)", 0, 0,
+                l -> l.warn(PARAMETERIZED, P0, P1));
+        final Family chain = new Family("atWarn().log(String, Object, Object)", 0, 0,
+                l -> l.atWarn().log(PARAMETERIZED, P0, P1));
+        measure(silent, chain, DISABLED_WARMUP_CALLS);
+        measure(silent, overload, DISABLED_WARMUP_CALLS);
+        final long overloadBytes = measure(silent, overload, DISABLED_CALLS);
+        final long chainBytes = measure(silent, chain, DISABLED_CALLS);
+        assertTrue(overloadBytes <= 32 && chainBytes <= 32,
+                "without appender, the overload allocates " + overloadBytes + " bytes per call, the builder "
+                        + chainBytes);
+    }
+
+    private static long measure(final MyLogger logger, final Family family, final int calls) {
+        final long before = THREADS.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < calls; i++) {
+            family.call.accept(logger);
+        }
+        return (THREADS.getCurrentThreadAllocatedBytes() - before) / calls;
+    }
+
+    /**
+     * Budgets in bytes per call, disabled then enabled. A disabled call must not
+     * allocate, except the array of the varargs which the JIT may not eliminate.
+     * The enabled budgets leave about 25% over the measured cost, an event with
+     * a throwable costs more per file it is written to.
+     */
+    static List<Family> families() {
+        final List<Family> families = new ArrayList<>();
+        family(families, "(String)", 0, 5120, List.<Call1<String>>of(MyLogger::fatal, MyLogger::error,
+                MyLogger::warn, MyLogger::info, MyLogger::debug, MyLogger::function), (m, l) -> m.call(l, MESSAGE));
+        family(families, "(String, Object...)", 32, 5120, List.<Call2<String, Object[]>>of(MyLogger::fatal,
+                MyLogger::error, MyLogger::warn, MyLogger::info, MyLogger::debug, MyLogger::function),
+                (m, l) -> m.call(l, PARAMETERIZED, new Object[] { P0, P1 }));
+        family(families, "(String, Throwable)", 0, 6144, List.<Call2<String, Throwable>>of(MyLogger::fatal,
+                MyLogger::error, MyLogger::warn, MyLogger::info, MyLogger::debug, MyLogger::function),
+                (m, l) -> m.call(l, MESSAGE, THROWABLE));
+        family(families, "(String, Supplier...)", 32, 5120, List.<Call2<String, Supplier<?>[]>>of(MyLogger::fatal,
+                MyLogger::error, MyLogger::warn, MyLogger::info, MyLogger::debug, MyLogger::function),
+                (m, l) -> m.call(l, PARAMETERIZED, new Supplier<?>[] { SUPPLIER, SUPPLIER }));
+        family(families, "(Object)", 0, 5120, List.<Call1<Object>>of(MyLogger::fatal, MyLogger::error,
+                MyLogger::warn, MyLogger::info, MyLogger::debug, MyLogger::function), (m, l) -> m.call(l, MESSAGE));
+        family(families, "(Object, Throwable)", 0, 6144, List.<Call2<Object, Throwable>>of(MyLogger::fatal,
+                MyLogger::error, MyLogger::warn, MyLogger::info, MyLogger::debug, MyLogger::function),
+                (m, l) -> m.call(l, MESSAGE, THROWABLE));
+        family(families, "(Message)", 0, 5120, List.<Call1<Message>>of(MyLogger::fatal, MyLogger::error,
+                MyLogger::warn, MyLogger::info, MyLogger::debug, MyLogger::function),
+                (m, l) -> m.call(l, SIMPLE_MESSAGE));
+        family(families, "(Message, Throwable)", 0, 6144, List.<Call2<Message, Throwable>>of(MyLogger::fatal,
+                MyLogger::error, MyLogger::warn, MyLogger::info, MyLogger::debug, MyLogger::function),
+                (m, l) -> m.call(l, SIMPLE_MESSAGE, THROWABLE));
+        family(families, "(Supplier)", 0, 5120, List.<Call1<Supplier<?>>>of(MyLogger::fatal, MyLogger::error,
+                MyLogger::warn, MyLogger::info, MyLogger::debug, MyLogger::function), (m, l) -> m.call(l, SUPPLIER));
+        family(families, "(Supplier, Throwable)", 0, 6144, List.<Call2<Supplier<?>, Throwable>>of(MyLogger::fatal,
+                MyLogger::error, MyLogger::warn, MyLogger::info, MyLogger::debug, MyLogger::function),
+                (m, l) -> m.call(l, SUPPLIER, THROWABLE));
+        family(families, "(MessageSupplier)", 0, 5120, List.<Call1<MessageSupplier>>of(MyLogger::fatal,
+                MyLogger::error, MyLogger::warn, MyLogger::info, MyLogger::debug, MyLogger::function),
+                (m, l) -> m.call(l, MESSAGE_SUPPLIER));
+        family(families, "(MessageSupplier, Throwable)", 0, 6144, List.<Call2<MessageSupplier, Throwable>>of(
+                MyLogger::fatal, MyLogger::error, MyLogger::warn, MyLogger::info, MyLogger::debug,
+                MyLogger::function), (m, l) -> m.call(l, MESSAGE_SUPPLIER, THROWABLE));
+        family(families, "(Marker, String)", 0, 5120, List.<Call2<Marker, String>>of(MyLogger::fatal,
+                MyLogger::error, MyLogger::warn, MyLogger::info, MyLogger::debug, MyLogger::function),
+                (m, l) -> m.call(l, MARKER, MESSAGE));
+        family(families, "(Marker, String, Object...)", 32, 5120, List.<Call3<Marker, String, Object[]>>of(
+                MyLogger::fatal, MyLogger::error, MyLogger::warn, MyLogger::info, MyLogger::debug,
+                MyLogger::function), (m, l) -> m.call(l, MARKER, PARAMETERIZED, new Object[] { P0, P1 }));
+        family(families, "(Marker, String, Throwable)", 0, 6144, List.<Call3<Marker, String, Throwable>>of(
+                MyLogger::fatal, MyLogger::error, MyLogger::warn, MyLogger::info, MyLogger::debug,
+                MyLogger::function), (m, l) -> m.call(l, MARKER, MESSAGE, THROWABLE));
+        family(families, "(Marker, String, Supplier...)", 32, 5120, List.<Call3<Marker, String, Supplier<?>[]>>of(
+                MyLogger::fatal, MyLogger::error, MyLogger::warn, MyLogger::info, MyLogger::debug,
+                MyLogger::function),
+                (m, l) -> m.call(l, MARKER, PARAMETERIZED, new Supplier<?>[] { SUPPLIER, SUPPLIER }));
+        family(families, "(Marker, Object)", 0, 5120, List.<Call2<Marker, Object>>of(MyLogger::fatal,
+                MyLogger::error, MyLogger::warn, MyLogger::info, MyLogger::debug, MyLogger::function),
+                (m, l) -> m.call(l, MARKER, MESSAGE));
+        family(families, "(Marker, Object, Throwable)", 0, 6144, List.<Call3<Marker, Object, Throwable>>of(
+                MyLogger::fatal, MyLogger::error, MyLogger::warn, MyLogger::info, MyLogger::debug,
+                MyLogger::function), (m, l) -> m.call(l, MARKER, MESSAGE, THROWABLE));
+        family(families, "(Marker, Message)", 0, 5120, List.<Call2<Marker, Message>>of(MyLogger::fatal,
+                MyLogger::error, MyLogger::warn, MyLogger::info, MyLogger::debug, MyLogger::function),
+                (m, l) -> m.call(l, MARKER, SIMPLE_MESSAGE));
+        family(families, "(Marker, Message, Throwable)", 0, 6144, List.<Call3<Marker, Message, Throwable>>of(
+                MyLogger::fatal, MyLogger::error, MyLogger::warn, MyLogger::info, MyLogger::debug,
+                MyLogger::function), (m, l) -> m.call(l, MARKER, SIMPLE_MESSAGE, THROWABLE));
+        family(families, "(Marker, Supplier)", 0, 5120, List.<Call2<Marker, Supplier<?>>>of(MyLogger::fatal,
+                MyLogger::error, MyLogger::warn, MyLogger::info, MyLogger::debug, MyLogger::function),
+                (m, l) -> m.call(l, MARKER, SUPPLIER));
+        family(families, "(Marker, Supplier, Throwable)", 0, 6144, List.<Call3<Marker, Supplier<?>, Throwable>>of(
+                MyLogger::fatal, MyLogger::error, MyLogger::warn, MyLogger::info, MyLogger::debug,
+                MyLogger::function), (m, l) -> m.call(l, MARKER, SUPPLIER, THROWABLE));
+        family(families, "(Marker, MessageSupplier)", 0, 5120, List.<Call2<Marker, MessageSupplier>>of(
+                MyLogger::fatal, MyLogger::error, MyLogger::warn, MyLogger::info, MyLogger::debug,
+                MyLogger::function), (m, l) -> m.call(l, MARKER, MESSAGE_SUPPLIER));
+        family(families, "(Marker, MessageSupplier, Throwable)", 0, 6144,
+                List.<Call3<Marker, MessageSupplier, Throwable>>of(MyLogger::fatal, MyLogger::error,
+                        MyLogger::warn, MyLogger::info, MyLogger::debug, MyLogger::function),
+                (m, l) -> m.call(l, MARKER, MESSAGE_SUPPLIER, THROWABLE));
+        family(families, "().with().log()", 0, 5120, List.<Function<MyLogger, MyLogBuilder>>of(MyLogger::atFatal,
+                MyLogger::atError, MyLogger::atWarn, MyLogger::atInfo, MyLogger::atDebug, MyLogger::atFunction),
+                (m, l) -> m.apply(l).with("key", P0).log(MESSAGE));
+        family(families, "().log(String, Object, Object)", 0, 5120, List.<Function<MyLogger, MyLogBuilder>>of(
+                MyLogger::atFatal, MyLogger::atError, MyLogger::atWarn, MyLogger::atInfo, MyLogger::atDebug,
+                MyLogger::atFunction), (m, l) -> m.apply(l).log(PARAMETERIZED, P0, P1));
+        return families;
+    }
+
+    /**
+     * Adds the family of a signature, one method per level in the order of
+     * {@link #LEVELS}.
+     */
+    private static <M> void family(final List<Family> families, final String signature,
+            final long disabledBudget, final long enabledBudget, final List<M> methods,
+            final BiConsumer<M, MyLogger> call) {
+        for (int i = 0; i < LEVELS.length; i++) {
+            final M method = methods.get(i);
+            families.add(new Family(LEVELS[i] + signature, disabledBudget, enabledBudget,
+                    logger -> call.accept(method, logger)));
+        }
+    }
+
+    @FunctionalInterface
+    interface Call1<A> {
+        void call(MyLogger logger, A a);
+    }
+
+    @FunctionalInterface
+    interface Call2<A, B> {
+        void call(MyLogger logger, A a, B b);
+    }
+
+    @FunctionalInterface
+    interface Call3<A, B, C> {
+        void call(MyLogger logger, A a, B b, C c);
+    }
+
+    static final class Family {
+        private final String name;
+        private final long disabledBudget;
+        private final long enabledBudget;
+        private final Consumer<MyLogger> call;
+
+        private Family(final String name, final long disabledBudget, final long enabledBudget,
+                final Consumer<MyLogger> call) {
+            this.name = name;
+            this.disabledBudget = disabledBudget;
+            this.enabledBudget = enabledBudget;
+            this.call = call;
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package fr.phenix333.logger.appender;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.zip.GZIPInputStream;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.appender.rolling.SizeBasedTriggeringPolicy;
+import org.apache.logging.log4j.core.config.DefaultConfiguration;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.core.layout.PatternLayout;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.junit.jupiter.api.Test;
+
+class CompressedRollingFileAppenderTest {
+    private static final Path DIR = Paths.get(System.getProperty("fr.phenix333.logger.dir", "Logs"), "compressed");
+
+    /**
+     * @return The text of the file, up to its last flush.
+     */
+    private static String read(final Path file) throws IOException {
+        final ByteArrayOutputStream text = new ByteArrayOutputStream();
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(file))) {
+            final byte[] buffer = new byte[4096];
+            int count;
+            while ((count = in.read(buffer)) >= 0) {
+                text.write(buffer, 0, count);
+            }
+        } catch (final EOFException e) {
+            // the last member has no trailer yet
+        }
+        return text.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void quietFileIsFlushedAfterTheInterval() throws IOException, InterruptedException {
+        final Path file = DIR.resolve("quiet.log.gz");
+        Files.deleteIfExists(file);
+        final DefaultConfiguration config = new DefaultConfiguration();
+        final CompressedRollingFileAppender appender = CompressedRollingFileAppender.newBuilder().setName("quiet")
+                .setFileName(file.toString()).setFilePattern(DIR + "/quiet-%i.log.gz").setFlushIntervalMillis(100)
+                .setPolicy(SizeBasedTriggeringPolicy.createPolicy("20MB"))
+                .setLayout(PatternLayout.newBuilder().withPattern("%m%n").withConfiguration(config).build())
+                .setConfiguration(config).build();
+        appender.start();
+        try {
+            appender.append(Log4jLogEvent.newBuilder().setLevel(Level.DEBUG).setMessage(new SimpleMessage("quiet"))
+                    .build());
+            // the event stays in the buffer of 8 KB, until the flush thread writes it
+            final long deadline = System.nanoTime() + 5_000_000_000L;
+            while (read(file).isEmpty() && System.nanoTime() < deadline) {
+                Thread.sleep(20);
+            }
+            assertEquals("quiet\n", read(file));
+        } finally {
+            appender.stop();
+        }
+        assertEquals("quiet\n", read(file));
+    }
+
+    @Test
+    void fileLeftByAnUncleanExitIsAppendedTo() throws IOException {
+        final Path file = uncleanFile("unclean", 0);
+        append(file, "after");
+        assertEquals(lines(0, 100) + "after\n", read(file));
+    }
+
+    @Test
+    void fileTornInAWriteKeepsItsCompleteLines() throws IOException {
+        final Path file = uncleanFile("torn", 5);
+        append(file, "after");
+        final String text = read(file);
+        assertTrue(text.endsWith("\nafter\n"), text);
+        assertTrue(lines(0, 100).startsWith(text.substring(0, text.length() - "after\n".length())), text);
+    }
+
+    /**
+     * Writes 100 lines in members of 500 bytes, flushes them and exits
+     * without finishing the last member.
+     *
+     * @param cut the bytes removed from the end, as by a write torn by the
+     *            exit.
+     */
+    private static Path uncleanFile(final String name, final int cut) throws IOException {
+        Files.createDirectories(DIR);
+        final Path file = DIR.resolve(name + ".log.gz");
+        Files.deleteIfExists(file);
+        final FileOutputStream out = new FileOutputStream(file.toFile());
+        @SuppressWarnings("resource") // never closed, as by an unclean exit
+        final BlockGzipOutputStream gzip = new BlockGzipOutputStream(out, 0, 500);
+        gzip.write(lines(0, 100).getBytes(StandardCharsets.UTF_8));
+        gzip.flush();
+        out.close();
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            raf.setLength(raf.length() - cut);
+        }
+        return file;
+    }
+
+    private static void append(final Path file, final String message) {
+        final DefaultConfiguration config = new DefaultConfiguration();
+        final String name = file.getFileName().toString().replace(".log.gz", "");
+        final CompressedRollingFileAppender appender = CompressedRollingFileAppender.newBuilder().setName(name)
+                .setFileName(file.toString()).setFilePattern(DIR + "/" + name + "-%i.log.gz")
+                .setPolicy(SizeBasedTriggeringPolicy.createPolicy("20MB"))
+                .setLayout(PatternLayout.newBuilder().withPattern("%m%n").withConfiguration(config).build())
+                .setConfiguration(config).build();
+        appender.start();
+        appender.append(Log4jLogEvent.newBuilder().setLevel(Level.DEBUG).setMessage(new SimpleMessage(message))
+                .build());
+        appender.stop();
+    }
+
+    private static String lines(final int from, final int to) {
+        final StringBuilder text = new StringBuilder();
+        for (int i = from; i < to; i++) {
+            text.append("line ").append(i).append('\n');
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,46 @@
+package fr.phenix333.logger.appender;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.Filter;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.appender.AbstractAppender;
+import org.apache.logging.log4j.core.config.Property;
+import org.apache.logging.log4j.core.filter.ThresholdFilter;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.junit.jupiter.api.Test;
+
+class LazyAppenderTest {
+
+    private static LogEvent event(final Level level) {
+        return Log4jLogEvent.newBuilder().setLevel(level).setMessage(new SimpleMessage(level.name())).build();
+    }
+
+    @Test
+    void wrappedAppenderIsCreatedOnTheFirstEventAndKeepsItsFilter() {
+        final List<String> appended = new ArrayList<>();
+        final Filter errors = ThresholdFilter.createFilter(Level.ERROR, Filter.Result.NEUTRAL, Filter.Result.DENY);
+        final LazyAppender lazy = LazyAppender.create("lazy", null,
+                () -> new AbstractAppender("target", errors, null, true, Property.EMPTY_ARRAY) {
+                    @Override
+                    public void append(final LogEvent event) {
+                        appended.add(event.getMessage().getFormattedMessage());
+                    }
+                });
+        lazy.start();
+        assertNull(lazy.getAppender());
+
+        lazy.append(event(Level.INFO));
+        lazy.append(event(Level.ERROR));
+        lazy.append(event(Level.WARN));
+        lazy.append(event(Level.FATAL));
+        lazy.stop();
+        assertEquals(List.of("ERROR", "FATAL"), appended);
+    }
+}
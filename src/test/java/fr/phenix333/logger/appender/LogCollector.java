@@ -0,0 +1,177 @@
+package fr.phenix333.logger.appender;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.BitSet;
+
+/**
+ * Local stand-in for a log collector, receiving lines over TCP and recording
+ * the number at the start of each of them.
+ */
+final class LogCollector implements Runnable {
+    private final Selector selector;
+    private final ServerSocketChannel server;
+    private final BitSet received = new BitSet();
+    private final Thread thread;
+    private volatile boolean running = true;
+    private volatile boolean killed;
+    private long duplicates;
+
+    private LogCollector(final int port) throws IOException {
+        selector = Selector.open();
+        server = ServerSocketChannel.open();
+        server.setOption(StandardSocketOptions.SO_REUSEADDR, true);
+        server.bind(new InetSocketAddress("localhost", port));
+        server.configureBlocking(false);
+        server.register(selector, SelectionKey.OP_ACCEPT);
+        thread = new Thread(this, "collector");
+    }
+
+    /**
+     * @param port the port to listen on, 0 for any free port.
+     * @return The collector, listening.
+     */
+    static LogCollector start(final int port) throws IOException {
+        final LogCollector collector = new LogCollector(port);
+        collector.thread.start();
+        return collector;
+    }
+
+    /**
+     * @return The port the collector listens on.
+     */
+    int getPort() {
+        try {
+            return ((InetSocketAddress) server.getLocalAddress()).getPort();
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @return The numbers received.
+     */
+    synchronized BitSet getReceived() {
+        return (BitSet) received.clone();
+    }
+
+    synchronized long getDuplicates() {
+        return duplicates;
+    }
+
+    /**
+     * Stops reading and closes the connections and the port.
+     */
+    void stop() throws InterruptedException {
+        running = false;
+        selector.wakeup();
+        thread.join();
+    }
+
+    /**
+     * Stops as a killed process: the connections are reset, the bytes
+     * received but not read yet are lost.
+     */
+    void kill() throws InterruptedException {
+        killed = true;
+        stop();
+    }
+
+    /**
+     * Accepts the connections and reads the lines.
+     */
+    @Override
+    public void run() {
+        final ByteBuffer buffer = ByteBuffer.allocateDirect(256 * 1024);
+        try {
+            while (running) {
+                selector.select(100);
+                for (final SelectionKey key : selector.selectedKeys()) {
+                    if (!running) {
+                        break;
+                    }
+                    if (key.isAcceptable()) {
+                        final SocketChannel client = server.accept();
+                        if (client != null) {
+                            client.configureBlocking(false);
+                            client.register(selector, SelectionKey.OP_READ, new LineState());
+                        }
+                    } else if (key.isReadable()) {
+                        read(key, buffer);
+                    }
+                }
+                selector.selectedKeys().clear();
+            }
+        } catch (final IOException e) {
+            e.printStackTrace();
+        } finally {
+            try {
+                for (final SelectionKey key : selector.keys()) {
+                    if (killed && key.channel() instanceof SocketChannel) {
+                        ((SocketChannel) key.channel()).setOption(StandardSocketOptions.SO_LINGER, 0);
+                    }
+                    key.channel().close();
+                }
+                selector.close();
+            } catch (final IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    private void read(final SelectionKey key, final ByteBuffer buffer) throws IOException {
+        final SocketChannel client = (SocketChannel) key.channel();
+        final LineState state = (LineState) key.attachment();
+        buffer.clear();
+        final int read;
+        try {
+            read = client.read(buffer);
+        } catch (final IOException e) {
+            key.cancel();
+            client.close();
+            return;
+        }
+        if (read < 0) {
+            key.cancel();
+            client.close();
+            return;
+        }
+        buffer.flip();
+        synchronized (this) {
+            while (buffer.hasRemaining()) {
+                final byte b = buffer.get();
+                if (b == '\n') {
+                    if (state.number >= 0) {
+                        if (received.get(state.number)) {
+                            duplicates++;
+                        }
+                        received.set(state.number);
+                    }
+                    state.number = -1;
+                    state.inNumber = true;
+                } else if (state.inNumber) {
+                    if (b >= '0' && b <= '9') {
+                        state.number = Math.max(state.number, 0) * 10 + b - '0';
+                    } else {
+                        state.inNumber = false;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Parsing state of a connection, the line may continue in the next read.
+     */
+    private static final class LineState {
+        private int number = -1;
+        private boolean inNumber = true;
+    }
+}
@@ -0,0 +1,124 @@
+package fr.phenix333.logger.appender;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.util.BitSet;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.core.layout.PatternLayout;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.junit.jupiter.api.Test;
+
+class NioSocketAppenderTest {
+    private static final int EVENTS = 200_000;
+    private static final int THREADS = 4;
+    private static final String PADDING = " " + "x".repeat(100);
+    private static final long WAIT_MILLIS = 30_000;
+
+    @Test
+    void everyEventArrivesAfterAnOutage() throws IOException, InterruptedException {
+        final int port = freePort();
+        final NioSocketAppender appender = appender(port);
+        appender.start();
+        final Thread[] producers = produce(appender);
+        TimeUnit.MILLISECONDS.sleep(500);
+        final LogCollector collector = LogCollector.start(port);
+        join(producers);
+        final BitSet received = awaitAll(collector, new BitSet());
+        appender.stop();
+        collector.stop();
+
+        assertEquals(Map.of(), appender.getDropped());
+        assertEquals(EVENTS, received.cardinality());
+    }
+
+    @Test
+    void everyEventArrivesWhenTheCollectorIsKilledAndRestarted() throws IOException, InterruptedException {
+        final LogCollector first = LogCollector.start(0);
+        final int port = first.getPort();
+        final NioSocketAppender appender = appender(port);
+        appender.start();
+        final Thread[] producers = produce(appender);
+        final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(WAIT_MILLIS);
+        while (first.getReceived().cardinality() < EVENTS / 3 && System.nanoTime() < deadline) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+        first.kill();
+        TimeUnit.MILLISECONDS.sleep(300);
+        final LogCollector second = LogCollector.start(port);
+        join(producers);
+        final BitSet received = awaitAll(second, first.getReceived());
+        appender.stop();
+        second.stop();
+
+        assertEquals(Map.of(), appender.getDropped());
+        final BitSet missing = new BitSet();
+        missing.set(0, EVENTS);
+        missing.andNot(received);
+        assertEquals("{}", missing.toString(), missing.cardinality() + " events lost");
+    }
+
+    private static NioSocketAppender appender(final int port) {
+        return NioSocketAppender.newBuilder().setName("collector").setHost("localhost").setPort(port)
+                .setReconnectDelayMillis(10).setMaxReconnectDelayMillis(100)
+                .setLayout(PatternLayout.newBuilder().withPattern("%m%n").build()).build();
+    }
+
+    /**
+     * Logs the numbers from 0 to {@link #EVENTS}, from {@link #THREADS}
+     * threads.
+     */
+    private static Thread[] produce(final NioSocketAppender appender) {
+        final Thread[] producers = new Thread[THREADS];
+        for (int t = 0; t < THREADS; t++) {
+            final int first = t;
+            producers[t] = new Thread(() -> {
+                for (int sequence = first; sequence < EVENTS; sequence += THREADS) {
+                    appender.append(Log4jLogEvent.newBuilder().setLoggerName("collector").setLevel(Level.INFO)
+                            .setMessage(new SimpleMessage(sequence + PADDING)).build());
+                    if (sequence % 1000 < THREADS) {
+                        // spreads the events over the kill
+                        LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+                    }
+                }
+            }, "producer-" + t);
+            producers[t].start();
+        }
+        return producers;
+    }
+
+    private static void join(final Thread[] producers) throws InterruptedException {
+        for (final Thread producer : producers) {
+            producer.join();
+        }
+    }
+
+    /**
+     * @param previous the numbers received by the previous collectors.
+     * @return The numbers received by all the collectors, once complete or
+     *         after {@link #WAIT_MILLIS}.
+     */
+    private static BitSet awaitAll(final LogCollector collector, final BitSet previous) {
+        final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(WAIT_MILLIS);
+        while (true) {
+            final BitSet received = collector.getReceived();
+            received.or(previous);
+            if (received.cardinality() >= EVENTS || System.nanoTime() >= deadline) {
+                return received;
+            }
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+    }
+
+    private static int freePort() throws IOException, InterruptedException {
+        final LogCollector probe = LogCollector.start(0);
+        final int port = probe.getPort();
+        probe.stop();
+        return port;
+    }
+}
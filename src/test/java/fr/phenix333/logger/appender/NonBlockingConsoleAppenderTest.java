@@ -0,0 +1,162 @@
+package fr.phenix333.logger.appender;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.core.layout.PatternLayout;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.junit.jupiter.api.Test;
+
+class NonBlockingConsoleAppenderTest {
+    private static final int CAPACITY = 1000;
+    private static final int MAX_BYTES = 2000;
+    /**
+     * Each line is 100 bytes.
+     */
+    private static final String PADDING = "-".repeat(88);
+
+    /**
+     * The stdout of the tests: stalled on its first write until released.
+     */
+    private static final class StalledChannel implements WritableByteChannel {
+        private final CountDownLatch stalled = new CountDownLatch(1);
+        private final CountDownLatch released = new CountDownLatch(1);
+        private final ByteArrayOutputStream written = new ByteArrayOutputStream();
+
+        @Override
+        public int write(final ByteBuffer source) {
+            stalled.countDown();
+            try {
+                released.await();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            final byte[] bytes = new byte[source.remaining()];
+            source.get(bytes);
+            synchronized (written) {
+                written.write(bytes, 0, bytes.length);
+            }
+            return bytes.length;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+        }
+
+        private List<String> lines() {
+            synchronized (written) {
+                return List.of(new String(written.toByteArray(), StandardCharsets.UTF_8).split("\n"));
+            }
+        }
+    }
+
+    private static void log(final NonBlockingConsoleAppender appender, final Level level, final int i) {
+        final String message = String.format("%-5s %04d %s", level, i, PADDING);
+        appender.append(Log4jLogEvent.newBuilder().setLevel(level).setMessage(new SimpleMessage(message)).build());
+    }
+
+    /**
+     * Stalls the console, then logs {@code DEBUG} and {@code INFO} events up
+     * to the capacity and {@code ERROR} events up to the cap.
+     *
+     * @return The appender, its queue full of errors.
+     */
+    private static NonBlockingConsoleAppender fill(final StalledChannel channel, final long maxWaitMillis,
+            final List<String> errors) throws InterruptedException {
+        final NonBlockingConsoleAppender appender = NonBlockingConsoleAppender.newBuilder().setName("console")
+                .setLayout(PatternLayout.newBuilder().withPattern("%m%n").build()).setCapacity(CAPACITY)
+                .setMaxBytes(MAX_BYTES).setMaxWaitMillis(maxWaitMillis).setChannel(channel).build();
+        appender.start();
+        log(appender, Level.INFO, 0);
+        assertTrue(channel.stalled.await(5, TimeUnit.SECONDS));
+        errors.add(String.format("%-5s %04d %s", Level.INFO, 0, PADDING));
+
+        // DEBUG up to half the capacity, INFO up to the capacity, ERROR up to the cap
+        for (int i = 1; i <= 50; i++) {
+            log(appender, Level.DEBUG, i);
+            log(appender, Level.INFO, i);
+            assertTrue(appender.getQueuedBytes() <= CAPACITY);
+        }
+        for (int i = 1; i <= MAX_BYTES / 100; i++) {
+            log(appender, Level.ERROR, i);
+            errors.add(String.format("%-5s %04d %s", Level.ERROR, i, PADDING));
+            assertTrue(appender.getQueuedBytes() <= MAX_BYTES);
+        }
+        // the errors beyond the capacity evicted every DEBUG and INFO event
+        assertEquals(MAX_BYTES, appender.getQueuedBytes());
+        assertEquals(50L, appender.getDropped().get("DEBUG"));
+        assertEquals(50L, appender.getDropped().get("INFO"));
+        assertFalse(appender.getDropped().containsKey("ERROR"));
+        return appender;
+    }
+
+    @Test
+    void queueNeverExceedsItsCapAndErrorsWaitForTheConsole() throws InterruptedException {
+        final StalledChannel channel = new StalledChannel();
+        final List<String> errors = new ArrayList<>();
+        final NonBlockingConsoleAppender appender = fill(channel, 10_000, errors);
+
+        // only errors are left, the next one waits for the console
+        final Thread blocked = new Thread(() -> log(appender, Level.FATAL, 0), "blocked");
+        blocked.start();
+        blocked.join(300);
+        assertTrue(blocked.isAlive());
+        assertEquals(MAX_BYTES, appender.getQueuedBytes());
+
+        channel.released.countDown();
+        blocked.join(5000);
+        assertFalse(blocked.isAlive());
+        appender.stop(5, TimeUnit.SECONDS);
+
+        // the drops are reported once the queue is empty, before or after the FATAL event
+        final List<String> lines = new ArrayList<>(channel.lines());
+        assertTrue(lines.removeIf(line -> line.startsWith("console dropped 100 events, {DEBUG=50, INFO=50}")));
+        errors.add(String.format("%-5s %04d %s", Level.FATAL, 0, PADDING));
+        assertEquals(errors, lines);
+    }
+
+    @Test
+    void errorsAreDroppedAndCountedOnAStalledConsole() throws InterruptedException {
+        final StalledChannel channel = new StalledChannel();
+        final List<String> errors = new ArrayList<>();
+        final long maxWaitMillis = 200;
+        final NonBlockingConsoleAppender appender = fill(channel, maxWaitMillis, errors);
+
+        // the first error waits at most maxWaitMillis, the next ones no longer wait
+        long start = System.nanoTime();
+        log(appender, Level.FATAL, 0);
+        final long waited = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertTrue(waited >= maxWaitMillis && waited < 5000, "waited " + waited + " ms");
+        start = System.nanoTime();
+        log(appender, Level.ERROR, 0);
+        assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(maxWaitMillis));
+        assertEquals(1L, appender.getDropped().get("FATAL"));
+        assertEquals(1L, appender.getDropped().get("ERROR"));
+        assertEquals(MAX_BYTES, appender.getQueuedBytes());
+
+        channel.released.countDown();
+        appender.stop(5, TimeUnit.SECONDS);
+
+        final List<String> lines = new ArrayList<>(channel.lines());
+        assertTrue(lines.removeIf(line -> line.startsWith("console dropped 102 events, {DEBUG=50, ERROR=1, FATAL=1, "
+                + "INFO=50}")));
+        assertEquals(errors, lines);
+    }
+}
@@ -0,0 +1,160 @@
+package fr.phenix333.logger.appender;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.appender.rolling.DefaultRolloverStrategy;
+import org.apache.logging.log4j.core.appender.rolling.RollingFileManager;
+import org.apache.logging.log4j.core.appender.rolling.RolloverDescription;
+import org.apache.logging.log4j.core.appender.rolling.RolloverStrategy;
+import org.apache.logging.log4j.core.appender.rolling.SizeBasedTriggeringPolicy;
+import org.apache.logging.log4j.core.appender.rolling.action.Action;
+import org.apache.logging.log4j.core.config.DefaultConfiguration;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.core.layout.PatternLayout;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.junit.jupiter.api.Test;
+
+import fr.phenix333.logger.index.IndexArchivesAction;
+import fr.phenix333.logger.index.LogIndex;
+
+class SwappingRollingFileAppenderTest {
+    private static final Path DIR = Paths.get(System.getProperty("fr.phenix333.logger.dir", "Logs"), "swapping");
+    private static final long SLOW_ROLLOVER_MILLIS = 300;
+    private static final long MAX_APPEND_MILLIS = 100;
+
+    /**
+     * The default strategy, slowed down as by a busy disk.
+     */
+    private static final class SlowStrategy implements RolloverStrategy {
+        private final RolloverStrategy strategy;
+
+        private SlowStrategy(final RolloverStrategy strategy) {
+            this.strategy = strategy;
+        }
+
+        @Override
+        public RolloverDescription rollover(final RollingFileManager manager) {
+            try {
+                Thread.sleep(SLOW_ROLLOVER_MILLIS);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return strategy.rollover(manager);
+        }
+    }
+
+    @Test
+    void rolloverNeverHoldsTheLoggingThread() throws IOException, InterruptedException {
+        final Path dir = clean("latency");
+        assumeTrue(Files.getFileStore(dir).supportsFileAttributeView(PosixFileAttributeView.class),
+                "the open file is only renamed on a POSIX file system");
+        final DefaultConfiguration config = new DefaultConfiguration();
+        final SwappingRollingFileAppender appender = builder(config, dir, "latency")
+                .setPolicy(SizeBasedTriggeringPolicy.createPolicy("20KB"))
+                .setStrategy(new SlowStrategy(DefaultRolloverStrategy.newBuilder().withMax("1000").withConfig(config)
+                        .build()))
+                .build();
+        appender.start();
+        long maxNanos = 0;
+        final int events = 3000;
+        for (int i = 0; i < events; i++) {
+            final Log4jLogEvent event = Log4jLogEvent.newBuilder().setLevel(Level.INFO)
+                    .setMessage(new SimpleMessage(String.format("line %04d %s", i, "-".repeat(90)))).build();
+            final long start = System.nanoTime();
+            appender.append(event);
+            maxNanos = Math.max(maxNanos, System.nanoTime() - start);
+            Thread.sleep(1);
+        }
+        appender.stop();
+
+        assertTrue(maxNanos < TimeUnit.MILLISECONDS.toNanos(MAX_APPEND_MILLIS),
+                "an append waited " + TimeUnit.NANOSECONDS.toMillis(maxNanos) + " ms for a rollover of "
+                        + SLOW_ROLLOVER_MILLIS + " ms");
+        final List<Path> archives = list(dir, "latency-*.log.gz");
+        assertTrue(archives.size() >= 2, "rollovers: " + archives.size());
+        // the stop waits for the compression of every archive
+        assertEquals(List.of(), list(dir, "latency-*.log"));
+        int lines = Files.readAllLines(dir.resolve("latency.log")).size();
+        for (final Path archive : archives) {
+            lines += read(archive).split("\n").length;
+        }
+        assertEquals(events, lines);
+    }
+
+    @Test
+    void rawArchivesOfAStoppedRunAreCompressedAndIndexedOnStart() throws IOException {
+        final Path dir = clean("recover");
+        final String text = "left raw\n".repeat(100);
+        Files.writeString(dir.resolve("recover-1.log"), text);
+        Files.writeString(dir.resolve("recover-2.log"), text);
+        final DefaultConfiguration config = new DefaultConfiguration();
+        final Action index = IndexArchivesAction.createIndexArchivesAction(dir.toString(), "recover-*.log.gz",
+                IndexArchivesAction.DEFAULT_CHUNK_SIZE, config);
+        final SwappingRollingFileAppender appender = builder(config, dir, "recover")
+                .setPolicy(SizeBasedTriggeringPolicy.createPolicy("20MB"))
+                .setStrategy(DefaultRolloverStrategy.newBuilder().withCustomActions(new Action[] { index })
+                        .withConfig(config).build())
+                .build();
+        appender.start();
+        appender.stop();
+
+        assertEquals(List.of(), list(dir, "recover-*.log"));
+        for (final String name : List.of("recover-1.log.gz", "recover-2.log.gz")) {
+            assertEquals(text, read(dir.resolve(name)));
+            assertTrue(Files.isRegularFile(LogIndex.sidecarOf(dir.resolve(name))), name);
+        }
+        assertFalse(Files.exists(dir.resolve("recover.log.gz")));
+    }
+
+    private static SwappingRollingFileAppender.Builder<?> builder(final DefaultConfiguration config, final Path dir,
+            final String name) {
+        final SwappingRollingFileAppender.Builder<?> builder = SwappingRollingFileAppender.newBuilder();
+        return builder.setFileName(dir.resolve(name + ".log").toString())
+                .setFilePattern(dir + "/" + name + "-%i.log.gz").setName(name)
+                .setLayout(PatternLayout.newBuilder().withPattern("%m%n").withConfiguration(config).build())
+                .setConfiguration(config);
+    }
+
+    private static Path clean(final String name) throws IOException {
+        final Path dir = DIR.resolve(name);
+        Files.createDirectories(dir);
+        try (Stream<Path> files = Files.list(dir)) {
+            for (final Path file : (Iterable<Path>) files::iterator) {
+                Files.delete(file);
+            }
+        }
+        return dir;
+    }
+
+    private static List<Path> list(final Path dir, final String glob) throws IOException {
+        final List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, glob)) {
+            stream.forEach(files::add);
+        }
+        return files;
+    }
+
+    private static String read(final Path file) throws IOException {
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(file))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
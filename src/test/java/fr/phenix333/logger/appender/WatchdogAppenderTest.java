@@ -0,0 +1,43 @@
+package fr.phenix333.logger.appender;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.Filter;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.appender.AbstractAppender;
+import org.apache.logging.log4j.core.config.Property;
+import org.apache.logging.log4j.core.filter.ThresholdFilter;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.junit.jupiter.api.Test;
+
+class WatchdogAppenderTest {
+
+    private static LogEvent event(final Level level) {
+        return Log4jLogEvent.newBuilder().setLevel(level).setMessage(new SimpleMessage(level.name())).build();
+    }
+
+    @Test
+    void wrappedAppenderKeepsItsFilter() {
+        final List<String> appended = new ArrayList<>();
+        final Filter errors = ThresholdFilter.createFilter(Level.ERROR, Filter.Result.NEUTRAL, Filter.Result.DENY);
+        final WatchdogAppender watchdog = WatchdogAppender.create("watchdog",
+                new AbstractAppender("target", errors, null, true, Property.EMPTY_ARRAY) {
+                    @Override
+                    public void append(final LogEvent event) {
+                        appended.add(event.getMessage().getFormattedMessage());
+                    }
+                }, 100, 1000);
+        watchdog.start();
+        watchdog.append(event(Level.INFO));
+        watchdog.append(event(Level.ERROR));
+        watchdog.append(event(Level.WARN));
+        watchdog.append(event(Level.FATAL));
+        watchdog.stop();
+        assertEquals(List.of("ERROR", "FATAL"), appended);
+    }
+}
@@ -0,0 +1,132 @@
+package fr.phenix333.logger.async;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.junit.jupiter.api.Test;
+
+class LevelLanesQueueTest {
+    private static final Level FUNCTION = Level.forName("FUNCTION", 550);
+    private static final int CAPACITY = 1024;
+
+    private static BlockingQueue<LogEvent> defaultQueue() {
+        return LevelLanesQueueFactory.<LogEvent>createFactory(null).create(CAPACITY);
+    }
+
+    private static LogEvent event(final Level level, final long threadId, final String message) {
+        return Log4jLogEvent.newBuilder().setLevel(level).setThreadId(threadId)
+                .setMessage(new SimpleMessage(message)).build();
+    }
+
+    @Test
+    void defaultLastLaneIsFunctionDropOldest() {
+        final LevelLanesQueue queue = (LevelLanesQueue) defaultQueue();
+        assertEquals(List.of("ERROR", "INFO", "FUNCTION"), new ArrayList<>(queue.getDropped().keySet()));
+        for (int i = 0; i < CAPACITY + 10; i++) {
+            assertTrue(queue.offer(event(FUNCTION, 1, "function " + i)));
+        }
+        assertEquals(10L, queue.getDropped().get("FUNCTION"));
+        assertEquals("function 10", queue.poll().getMessage().getFormattedMessage());
+    }
+
+    @Test
+    void errorIsTakenBeforeTheFunctionFloodOfOtherThreads() throws InterruptedException {
+        final BlockingQueue<LogEvent> queue = defaultQueue();
+        for (int i = 0; i < 10 * CAPACITY; i++) {
+            queue.put(event(FUNCTION, 1 + i % 4, "function " + i));
+        }
+        final LogEvent error = event(Level.ERROR, 5, "error");
+        assertTrue(queue.offer(error, 0, TimeUnit.MILLISECONDS));
+        assertSame(error, queue.take());
+    }
+
+    @Test
+    void errorWaitsForTheOlderEventsOfItsThread() throws InterruptedException {
+        final BlockingQueue<LogEvent> queue = defaultQueue();
+        queue.put(event(FUNCTION, 1, "function"));
+        queue.put(event(FUNCTION, 2, "other thread"));
+        queue.put(event(Level.ERROR, 1, "error"));
+        assertEquals("function", queue.take().getMessage().getFormattedMessage());
+        assertEquals("error", queue.take().getMessage().getFormattedMessage());
+        assertEquals("other thread", queue.take().getMessage().getFormattedMessage());
+    }
+
+    /**
+     * Threads flood the queue with {@code FUNCTION} events while another one
+     * logs errors: once the put of an error has returned, no {@code FUNCTION}
+     * event is taken before that error, whatever their number.
+     */
+    @Test
+    void errorIsNeverDelayedByAConcurrentFunctionFlood() throws InterruptedException {
+        final BlockingQueue<LogEvent> queue = defaultQueue();
+        final AtomicBoolean running = new AtomicBoolean(true);
+        final List<Thread> flooders = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            final Thread flooder = new Thread(() -> {
+                final long threadId = Thread.currentThread().getId();
+                long i = 0;
+                while (running.get()) {
+                    queue.offer(event(FUNCTION, threadId, "function " + i++));
+                }
+            }, "flooder-" + t);
+            flooders.add(flooder);
+            flooder.start();
+        }
+        final int errors = 200;
+        final AtomicLong functionsTaken = new AtomicLong();
+        final long[] functionsBeforeError = new long[errors];
+        final Thread consumer = new Thread(() -> {
+            try {
+                while (true) {
+                    final LogEvent event = queue.take();
+                    if (event.getLevel() != Level.ERROR) {
+                        functionsTaken.incrementAndGet();
+                        continue;
+                    }
+                    final String message = event.getMessage().getFormattedMessage();
+                    if ("stop".equals(message)) {
+                        return;
+                    }
+                    functionsBeforeError[Integer.parseInt(message)] = functionsTaken.get();
+                }
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, "consumer");
+        consumer.start();
+
+        final long errorThreadId = Thread.currentThread().getId();
+        final long[] functionsAfterPut = new long[errors];
+        for (int i = 0; i < errors; i++) {
+            Thread.sleep(2);
+            assertTrue(queue.offer(event(Level.ERROR, errorThreadId, Integer.toString(i)), 0, TimeUnit.MILLISECONDS),
+                    "the ERROR lane blocked");
+            functionsAfterPut[i] = functionsTaken.get();
+        }
+        running.set(false);
+        for (final Thread flooder : flooders) {
+            flooder.join();
+        }
+        queue.put(event(Level.ERROR, errorThreadId, "stop"));
+        consumer.join();
+
+        assertTrue(functionsTaken.get() > 0);
+        for (int i = 0; i < errors; i++) {
+            // one FUNCTION event may have been taken before the put but not counted yet
+            assertTrue(functionsBeforeError[i] <= functionsAfterPut[i] + 1, "error " + i + " waited for "
+                    + (functionsBeforeError[i] - functionsAfterPut[i]) + " FUNCTION events once queued");
+        }
+    }
+}
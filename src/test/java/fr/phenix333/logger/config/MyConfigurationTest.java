@@ -0,0 +1,207 @@
+package fr.phenix333.logger.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.core.Appender;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.appender.AbstractOutputStreamAppender;
+import org.apache.logging.log4j.core.appender.rolling.DefaultRolloverStrategy;
+import org.apache.logging.log4j.core.appender.rolling.RollingFileManager;
+import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.config.ConfigurationSource;
+import org.apache.logging.log4j.core.config.LoggerConfig;
+import org.apache.logging.log4j.core.config.xml.XmlConfiguration;
+import org.apache.logging.log4j.core.layout.PatternLayout;
+import org.junit.jupiter.api.Test;
+
+import fr.phenix333.logger.appender.LazyAppender;
+import fr.phenix333.logger.appender.WatchdogAppender;
+
+/**
+ * Guards {@link MyConfiguration} against the drift from {@code log4j2.xml}:
+ * both are started in turn, in their own directory, with the same events, and
+ * must build the same appenders, loggers and files, with the same lines.
+ */
+class MyConfigurationTest {
+    private static final Level FUNCTION = Level.forName("FUNCTION", 550);
+    private static final Level[] LEVELS = { Level.FATAL, Level.ERROR, Level.WARN, Level.INFO, Level.DEBUG,
+            FUNCTION };
+    /**
+     * The length of the date which starts each line, different in both.
+     */
+    private static final int DATE_LENGTH = "dd-MM-yyyy HH:mm:ss,SSS ".length();
+
+    @Test
+    void codeMatchesTheXmlFile() throws IOException {
+        final String dir = System.getProperty(MyConfiguration.DIR_PROPERTY, "Logs");
+        final Path xmlDir = Paths.get(dir, "drift", "xml");
+        final Path codeDir = Paths.get(dir, "drift", "code");
+        final String xml = run(xmlDir, context -> new XmlConfiguration(context,
+                ConfigurationSource.fromResource("log4j2.xml", getClass().getClassLoader())));
+        final String code = run(codeDir, MyConfiguration::new);
+        assertEquals(xml, code);
+
+        final Map<String, List<String>> xmlFiles = read(xmlDir);
+        assertEquals(List.of("debug.log.gz", "error.log", "fatal.log", "function.log.gz", "info.log", "warn.log"),
+                new ArrayList<>(xmlFiles.keySet()));
+        assertEquals(xmlFiles, read(codeDir));
+        // the root logger is at WARN, other loggers log from WARN
+        assertTrue(xmlFiles.get("warn.log").stream().anyMatch(line -> line.contains("other WARN")));
+        assertFalse(xmlFiles.get("info.log").stream().anyMatch(line -> line.contains("other INFO")));
+    }
+
+    @Test
+    void onlyThePackagedFileIsReplaced() throws IOException {
+        final MyConfigurationFactory factory = new MyConfigurationFactory();
+        assertTrue(MyConfigurationFactory.isPackaged(null));
+        assertTrue(MyConfigurationFactory.isPackaged(ConfigurationSource
+                .fromResource("log4j2.xml", getClass().getClassLoader()).getURI()));
+        assertFalse(MyConfigurationFactory.isPackaged(Paths.get("log4j2.xml").toUri()));
+        // not selected by the property
+        assertNull(factory.getConfiguration(null, null, (URI) null));
+
+        // any other file is read by the factory of its type, as with logging.config
+        final Path file = Paths.get(System.getProperty(MyConfiguration.DIR_PROPERTY, "Logs"), "drift", "user.xml");
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, "<Configuration name=\"user\"><Loggers><Root level=\"info\" /></Loggers>"
+                + "</Configuration>");
+        final Configuration user = factory.getConfiguration(new LoggerContext("user"),
+                ConfigurationSource.fromUri(file.toUri()));
+        assertTrue(user instanceof XmlConfiguration);
+    }
+
+    /**
+     * Starts a configuration in its own context and directory, logs one event
+     * per level under {@code fr.phenix333} and outside.
+     *
+     * @return The description of the configuration, with the directory
+     *         replaced by {@code ${logDir}}.
+     */
+    private static String run(final Path dir, final Function<LoggerContext, Configuration> configuration)
+            throws IOException {
+        delete(dir);
+        final String previous = System.getProperty(MyConfiguration.DIR_PROPERTY);
+        System.setProperty(MyConfiguration.DIR_PROPERTY, dir.toString());
+        final LoggerContext context = new LoggerContext("drift");
+        try {
+            final Configuration config = configuration.apply(context);
+            context.start(config);
+            context.getConfiguration().getRootLogger().removeAppender("STDOUT");
+            context.updateLoggers();
+            final Logger logger = context.getLogger("fr.phenix333.drift");
+            final Logger other = context.getLogger("other");
+            for (final Level level : LEVELS) {
+                logger.log(level, "drift {}", level);
+                other.log(level, "other {}", level);
+            }
+            return describe(context.getConfiguration()).replace(dir.toString(), "${logDir}");
+        } finally {
+            context.stop();
+            if (previous == null) {
+                System.clearProperty(MyConfiguration.DIR_PROPERTY);
+            } else {
+                System.setProperty(MyConfiguration.DIR_PROPERTY, previous);
+            }
+        }
+    }
+
+    private static String describe(final Configuration config) {
+        final StringBuilder builder = new StringBuilder();
+        final LoggerConfig root = config.getRootLogger();
+        builder.append("root ").append(root.getLevel()).append(' ').append(root.getAppenders().keySet())
+                .append('\n');
+        for (final LoggerConfig logger : new TreeMap<>(config.getLoggers()).values()) {
+            if (logger != root) {
+                builder.append("logger ").append(logger.getName()).append(' ').append(logger.getLevel())
+                        .append(' ').append(logger.getAppenders().keySet()).append('\n');
+            }
+        }
+        for (final Appender appender : new TreeMap<>(config.getAppenders()).values()) {
+            describe(builder, appender);
+            builder.append('\n');
+        }
+        return builder.toString();
+    }
+
+    private static void describe(final StringBuilder builder, final Appender appender) {
+        builder.append(appender.getClass().getSimpleName()).append(' ').append(appender.getName());
+        if (appender.getLayout() instanceof PatternLayout) {
+            builder.append(" pattern=").append(((PatternLayout) appender.getLayout()).getConversionPattern());
+        }
+        if (appender instanceof LazyAppender) {
+            builder.append(" > ");
+            describe(builder, ((LazyAppender) appender).getAppender());
+        } else if (appender instanceof WatchdogAppender) {
+            builder.append(" maxSpill=").append(((WatchdogAppender) appender).getMaxSpillSize()).append(" > ");
+            describe(builder, ((WatchdogAppender) appender).getAppender());
+        } else if (appender instanceof AbstractOutputStreamAppender
+                && ((AbstractOutputStreamAppender<?>) appender).getManager() instanceof RollingFileManager) {
+            final RollingFileManager manager = (RollingFileManager) ((AbstractOutputStreamAppender<?>) appender)
+                    .getManager();
+            builder.append(" file=").append(manager.getFileName()).append(" pattern=")
+                    .append(manager.getPatternProcessor().getPattern()).append(" policy=")
+                    .append(manager.getTriggeringPolicy().toString().replaceAll("nextRolloverMillis=\\d+", ""));
+            if (manager.getRolloverStrategy() instanceof DefaultRolloverStrategy) {
+                final DefaultRolloverStrategy strategy = (DefaultRolloverStrategy) manager.getRolloverStrategy();
+                builder.append(" index=").append(strategy.getMinIndex()).append("..").append(strategy.getMaxIndex())
+                        .append(" actions=").append(strategy.getCustomActions());
+            }
+        }
+    }
+
+    /**
+     * @return The lines of each file of the directory, without their date.
+     */
+    private static Map<String, List<String>> read(final Path dir) throws IOException {
+        final Map<String, List<String>> files = new TreeMap<>();
+        try (Stream<Path> paths = Files.list(dir)) {
+            for (final Path path : paths.collect(Collectors.toList())) {
+                final String name = path.getFileName().toString();
+                final byte[] bytes;
+                try (InputStream in = name.endsWith(".gz") ? new GZIPInputStream(Files.newInputStream(path))
+                        : Files.newInputStream(path)) {
+                    bytes = in.readAllBytes();
+                }
+                final List<String> lines = new ArrayList<>();
+                for (final String line : new String(bytes, StandardCharsets.UTF_8).split("\n")) {
+                    lines.add(line.length() > DATE_LENGTH ? line.substring(DATE_LENGTH) : line);
+                }
+                files.put(name, lines);
+            }
+        }
+        return files;
+    }
+
+    private static void delete(final Path dir) throws IOException {
+        if (!Files.exists(dir)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(dir)) {
+            for (final Path path : paths.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                Files.delete(path);
+            }
+        }
+    }
+}
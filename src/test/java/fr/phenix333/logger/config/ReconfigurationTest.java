@@ -0,0 +1,158 @@
+package fr.phenix333.logger.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.junit.jupiter.api.Test;
+
+import fr.phenix333.logger.MyLogger;
+
+/**
+ * Reconfigures the context in a loop while threads log through
+ * {@link MyLogger}: each level file must hold every event of its level and
+ * above, once.
+ */
+class ReconfigurationTest {
+    private static final String[] LEVELS = { "FATAL", "ERROR", "WARN", "INFO", "DEBUG", "FUNCTION" };
+    private static final int THREADS = 4;
+    private static final int EVENTS = 3000;
+    private static final int MIN_RELOADS = 3;
+
+    @Test
+    void noEventIsLostOrDuplicatedByTheReconfigurations() throws IOException, InterruptedException {
+        final Path dir = Paths.get(System.getProperty(MyConfiguration.DIR_PROPERTY, "Logs"), "reload");
+        delete(dir);
+        Files.createDirectories(dir);
+        // the packaged configuration in its own directory, without the console
+        final String xml;
+        try (InputStream in = getClass().getClassLoader().getResourceAsStream("log4j2.xml")) {
+            xml = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        final Path file = dir.resolve("reload.xml");
+        Files.writeString(file, xml.replace("${sys:" + MyConfiguration.DIR_PROPERTY + ":-Logs}", dir.toString())
+                .replace("<AppenderRef ref=\"STDOUT\" level=\"function\" />", ""));
+
+        final LoggerContext context = (LoggerContext) LogManager.getContext(false);
+        final URI previous = context.getConfigLocation();
+        context.setConfigLocation(file.toUri());
+        final List<List<String>> expected = new ArrayList<>();
+        for (int i = 0; i < LEVELS.length; i++) {
+            expected.add(new ArrayList<>());
+        }
+        int reloads = 0;
+        try {
+            final MyLogger logger = MyLogger.create(ReconfigurationTest.class);
+            final CountDownLatch done = new CountDownLatch(THREADS);
+            for (int t = 0; t < THREADS; t++) {
+                final int thread = t;
+                new Thread(() -> {
+                    for (int i = 0; i < EVENTS; i++) {
+                        log(logger, i % LEVELS.length, "reload " + thread + " " + i);
+                        LockSupport.parkNanos(100_000);
+                    }
+                    done.countDown();
+                }, "reload-" + t).start();
+                for (int i = 0; i < EVENTS; i++) {
+                    for (int level = i % LEVELS.length; level < LEVELS.length; level++) {
+                        expected.get(level).add("reload " + thread + " " + i);
+                    }
+                }
+            }
+            while (done.getCount() > 0) {
+                context.reconfigure();
+                reloads++;
+                Thread.sleep(20);
+            }
+            done.await();
+        } finally {
+            // stops the configuration of the test, which closes its files
+            context.setConfigLocation(previous);
+        }
+
+        assertTrue(reloads >= MIN_RELOADS, "reloads: " + reloads);
+        for (int level = 0; level < LEVELS.length; level++) {
+            final List<String> messages = read(dir, LEVELS[level].toLowerCase(Locale.ROOT));
+            Collections.sort(messages);
+            Collections.sort(expected.get(level));
+            assertEquals(expected.get(level), messages, LEVELS[level]);
+        }
+    }
+
+    private static void log(final MyLogger logger, final int level, final String message) {
+        switch (level) {
+        case 0:
+            logger.fatal(message);
+            break;
+        case 1:
+            logger.error(message);
+            break;
+        case 2:
+            logger.warn(message);
+            break;
+        case 3:
+            logger.info(message);
+            break;
+        case 4:
+            logger.debug(message);
+            break;
+        default:
+            logger.function(message);
+        }
+    }
+
+    /**
+     * @return The messages of this test in a level file and its archives.
+     */
+    private static List<String> read(final Path dir, final String name) throws IOException {
+        final List<String> messages = new ArrayList<>();
+        try (DirectoryStream<Path> paths = Files.newDirectoryStream(dir, name + "{.log,.log.gz,-*.log.gz}")) {
+            for (final Path path : paths) {
+                final byte[] bytes;
+                try (InputStream in = path.toString().endsWith(".gz")
+                        ? new GZIPInputStream(Files.newInputStream(path)) : Files.newInputStream(path)) {
+                    bytes = in.readAllBytes();
+                }
+                for (final String line : new String(bytes, StandardCharsets.UTF_8).split("\n")) {
+                    // date time thread level logger method -> message
+                    final String[] fields = line.split(" ", 6);
+                    if (fields.length == 6 && ReconfigurationTest.class.getSimpleName().equals(fields[4])) {
+                        messages.add(fields[5].substring(fields[5].indexOf(" -> ") + 4));
+                    }
+                }
+            }
+        }
+        return messages;
+    }
+
+    private static void delete(final Path dir) throws IOException {
+        if (!Files.exists(dir)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(dir)) {
+            for (final Path path : paths.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                Files.delete(path);
+            }
+        }
+    }
+}